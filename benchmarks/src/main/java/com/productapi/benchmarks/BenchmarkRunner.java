@@ -0,0 +1,69 @@
+package com.productapi.benchmarks;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the benchmarks jar.
+ * <p>
+ * Accepts the usual JMH command line (e.g. a benchmark regex, {@code -p catalogSize=1000}) and
+ * fills in the project defaults: average time in microseconds, fixed fork/iteration counts and heap,
+ * the GC allocation profiler, and JSON results in {@code jmh-result-<label>.json}, where the label
+ * comes from {@code -Dbenchmark.label} (typically the commit hash) so runs can be diffed.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        String label = System.getProperty("benchmark.label", "local");
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON);
+
+        if (!commandLine.getResult().hasValue()) {
+            options.result("jmh-result-" + label + ".json");
+        }
+        if (commandLine.getBenchModes().isEmpty()) {
+            options.mode(Mode.AverageTime);
+        }
+        if (!commandLine.getTimeUnit().hasValue()) {
+            options.timeUnit(TimeUnit.MICROSECONDS);
+        }
+        if (!commandLine.getForkCount().hasValue()) {
+            options.forks(1);
+        }
+        if (!commandLine.getWarmupIterations().hasValue()) {
+            options.warmupIterations(3);
+        }
+        if (!commandLine.getWarmupTime().hasValue()) {
+            options.warmupTime(TimeValue.seconds(2));
+        }
+        if (!commandLine.getMeasurementIterations().hasValue()) {
+            options.measurementIterations(5);
+        }
+        if (!commandLine.getMeasurementTime().hasValue()) {
+            options.measurementTime(TimeValue.seconds(2));
+        }
+        if (!commandLine.getJvmArgs().hasValue()) {
+            // Fixed heap so GC behaviour (and gc.alloc.rate) is comparable between machines and runs
+            options.jvmArgs("-Xms2g", "-Xmx2g", "-XX:+UseG1GC");
+        }
+
+        new Runner(options.build()).run();
+    }
+}
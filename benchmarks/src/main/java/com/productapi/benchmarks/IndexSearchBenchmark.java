@@ -0,0 +1,65 @@
+package com.productapi.benchmarks;
+
+import com.productapi.dto.external.ExternalProductResponse;
+import com.productapi.search.ProductSearchIndex;
+import com.productapi.search.analysis.Analyzer;
+import com.productapi.search.index.InvertedIndex;
+import com.productapi.search.index.ProductDocument;
+import com.productapi.synthetic.SyntheticCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * {@link ProductSearchIndex#search} over synthetic catalogs, without the database: query
+ * parsing, matching, scoring and sorting of one page, by relevance or by price from the
+ * numeric doc values.
+ * <p>
+ * Compares plain word queries, which never read positions, with multi-word queries (proximity
+ * re-scoring of the best matches), exact phrases and sloppy phrases, and a field-scoped boolean
+ * query whose plan leads with its most selective part, and a query where a numeric range is
+ * enumerated from the range index and intersected with text postings.
+ */
+@State(Scope.Benchmark)
+public class IndexSearchBenchmark {
+
+    @Param({"10000", "100000"})
+    public int catalogSize;
+
+    @Param({"leather", "leather wallet", "\"leather wallet\"", "\"leather wallet\"~3",
+            "brand:apple category:smartphones -refurbished price:<500", "phone price:<300 rating:4+"})
+    public String query;
+
+    @Param({ProductSearchIndex.RELEVANCE, "price"})
+    public String sort;
+
+    private ProductSearchIndex searchIndex;
+    private Pageable firstPage;
+
+    @Setup(Level.Trial)
+    public void build() {
+        searchIndex = new ProductSearchIndex(Analyzer.english());
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, catalogSize);
+        InvertedIndex.Builder builder = searchIndex.newBuilder();
+        for (long id = 1; id <= catalogSize; id++) {
+            ExternalProductResponse.ExternalProduct product = catalog.product(id);
+            builder.add(new ProductDocument(id, product.getTitle(), product.getDescription(), product.getBrand(),
+                    product.getCategory(), product.getSku(), product.getAvailabilityStatus(),
+                    product.getPrice().doubleValue(), product.getRating().doubleValue(),
+                    product.getDiscountPercentage().doubleValue(), product.getStock()));
+        }
+        searchIndex.replace(builder.build());
+        firstPage = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, sort));
+    }
+
+    @Benchmark
+    public ProductSearchIndex.SearchHits searchFirstPage() {
+        return searchIndex.search(query, firstPage);
+    }
+}
@@ -0,0 +1,92 @@
+package com.productapi.benchmarks;
+
+import com.productapi.dto.external.ExternalProductResponse;
+import com.productapi.dto.response.ProductResponse;
+import com.productapi.entity.Product;
+import com.productapi.service.ProductMappingService;
+import com.productapi.synthetic.SyntheticCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ProductMappingService} conversions between external DTOs, entities and response DTOs.
+ */
+@State(Scope.Thread)
+public class MappingBenchmark {
+
+    private final ProductMappingService mappingService = new ProductMappingService();
+
+    private ExternalProductResponse.ExternalProduct external;
+    private ExternalProductResponse.ExternalProduct updatedExternal;
+    private Product entity;
+    private Product existing;
+    private Product mapped;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        external = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, 1).product(1);
+        updatedExternal = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED + 1, 1).product(1);
+
+        entity = mappingService.mapToEntity(external);
+        entity.setId(1L);
+        existing = mappingService.mapToEntity(external);
+        existing.setId(1L);
+        mapped = mappingService.mapToEntity(updatedExternal);
+    }
+
+    @Benchmark
+    public ProductResponse mapToResponse() {
+        return mappingService.mapToResponse(entity);
+    }
+
+    @Benchmark
+    public List<ProductResponse> mapToResponseList(ResultPage page) {
+        return mappingService.mapToResponseList(page.products);
+    }
+
+    @Benchmark
+    public Product mapToEntity() {
+        return mappingService.mapToEntity(external);
+    }
+
+    @Benchmark
+    public Product updateEntityFromExternal() {
+        return mappingService.updateEntity(existing, updatedExternal);
+    }
+
+    @Benchmark
+    public Product updateEntityFromMapped() {
+        return mappingService.updateEntity(existing, mapped);
+    }
+
+    /**
+     * A page of search results; 20 is the API default page size, 100 the maximum.
+     */
+    @State(Scope.Thread)
+    public static class ResultPage {
+
+        @Param({"20", "100"})
+        public int pageSize;
+
+        private List<Product> products;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            ProductMappingService mappingService = new ProductMappingService();
+            SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, pageSize);
+            products = new ArrayList<>(pageSize);
+            for (long id = 1; id <= pageSize; id++) {
+                Product product = mappingService.mapToEntity(catalog.product(id));
+                product.setId(id);
+                products.add(product);
+            }
+        }
+    }
+}
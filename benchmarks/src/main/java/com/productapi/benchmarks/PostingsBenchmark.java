@@ -0,0 +1,284 @@
+package com.productapi.benchmarks;
+
+import com.productapi.search.analysis.Analyzer;
+import com.productapi.search.index.IndexField;
+import com.productapi.search.index.InvertedIndex;
+import com.productapi.search.query.Query;
+import com.productapi.search.query.QueryParser;
+import com.productapi.synthetic.SyntheticCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compressed description postings of synthetic catalogs against the plain {@code int[]}
+ * postings they replaced: scoring every document of the most common description term, and
+ * intersecting a term found in about 1% of the catalog with it. The compressed variants run
+ * through query plans, skipping through the common term's blocks; the raw variants scan the
+ * arrays and gallop through the common term's documents.
+ * <p>
+ * The raw postings are built by analyzing the descriptions again, as the index builder used to
+ * keep them, and checked against the documents the index finds. The heap taken by both layouts
+ * is printed when the trial starts.
+ */
+@State(Scope.Benchmark)
+public class PostingsBenchmark {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    @Param({"10000", "100000"})
+    public int catalogSize;
+
+    private InvertedIndex index;
+    private Query common;
+    private Query intersection;
+
+    private int[] lengths;
+    private float averageLength;
+    private RawPostings commonPostings;
+    private RawPostings rarePostings;
+
+    @Setup(Level.Trial)
+    public void build() {
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, catalogSize);
+        Analyzer analyzer = Analyzer.english();
+        InvertedIndex.Builder builder = InvertedIndex.builder(analyzer);
+        Map<String, RawPostings.Builder> terms = new HashMap<>();
+        List<RawPostings.Builder> ordered = new ArrayList<>();
+        lengths = new int[catalogSize];
+        long totalLength = 0;
+        for (int doc = 0; doc < catalogSize; doc++) {
+            String description = catalog.product(doc + 1L).getDescription();
+            builder.add(doc + 1L, null, description);
+            int current = doc;
+            int[] lastPosition = {-1};
+            analyzer.analyze(description, token -> {
+                terms.computeIfAbsent(token.term(), term -> {
+                    RawPostings.Builder created = new RawPostings.Builder(term);
+                    ordered.add(created);
+                    return created;
+                }).add(current, token.position(), token.startOffset(), token.endOffset());
+
+                // Synonyms share their word's position and do not make the field longer, as in the index
+                if (token.position() != lastPosition[0]) {
+                    lastPosition[0] = token.position();
+                    lengths[current]++;
+                }
+            });
+            totalLength += lengths[doc];
+        }
+        index = builder.build();
+        averageLength = Math.max(1f, (float) totalLength / catalogSize);
+
+        // Only terms a query analyzes to themselves, so the query looks up exactly that term
+        int target = catalogSize / 100;
+        long rawBytes = 16 + 4L * ordered.size();
+        long postingCount = 0;
+        for (RawPostings.Builder termBuilder : ordered) {
+            RawPostings postings = termBuilder.build();
+            rawBytes += postings.ramBytesUsed();
+            postingCount += postings.count();
+            if (!analyzer.terms(postings.term).equals(List.of(postings.term))) {
+                continue;
+            }
+            if (commonPostings == null || postings.count() > commonPostings.count()) {
+                commonPostings = postings;
+            }
+            if (rarePostings == null
+                    || Math.abs(postings.count() - target) < Math.abs(rarePostings.count() - target)) {
+                rarePostings = postings;
+            }
+        }
+        common = QueryParser.parse("description:" + commonPostings.term);
+        intersection = QueryParser.parse("description:" + rarePostings.term + " description:" + commonPostings.term);
+        checkAgainstIndex(common, commonPostings);
+        checkAgainstIndex(QueryParser.parse("description:" + rarePostings.term), rarePostings);
+
+        InvertedIndex.PostingsStats stats = index.postingsStats(IndexField.DESCRIPTION);
+        System.out.printf("%n%d terms, %d postings, %d positions: int[] postings %,d bytes, compressed %,d bytes"
+                        + " (common term '%s' in %d docs, rare term '%s' in %d)%n", ordered.size(), postingCount,
+                stats.positions(), rawBytes, stats.bytes(), commonPostings.term, commonPostings.count(),
+                rarePostings.term, rarePostings.count());
+    }
+
+    private void checkAgainstIndex(Query query, RawPostings postings) {
+        InvertedIndex.Matches matches = index.plan(query).execute();
+        int[] docs = Arrays.copyOf(matches.docs(), matches.size());
+        Arrays.sort(docs);
+        if (!Arrays.equals(docs, postings.docs)) {
+            throw new IllegalStateException("Raw postings of '" + postings.term + "' differ from the index");
+        }
+    }
+
+    @Benchmark
+    public InvertedIndex.Matches scoreCommonTerm() {
+        return index.plan(common).execute();
+    }
+
+    @Benchmark
+    public InvertedIndex.Matches scoreCommonTermRaw() {
+        int[] docs = commonPostings.docs;
+        int[] freqs = commonPostings.freqs;
+        float weight = idf(docs.length);
+        float[] scores = new float[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            scores[i] = score(weight, freqs[i], docs[i]);
+        }
+        return new InvertedIndex.Matches(docs.clone(), scores, docs.length);
+    }
+
+    @Benchmark
+    public InvertedIndex.Matches intersectRareWithCommonTerm() {
+        return index.plan(intersection).execute();
+    }
+
+    @Benchmark
+    public InvertedIndex.Matches intersectRareWithCommonTermRaw() {
+        int[] rareDocs = rarePostings.docs;
+        int[] commonDocs = commonPostings.docs;
+        float rareWeight = idf(rareDocs.length);
+        float commonWeight = idf(commonDocs.length);
+        int[] docs = new int[rareDocs.length];
+        float[] scores = new float[rareDocs.length];
+        int size = 0;
+        int from = 0;
+        for (int i = 0; i < rareDocs.length && from < commonDocs.length; i++) {
+            int doc = rareDocs[i];
+            from = gallop(commonDocs, from, doc);
+            if (from < commonDocs.length && commonDocs[from] == doc) {
+                docs[size] = doc;
+                scores[size++] = score(rareWeight, rarePostings.freqs[i], doc)
+                        + score(commonWeight, commonPostings.freqs[from], doc);
+            }
+        }
+        return new InvertedIndex.Matches(docs, scores, size);
+    }
+
+    /**
+     * Index of the first element at or after {@code from} that is not below {@code target}:
+     * doubling steps to bracket it, then a binary search within the bracket.
+     */
+    private static int gallop(int[] docs, int from, int target) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < docs.length && docs[high] < target) {
+            low = high + 1;
+            high = from + step;
+            step <<= 1;
+        }
+        high = Math.min(high, docs.length);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (docs[middle] < target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private float idf(int docFreq) {
+        return (float) Math.log(1 + (catalogSize - docFreq + 0.5) / (docFreq + 0.5));
+    }
+
+    private float score(float weight, int freq, int doc) {
+        float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+        return weight * freq * (K1 + 1) / (freq + norm);
+    }
+
+    /**
+     * The postings of one term as the index kept them before compression: documents,
+     * frequencies, where each document's positions start, positions and offsets.
+     */
+    private static final class RawPostings {
+
+        final String term;
+        final int[] docs;
+        final int[] freqs;
+        final int[] positionStarts;
+        final int[] positions;
+        final int[] offsets;
+
+        RawPostings(String term, int[] docs, int[] freqs, int[] positionStarts, int[] positions, int[] offsets) {
+            this.term = term;
+            this.docs = docs;
+            this.freqs = freqs;
+            this.positionStarts = positionStarts;
+            this.positions = positions;
+            this.offsets = offsets;
+        }
+
+        int count() {
+            return docs.length;
+        }
+
+        /**
+         * The five arrays with their headers, and the references to them from per-field arrays.
+         */
+        long ramBytesUsed() {
+            long bytes = 0;
+            for (int[] array : new int[][]{docs, freqs, positionStarts, positions, offsets}) {
+                bytes += 16 + 4L * array.length + 4;
+            }
+            return bytes;
+        }
+
+        static final class Builder {
+
+            private final String term;
+            private int[] docs = new int[4];
+            private int[] freqs = new int[4];
+            private int[] positionStarts = new int[5];
+            private int[] positions = new int[4];
+            private int[] offsets = new int[8];
+            private int count;
+            private int positionCount;
+
+            Builder(String term) {
+                this.term = term;
+            }
+
+            void add(int doc, int position, int startOffset, int endOffset) {
+                if (count > 0 && docs[count - 1] == doc) {
+                    freqs[count - 1]++;
+                } else {
+                    if (count == docs.length) {
+                        docs = Arrays.copyOf(docs, count * 2);
+                        freqs = Arrays.copyOf(freqs, count * 2);
+                        positionStarts = Arrays.copyOf(positionStarts, count * 2 + 1);
+                    }
+                    positionStarts[count] = positionCount;
+                    docs[count] = doc;
+                    freqs[count++] = 1;
+                }
+                if (positionCount == positions.length) {
+                    positions = Arrays.copyOf(positions, positionCount * 2);
+                    offsets = Arrays.copyOf(offsets, positionCount * 4);
+                }
+                positions[positionCount] = position;
+                offsets[2 * positionCount] = startOffset;
+                offsets[2 * positionCount + 1] = endOffset;
+                positionCount++;
+            }
+
+            RawPostings build() {
+                positionStarts[count] = positionCount;
+                return new RawPostings(term, Arrays.copyOf(docs, count), Arrays.copyOf(freqs, count),
+                        Arrays.copyOf(positionStarts, count + 1), Arrays.copyOf(positions, positionCount),
+                        Arrays.copyOf(offsets, 2 * positionCount));
+            }
+        }
+    }
+}
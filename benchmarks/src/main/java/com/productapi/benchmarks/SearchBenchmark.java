@@ -0,0 +1,101 @@
+package com.productapi.benchmarks;
+
+import com.productapi.dto.external.ExternalProductResponse;
+import com.productapi.entity.Product;
+import com.productapi.repository.ProductRepository;
+import com.productapi.repository.ProductSearchRepository;
+import com.productapi.service.ProductMappingService;
+import com.productapi.synthetic.SyntheticCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ProductSearchRepository#searchProducts} and {@link ProductSearchRepository#searchProductsAnalyzed}
+ * against H2 seeded with synthetic catalogs.
+ * <p>
+ * Each query runs inside a read-only transaction, as it does behind {@code ProductService}, and
+ * includes the count query used for pagination, or for analyzed searches the index lookup and
+ * the load of the page's products.
+ */
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    private static final int SEED_CHUNK = 1_000;
+
+    @Param({"1000", "10000", "100000"})
+    public int catalogSize;
+
+    /** A product noun, a descriptive trait, and a term that matches nothing (full scan, empty page). */
+    @Param({"mascara", "leather", "nomatch"})
+    public String query;
+
+    @Param({"substring", "analyzed"})
+    public String mode;
+
+    private AnnotationConfigApplicationContext context;
+    private ProductSearchRepository searchRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private final Pageable firstPage = PageRequest.of(0, 20);
+    private final Pageable relevanceFirstPage = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "relevance"));
+
+    @Setup(Level.Trial)
+    public void seed() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+                Map.of("benchmark.database", "search-" + catalogSize)));
+        context.register(SearchBenchmarkConfig.class);
+        context.refresh();
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        ProductMappingService mappingService = context.getBean(ProductMappingService.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, catalogSize);
+        TransactionTemplate writeTransaction = new TransactionTemplate(transactionManager);
+        for (int start = 1; start <= catalogSize; start += SEED_CHUNK) {
+            int end = Math.min(catalogSize, start + SEED_CHUNK - 1);
+            List<Product> chunk = new ArrayList<>(end - start + 1);
+            for (long id = start; id <= end; id++) {
+                ExternalProductResponse.ExternalProduct external = catalog.product(id);
+                chunk.add(mappingService.mapToEntity(external));
+            }
+            writeTransaction.executeWithoutResult(status -> productRepository.saveAll(chunk));
+        }
+
+        searchRepository = context.getBean(ProductSearchRepository.class);
+        if (mode.equals("analyzed")) {
+            searchRepository.rebuildIndex();
+        }
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Product> searchFirstPage() {
+        return readOnlyTransaction.execute(status -> mode.equals("analyzed")
+                ? searchRepository.searchProductsAnalyzed(query, relevanceFirstPage)
+                : searchRepository.searchProducts(query, firstPage));
+    }
+}
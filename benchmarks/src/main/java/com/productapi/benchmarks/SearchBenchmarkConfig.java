@@ -0,0 +1,74 @@
+package com.productapi.benchmarks;
+
+import com.productapi.metrics.ProductMetrics;
+import com.productapi.repository.ProductRepository;
+import com.productapi.repository.ProductSearchRepository;
+import com.productapi.search.ProductSearchIndex;
+import com.productapi.search.analysis.Analyzer;
+import com.productapi.service.ProductMappingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Minimal JPA context for the search benchmarks: H2 in memory, the application's entities and
+ * repositories, and nothing else. Avoids Spring Boot auto-configuration so that startup and the
+ * measured code paths do not depend on the web stack.
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+public class SearchBenchmarkConfig {
+
+    @Bean
+    public DataSource dataSource(Environment environment) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:" + environment.getProperty("benchmark.database", "benchmark")
+                + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        return dataSource;
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.productapi.entity");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+                "hibernate.show_sql", "false"));
+        return factory;
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    public ProductSearchRepository productSearchRepository() {
+        return new ProductSearchRepository(new ProductMetrics(new SimpleMeterRegistry()),
+                new ProductSearchIndex(Analyzer.english()));
+    }
+
+    @Bean
+    public ProductMappingService productMappingService() {
+        return new ProductMappingService();
+    }
+}
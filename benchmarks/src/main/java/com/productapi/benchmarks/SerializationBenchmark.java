@@ -0,0 +1,101 @@
+package com.productapi.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.productapi.dto.response.ApiResponse;
+import com.productapi.dto.response.PagedResponse;
+import com.productapi.dto.response.ProductResponse;
+import com.productapi.entity.Product;
+import com.productapi.service.ProductMappingService;
+import com.productapi.synthetic.SyntheticCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson encoding and decoding of the search response envelope,
+ * {@code ApiResponse<PagedResponse<ProductResponse>>}, in each format the REST controllers
+ * negotiate: JSON, CBOR and Smile. Payload sizes, raw and gzipped, are printed once per trial.
+ */
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private ApiResponse<PagedResponse<ProductResponse>> response;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Same defaults Spring Boot applies to the MVC message converters (java.time module, ISO dates)
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory(format)).build();
+        TypeReference<ApiResponse<PagedResponse<ProductResponse>>> type = new TypeReference<>() {};
+        writer = objectMapper.writerFor(type);
+        reader = objectMapper.readerFor(type);
+
+        ProductMappingService mappingService = new ProductMappingService();
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, pageSize);
+        List<Product> products = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            Product product = mappingService.mapToEntity(catalog.product(id));
+            product.setId(id);
+            products.add(product);
+        }
+        PagedResponse<ProductResponse> page = new PagedResponse<>(
+                mappingService.mapToResponseList(products), 0, pageSize, 10_000, 10_000 / pageSize);
+        response = ApiResponse.success("Search completed", page);
+        response.setPath("/api/v1/products/search");
+
+        encoded = writer.writeValueAsBytes(response);
+        System.out.printf("%n%s, %d products: %d bytes, %d bytes gzipped%n",
+                format, pageSize, encoded.length, gzippedSize(encoded));
+    }
+
+    @Benchmark
+    public byte[] writeSearchResponse() throws IOException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public ApiResponse<PagedResponse<ProductResponse>> readSearchResponse() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    private static int gzippedSize(byte[] payload) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(payload);
+        }
+        return buffer.size();
+    }
+}
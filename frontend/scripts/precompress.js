@@ -0,0 +1,61 @@
+/*
+ * Writes .gz and .br siblings next to every compressible file in build/, so the backend can
+ * serve them as-is instead of compressing on each request. Runs automatically after `npm run build`.
+ */
+const fs = require('fs');
+const path = require('path');
+const zlib = require('zlib');
+
+const BUILD_DIR = path.join(__dirname, '..', 'build');
+const COMPRESSIBLE = /\.(js|css|html|json|svg|txt|map|ico)$/;
+// Below this the encoded variant saves too little to be worth a second lookup
+const MIN_SIZE = 1024;
+
+function* walk(dir) {
+  for (const entry of fs.readdirSync(dir, { withFileTypes: true })) {
+    const file = path.join(dir, entry.name);
+    if (entry.isDirectory()) {
+      yield* walk(file);
+    } else {
+      yield file;
+    }
+  }
+}
+
+let files = 0;
+let originalBytes = 0;
+let gzipBytes = 0;
+let brotliBytes = 0;
+
+for (const file of walk(BUILD_DIR)) {
+  if (!COMPRESSIBLE.test(file)) {
+    continue;
+  }
+  const content = fs.readFileSync(file);
+  if (content.length < MIN_SIZE) {
+    continue;
+  }
+
+  const gzip = zlib.gzipSync(content, { level: zlib.constants.Z_BEST_COMPRESSION });
+  const brotli = zlib.brotliCompressSync(content, {
+    params: {
+      [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+      [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+    },
+  });
+  // Keep a variant only if it is actually smaller
+  if (gzip.length < content.length) {
+    fs.writeFileSync(`${file}.gz`, gzip);
+  }
+  if (brotli.length < content.length) {
+    fs.writeFileSync(`${file}.br`, brotli);
+  }
+
+  files++;
+  originalBytes += content.length;
+  gzipBytes += Math.min(gzip.length, content.length);
+  brotliBytes += Math.min(brotli.length, content.length);
+}
+
+const kb = (bytes) => `${(bytes / 1024).toFixed(1)} KB`;
+console.log(`Pre-compressed ${files} files: ${kb(originalBytes)} -> ${kb(gzipBytes)} gzip, ${kb(brotliBytes)} brotli`);
@@ -56,6 +56,7 @@ export const API_ENDPOINTS = {
   PRODUCTS: '/products',
   PRODUCT_BY_ID: (id: number) => `/products/${id}`,
   PRODUCT_BY_SKU: (sku: string) => `/products/sku/${sku}`,
+  PRODUCTS_BATCH: '/products/batch',
   PRODUCT_SEARCH: '/products/search',
   PRODUCT_SEARCH_FUZZY: '/products/search/fuzzy',
   PRODUCT_SEARCH_BY_CATEGORY: '/products/search/category',
@@ -65,6 +66,7 @@ export const API_ENDPOINTS = {
   // Data management endpoints
   DATA_LOAD: '/data/load',
   DATA_STATUS: '/data/status',
+  DATA_LOAD_EVENTS: '/data/load/events',
   DATA_CLEAR: '/data/clear',
   
   // Health and monitoring
@@ -0,0 +1,128 @@
+package com.productapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Summarizes a measurement phase and checks it against the configured budgets.
+ * <p>
+ * Writes {@code report.txt} (human readable), {@code report.json} (for tracking across runs) and
+ * one {@code <endpoint>.hgrm} percentile distribution per endpoint, which can be plotted with the
+ * HdrHistogram plotter.
+ */
+public class LatencyReport {
+
+    private static final Map<String, Double> PERCENTILES = Map.of("p50", 50.0, "p99", 99.0, "p99.9", 99.9);
+    private static final List<String> PERCENTILE_ORDER = List.of("p50", "p99", "p99.9");
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final Map<LoadTestConfig.Endpoint, OpenModelDriver.PhaseResult> results;
+    private final LoadTestConfig config;
+    private final List<String> violations = new ArrayList<>();
+
+    public LatencyReport(Map<LoadTestConfig.Endpoint, OpenModelDriver.PhaseResult> results, LoadTestConfig config) {
+        this.results = results;
+        this.config = config;
+        checkBudgets();
+    }
+
+    /**
+     * Budget violations, empty when every endpoint is within budget.
+     */
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    public String summary() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "Offered %.0f req/s for %ds, catalog of %d products%n%n",
+                config.getArrivalRate(), config.getDuration().toSeconds(), config.getCatalogSize()));
+        text.append(String.format(Locale.ROOT, "%-12s %9s %8s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        results.forEach((endpoint, result) -> {
+            Histogram latency = result.latency();
+            text.append(String.format(Locale.ROOT, "%-12s %9d %8d %8.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.key(), result.requests(), result.failed() + result.dropped(),
+                    result.requests() / (double) result.duration().toSeconds(),
+                    millis(latency, 50.0), millis(latency, 99.0), millis(latency, 99.9),
+                    latency.getMaxValue() / MICROS_PER_MILLI));
+        });
+        text.append(System.lineSeparator());
+        if (violations.isEmpty()) {
+            text.append("All latency budgets met").append(System.lineSeparator());
+        } else {
+            text.append("Budget violations:").append(System.lineSeparator());
+            violations.forEach(violation -> text.append("  ").append(violation).append(System.lineSeparator()));
+        }
+        return text.toString();
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("report.txt"), summary(), StandardCharsets.UTF_8);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("arrivalRate", config.getArrivalRate());
+        json.put("durationSeconds", config.getDuration().toSeconds());
+        json.put("catalogSize", config.getCatalogSize());
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        results.forEach((endpoint, result) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("requests", result.requests());
+            entry.put("failed", result.failed());
+            entry.put("dropped", result.dropped());
+            for (String percentile : PERCENTILE_ORDER) {
+                entry.put(percentile + "Ms", millis(result.latency(), PERCENTILES.get(percentile)));
+            }
+            entry.put("maxMs", result.latency().getMaxValue() / MICROS_PER_MILLI);
+            endpoints.put(endpoint.key(), entry);
+
+            try (PrintStream hgrm = new PrintStream(directory.resolve(endpoint.key() + ".hgrm").toFile(),
+                    StandardCharsets.UTF_8)) {
+                result.latency().outputPercentileDistribution(hgrm, MICROS_PER_MILLI);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write histogram for " + endpoint.key(), e);
+            }
+        });
+        json.put("endpoints", endpoints);
+        json.put("violations", violations);
+
+        ObjectMapper mapper = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+        mapper.writeValue(directory.resolve("report.json").toFile(), json);
+    }
+
+    private void checkBudgets() {
+        results.forEach((endpoint, result) -> {
+            for (String percentile : PERCENTILE_ORDER) {
+                Optional<Double> budget = config.getBudgetMs(endpoint.key(), percentile);
+                double actual = millis(result.latency(), PERCENTILES.get(percentile));
+                if (budget.isPresent() && actual > budget.get()) {
+                    violations.add(String.format(Locale.ROOT, "%s %s %.2f ms exceeds budget of %.2f ms",
+                            endpoint.key(), percentile, actual, budget.get()));
+                }
+            }
+            if (result.errorRate() > config.getMaxErrorRate()) {
+                violations.add(String.format(Locale.ROOT, "%s error rate %.4f exceeds %.4f (%d failed, %d dropped)",
+                        endpoint.key(), result.errorRate(), config.getMaxErrorRate(), result.failed(), result.dropped()));
+            }
+        });
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,136 @@
+package com.productapi.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Load test settings: {@code loadtest.properties} on the classpath, overridden by
+ * {@code -Dloadtest.*} system properties.
+ * <p>
+ * Workload weights are {@code loadtest.mix.<endpoint>}; latency budgets are
+ * {@code loadtest.budget.<endpoint>.<percentile>} in milliseconds, with percentiles
+ * {@code p50}, {@code p99} and {@code p99.9}.
+ */
+public class LoadTestConfig {
+
+    private static final String PREFIX = "loadtest.";
+
+    private final Properties properties;
+
+    private LoadTestConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static LoadTestConfig load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream defaults = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            if (defaults != null) {
+                properties.load(defaults);
+            }
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(PREFIX))
+                .forEach(name -> properties.setProperty(name, System.getProperty(name)));
+        return new LoadTestConfig(properties);
+    }
+
+    /** Target arrival rate in requests per second, independent of how fast responses come back. */
+    public double getArrivalRate() {
+        return Double.parseDouble(get("rate", "50"));
+    }
+
+    public Duration getWarmup() {
+        return Duration.ofSeconds(Long.parseLong(get("warmup-seconds", "10")));
+    }
+
+    public Duration getDuration() {
+        return Duration.ofSeconds(Long.parseLong(get("duration-seconds", "60")));
+    }
+
+    public int getCatalogSize() {
+        return Integer.parseInt(get("catalog-size", "10000"));
+    }
+
+    public long getSeed() {
+        return Long.parseLong(get("seed", "42"));
+    }
+
+    /** Requests allowed in flight before new arrivals are counted as dropped instead of sent. */
+    public int getMaxInFlight() {
+        return Integer.parseInt(get("max-in-flight", "2000"));
+    }
+
+    public int getClientThreads() {
+        return Integer.parseInt(get("client-threads", "16"));
+    }
+
+    /** Maximum tolerated share of failed or dropped requests per endpoint. */
+    public double getMaxErrorRate() {
+        return Double.parseDouble(get("max-error-rate", "0.001"));
+    }
+
+    public Path getReportDir() {
+        return Path.of(get("report-dir", "target/loadtest"));
+    }
+
+    /** Relative weight per endpoint, in declaration order of the properties file. */
+    public Map<String, Integer> getMix() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            int weight = Integer.parseInt(get("mix." + endpoint.key(), "0"));
+            if (weight > 0) {
+                mix.put(endpoint.key(), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalStateException("No endpoint has a positive loadtest.mix weight");
+        }
+        return mix;
+    }
+
+    /** Latency budget in milliseconds, if one is configured. */
+    public Optional<Double> getBudgetMs(String endpoint, String percentile) {
+        return Optional.ofNullable(properties.getProperty(PREFIX + "budget." + endpoint + "." + percentile))
+                .map(Double::parseDouble);
+    }
+
+    private String get(String key, String defaultValue) {
+        return properties.getProperty(PREFIX + key, defaultValue);
+    }
+
+    /**
+     * Endpoints the workload can exercise.
+     */
+    public enum Endpoint {
+        SEARCH("search"),
+        SUGGESTIONS("suggestions"),
+        DETAIL("detail"),
+        CATEGORY("category"),
+        BRAND("brand");
+
+        private final String key;
+
+        Endpoint(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public static Endpoint fromKey(String key) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint: " + key);
+        }
+    }
+}
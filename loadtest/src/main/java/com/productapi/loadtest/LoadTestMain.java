@@ -0,0 +1,80 @@
+package com.productapi.loadtest;
+
+import com.productapi.ProductOrchestrationApiApplication;
+import com.productapi.service.DataLoadService;
+import com.productapi.synthetic.SyntheticCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Boots the application against the synthetic catalog, loads it, and drives a mixed HTTP
+ * workload through warmup and measurement phases.
+ * <p>
+ * Exits with status 1 when any latency budget or the error-rate limit is exceeded, so
+ * {@code mvn verify} in this module fails on a regression. Settings come from
+ * {@code loadtest.properties} and {@code -Dloadtest.*} overrides, see {@link LoadTestConfig}.
+ */
+public class LoadTestMain {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestMain.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load();
+
+        // Passed as command-line arguments so they take precedence over application-synthetic.yml
+        String[] applicationArgs = {
+                "--server.port=0",
+                "--server.address=localhost",
+                "--synthetic-upstream.port=" + freePort(),
+                "--synthetic-upstream.size=" + config.getCatalogSize(),
+                "--synthetic-upstream.seed=" + config.getSeed(),
+                "--spring.h2.console.enabled=false",
+                "--logging.level.com.productapi=WARN",
+                "--logging.level.com.productapi.loadtest=INFO"
+        };
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductOrchestrationApiApplication.class)
+                .profiles("synthetic")
+                .run(applicationArgs);
+
+        LatencyReport report;
+        try {
+            DataLoadService.DataLoadResult load = context.getBean(DataLoadService.class).loadAllProducts().join();
+            if (!load.isSuccess()) {
+                throw new IllegalStateException("Catalog load failed: " + load.getMessage());
+            }
+            logger.info("Loaded {} products", load.getTotalProducts());
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+            Workload workload = new Workload(baseUrl,
+                    new SyntheticCatalog(config.getSeed(), config.getCatalogSize()), config.getMix());
+            SplittableRandom random = new SplittableRandom(config.getSeed());
+
+            try (OpenModelDriver driver = new OpenModelDriver(workload, config)) {
+                driver.run("warmup", config.getWarmup(), random);
+                Map<LoadTestConfig.Endpoint, OpenModelDriver.PhaseResult> results =
+                        driver.run("measurement", config.getDuration(), random);
+                report = new LatencyReport(results, config);
+            }
+        } finally {
+            context.close();
+        }
+
+        report.write(config.getReportDir());
+        System.out.println(report.summary());
+        System.out.println("Report written to " + config.getReportDir().toAbsolutePath());
+        System.exit(report.getViolations().isEmpty() ? 0 : 1);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.productapi.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests arrive on a Poisson schedule at a fixed rate, whether or
+ * not earlier requests have completed.
+ * <p>
+ * Latency is measured from each request's <em>scheduled</em> arrival time, not from when it was
+ * actually sent, so a stalled server or client shows up as queueing delay in the histograms
+ * instead of silently lowering the offered load (coordinated omission). Arrivals that find
+ * {@code max-in-flight} requests outstanding are dropped and counted as errors.
+ */
+public class OpenModelDriver implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenModelDriver.class);
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Workload workload;
+    private final double arrivalRate;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final ExecutorService clientExecutor;
+    private final HttpClient client;
+    private final Map<LoadTestConfig.Endpoint, EndpointStats> stats = new EnumMap<>(LoadTestConfig.Endpoint.class);
+
+    public OpenModelDriver(Workload workload, LoadTestConfig config) {
+        this.workload = workload;
+        this.arrivalRate = config.getArrivalRate();
+        this.maxInFlight = config.getMaxInFlight();
+        this.inFlight = new Semaphore(maxInFlight);
+        AtomicInteger sequence = new AtomicInteger();
+        this.clientExecutor = Executors.newFixedThreadPool(config.getClientThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-client-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        for (LoadTestConfig.Endpoint endpoint : LoadTestConfig.Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    /**
+     * Offer load for the given duration and wait for outstanding requests to finish.
+     *
+     * @return per-endpoint results of this phase only
+     */
+    public Map<LoadTestConfig.Endpoint, PhaseResult> run(String phase, Duration duration, SplittableRandom random)
+            throws InterruptedException {
+        stats.values().forEach(EndpointStats::reset);
+        logger.info("{}: offering {} req/s for {}s", phase, arrivalRate, duration.toSeconds());
+
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / arrivalRate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double scheduled = start;
+        long sent = 0;
+
+        while (true) {
+            // Exponential inter-arrival times give a Poisson arrival process
+            scheduled += -Math.log(1.0 - random.nextDouble()) * meanIntervalNanos;
+            long intendedStart = (long) scheduled;
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            dispatch(workload.next(random), intendedStart);
+            sent++;
+        }
+
+        if (!inFlight.tryAcquire(maxInFlight, REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+            logger.warn("{}: requests still outstanding after drain timeout", phase);
+        } else {
+            inFlight.release(maxInFlight);
+        }
+
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        logger.info("{}: sent {} requests in {}s", phase, sent, String.format("%.1f", elapsedSeconds));
+
+        Map<LoadTestConfig.Endpoint, PhaseResult> results = new EnumMap<>(LoadTestConfig.Endpoint.class);
+        stats.forEach((endpoint, endpointStats) -> {
+            PhaseResult result = endpointStats.snapshot(duration);
+            if (result.requests() > 0) {
+                results.put(endpoint, result);
+            }
+        });
+        return results;
+    }
+
+    private void dispatch(Workload.Request request, long intendedStart) {
+        EndpointStats endpointStats = stats.get(request.endpoint());
+        if (!inFlight.tryAcquire()) {
+            endpointStats.dropped.increment();
+            return;
+        }
+        HttpRequest httpRequest = HttpRequest.newBuilder(request.uri())
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        client.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    try {
+                        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                        endpointStats.latency.recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+                        if (error != null || response.statusCode() >= 400) {
+                            endpointStats.failed.increment();
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+
+    @Override
+    public void close() {
+        clientExecutor.shutdownNow();
+    }
+
+    /**
+     * Latency (microseconds from scheduled arrival) and error counts for one endpoint and phase.
+     */
+    public record PhaseResult(Histogram latency, long failed, long dropped, Duration duration) {
+
+        public long requests() {
+            return latency.getTotalCount() + dropped;
+        }
+
+        public double errorRate() {
+            long requests = requests();
+            return requests == 0 ? 0.0 : (double) (failed + dropped) / requests;
+        }
+    }
+
+    private static final class EndpointStats {
+        private final Recorder latency = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        void reset() {
+            latency.reset();
+            failed.reset();
+            dropped.reset();
+        }
+
+        PhaseResult snapshot(Duration duration) {
+            return new PhaseResult(latency.getIntervalHistogram(), failed.sum(), dropped.sum(), duration);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.productapi.loadtest;
+
+import com.productapi.dto.external.ExternalProductResponse;
+import com.productapi.synthetic.SyntheticCatalog;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+/**
+ * Mixed request workload over the product API.
+ * <p>
+ * Query terms, categories and brands are sampled from the same synthetic catalog the application
+ * loaded, so searches hit real data. Request selection is seeded, so two runs with the same
+ * configuration issue the same sequence of requests.
+ */
+public class Workload {
+
+    private static final int VOCABULARY_SAMPLE = 2_000;
+
+    private final String baseUrl;
+    private final int catalogSize;
+    private final LoadTestConfig.Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+    private final List<String> terms;
+    private final List<String> categories;
+    private final List<String> brands;
+
+    public Workload(String baseUrl, SyntheticCatalog catalog, Map<String, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.catalogSize = catalog.getSize();
+
+        this.endpoints = new LoadTestConfig.Endpoint[mix.size()];
+        this.cumulativeWeights = new int[mix.size()];
+        int running = 0;
+        int index = 0;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            running += entry.getValue();
+            endpoints[index] = LoadTestConfig.Endpoint.fromKey(entry.getKey());
+            cumulativeWeights[index] = running;
+            index++;
+        }
+        this.totalWeight = running;
+
+        TreeSet<String> termSet = new TreeSet<>();
+        TreeSet<String> categorySet = new TreeSet<>();
+        TreeSet<String> brandSet = new TreeSet<>();
+        for (long id = 1; id <= Math.min(VOCABULARY_SAMPLE, catalogSize); id++) {
+            ExternalProductResponse.ExternalProduct product = catalog.product(id);
+            for (String word : product.getTitle().split("\\s+")) {
+                if (word.length() >= 4) {
+                    termSet.add(word.toLowerCase(Locale.ROOT));
+                }
+            }
+            categorySet.add(product.getCategory());
+            brandSet.add(product.getBrand());
+        }
+        this.terms = new ArrayList<>(termSet);
+        this.categories = new ArrayList<>(categorySet);
+        this.brands = new ArrayList<>(brandSet);
+    }
+
+    /**
+     * Pick the next request.
+     */
+    public Request next(SplittableRandom random) {
+        LoadTestConfig.Endpoint endpoint = pickEndpoint(random.nextInt(totalWeight));
+        String path = switch (endpoint) {
+            case SEARCH -> "/api/v1/products/search?q=" + encode(pick(random, terms))
+                    + "&page=" + random.nextInt(3);
+            case SUGGESTIONS -> {
+                String term = pick(random, terms);
+                yield "/api/v1/products/suggestions?q=" + encode(term.substring(0, Math.min(term.length(), 2 + random.nextInt(3))));
+            }
+            case DETAIL -> "/api/v1/products/" + (1 + random.nextInt(catalogSize));
+            case CATEGORY -> "/api/v1/products/category/" + encode(pick(random, categories))
+                    + "?page=" + random.nextInt(5);
+            case BRAND -> "/api/v1/products/brand/" + encode(pick(random, brands))
+                    + "?page=" + random.nextInt(5);
+        };
+        return new Request(endpoint, URI.create(baseUrl + path));
+    }
+
+    private LoadTestConfig.Endpoint pickEndpoint(int roll) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    private static String pick(SplittableRandom random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    /**
+     * A single request of the workload.
+     */
+    public record Request(LoadTestConfig.Endpoint endpoint, URI uri) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.productapi.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Makes {@code server.compression.min-response-size} effective for JSON responses.
+ * <p>
+ * The container only applies the size threshold when it knows the body length at the time the
+ * headers are committed. Spring's message converters flush the output stream after writing,
+ * which commits a chunked response of unknown length, so every JSON body was compressed however
+ * small. This filter holds back explicit flushes: a body that fits in the response buffer is then
+ * committed on completion with a {@code Content-Length} and compressed only above the threshold,
+ * while a larger body overflows the buffer and is compressed as it streams. Flushes of streaming
+ * content types such as server-sent events pass straight through.
+ */
+@Component
+@ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+public class CompressionThresholdFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(request, new DeferredFlushResponse(response));
+    }
+
+    private static boolean isStreaming(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/event-stream")
+                || type.startsWith("application/x-ndjson")
+                || type.startsWith("application/stream+json");
+    }
+
+    private static class DeferredFlushResponse extends HttpServletResponseWrapper {
+
+        private ServletOutputStream outputStream;
+
+        DeferredFlushResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new DeferredFlushOutputStream(super.getOutputStream(), this);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (isStreaming(getContentType())) {
+                super.flushBuffer();
+            }
+        }
+    }
+
+    private static class DeferredFlushOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final HttpServletResponse response;
+
+        DeferredFlushOutputStream(ServletOutputStream delegate, HttpServletResponse response) {
+            this.delegate = delegate;
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (isStreaming(response.getContentType())) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.productapi.config;
+
+import com.productapi.search.analysis.Analyzer;
+import com.productapi.search.analysis.StopFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Text analysis settings for analyzed search.
+ * <p>
+ * The one {@link Analyzer} defined here is used both to index products and to analyze queries.
+ * Changing stopwords, stemming or synonyms only takes effect for products after the search
+ * index has been rebuilt.
+ */
+@Configuration
+public class SearchConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchConfig.class);
+
+    @Bean
+    public Analyzer productAnalyzer(
+            @Value("${search.analysis.stopwords:}") String stopWords,
+            @Value("${search.analysis.stemming:true}") boolean stemming,
+            @Value("${search.analysis.synonyms:}") String synonyms) {
+        List<String> stopWordList = stopWords.isBlank() ? StopFilter.ENGLISH_STOP_WORDS : split(stopWords, ",");
+        List<List<String>> synonymGroups = split(synonyms, ";").stream()
+                .map(group -> split(group, ","))
+                .toList();
+        Analyzer analyzer = new Analyzer(stopWordList, stemming, synonymGroups);
+        logger.info("Search analyzer: {} stopwords, stemming {}, {} terms with synonyms",
+                analyzer.getStopWordCount(), stemming ? "on" : "off", analyzer.getSynonyms().size());
+        return analyzer;
+    }
+
+    private static List<String> split(String value, String separator) {
+        return Arrays.stream(value.split(separator))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,27 @@
+package com.productapi.config;
+
+import com.productapi.synthetic.SyntheticCatalog;
+import com.productapi.synthetic.SyntheticUpstreamServer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Starts the synthetic upstream products API inside the application.
+ * The {@code synthetic} profile points {@code external.api.products.base-url} at it, so
+ * data loads run against a seeded, arbitrarily large catalog without network access.
+ */
+@Configuration
+@Profile("synthetic")
+public class SyntheticUpstreamConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public SyntheticUpstreamServer syntheticUpstreamServer(
+            @Value("${synthetic-upstream.port:9090}") int port,
+            @Value("${synthetic-upstream.size:1000000}") int size,
+            @Value("${synthetic-upstream.seed:42}") long seed,
+            @Value("${synthetic-upstream.threads:4}") int threads) {
+        return new SyntheticUpstreamServer(new SyntheticCatalog(seed, size), port, threads);
+    }
+}
@@ -1,14 +1,28 @@
 package com.productapi.config;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
 
 import java.io.IOException;
 
+/**
+ * Static frontend assets and SPA routing.
+ * <p>
+ * Assets are served from pre-compressed {@code .br} / {@code .gz} siblings produced by the
+ * frontend build when the client accepts them, so they are never compressed at request time.
+ * JSON responses are compressed by the container, see {@code server.compression}.
+ */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -17,17 +31,22 @@ public class WebConfig implements WebMvcConfigurer {
         // Serve static resources (CSS, JS, images, etc.)
         registry.addResourceHandler("/static/**")
                 .addResourceLocations("classpath:/static/static/")
-                .setCachePeriod(31536000);
+                .setCachePeriod(31536000)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
 
         // Serve other static files
         registry.addResourceHandler("/favicon.ico", "/manifest.json", "/robots.txt")
                 .addResourceLocations("classpath:/static/")
-                .setCachePeriod(31536000);
+                .setCachePeriod(31536000)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
 
         // Fallback for SPA routing - handle all other requests
         registry.addResourceHandler("/**")
                 .addResourceLocations("classpath:/static/")
                 .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
                 .addResolver(new PathResourceResolver() {
                     @Override
                     protected Resource getResource(String resourcePath, Resource location) throws IOException {
@@ -46,4 +65,19 @@ public class WebConfig implements WebMvcConfigurer {
                     }
                 });
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Static responses depend on Accept-Encoding whether or not this client got an encoded
+        // variant; EncodedResourceResolver only sets Vary on the encoded ones
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (handler instanceof ResourceHttpRequestHandler) {
+                    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                }
+                return true;
+            }
+        });
+    }
 }
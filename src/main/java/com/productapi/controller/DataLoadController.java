@@ -2,6 +2,7 @@ package com.productapi.controller;
 
 import com.productapi.dto.response.ApiResponse;
 import com.productapi.service.DataLoadService;
+import com.productapi.service.LoadProgressPublisher;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,8 +12,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -28,9 +31,11 @@ public class DataLoadController {
     private static final Logger logger = LoggerFactory.getLogger(DataLoadController.class);
 
     private final DataLoadService dataLoadService;
+    private final LoadProgressPublisher progressPublisher;
 
-    public DataLoadController(DataLoadService dataLoadService) {
+    public DataLoadController(DataLoadService dataLoadService, LoadProgressPublisher progressPublisher) {
         this.dataLoadService = dataLoadService;
+        this.progressPublisher = progressPublisher;
     }
 
     /**
@@ -143,6 +148,30 @@ public class DataLoadController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Stream data loading progress as Server-Sent Events.
+     */
+    @GetMapping(value = "/load/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream data loading progress",
+            description = "Opens a Server-Sent Events stream. A 'status' snapshot is sent immediately, followed by " +
+                         "'phase' events (FETCH, MAP, PERSIST, INDEX, ...), a 'batch' event with throughput for every " +
+                         "committed batch, a 'stages' event with per-stage pipeline throughput and a final " +
+                         "'complete' event carrying the load result."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream opened",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+            )
+    })
+    public SseEmitter streamLoadEvents() {
+        logger.debug("Received subscription to data loading events");
+
+        return progressPublisher.subscribe(dataLoadService.getLoadingStatus());
+    }
+
     /**
      * Clear all products from the database.
      */
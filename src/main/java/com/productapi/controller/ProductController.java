@@ -1,8 +1,15 @@
 package com.productapi.controller;
 
+import com.productapi.dto.request.ProductBatchRequest;
 import com.productapi.dto.response.ApiResponse;
+import com.productapi.dto.response.FacetsResponse;
+import com.productapi.dto.response.HistogramResponse;
 import com.productapi.dto.response.PagedResponse;
+import com.productapi.dto.response.ProductLookupResult;
 import com.productapi.dto.response.ProductResponse;
+import com.productapi.dto.response.SearchResponse;
+import com.productapi.search.ProductSearchIndex;
+import com.productapi.search.SearchMode;
 import com.productapi.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -23,6 +30,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST controller for product operations.
@@ -49,13 +57,19 @@ public class ProductController {
     @Operation(
             summary = "Search products by text",
             description = "Search products using free text search on title and description fields. " +
+                         "Substring mode (default) matches the text anywhere, case-insensitively; analyzed mode " +
+                         "matches words after stemming, accent folding and synonyms and ranks by relevance; it also " +
+                         "accepts field:value clauses, OR, -negation, parentheses and numeric ranges such as " +
+                         "price:<500. " +
+                         "When nothing matches, suggestedQuery holds a spelling correction that does; with " +
+                         "autocorrect=true its results are returned instead. " +
                          "Supports pagination and sorting. If no search text is provided, returns all products."
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "200",
                     description = "Search completed successfully",
-                    content = @Content(schema = @Schema(implementation = PagedResponse.class))
+                    content = @Content(schema = @Schema(implementation = SearchResponse.class))
             ),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "400",
@@ -63,7 +77,7 @@ public class ProductController {
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))
             )
     })
-    public ResponseEntity<ApiResponse<PagedResponse<ProductResponse>>> searchProducts(
+    public ResponseEntity<ApiResponse<SearchResponse<ProductResponse>>> searchProducts(
             @Parameter(description = "Search text to find in product title and description", example = "mascara")
             @RequestParam(required = false) String q,
             
@@ -73,28 +87,163 @@ public class ProductController {
             @Parameter(description = "Page size", example = "20")
             @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
             
-            @Parameter(description = "Sort field", example = "title")
-            @RequestParam(defaultValue = "title") String sort,
+            @Parameter(description = "Sort field; analyzed searches sort by relevance or title " +
+                    "(default: title, relevance in analyzed mode)", example = "title")
+            @RequestParam(required = false) String sort,
             
-            @Parameter(description = "Sort direction", example = "asc")
-            @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "Sort direction (default: asc, desc for relevance)", example = "asc")
+            @RequestParam(required = false) String direction,
             
             @Parameter(description = "Use fuzzy matching", example = "false")
             @RequestParam(defaultValue = "false") boolean fuzzy,
             
+            @Parameter(description = "Matching mode: substring or analyzed", example = "substring")
+            @RequestParam(defaultValue = "substring") String mode,
+
+            @Parameter(description = "Return the results of the suggested spelling correction when the query " +
+                    "matches nothing", example = "false")
+            @RequestParam(defaultValue = "false") boolean autocorrect,
+            
             HttpServletRequest request) {
 
-        logger.debug("Searching products with query: '{}', page: {}, size: {}, sort: {} {}, fuzzy: {}", 
-                q, page, size, sort, direction, fuzzy);
+        SearchMode searchMode = SearchMode.from(mode);
+        logger.debug("Searching products with query: '{}', page: {}, size: {}, sort: {} {}, fuzzy: {}, mode: {}", 
+                q, page, size, sort, direction, fuzzy, searchMode);
+
+        String sortField = sort != null ? sort
+                : searchMode == SearchMode.ANALYZED ? ProductSearchIndex.RELEVANCE : "title";
+        Sort.Direction sortDirection = direction != null
+                ? ("desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC)
+                : (ProductSearchIndex.RELEVANCE.equals(sortField) ? Sort.Direction.DESC : Sort.Direction.ASC);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortField));
+
+        PagedResponse<ProductResponse> results = search(q, pageable, fuzzy, searchMode);
+        SearchResponse<ProductResponse> result = SearchResponse.of(results);
+
+        // Only suggest a correction that finds something; the user would otherwise retype twice
+        if (results.getTotalElements() == 0) {
+            Optional<String> suggestion = productService.suggestSearchQuery(q);
+            if (suggestion.isPresent()) {
+                PagedResponse<ProductResponse> corrected = search(suggestion.get(), pageable, fuzzy, searchMode);
+                if (corrected.getTotalElements() > 0) {
+                    result = new SearchResponse<>(autocorrect ? corrected : results, suggestion.get(), autocorrect);
+                }
+            }
+        }
+
+        ApiResponse<SearchResponse<ProductResponse>> response = ApiResponse.success("Search completed", result);
+        response.setPath(request.getRequestURI());
 
-        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
+        return ResponseEntity.ok(response);
+    }
 
-        PagedResponse<ProductResponse> result = fuzzy 
-                ? productService.searchProductsFuzzy(q, pageable)
-                : productService.searchProducts(q, pageable);
+    /**
+     * Count search matches per range of a numeric field.
+     */
+    @GetMapping("/search/histogram")
+    @Operation(
+            summary = "Get a histogram of search results",
+            description = "Count the products matching an analyzed search in ranges of price, rating, discountPercentage " +
+                         "or stock. Computed from the in-memory search index without loading products; empty until " +
+                         "the index has been built. If no search text is provided, counts all products."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Histogram computed successfully",
+                    content = @Content(schema = @Schema(implementation = HistogramResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid query, field or interval",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<HistogramResponse>> getSearchHistogram(
+            @Parameter(description = "Analyzed search query", example = "laptop rating:4+")
+            @RequestParam(required = false) String q,
+
+            @Parameter(description = "Numeric field: price, rating, discountPercentage or stock", example = "price")
+            @RequestParam(defaultValue = "price") String field,
+
+            @Parameter(description = "Width of each range", example = "50")
+            @RequestParam(defaultValue = "50") double interval,
+
+            HttpServletRequest request) {
+
+        logger.debug("Getting {} histogram for query: '{}', interval: {}", field, q, interval);
+
+        HistogramResponse histogram = productService.getSearchHistogram(q, field, interval);
+        ApiResponse<HistogramResponse> response = ApiResponse.success("Histogram computed", histogram);
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get several products by internal ID in one call.
+     */
+    @GetMapping("/batch")
+    @Operation(
+            summary = "Get products by IDs",
+            description = "Retrieve up to " + ProductService.MAX_BATCH_KEYS + " products by internal ID with a single query. " +
+                         "Returns one result per requested ID, in request order, with found=false for unknown IDs."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Lookup completed",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "No IDs or too many IDs",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<List<ProductLookupResult>>> getProductsByIds(
+            @Parameter(description = "Comma-separated internal product IDs", example = "1,2,3")
+            @RequestParam List<Long> ids,
+            HttpServletRequest request) {
 
-        ApiResponse<PagedResponse<ProductResponse>> response = ApiResponse.success("Search completed", result);
+        logger.debug("Batch lookup of {} product IDs", ids.size());
+
+        List<ProductLookupResult> results = productService.findByKeys(ids, null, null);
+        ApiResponse<List<ProductLookupResult>> response = ApiResponse.success("Lookup completed", results);
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get several products by internal ID, SKU and/or external ID in one call.
+     */
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Get products by IDs, SKUs and external IDs",
+            description = "Retrieve up to " + ProductService.MAX_BATCH_KEYS + " products in total by any mix of internal ID, " +
+                         "SKU and external ID, using one query per key kind. Results are ordered ids, then SKUs, " +
+                         "then external IDs, each in request order, with found=false for unknown keys."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Lookup completed",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "No keys or too many keys",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<List<ProductLookupResult>>> lookupProducts(
+            @RequestBody ProductBatchRequest batchRequest,
+            HttpServletRequest request) {
+
+        List<ProductLookupResult> results = productService.findByKeys(
+                batchRequest.getIds(), batchRequest.getSkus(), batchRequest.getExternalIds());
+        ApiResponse<List<ProductLookupResult>> response = ApiResponse.success("Lookup completed", results);
         response.setPath(request.getRequestURI());
 
         return ResponseEntity.ok(response);
@@ -418,4 +567,38 @@ public class ProductController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Get distinct categories, brands and availability statuses with product counts.
+     */
+    @GetMapping("/facets")
+    @Operation(
+            summary = "Get filter facets",
+            description = "Retrieve all distinct categories, brands and availability statuses with the number of products having each. " +
+                         "Served from memory; refreshed whenever a data load commits."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Facets retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<FacetsResponse>> getFacets(HttpServletRequest request) {
+        logger.debug("Getting facets");
+
+        FacetsResponse facets = productService.getFacets();
+        ApiResponse<FacetsResponse> response = ApiResponse.success("Facets retrieved", facets);
+        response.setPath(request.getRequestURI());
+
+        return ResponseEntity.ok(response);
+    }
+
+    private PagedResponse<ProductResponse> search(String q, Pageable pageable, boolean fuzzy, SearchMode searchMode) {
+        return fuzzy
+                ? productService.searchProductsFuzzy(q, pageable)
+                : searchMode == SearchMode.ANALYZED
+                        ? productService.searchProductsAnalyzed(q, pageable)
+                        : productService.searchProducts(q, pageable);
+    }
 }
@@ -0,0 +1,58 @@
+package com.productapi.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for batch product lookup requests.
+ * Keys of all three kinds may be mixed; results are returned ids first, then SKUs,
+ * then external IDs, each in the order given.
+ */
+@Schema(description = "Batch product lookup by internal ID, SKU and/or external ID")
+public class ProductBatchRequest {
+
+    @Schema(description = "Internal product IDs", example = "[1, 2, 3]")
+    private List<Long> ids = new ArrayList<>();
+
+    @Schema(description = "Product SKUs", example = "[\"BEA-ESS-ESS-001\"]")
+    private List<String> skus = new ArrayList<>();
+
+    @Schema(description = "External product IDs", example = "[10, 11]")
+    private List<Long> externalIds = new ArrayList<>();
+
+    // Constructors
+    public ProductBatchRequest() {}
+
+    public ProductBatchRequest(List<Long> ids, List<String> skus, List<Long> externalIds) {
+        this.ids = ids;
+        this.skus = skus;
+        this.externalIds = externalIds;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getSkus() {
+        return skus;
+    }
+
+    public void setSkus(List<String> skus) {
+        this.skus = skus;
+    }
+
+    public List<Long> getExternalIds() {
+        return externalIds;
+    }
+
+    public void setExternalIds(List<Long> externalIds) {
+        this.externalIds = externalIds;
+    }
+}
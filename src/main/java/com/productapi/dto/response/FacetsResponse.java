@@ -0,0 +1,93 @@
+package com.productapi.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO for the distinct categories, brands and availability statuses with product counts,
+ * each list in natural order of its values.
+ */
+@Schema(description = "Distinct filter values with the number of products having each")
+public class FacetsResponse {
+
+    @Schema(description = "Categories with product counts")
+    private List<FacetValue> categories;
+
+    @Schema(description = "Brands with product counts")
+    private List<FacetValue> brands;
+
+    @Schema(description = "Availability statuses with product counts")
+    private List<FacetValue> availabilityStatuses;
+
+    // Constructors
+    public FacetsResponse() {}
+
+    public FacetsResponse(List<FacetValue> categories, List<FacetValue> brands, List<FacetValue> availabilityStatuses) {
+        this.categories = categories;
+        this.brands = brands;
+        this.availabilityStatuses = availabilityStatuses;
+    }
+
+    // Getters and Setters
+    public List<FacetValue> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<FacetValue> categories) {
+        this.categories = categories;
+    }
+
+    public List<FacetValue> getBrands() {
+        return brands;
+    }
+
+    public void setBrands(List<FacetValue> brands) {
+        this.brands = brands;
+    }
+
+    public List<FacetValue> getAvailabilityStatuses() {
+        return availabilityStatuses;
+    }
+
+    public void setAvailabilityStatuses(List<FacetValue> availabilityStatuses) {
+        this.availabilityStatuses = availabilityStatuses;
+    }
+
+    /**
+     * One distinct value and the number of products having it.
+     */
+    @Schema(description = "A filter value and its product count")
+    public static class FacetValue {
+
+        @Schema(description = "The value", example = "beauty")
+        private String value;
+
+        @Schema(description = "Number of products with the value", example = "5")
+        private long count;
+
+        public FacetValue() {}
+
+        public FacetValue(String value, long count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        // Getters and Setters
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.productapi.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO for where a search hit matched its query: match ranges in the title and a description
+ * snippet with its match ranges.
+ */
+@Schema(description = "Matched words of a search hit")
+public class HighlightResponse {
+
+    @Schema(description = "Matched words of the title, as char ranges into the title")
+    private List<Range> title;
+
+    @Schema(description = "The part of the description with the most matched words",
+            example = "Wireless mouse with a silent click and a long battery life")
+    private String snippet;
+
+    @Schema(description = "Char offset of the snippet in the description", example = "0")
+    private int snippetOffset;
+
+    @Schema(description = "Matched words of the snippet, as char ranges into the snippet")
+    private List<Range> snippetMatches;
+
+    // Constructors
+    public HighlightResponse() {}
+
+    public HighlightResponse(List<Range> title, String snippet, int snippetOffset, List<Range> snippetMatches) {
+        this.title = title;
+        this.snippet = snippet;
+        this.snippetOffset = snippetOffset;
+        this.snippetMatches = snippetMatches;
+    }
+
+    // Getters and Setters
+    public List<Range> getTitle() {
+        return title;
+    }
+
+    public void setTitle(List<Range> title) {
+        this.title = title;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+
+    public int getSnippetOffset() {
+        return snippetOffset;
+    }
+
+    public void setSnippetOffset(int snippetOffset) {
+        this.snippetOffset = snippetOffset;
+    }
+
+    public List<Range> getSnippetMatches() {
+        return snippetMatches;
+    }
+
+    public void setSnippetMatches(List<Range> snippetMatches) {
+        this.snippetMatches = snippetMatches;
+    }
+
+    /**
+     * Chars from start, inclusive, to end, exclusive.
+     */
+    @Schema(description = "A char range")
+    public static class Range {
+
+        @Schema(description = "First char, inclusive", example = "0")
+        private int start;
+
+        @Schema(description = "Last char, exclusive", example = "8")
+        private int end;
+
+        public Range() {}
+
+        public Range(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        // Getters and Setters
+        public int getStart() {
+            return start;
+        }
+
+        public void setStart(int start) {
+            this.start = start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public void setEnd(int end) {
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.productapi.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO for the number of products matching a search in consecutive ranges of a numeric field.
+ */
+@Schema(description = "Product counts per range of a numeric field")
+public class HistogramResponse {
+
+    @Schema(description = "The numeric field", example = "price")
+    private String field;
+
+    @Schema(description = "Width of each range", example = "50")
+    private double interval;
+
+    @Schema(description = "Ranges in ascending order, from the lowest to the highest value found")
+    private List<Bucket> buckets;
+
+    @Schema(description = "Number of matching products without a value", example = "0")
+    private long missing;
+
+    // Constructors
+    public HistogramResponse() {}
+
+    public HistogramResponse(String field, double interval, List<Bucket> buckets, long missing) {
+        this.field = field;
+        this.interval = interval;
+        this.buckets = buckets;
+        this.missing = missing;
+    }
+
+    // Getters and Setters
+    public String getField() {
+        return field;
+    }
+
+    public void setField(String field) {
+        this.field = field;
+    }
+
+    public double getInterval() {
+        return interval;
+    }
+
+    public void setInterval(double interval) {
+        this.interval = interval;
+    }
+
+    public List<Bucket> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<Bucket> buckets) {
+        this.buckets = buckets;
+    }
+
+    public long getMissing() {
+        return missing;
+    }
+
+    public void setMissing(long missing) {
+        this.missing = missing;
+    }
+
+    /**
+     * One range, lower bound inclusive and upper bound exclusive, and its product count.
+     */
+    @Schema(description = "A value range and its product count")
+    public static class Bucket {
+
+        @Schema(description = "Lower bound, inclusive", example = "50")
+        private double from;
+
+        @Schema(description = "Upper bound, exclusive", example = "100")
+        private double to;
+
+        @Schema(description = "Number of matching products in the range", example = "12")
+        private long count;
+
+        public Bucket() {}
+
+        public Bucket(double from, double to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        // Getters and Setters
+        public double getFrom() {
+            return from;
+        }
+
+        public void setFrom(double from) {
+            this.from = from;
+        }
+
+        public double getTo() {
+            return to;
+        }
+
+        public void setTo(double to) {
+            this.to = to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+}
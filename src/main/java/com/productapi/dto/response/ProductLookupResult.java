@@ -0,0 +1,73 @@
+package com.productapi.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for one key of a batch product lookup.
+ * Every requested key yields one result; {@code product} is null when {@code found} is false.
+ */
+@Schema(description = "Result of looking up a single key in a batch request")
+public class ProductLookupResult {
+
+    /**
+     * Kind of key that was looked up.
+     */
+    public enum KeyType {
+        ID, SKU, EXTERNAL_ID
+    }
+
+    @Schema(description = "Kind of key", example = "ID")
+    private KeyType keyType;
+
+    @Schema(description = "The requested key", example = "1")
+    private String key;
+
+    @Schema(description = "Whether a product exists for the key", example = "true")
+    private boolean found;
+
+    @Schema(description = "The product, or null when not found")
+    private ProductResponse product;
+
+    // Constructors
+    public ProductLookupResult() {}
+
+    public ProductLookupResult(KeyType keyType, String key, ProductResponse product) {
+        this.keyType = keyType;
+        this.key = key;
+        this.found = product != null;
+        this.product = product;
+    }
+
+    // Getters and Setters
+    public KeyType getKeyType() {
+        return keyType;
+    }
+
+    public void setKeyType(KeyType keyType) {
+        this.keyType = keyType;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    public ProductResponse getProduct() {
+        return product;
+    }
+
+    public void setProduct(ProductResponse product) {
+        this.product = product;
+    }
+}
@@ -1,6 +1,7 @@
 package com.productapi.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
@@ -90,6 +91,10 @@ public class ProductResponse {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime updatedAt;
 
+    @Schema(description = "Matched words, for analyzed searches")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private HighlightResponse highlight;
+
     // Constructors
     public ProductResponse() {}
 
@@ -293,4 +298,12 @@ public class ProductResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public HighlightResponse getHighlight() {
+        return highlight;
+    }
+
+    public void setHighlight(HighlightResponse highlight) {
+        this.highlight = highlight;
+    }
 }
@@ -0,0 +1,52 @@
+package com.productapi.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for a page of search results with an optional spelling correction of the query.
+ */
+@Schema(description = "Paginated search results")
+public class SearchResponse<T> extends PagedResponse<T> {
+
+    @Schema(description = "Corrected query that finds products, present when the query as typed found none",
+            example = "wireless mouse")
+    private String suggestedQuery;
+
+    @Schema(description = "Whether the results are those of suggestedQuery instead of the query as typed",
+            example = "false")
+    private boolean autoCorrected;
+
+    // Constructors
+    public SearchResponse() {}
+
+    public SearchResponse(PagedResponse<T> results, String suggestedQuery, boolean autoCorrected) {
+        super(results.getContent(), results.getPage(), results.getSize(), results.getTotalElements(),
+                results.getTotalPages());
+        this.suggestedQuery = suggestedQuery;
+        this.autoCorrected = autoCorrected;
+    }
+
+    /**
+     * Results of the query as typed, without a suggestion.
+     */
+    public static <T> SearchResponse<T> of(PagedResponse<T> results) {
+        return new SearchResponse<>(results, null, false);
+    }
+
+    // Getters and Setters
+    public String getSuggestedQuery() {
+        return suggestedQuery;
+    }
+
+    public void setSuggestedQuery(String suggestedQuery) {
+        this.suggestedQuery = suggestedQuery;
+    }
+
+    public boolean isAutoCorrected() {
+        return autoCorrected;
+    }
+
+    public void setAutoCorrected(boolean autoCorrected) {
+        this.autoCorrected = autoCorrected;
+    }
+}
@@ -2,6 +2,7 @@ package com.productapi.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.BatchSize;
 
 
 import java.math.BigDecimal;
@@ -52,6 +53,7 @@ public class Product {
     @Min(0)
     private Integer stock;
 
+    @BatchSize(size = 50)
     @ElementCollection
     @CollectionTable(name = "product_tags", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "tag")
@@ -84,6 +86,7 @@ public class Product {
     @Size(max = 50)
     private String availabilityStatus;
 
+    @BatchSize(size = 50)
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Review> reviews = new ArrayList<>();
 
@@ -98,6 +101,7 @@ public class Product {
     @Embedded
     private Meta meta;
 
+    @BatchSize(size = 50)
     @ElementCollection
     @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "image_url", length = 500)
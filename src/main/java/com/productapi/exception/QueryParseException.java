@@ -0,0 +1,17 @@
+package com.productapi.exception;
+
+/**
+ * Exception thrown when a search query is not valid query syntax. Handled like any other
+ * {@link IllegalArgumentException}, as a bad request.
+ */
+public class QueryParseException extends IllegalArgumentException {
+
+    public QueryParseException(String message) {
+        super(message);
+    }
+
+    public static QueryParseException at(String query, int position, String problem) {
+        return new QueryParseException("Invalid query at position " + position + ": " + problem
+                + " in '" + query + "'");
+    }
+}
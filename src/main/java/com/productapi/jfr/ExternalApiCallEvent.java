@@ -0,0 +1,75 @@
+package com.productapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one HTTP exchange with the external products API, from sending the
+ * request until the response body has been fully read. Each retry attempt is its own exchange;
+ * the retries themselves are recorded as {@link ExternalApiRetryEvent}s.
+ */
+@Name("com.productapi.ExternalApiCall")
+@Label("External API Call")
+@Category({"Product API", "External API"})
+@Description("One HTTP exchange with the upstream products API")
+@StackTrace(false)
+public class ExternalApiCallEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status")
+    @Description("HTTP status code, 0 if no response was received")
+    int status;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Outcome")
+    @Description("completed, failed or cancelled")
+    String outcome;
+
+    @Label("Error")
+    String error;
+
+    /**
+     * Start timing an exchange.
+     */
+    public static ExternalApiCallEvent begin(String method, String endpoint) {
+        ExternalApiCallEvent event = new ExternalApiCallEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            event.method = method;
+            event.endpoint = endpoint;
+        }
+        return event;
+    }
+
+    void responseReceived(int status) {
+        this.status = status;
+    }
+
+    /**
+     * Record the outcome and commit the event if it passes the recording's threshold.
+     */
+    void complete(String outcome, long responseBytes, Throwable error) {
+        if (isEnabled()) {
+            end();
+            if (shouldCommit()) {
+                this.outcome = outcome;
+                this.responseBytes = responseBytes;
+                this.error = error != null ? error.toString() : null;
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.productapi.jfr;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebClient filter emitting an {@link ExternalApiCallEvent} per exchange. Response bytes are
+ * counted as the body streams through, so the event ends when the body has been consumed.
+ * Exchanges pass through untouched while the event is disabled.
+ */
+public class ExternalApiEventFilter implements ExchangeFilterFunction {
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            ExternalApiCallEvent event = ExternalApiCallEvent.begin(request.method().name(), request.url().toString());
+            if (!event.isEnabled()) {
+                return next.exchange(request);
+            }
+            AtomicLong bytes = new AtomicLong();
+            return next.exchange(request)
+                    .map(response -> {
+                        event.responseReceived(response.statusCode().value());
+                        return response.mutate()
+                                .body(body -> body
+                                        .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                                        .doOnError(error -> event.complete("failed", bytes.get(), error))
+                                        .doFinally(signal -> {
+                                            if (signal != SignalType.ON_ERROR) {
+                                                event.complete(signal == SignalType.ON_COMPLETE ? "completed" : "cancelled",
+                                                        bytes.get(), null);
+                                            }
+                                        }))
+                                .build();
+                    })
+                    .doOnError(error -> event.complete("failed", 0, error));
+        });
+    }
+}
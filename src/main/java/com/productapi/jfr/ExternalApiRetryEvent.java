@@ -0,0 +1,48 @@
+package com.productapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event emitted when a resilience4j retry schedules another attempt.
+ */
+@Name("com.productapi.ExternalApiRetry")
+@Label("External API Retry")
+@Category({"Product API", "External API"})
+@Description("A failed external API attempt that is about to be retried")
+@StackTrace(false)
+public class ExternalApiRetryEvent extends Event {
+
+    @Label("Retry Name")
+    String retryName;
+
+    @Label("Attempt")
+    @Description("Number of the retry about to be made, starting at 1")
+    int attempt;
+
+    @Label("Wait Interval")
+    @Timespan
+    long waitInterval;
+
+    @Label("Error")
+    String error;
+
+    /**
+     * Commit an instant retry event, unless no recording has it enabled.
+     */
+    public static void emit(String retryName, int attempt, long waitIntervalNanos, Throwable error) {
+        ExternalApiRetryEvent event = new ExternalApiRetryEvent();
+        if (event.shouldCommit()) {
+            event.retryName = retryName;
+            event.attempt = attempt;
+            event.waitInterval = waitIntervalNanos;
+            event.error = error != null ? error.toString() : null;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.productapi.jfr;
+
+import io.github.resilience4j.retry.RetryRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits an {@link ExternalApiRetryEvent} for every retry of the {@code external-api} resilience4j
+ * instance used by {@code ExternalApiService}.
+ */
+@Component
+public class ExternalApiRetryRecorder {
+
+    static final String RETRY_NAME = "external-api";
+
+    public ExternalApiRetryRecorder(RetryRegistry retryRegistry) {
+        retryRegistry.retry(RETRY_NAME).getEventPublisher().onRetry(event -> ExternalApiRetryEvent.emit(
+                event.getName(), event.getNumberOfRetryAttempts(), event.getWaitInterval().toNanos(),
+                event.getLastThrowable()));
+    }
+}
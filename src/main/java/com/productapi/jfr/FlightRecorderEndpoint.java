@@ -0,0 +1,164 @@
+package com.productapi.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for on-demand Flight Recorder recordings.
+ * <ul>
+ *   <li>{@code POST /actuator/jfr} - start a recording, optionally with {@code durationSeconds}</li>
+ *   <li>{@code GET /actuator/jfr} - state of the current recording</li>
+ *   <li>{@code GET /actuator/jfr/dump} - download what has been recorded so far as a {@code .jfr} file</li>
+ *   <li>{@code DELETE /actuator/jfr} - stop and discard the recording</li>
+ * </ul>
+ * Recordings use the JDK {@code profile} settings plus the application's own events, and are
+ * bounded in both duration and size, so a forgotten recording cannot fill memory or disk.
+ * Only one recording is managed at a time.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+
+    static final String RECORDING_NAME = "product-api-on-demand";
+    static final String[] APPLICATION_EVENTS = {
+            "com.productapi.Search", "com.productapi.LoadBatch",
+            "com.productapi.ExternalApiCall", "com.productapi.ExternalApiRetry"
+    };
+
+    private final Duration defaultDuration;
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+
+    private Recording recording;
+
+    public FlightRecorderEndpoint(@Value("${jfr.recording.default-duration:5m}") Duration defaultDuration,
+                                  @Value("${jfr.recording.max-duration:30m}") Duration maxDuration,
+                                  @Value("${jfr.recording.max-size:50MB}") DataSize maxSize) {
+        this.defaultDuration = defaultDuration;
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("name", recording.getName());
+        status.put("state", recording.getState());
+        status.put("startTime", recording.getStartTime());
+        status.put("duration", recording.getDuration());
+        status.put("maxSizeBytes", recording.getMaxSize());
+        status.put("sizeBytes", recording.getSize());
+        return status;
+    }
+
+    /**
+     * Start a new recording, replacing any previous one.
+     *
+     * @param durationSeconds how long to record; defaults to {@code jfr.recording.default-duration},
+     *                        capped at {@code jfr.recording.max-duration}
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Long durationSeconds) throws IOException, ParseException {
+        closeRecording();
+
+        Duration duration = durationSeconds != null && durationSeconds > 0
+                ? Duration.ofSeconds(durationSeconds) : defaultDuration;
+        if (duration.compareTo(maxDuration) > 0) {
+            duration = maxDuration;
+        }
+
+        Recording newRecording = new Recording(Configuration.getConfiguration("profile"));
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setDuration(duration);
+        newRecording.setMaxSize(maxSize.toBytes());
+        newRecording.setToDisk(true);
+        for (String event : APPLICATION_EVENTS) {
+            newRecording.enable(event);
+        }
+        newRecording.start();
+        recording = newRecording;
+
+        logger.info("Started Flight Recorder recording for {} (max {})", duration, maxSize);
+        return status();
+    }
+
+    /**
+     * Dump everything recorded so far, while the recording keeps running.
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String action) throws IOException {
+        if (!"dump".equals(action)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+
+        Path file = Files.createTempFile("product-api-", ".jfr");
+        try {
+            recording.dump(file);
+            String filename = "product-api-" + Instant.now().getEpochSecond() + ".jfr";
+            return new WebEndpointResponse<>(new NamedByteArrayResource(Files.readAllBytes(file), filename));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        closeRecording();
+        return status();
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            logger.info("Closed Flight Recorder recording");
+        }
+    }
+
+    private static final class NamedByteArrayResource extends ByteArrayResource {
+        private final String filename;
+
+        NamedByteArrayResource(byte[] bytes, String filename) {
+            super(bytes);
+            this.filename = filename;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.productapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one data load batch written by the persistence stage.
+ * The event duration is the time spent in the batch transaction.
+ */
+@Name("com.productapi.LoadBatch")
+@Label("Load Batch")
+@Category({"Product API", "Data Load"})
+@Description("One batch of products upserted in its own transaction")
+@StackTrace(false)
+public class LoadBatchEvent extends Event {
+
+    @Label("Batch Number")
+    int batchNumber;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("New Products")
+    int newProducts;
+
+    @Label("Updated Products")
+    int updatedProducts;
+
+    @Label("Failed Products")
+    int failedProducts;
+
+    @Label("Committed")
+    @Description("False if the batch transaction was rolled back")
+    boolean committed;
+
+    /**
+     * Start timing a batch.
+     */
+    public static LoadBatchEvent begin(int batchNumber, int batchSize) {
+        LoadBatchEvent event = new LoadBatchEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            event.batchNumber = batchNumber;
+            event.batchSize = batchSize;
+        }
+        return event;
+    }
+
+    /**
+     * Record the batch outcome and commit the event if it passes the recording's threshold.
+     */
+    public void complete(int newProducts, int updatedProducts, int failedProducts, boolean committed) {
+        if (isEnabled()) {
+            end();
+            if (shouldCommit()) {
+                this.newProducts = newProducts;
+                this.updatedProducts = updatedProducts;
+                this.failedProducts = failedProducts;
+                this.committed = committed;
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.productapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Flight Recorder event for one product search or listing.
+ * <p>
+ * The query text is recorded as a hash only. When no recording has the event enabled,
+ * {@link #begin(String, String, Pageable)} returns an inert event and every other call is a
+ * single branch, so the instrumentation can stay in place permanently.
+ */
+@Name("com.productapi.Search")
+@Label("Product Search")
+@Category({"Product API", "Search"})
+@Description("A product search or listing, split into database and mapping time")
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    @Label("Search Type")
+    String searchType;
+
+    @Label("Query Hash")
+    @Description("String hash of the trimmed query text, 0 without a query")
+    int queryHash;
+
+    @Label("Category")
+    String category;
+
+    @Label("Brand")
+    String brand;
+
+    @Label("Availability Status")
+    String availabilityStatus;
+
+    @Label("Page")
+    int page;
+
+    @Label("Page Size")
+    int pageSize;
+
+    @Label("Hits")
+    @Description("Total matching products, or suggestions returned")
+    long hits;
+
+    @Label("Database Time")
+    @Timespan
+    long dbTime;
+
+    @Label("Mapping Time")
+    @Timespan
+    long mappingTime;
+
+    private transient long phaseStartedAt;
+
+    /**
+     * Start timing a search; the database phase begins now.
+     *
+     * @param searchType the search entry point, e.g. {@code TEXT} or {@code CATEGORY}
+     * @param queryText the query text, or null for plain listings
+     * @param pageable the requested page, or null for unpaged lookups
+     */
+    public static SearchEvent begin(String searchType, String queryText, Pageable pageable) {
+        SearchEvent event = new SearchEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            event.searchType = searchType;
+            event.queryHash = queryText != null ? queryText.trim().hashCode() : 0;
+            if (pageable != null && pageable.isPaged()) {
+                event.page = pageable.getPageNumber();
+                event.pageSize = pageable.getPageSize();
+            }
+            event.phaseStartedAt = System.nanoTime();
+        }
+        return event;
+    }
+
+    public SearchEvent withCategory(String category) {
+        this.category = category;
+        return this;
+    }
+
+    public SearchEvent withBrand(String brand) {
+        this.brand = brand;
+        return this;
+    }
+
+    public SearchEvent withAvailabilityStatus(String availabilityStatus) {
+        this.availabilityStatus = availabilityStatus;
+        return this;
+    }
+
+    /**
+     * End the database phase; the mapping phase begins now.
+     */
+    public void queryCompleted() {
+        if (isEnabled()) {
+            long now = System.nanoTime();
+            dbTime = now - phaseStartedAt;
+            phaseStartedAt = now;
+        }
+    }
+
+    /**
+     * End the mapping phase and commit the event if it passes the recording's threshold.
+     */
+    public void complete(long hits) {
+        if (isEnabled()) {
+            mappingTime = System.nanoTime() - phaseStartedAt;
+            this.hits = hits;
+            end();
+            if (shouldCommit()) {
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.productapi.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer instrumentation for product search and data loading.
+ * <p>
+ * Every timer, summary and counter is registered once up front and looked up by enum, so
+ * recording on the hot path costs a map index and a clock read, never a registry lookup or a
+ * tag allocation. The per-request SQL meters, tagged by route, are registered on a route's
+ * first request and then looked up from a map by method and route. Tags are limited to fixed
+ * enums and route templates; query text, categories and brands are never used as tag values.
+ *
+ * <ul>
+ *   <li>{@code product.search} (timer; {@code type}, {@code phase}) - page query, count query and
+ *       mapping time per search type</li>
+ *   <li>{@code product.search.results} (summary; {@code type}) - total hits per search</li>
+ *   <li>{@code product.search.empty} (counter; {@code type}) - searches without any hit</li>
+ *   <li>{@code product.search.index.documents} / {@code product.search.index.age} (gauges) -
+ *       size of the search index and time since it was last rebuilt</li>
+ *   <li>{@code product.load.stage} (timer; {@code stage}) - fetch, map, persist, index and clear</li>
+ *   <li>{@code product.load.products} (counter; {@code outcome}) - new, updated and failed products</li>
+ *   <li>{@code product.cache.size} (gauge; {@code cache}) - entries held by registered caches</li>
+ *   <li>{@code product.search.coalescing.executions} / {@code .coalesced} (counters) and
+ *       {@code product.search.coalescing.ratio} (gauge), tagged {@code flight} - identical concurrent
+ *       searches served by a single execution</li>
+ *   <li>{@code product.request.sql.statements} (summary) and {@code product.request.sql.time} (timer),
+ *       both tagged {@code method} and {@code uri} - SQL issued per HTTP request</li>
+ * </ul>
+ */
+@Component
+public class ProductMetrics {
+
+    public static final String SEARCH_TIMER = "product.search";
+    public static final String SEARCH_RESULTS = "product.search.results";
+    public static final String SEARCH_EMPTY = "product.search.empty";
+    public static final String INDEX_DOCUMENTS = "product.search.index.documents";
+    public static final String INDEX_AGE = "product.search.index.age";
+    public static final String LOAD_STAGE_TIMER = "product.load.stage";
+    public static final String LOAD_PRODUCTS = "product.load.products";
+    public static final String CACHE_SIZE = "product.cache.size";
+    public static final String COALESCING_EXECUTIONS = "product.search.coalescing.executions";
+    public static final String COALESCING_COALESCED = "product.search.coalescing.coalesced";
+    public static final String COALESCING_RATIO = "product.search.coalescing.ratio";
+    public static final String REQUEST_SQL_STATEMENTS = "product.request.sql.statements";
+    public static final String REQUEST_SQL_TIME = "product.request.sql.time";
+
+    private final MeterRegistry registry;
+    private final Map<SearchType, Map<SearchPhase, Timer>> searchTimers = new EnumMap<>(SearchType.class);
+    private final Map<SearchType, DistributionSummary> resultSummaries = new EnumMap<>(SearchType.class);
+    private final Map<SearchType, Counter> emptySearches = new EnumMap<>(SearchType.class);
+    private final Map<LoadStage, Timer> loadStageTimers = new EnumMap<>(LoadStage.class);
+    private final Map<LoadOutcome, Counter> loadedProducts = new EnumMap<>(LoadOutcome.class);
+
+    private final Map<String, Map<String, RequestSqlMeters>> requestSqlMeters = new ConcurrentHashMap<>();
+
+    private final AtomicLong indexedDocuments = new AtomicLong();
+    private final AtomicLong indexRebuiltAtMillis = new AtomicLong();
+
+    public ProductMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        for (SearchType type : SearchType.values()) {
+            Map<SearchPhase, Timer> phases = new EnumMap<>(SearchPhase.class);
+            for (SearchPhase phase : SearchPhase.values()) {
+                phases.put(phase, Timer.builder(SEARCH_TIMER)
+                        .description("Time spent per search phase")
+                        .tag("type", type.tagValue())
+                        .tag("phase", phase.tagValue())
+                        .register(registry));
+            }
+            searchTimers.put(type, phases);
+            resultSummaries.put(type, DistributionSummary.builder(SEARCH_RESULTS)
+                    .description("Total hits per search")
+                    .baseUnit("products")
+                    .tag("type", type.tagValue())
+                    .register(registry));
+            emptySearches.put(type, Counter.builder(SEARCH_EMPTY)
+                    .description("Searches that matched no product")
+                    .tag("type", type.tagValue())
+                    .register(registry));
+        }
+
+        for (LoadStage stage : LoadStage.values()) {
+            loadStageTimers.put(stage, Timer.builder(LOAD_STAGE_TIMER)
+                    .description("Time spent per data load stage")
+                    .tag("stage", stage.tagValue())
+                    .register(registry));
+        }
+        for (LoadOutcome outcome : LoadOutcome.values()) {
+            loadedProducts.put(outcome, Counter.builder(LOAD_PRODUCTS)
+                    .description("Products processed by data loads")
+                    .baseUnit("products")
+                    .tag("outcome", outcome.tagValue())
+                    .register(registry));
+        }
+
+        Gauge.builder(INDEX_DOCUMENTS, indexedDocuments, AtomicLong::get)
+                .description("Documents in the search index as of its last rebuild")
+                .register(registry);
+        TimeGauge.builder(INDEX_AGE, indexRebuiltAtMillis, TimeUnit.MILLISECONDS,
+                        rebuiltAt -> rebuiltAt.get() == 0 ? 0 : System.currentTimeMillis() - rebuiltAt.get())
+                .description("Time since the search index was last rebuilt")
+                .register(registry);
+    }
+
+    /**
+     * Run one phase of a search and record its duration.
+     */
+    public <T> T timeSearch(SearchType type, SearchPhase phase, Supplier<T> work) {
+        return searchTimers.get(type).get(phase).record(work);
+    }
+
+    /**
+     * Record the total number of hits of a completed search.
+     */
+    public void recordResults(SearchType type, long totalHits) {
+        resultSummaries.get(type).record(totalHits);
+        if (totalHits == 0) {
+            emptySearches.get(type).increment();
+        }
+    }
+
+    /**
+     * Run a synchronous load stage and record its duration.
+     */
+    public <T> T timeLoadStage(LoadStage stage, Supplier<T> work) {
+        return loadStageTimers.get(stage).record(work);
+    }
+
+    /**
+     * Record the duration of an asynchronous load stage when its future completes, successfully or not.
+     */
+    public <T> CompletableFuture<T> timeLoadStageAsync(LoadStage stage, Supplier<CompletableFuture<T>> work) {
+        Timer.Sample sample = Timer.start(registry);
+        return work.get().whenComplete((result, error) -> sample.stop(loadStageTimers.get(stage)));
+    }
+
+    /**
+     * Record a measured load stage duration.
+     */
+    public void recordLoadStage(LoadStage stage, long nanos) {
+        loadStageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Count products processed by a data load batch.
+     */
+    public void recordLoadedProducts(int newProducts, int updatedProducts, int failedProducts) {
+        loadedProducts.get(LoadOutcome.NEW).increment(newProducts);
+        loadedProducts.get(LoadOutcome.UPDATED).increment(updatedProducts);
+        loadedProducts.get(LoadOutcome.FAILED).increment(failedProducts);
+    }
+
+    /**
+     * Update the index gauges after the search index has been rebuilt or emptied.
+     */
+    public void indexRebuilt(long documents) {
+        indexedDocuments.set(documents);
+        indexRebuiltAtMillis.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Record the SQL issued while serving one HTTP request. The {@code uri} must be the matched
+     * route template, never the raw request path, to keep the series count bounded.
+     */
+    public void recordRequestSql(String method, String uri, int statements, long sqlNanos) {
+        Map<String, RequestSqlMeters> byUri = requestSqlMeters.computeIfAbsent(method, key -> new ConcurrentHashMap<>());
+        RequestSqlMeters meters = byUri.get(uri);
+        if (meters == null) {
+            meters = byUri.computeIfAbsent(uri, key -> new RequestSqlMeters(
+                    DistributionSummary.builder(REQUEST_SQL_STATEMENTS)
+                            .description("SQL statements issued per HTTP request")
+                            .baseUnit("statements")
+                            .tags("method", method, "uri", uri)
+                            .register(registry),
+                    Timer.builder(REQUEST_SQL_TIME)
+                            .description("JDBC execution time per HTTP request")
+                            .tags("method", method, "uri", uri)
+                            .register(registry)));
+        }
+        meters.statements().record(statements);
+        meters.time().record(sqlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Expose the size of an in-memory cache as a {@code product.cache.size} gauge tagged with its name.
+     * The cache is referenced weakly by the gauge, as with any Micrometer gauge.
+     */
+    public <T> void registerCache(String name, T cache, ToDoubleFunction<T> size) {
+        Gauge.builder(CACHE_SIZE, cache, size)
+                .description("Entries held by an in-memory cache")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    /**
+     * Expose executions, coalesced calls and the coalescing ratio of a request-coalescing group,
+     * tagged {@code flight} with its name.
+     */
+    public <T> void registerCoalescing(String name, T flight, ToDoubleFunction<T> executions,
+                                       ToDoubleFunction<T> coalesced, ToDoubleFunction<T> ratio) {
+        FunctionCounter.builder(COALESCING_EXECUTIONS, flight, executions)
+                .description("Searches actually executed")
+                .tag("flight", name)
+                .register(registry);
+        FunctionCounter.builder(COALESCING_COALESCED, flight, coalesced)
+                .description("Searches that joined an identical search already in flight")
+                .tag("flight", name)
+                .register(registry);
+        Gauge.builder(COALESCING_RATIO, flight, ratio)
+                .description("Share of searches served by another caller's execution")
+                .tag("flight", name)
+                .register(registry);
+    }
+
+    private record RequestSqlMeters(DistributionSummary statements, Timer time) {
+    }
+
+    /**
+     * Search entry points, one timer series each.
+     */
+    public enum SearchType {
+        TEXT, FUZZY, ANALYZED, CATEGORY_TEXT, BRAND_TEXT, ALL, CATEGORY, BRAND, AVAILABILITY, SUGGESTIONS, HISTOGRAM, SPELLING;
+
+        String tagValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Phases of a search. Spring Data derived page queries run their count query internally,
+     * so for those types {@link #PAGE} includes the count and {@link #COUNT} stays empty.
+     */
+    public enum SearchPhase {
+        PAGE, COUNT, MAPPING;
+
+        String tagValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Stages of a data load.
+     */
+    public enum LoadStage {
+        FETCH, MAP, PERSIST, INDEX, CLEAR;
+
+        String tagValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private enum LoadOutcome {
+        NEW, UPDATED, FAILED;
+
+        String tagValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.productapi.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds JDBC execution time to the {@link SqlStatementStats} of the current thread.
+ * Registered through {@code hibernate.session.events.auto}, one instance per session.
+ */
+public class SqlExecutionListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.executionStarted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.executionEnded();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+}
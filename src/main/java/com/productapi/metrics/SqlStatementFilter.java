@@ -0,0 +1,75 @@
+package com.productapi.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Tracks the SQL statements issued while serving each HTTP request.
+ * <p>
+ * Records per-endpoint statement counts and SQL time through {@link ProductMetrics}, and logs
+ * requests that exceed {@code sql-monitoring.slow-request.statements} statements or
+ * {@code sql-monitoring.slow-request.sql-time} of SQL time together with the statements they ran.
+ */
+@Component
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    private final ProductMetrics metrics;
+    private final boolean enabled;
+    private final int statementThreshold;
+    private final long sqlTimeThresholdNanos;
+
+    public SqlStatementFilter(ProductMetrics metrics,
+                              @Value("${sql-monitoring.enabled:true}") boolean enabled,
+                              @Value("${sql-monitoring.slow-request.statements:25}") int statementThreshold,
+                              @Value("${sql-monitoring.slow-request.sql-time:250ms}") Duration sqlTimeThreshold) {
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.statementThreshold = statementThreshold;
+        this.sqlTimeThresholdNanos = sqlTimeThreshold.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats.stop();
+            if (stats.getStatementCount() > 0) {
+                report(request, stats);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        metrics.recordRequestSql(request.getMethod(), uri, stats.getStatementCount(), stats.getExecutionNanos());
+
+        if (stats.getStatementCount() > statementThreshold || stats.getExecutionNanos() > sqlTimeThresholdNanos) {
+            String captured = String.join(System.lineSeparator() + "  ", stats.getStatements());
+            logger.warn("{} {} issued {} SQL statements taking {} ms (thresholds: {} statements, {} ms):{}  {}",
+                    request.getMethod(), request.getRequestURI(), stats.getStatementCount(), stats.getExecutionMs(),
+                    statementThreshold, sqlTimeThresholdNanos / 1_000_000, System.lineSeparator(), captured);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.productapi.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the SQL statement count and time of the current request to response bodies written by
+ * controllers, as {@value #STATEMENTS_HEADER} and {@value #TIME_HEADER}.
+ * <p>
+ * Headers are set just before the body is serialized, so no response buffering is needed.
+ * Enabled with {@code sql-monitoring.response-header}, which production profiles turn off.
+ */
+@ControllerAdvice
+public class SqlStatementHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private final boolean enabled;
+
+    public SqlStatementHeaderAdvice(@Value("${sql-monitoring.response-header:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            response.getHeaders().set(STATEMENTS_HEADER, String.valueOf(stats.getStatementCount()));
+            response.getHeaders().set(TIME_HEADER, String.valueOf(stats.getExecutionMs()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,20 @@
+package com.productapi.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares against the {@link SqlStatementStats} of the
+ * current thread. Registered through {@code hibernate.session_factory.statement_inspector};
+ * the SQL is passed through unchanged.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.statementPrepared(sql);
+        }
+        return sql;
+    }
+}
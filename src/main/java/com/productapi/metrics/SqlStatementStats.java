@@ -0,0 +1,83 @@
+package com.productapi.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQL statements issued on the current thread while a unit of work, usually an HTTP request,
+ * is being tracked.
+ * <p>
+ * Fed by {@link SqlStatementInspector} (one call per prepared statement) and
+ * {@link SqlExecutionListener} (JDBC execution time). Nothing is recorded on threads that have
+ * not called {@link #start()}, so background work such as data loads costs a thread-local read
+ * per statement and nothing more.
+ */
+public final class SqlStatementStats {
+
+    /** Statements kept verbatim for slow-request logging; later ones are only counted. */
+    static final int MAX_CAPTURED_STATEMENTS = 50;
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private final List<String> statements = new ArrayList<>();
+    private int statementCount;
+    private long executionNanos;
+    private long executionStartedAt;
+
+    private SqlStatementStats() {
+    }
+
+    /**
+     * Start tracking statements on the current thread, replacing any previous tracking.
+     */
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stop tracking statements on the current thread.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Statistics being collected on the current thread, or {@code null} if none are.
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    void statementPrepared(String sql) {
+        statementCount++;
+        if (statements.size() < MAX_CAPTURED_STATEMENTS) {
+            statements.add(sql);
+        }
+    }
+
+    void executionStarted() {
+        executionStartedAt = System.nanoTime();
+    }
+
+    void executionEnded() {
+        if (executionStartedAt != 0) {
+            executionNanos += System.nanoTime() - executionStartedAt;
+            executionStartedAt = 0;
+        }
+    }
+
+    // Getters
+    public int getStatementCount() { return statementCount; }
+    public long getExecutionNanos() { return executionNanos; }
+    public long getExecutionMs() { return executionNanos / 1_000_000; }
+
+    /**
+     * The first {@value #MAX_CAPTURED_STATEMENTS} statements, in the order they were prepared.
+     */
+    public List<String> getStatements() {
+        return Collections.unmodifiableList(statements);
+    }
+}
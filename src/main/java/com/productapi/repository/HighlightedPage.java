@@ -0,0 +1,29 @@
+package com.productapi.repository;
+
+import com.productapi.entity.Product;
+import com.productapi.search.index.Highlight;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of search results with the {@link Highlight} of each product, by product ID.
+ */
+public class HighlightedPage extends PageImpl<Product> {
+
+    private final transient Map<Long, Highlight> highlights;
+
+    public HighlightedPage(List<Product> content, Pageable pageable, long total, Map<Long, Highlight> highlights) {
+        super(content, pageable, total);
+        this.highlights = highlights;
+    }
+
+    /**
+     * The highlight of a product on this page, or null.
+     */
+    public Highlight getHighlight(Long productId) {
+        return highlights.get(productId);
+    }
+}
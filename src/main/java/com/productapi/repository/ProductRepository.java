@@ -4,6 +4,7 @@ import com.productapi.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,6 +26,15 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     Optional<Product> findByExternalId(Long externalId);
 
+    /**
+     * Find all products whose external ID is in the given collection.
+     * Used to resolve a whole load batch with a single query.
+     *
+     * @param externalIds the external IDs to look up
+     * @return list of matching products (in no particular order)
+     */
+    java.util.List<Product> findByExternalIdIn(java.util.Collection<Long> externalIds);
+
     /**
      * Find product by SKU.
      *
@@ -33,6 +43,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     Optional<Product> findBySku(String sku);
 
+    /**
+     * Find all products whose SKU is in the given collection.
+     *
+     * @param skus the SKUs to look up
+     * @return list of matching products (in no particular order)
+     */
+    java.util.List<Product> findBySkuIn(java.util.Collection<String> skus);
+
     /**
      * Check if product exists by external ID.
      *
@@ -127,6 +145,45 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT COUNT(p) FROM Product p")
     long countAllProducts();
 
+    /**
+     * Bulk-delete all reviews with a single set-based statement.
+     * Must run before {@link #deleteAllProductsInBulk()} because reviews reference products.
+     *
+     * @return number of deleted reviews
+     */
+    @Modifying
+    @Query(value = "DELETE FROM reviews", nativeQuery = true)
+    int deleteAllReviewsInBulk();
+
+    /**
+     * Bulk-delete all product tags with a single set-based statement.
+     *
+     * @return number of deleted tag rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM product_tags", nativeQuery = true)
+    int deleteAllTagsInBulk();
+
+    /**
+     * Bulk-delete all product images with a single set-based statement.
+     *
+     * @return number of deleted image rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM product_images", nativeQuery = true)
+    int deleteAllImagesInBulk();
+
+    /**
+     * Bulk-delete all products with a single set-based statement.
+     * Child tables must be cleared first; the persistence context is cleared afterwards
+     * so no stale managed products survive the delete.
+     *
+     * @return number of deleted products
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "DELETE FROM products", nativeQuery = true)
+    int deleteAllProductsInBulk();
+
     /**
      * Count products by category.
      *
@@ -166,4 +223,29 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     @Query("SELECT DISTINCT p.availabilityStatus FROM Product p WHERE p.availabilityStatus IS NOT NULL ORDER BY p.availabilityStatus")
     java.util.List<String> findDistinctAvailabilityStatuses();
+
+    /**
+     * Count products per category, ordered by category.
+     *
+     * @return rows of {@code [category, count]}
+     */
+    @Query("SELECT p.category, COUNT(p) FROM Product p WHERE p.category IS NOT NULL GROUP BY p.category ORDER BY p.category")
+    java.util.List<Object[]> countProductsByCategory();
+
+    /**
+     * Count products per brand, ordered by brand.
+     *
+     * @return rows of {@code [brand, count]}
+     */
+    @Query("SELECT p.brand, COUNT(p) FROM Product p WHERE p.brand IS NOT NULL GROUP BY p.brand ORDER BY p.brand")
+    java.util.List<Object[]> countProductsByBrand();
+
+    /**
+     * Count products per availability status, ordered by status.
+     *
+     * @return rows of {@code [availabilityStatus, count]}
+     */
+    @Query("SELECT p.availabilityStatus, COUNT(p) FROM Product p WHERE p.availabilityStatus IS NOT NULL " +
+           "GROUP BY p.availabilityStatus ORDER BY p.availabilityStatus")
+    java.util.List<Object[]> countProductsByAvailabilityStatus();
 }
@@ -1,34 +1,87 @@
 package com.productapi.repository;
 
 import com.productapi.entity.Product;
+import com.productapi.metrics.ProductMetrics;
+import com.productapi.metrics.ProductMetrics.SearchPhase;
+import com.productapi.metrics.ProductMetrics.SearchType;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import com.productapi.search.ProductSearchIndex;
+import com.productapi.search.ProductSearchIndex.Histogram;
+import com.productapi.search.ProductSearchIndex.SearchHits;
+import com.productapi.search.index.Highlight;
+import com.productapi.search.index.IndexField;
+import com.productapi.search.index.InvertedIndex;
+import com.productapi.search.index.ProductDocument;
 import jakarta.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
- * Repository for search operations using JPA queries.
- * Note: This is a simplified version without Hibernate Search for compatibility.
+ * Repository for search operations.
+ * Substring searches use JPA queries; analyzed searches run against the in-memory
+ * {@link ProductSearchIndex}, which {@link #rebuildIndex()} builds from the products table.
  */
 @Repository
 public class ProductSearchRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchRepository.class);
+
+    /**
+     * Products read per query while building the search index.
+     */
+    private static final int INDEX_BATCH_SIZE = 1000;
+
+    /**
+     * Selects the indexed fields of products, in the order {@link #toDocument} reads them.
+     */
+    private static final String INDEXED_FIELDS = "SELECT p.id, p.title, p.description, p.brand, p.category, "
+            + "p.sku, p.availabilityStatus, p.price, p.rating, p.discountPercentage, p.stock FROM Product p ";
+
+    /**
+     * Characters with a meaning in {@code LIKE} patterns; searches containing them keep the
+     * database's interpretation.
+     */
+    private static final Pattern LIKE_SPECIAL_CHARACTERS = Pattern.compile("[%_\\\\]");
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    private final ProductMetrics metrics;
+    private final ProductSearchIndex searchIndex;
+
+    public ProductSearchRepository(ProductMetrics metrics, ProductSearchIndex searchIndex) {
+        this.metrics = metrics;
+        this.searchIndex = searchIndex;
+    }
+
     /**
-     * Search products by text in title and description fields using JPA queries.
+     * Search products by text in title and description fields.
+     * Served from the search index's trigram index once it has been built; until then, or when
+     * the text contains a {@code LIKE} wildcard or escape character, with a JPA {@code LIKE} query.
      *
      * @param searchText the text to search for
      * @param pageable pagination information
      * @return Page of products matching the search criteria
      */
     public Page<Product> searchProducts(String searchText, Pageable pageable) {
+        if (canSearchSubstringIndex(searchText)) {
+            return searchSubstringIndex(SearchType.TEXT, searchText, pageable);
+        }
         String jpql = "SELECT p FROM Product p WHERE " +
                      "LOWER(p.title) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
                      "LOWER(p.description) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
@@ -39,7 +92,7 @@ public class ProductSearchRepository {
         query.setFirstResult((int) pageable.getOffset());
         query.setMaxResults(pageable.getPageSize());
 
-        List<Product> products = query.getResultList();
+        List<Product> products = metrics.timeSearch(SearchType.TEXT, SearchPhase.PAGE, query::getResultList);
 
         // Count total results
         String countJpql = "SELECT COUNT(p) FROM Product p WHERE " +
@@ -48,11 +101,71 @@ public class ProductSearchRepository {
 
         TypedQuery<Long> countQuery = entityManager.createQuery(countJpql, Long.class);
         countQuery.setParameter("searchText", searchText);
-        long totalHits = countQuery.getSingleResult();
+        long totalHits = metrics.timeSearch(SearchType.TEXT, SearchPhase.COUNT, countQuery::getSingleResult);
 
         return new PageImpl<>(products, pageable, totalHits);
     }
 
+    /**
+     * Search products by analyzed text: every query word must match a word of the title or
+     * description after stemming, accent folding and synonyms. Falls back to
+     * {@link #searchProducts(String, Pageable)} while the search index has not been built.
+     *
+     * @param searchText the text to search for
+     * @param pageable pagination information; sorted by {@value ProductSearchIndex#RELEVANCE} or title
+     * @return Page of matching products in result order, a {@link HighlightedPage} when served
+     *         from the index
+     */
+    public Page<Product> searchProductsAnalyzed(String searchText, Pageable pageable) {
+        if (!searchIndex.isReady()) {
+            logger.debug("Search index not built yet, using substring search for '{}'", searchText);
+            return searchProducts(searchText, pageable);
+        }
+
+        SearchHits hits = metrics.timeSearch(SearchType.ANALYZED, SearchPhase.COUNT,
+                () -> searchIndex.search(searchText, pageable));
+        List<Product> products = metrics.timeSearch(SearchType.ANALYZED, SearchPhase.PAGE,
+                () -> findAllInOrder(hits.ids()));
+        Map<Long, Highlight> highlights = new HashMap<>();
+        for (int i = 0; i < hits.highlights().size(); i++) {
+            highlights.put(hits.ids().get(i), hits.highlights().get(i));
+        }
+
+        return new HighlightedPage(products, pageable, hits.totalHits(), highlights);
+    }
+
+    /**
+     * Count the products matching an analyzed query per range of a numeric field's values,
+     * from the search index's doc values. Empty until the index has been built.
+     *
+     * @param searchText the query, or blank for all products
+     * @param field the numeric field to bucket
+     * @param interval the width of each bucket
+     * @return the buckets and the number of matches without a value
+     */
+    public Histogram histogram(String searchText, IndexField field, double interval) {
+        if (!searchIndex.isReady()) {
+            logger.debug("Search index not built yet, no histogram for '{}'", searchText);
+            return Histogram.EMPTY;
+        }
+        return metrics.timeSearch(SearchType.HISTOGRAM, SearchPhase.COUNT,
+                () -> searchIndex.histogram(searchText, field, interval));
+    }
+
+    /**
+     * Suggest a spelling correction for a search from the words of the search index. Empty
+     * until the index has been built.
+     *
+     * @param searchText the search text as the user typed it
+     * @return the corrected search text, or empty if no word needed or had a correction
+     */
+    public Optional<String> suggestQuery(String searchText) {
+        if (!searchIndex.isReady()) {
+            return Optional.empty();
+        }
+        return metrics.timeSearch(SearchType.SPELLING, SearchPhase.COUNT, () -> searchIndex.suggestQuery(searchText));
+    }
+
     /**
      * Search products by text with fuzzy matching (using wildcard patterns).
      *
@@ -61,6 +174,9 @@ public class ProductSearchRepository {
      * @return Page of products matching the search criteria with fuzzy matching
      */
     public Page<Product> searchProductsFuzzy(String searchText, Pageable pageable) {
+        if (canSearchSubstringIndex(searchText)) {
+            return searchSubstringIndex(SearchType.FUZZY, searchText, pageable);
+        }
         // For fuzzy search, we'll use wildcard patterns to simulate fuzzy matching
         String jpql = "SELECT p FROM Product p WHERE " +
                      "LOWER(p.title) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
@@ -72,7 +188,7 @@ public class ProductSearchRepository {
         query.setFirstResult((int) pageable.getOffset());
         query.setMaxResults(pageable.getPageSize());
 
-        List<Product> products = query.getResultList();
+        List<Product> products = metrics.timeSearch(SearchType.FUZZY, SearchPhase.PAGE, query::getResultList);
 
         // Count total results
         String countJpql = "SELECT COUNT(p) FROM Product p WHERE " +
@@ -81,7 +197,7 @@ public class ProductSearchRepository {
 
         TypedQuery<Long> countQuery = entityManager.createQuery(countJpql, Long.class);
         countQuery.setParameter("searchText", searchText);
-        long totalHits = countQuery.getSingleResult();
+        long totalHits = metrics.timeSearch(SearchType.FUZZY, SearchPhase.COUNT, countQuery::getSingleResult);
 
         return new PageImpl<>(products, pageable, totalHits);
     }
@@ -107,7 +223,7 @@ public class ProductSearchRepository {
         query.setFirstResult((int) pageable.getOffset());
         query.setMaxResults(pageable.getPageSize());
 
-        List<Product> products = query.getResultList();
+        List<Product> products = metrics.timeSearch(SearchType.CATEGORY_TEXT, SearchPhase.PAGE, query::getResultList);
 
         // Count total results
         String countJpql = "SELECT COUNT(p) FROM Product p WHERE " +
@@ -118,7 +234,7 @@ public class ProductSearchRepository {
         TypedQuery<Long> countQuery = entityManager.createQuery(countJpql, Long.class);
         countQuery.setParameter("searchText", searchText);
         countQuery.setParameter("category", category);
-        long totalHits = countQuery.getSingleResult();
+        long totalHits = metrics.timeSearch(SearchType.CATEGORY_TEXT, SearchPhase.COUNT, countQuery::getSingleResult);
 
         return new PageImpl<>(products, pageable, totalHits);
     }
@@ -144,7 +260,7 @@ public class ProductSearchRepository {
         query.setFirstResult((int) pageable.getOffset());
         query.setMaxResults(pageable.getPageSize());
 
-        List<Product> products = query.getResultList();
+        List<Product> products = metrics.timeSearch(SearchType.BRAND_TEXT, SearchPhase.PAGE, query::getResultList);
 
         // Count total results
         String countJpql = "SELECT COUNT(p) FROM Product p WHERE " +
@@ -155,7 +271,7 @@ public class ProductSearchRepository {
         TypedQuery<Long> countQuery = entityManager.createQuery(countJpql, Long.class);
         countQuery.setParameter("searchText", searchText);
         countQuery.setParameter("brand", brand);
-        long totalHits = countQuery.getSingleResult();
+        long totalHits = metrics.timeSearch(SearchType.BRAND_TEXT, SearchPhase.COUNT, countQuery::getSingleResult);
 
         return new PageImpl<>(products, pageable, totalHits);
     }
@@ -176,16 +292,67 @@ public class ProductSearchRepository {
         query.setParameter("partialText", partialText);
         query.setMaxResults(maxSuggestions);
 
-        return query.getResultList();
+        return metrics.timeSearch(SearchType.SUGGESTIONS, SearchPhase.PAGE, query::getResultList);
     }
 
     /**
      * Rebuild the search index for all products.
-     * This is a no-op in the JPA implementation.
+     * The indexed fields are read in ID order, a batch at a time, and analyzed into a new
+     * index that replaces the current one once complete; searches keep using the previous index
+     * until then. Products {@link #indexProduct indexed} while the rebuild runs are kept.
      */
     public void rebuildIndex() {
-        // No-op for JPA implementation
-        // In a real Hibernate Search implementation, this would rebuild the Lucene index
+        long since = searchIndex.generation();
+        InvertedIndex.Builder builder = searchIndex.newBuilder();
+        long lastId = 0;
+        List<Object[]> rows;
+        do {
+            rows = entityManager.createQuery(INDEXED_FIELDS + "WHERE p.id > :lastId ORDER BY p.id", Object[].class)
+                    .setParameter("lastId", lastId)
+                    .setMaxResults(INDEX_BATCH_SIZE)
+                    .getResultList();
+            for (Object[] row : rows) {
+                lastId = (Long) row[0];
+                builder.add(toDocument(row));
+            }
+        } while (rows.size() == INDEX_BATCH_SIZE);
+
+        searchIndex.replace(builder.build(), since);
+        metrics.indexRebuilt(builder.docCount());
+        logger.debug("Search index rebuilt with {} products", builder.docCount());
+    }
+
+    /**
+     * Index the current version of one product, replacing the version in the search index,
+     * without rebuilding it. Does nothing if the index has not been built yet.
+     */
+    public void indexProduct(Long externalId) {
+        if (!searchIndex.isReady()) {
+            return;
+        }
+        List<Object[]> rows = entityManager.createQuery(INDEXED_FIELDS + "WHERE p.externalId = :externalId",
+                        Object[].class)
+                .setParameter("externalId", externalId)
+                .getResultList();
+        for (Object[] row : rows) {
+            searchIndex.update(toDocument(row));
+        }
+        logger.debug("Indexed product with external ID {}", externalId);
+    }
+
+    private static ProductDocument toDocument(Object[] row) {
+        return new ProductDocument((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                (String) row[4], (String) row[5], (String) row[6], toDouble(row[7]), toDouble(row[8]),
+                toDouble(row[9]), (Integer) row[10]);
+    }
+
+    /**
+     * Drop the search index, e.g. after all products were deleted. Analyzed searches use
+     * substring matching until the next rebuild.
+     */
+    public void clearIndex() {
+        searchIndex.clear();
+        metrics.indexRebuilt(0);
     }
 
     /**
@@ -200,4 +367,44 @@ public class ProductSearchRepository {
         long count = query.getSingleResult();
         return count == 0;
     }
+
+    private boolean canSearchSubstringIndex(String searchText) {
+        return searchIndex.isReady() && !LIKE_SPECIAL_CHARACTERS.matcher(searchText).find();
+    }
+
+    /**
+     * Answer a {@code LIKE '%text%'} search from the trigram index, loading only the page.
+     */
+    private Page<Product> searchSubstringIndex(SearchType type, String searchText, Pageable pageable) {
+        SearchHits hits = metrics.timeSearch(type, SearchPhase.COUNT,
+                () -> searchIndex.searchSubstring(searchText, pageable));
+        List<Product> products = metrics.timeSearch(type, SearchPhase.PAGE, () -> findAllInOrder(hits.ids()));
+        return new PageImpl<>(products, pageable, hits.totalHits());
+    }
+
+    /**
+     * Load products by ID, returned in the order of {@code ids}; IDs of deleted products are skipped.
+     */
+    private List<Product> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> byId = entityManager
+                .createQuery("SELECT p FROM Product p WHERE p.id IN :ids", Product.class)
+                .setParameter("ids", ids)
+                .getResultList().stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private static Double toDouble(Object value) {
+        return value != null ? ((BigDecimal) value).doubleValue() : null;
+    }
 }
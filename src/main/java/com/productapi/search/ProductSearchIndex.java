@@ -0,0 +1,778 @@
+package com.productapi.search;
+
+import com.productapi.search.analysis.Analyzer;
+import com.productapi.search.index.Highlight;
+import com.productapi.search.index.IndexField;
+import com.productapi.search.index.IndexStatistics;
+import com.productapi.search.index.InvertedIndex;
+import com.productapi.search.index.NumericDocValues;
+import com.productapi.search.index.ProductDocument;
+import com.productapi.search.index.QueryPlan;
+import com.productapi.search.query.Query;
+import com.productapi.search.query.QueryParser;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The in-memory full-text index used by analyzed searches.
+ * <p>
+ * The index is a list of immutable {@link InvertedIndex} segments. A rebuild produces one
+ * segment holding the whole catalog; {@link #update} indexes a single changed product as a
+ * segment of its own and marks the product's older copy deleted, so the change is searchable as
+ * soon as it is saved rather than after the next rebuild. The segments and their deletions are
+ * published together as an immutable snapshot behind a volatile reference: a search reads it
+ * once, sees one consistent catalog however long it runs, and never takes a lock. Writers
+ * serialize among themselves and copy only the deletion bits they change.
+ * <p>
+ * Every segment costs each search a dictionary lookup per term, so a merge policy consolidates
+ * them on a background thread: {@value #MERGE_FACTOR} segments of about the same size, within a
+ * power of ten, are merged into one, and a segment with more than
+ * {@value #MAX_DELETED_PERCENT}% of its documents deleted is rewritten without them. A merge
+ * copies postings instead of analyzing the products again and is published only if its inputs
+ * are still current, with the deletions made while it ran. Scores use statistics summed over
+ * all segments, so a product ranks the same whichever segment holds it. Queries are analyzed
+ * with the same {@link Analyzer} the index was built with.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    /**
+     * Sort property ordering analyzed results by score.
+     */
+    public static final String RELEVANCE = "relevance";
+
+    /**
+     * Best matches re-scored by how close together the query words appear.
+     */
+    private static final int PROXIMITY_WINDOW = 100;
+
+    /**
+     * Length in chars of the description snippet returned with each analyzed search hit.
+     */
+    static final int FRAGMENT_LENGTH = 160;
+
+    /**
+     * Most buckets a histogram may have, bounding the response for a tiny interval.
+     */
+    static final int MAX_HISTOGRAM_BUCKETS = 1000;
+
+    /**
+     * Number of segments of the same size level merged together.
+     */
+    static final int MERGE_FACTOR = 10;
+
+    /**
+     * Share of deleted documents above which a segment is rewritten without them.
+     */
+    static final int MAX_DELETED_PERCENT = 20;
+
+    private final Analyzer analyzer;
+    private final Object writeLock = new Object();
+    private final ExecutorService merger = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index-merge");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean mergeScheduled = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+    private long generation;
+
+    public ProductSearchIndex(Analyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    /**
+     * A builder for a new index using this index's analyzer; publish the result with
+     * {@link #replace(InvertedIndex)}.
+     */
+    public InvertedIndex.Builder newBuilder() {
+        return InvertedIndex.builder(analyzer);
+    }
+
+    /**
+     * Replace every segment with a rebuilt index.
+     */
+    public void replace(InvertedIndex index) {
+        replace(index, Long.MAX_VALUE);
+    }
+
+    /**
+     * Replace the segments with a rebuilt index, keeping the products {@link #update updated}
+     * since the rebuild started: it may have read them before they changed.
+     *
+     * @param since the {@link #generation()} read before the rebuild read its first product
+     */
+    public void replace(InvertedIndex index, long since) {
+        synchronized (writeLock) {
+            List<Segment> newer = new ArrayList<>();
+            List<Long> updated = new ArrayList<>();
+            Snapshot current = snapshot;
+            if (current != null) {
+                for (Segment segment : current.segments()) {
+                    if (segment.generation() > since) {
+                        newer.add(segment);
+                        for (int doc = 0; doc < segment.index().docCount(); doc++) {
+                            if (segment.isLive(doc)) {
+                                updated.add(segment.index().id(doc));
+                            }
+                        }
+                    }
+                }
+            }
+            List<Segment> segments = new ArrayList<>(newer.size() + 1);
+            segments.add(new Segment(index, null, 0, ++generation).delete(updated));
+            segments.addAll(newer);
+            snapshot = Snapshot.of(segments);
+        }
+    }
+
+    /**
+     * Make a new or changed product searchable, replacing any earlier version of it. Does
+     * nothing until an index has been built, as the first rebuild will include the product.
+     */
+    public void update(ProductDocument product) {
+        if (!isReady()) {
+            return;
+        }
+        InvertedIndex added = newBuilder().add(product).build();
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            List<Segment> segments = new ArrayList<>(current.segments().size() + 1);
+            for (Segment segment : current.segments()) {
+                addIfLive(segments, segment.delete(List.of(product.id())));
+            }
+            segments.add(new Segment(added, null, 0, ++generation));
+            snapshot = Snapshot.of(segments);
+        }
+        scheduleMerge();
+    }
+
+    public void clear() {
+        synchronized (writeLock) {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * A counter advanced by every change to the index, for {@link #replace(InvertedIndex, long)}.
+     */
+    public long generation() {
+        synchronized (writeLock) {
+            return generation;
+        }
+    }
+
+    /**
+     * Whether an index has been built since startup or the last clear.
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Number of products in the index, not counting replaced versions awaiting a merge.
+     */
+    public int getDocumentCount() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Segment segment : current.segments()) {
+            count += segment.liveCount();
+        }
+        return count;
+    }
+
+    public Analyzer getAnalyzer() {
+        return analyzer;
+    }
+
+    int segmentCount() {
+        Snapshot current = snapshot;
+        return current != null ? current.segments().size() : 0;
+    }
+
+    /**
+     * Wait for the merges scheduled so far to finish.
+     */
+    void awaitMerges() throws InterruptedException, ExecutionException {
+        merger.submit(() -> {
+        }).get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        merger.shutdownNow();
+    }
+
+    /**
+     * Search the index and return one page of product IDs.
+     * <p>
+     * The query is written in the language of {@link QueryParser}: every word must match
+     * unless combined with {@code OR}, quoted words must appear as a phrase, optionally within
+     * N position moves with {@code "wireless mouse"~N}, and clauses can name a field, be negated
+     * and be grouped, e.g. {@code brand:apple category:smartphones -refurbished price:<500}.
+     * Results are ordered by relevance, best first, by title, or by a numeric field read from
+     * the index's {@link com.productapi.search.index.NumericDocValues}; ties are broken by title,
+     * products without a value for the sort field come last, and matches with the query words
+     * close together and in order rank higher. A query consisting only of stopwords matches
+     * nothing. Each hit of the page comes with a {@link Highlight} of its matched words.
+     *
+     * @param text the query text
+     * @param pageable page and sort; the sort property must be {@value #RELEVANCE}, title,
+     *                 price, rating, discountPercentage or stock
+     * @return the IDs of the requested page and the total number of matches
+     * @throws IllegalStateException if no index has been built
+     * @throws com.productapi.exception.QueryParseException if the query is not valid syntax
+     * @throws IllegalArgumentException for any other sort property
+     */
+    public SearchHits search(String text, Pageable pageable) {
+        Snapshot current = currentSnapshot();
+        Sort.Order order = sortOrder(pageable.getSort());
+        boolean relevance = order.getProperty().equals(RELEVANCE);
+        boolean byTitle = order.getProperty().equals("title");
+        IndexField sortField = relevance || byTitle ? null : IndexField.byName(order.getProperty()).orElseThrow();
+        Query query = QueryParser.parse(text);
+
+        // Each segment sorts its own matches; the page is then merged from the sorted segments
+        List<SegmentHits> hits = new ArrayList<>(current.segments().size());
+        for (Segment segment : current.segments()) {
+            InvertedIndex index = segment.index();
+            QueryPlan plan = index.plan(query, current.statistics());
+            logger.debug("Query '{}' planned as {}", text, plan);
+            InvertedIndex.Matches matches = segment.live(plan.execute());
+            if (matches.size() == 0) {
+                continue;
+            }
+            if (relevance) {
+                index.boostProximity(matches, plan.proximityTerms(), PROXIMITY_WINDOW, current.statistics());
+            }
+
+            // Each key packs the sort value above the title rank; descending orders are read from
+            // the end, so there the rank is inverted to keep ties in title order
+            boolean fromEnd = order.isDescending();
+            NumericDocValues values = sortField != null ? index.docValues(sortField) : null;
+            long[] keys = new long[matches.size()];
+            for (int i = 0; i < matches.size(); i++) {
+                int doc = matches.docs()[i];
+                int titleRank = index.titleRank(doc);
+                if (byTitle) {
+                    keys[i] = titleRank;
+                } else {
+                    int value = relevance
+                            ? Float.floatToIntBits(matches.scores()[i])
+                            : sortableValue(values.get(doc), fromEnd);
+                    keys[i] = ((long) value << 32) | (fromEnd ? Integer.MAX_VALUE - titleRank : titleRank);
+                }
+            }
+            Arrays.sort(keys);
+            hits.add(new SegmentHits(segment, plan, keys, false, byTitle, fromEnd));
+        }
+        return page(hits, String.CASE_INSENSITIVE_ORDER, pageable);
+    }
+
+    /**
+     * Find the products whose title or description contains the text, ignoring case, and
+     * return one page of their IDs in title order: the results of the substring search's
+     * {@code LIKE '%text%'} query, answered from the trigram index.
+     *
+     * @param text the text to find; {@code LIKE} wildcards are matched literally, so callers
+     *             needing their SQL meaning must query the database
+     * @param pageable page; its sort is ignored, as the substring search always orders by title
+     * @return the IDs of the requested page and the total number of matches
+     * @throws IllegalStateException if no index has been built
+     */
+    public SearchHits searchSubstring(String text, Pageable pageable) {
+        Snapshot current = currentSnapshot();
+        List<SegmentHits> hits = new ArrayList<>(current.segments().size());
+        for (Segment segment : current.segments()) {
+            int[] matches = segment.index().substringMatches(text);
+            long[] ranks = new long[matches.length];
+            int size = 0;
+            for (int doc : matches) {
+                if (segment.isLive(doc)) {
+                    ranks[size++] = segment.index().exactTitleRank(doc);
+                }
+            }
+            if (size > 0) {
+                ranks = Arrays.copyOf(ranks, size);
+                Arrays.sort(ranks);
+                hits.add(new SegmentHits(segment, null, ranks, true, true, false));
+            }
+        }
+        return page(hits, Comparator.naturalOrder(), pageable);
+    }
+
+    /**
+     * Suggest a correction for a query whose words may be misspelled, from the words of the
+     * indexed products. The largest segment's dictionary is used, which after a rebuild holds
+     * every word of the catalog.
+     *
+     * @return the query with misspelled words replaced, or empty if there is nothing to correct
+     * @throws IllegalStateException if no index has been built
+     */
+    public Optional<String> suggestQuery(String text) {
+        InvertedIndex largest = null;
+        for (Segment segment : currentSnapshot().segments()) {
+            if (largest == null || segment.index().docCount() > largest.docCount()) {
+                largest = segment.index();
+            }
+        }
+        return largest != null ? largest.suggestQuery(text) : Optional.empty();
+    }
+
+    /**
+     * Count the products matching a query by value of a numeric field, in buckets of
+     * {@code interval} starting at multiples of it, e.g. 0-50, 50-100 for prices. Empty buckets
+     * between the lowest and the highest value are included; products without a value are
+     * counted separately.
+     *
+     * @param text the query text, or blank for every product
+     * @throws IllegalStateException if no index has been built
+     * @throws IllegalArgumentException if the field is not numeric, the interval is not
+     *                                  positive, or it would take more than
+     *                                  {@value #MAX_HISTOGRAM_BUCKETS} buckets
+     */
+    public Histogram histogram(String text, IndexField field, double interval) {
+        if (!(interval > 0) || Double.isInfinite(interval)) {
+            throw new IllegalArgumentException("Histogram interval must be positive, not " + interval);
+        }
+        if (field.kind() != IndexField.Kind.NUMERIC) {
+            throw new IllegalArgumentException("Field '" + field.queryName() + "' is not numeric");
+        }
+        Snapshot current = currentSnapshot();
+        boolean all = text == null || text.isBlank();
+        Query query = all ? null : QueryParser.parse(text);
+        List<double[]> values = new ArrayList<>(current.segments().size());
+        for (Segment segment : current.segments()) {
+            values.add(matchingValues(segment, field, all ? null : segment.index().plan(query, current.statistics())));
+        }
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long missing = 0;
+        for (double[] segmentValues : values) {
+            for (double value : segmentValues) {
+                if (Double.isNaN(value)) {
+                    missing++;
+                } else {
+                    long bucket = (long) Math.floor(value / interval);
+                    min = Math.min(min, bucket);
+                    max = Math.max(max, bucket);
+                }
+            }
+        }
+        if (min > max) {
+            return new Histogram(List.of(), missing);
+        }
+        if (max - min >= MAX_HISTOGRAM_BUCKETS) {
+            throw new IllegalArgumentException("Histogram interval " + interval + " would give " + (max - min + 1)
+                    + " buckets for " + field.queryName() + "; at most " + MAX_HISTOGRAM_BUCKETS + " are allowed");
+        }
+
+        long[] counts = new long[(int) (max - min + 1)];
+        for (double[] segmentValues : values) {
+            for (double value : segmentValues) {
+                if (!Double.isNaN(value)) {
+                    counts[(int) ((long) Math.floor(value / interval) - min)]++;
+                }
+            }
+        }
+        List<Histogram.Bucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(new Histogram.Bucket((min + i) * interval, (min + i + 1) * interval, counts[i]));
+        }
+        return new Histogram(buckets, missing);
+    }
+
+    /**
+     * The values of a numeric field for the live documents of a segment matching a plan, or for
+     * all its live documents if the plan is null.
+     */
+    private static double[] matchingValues(Segment segment, IndexField field, QueryPlan plan) {
+        NumericDocValues docValues = segment.index().docValues(field);
+        if (plan == null) {
+            double[] values = new double[segment.liveCount()];
+            for (int doc = 0, i = 0; doc < segment.index().docCount(); doc++) {
+                if (segment.isLive(doc)) {
+                    values[i++] = docValues.get(doc);
+                }
+            }
+            return values;
+        }
+        InvertedIndex.Matches matches = segment.live(plan.execute());
+        double[] values = new double[matches.size()];
+        for (int i = 0; i < matches.size(); i++) {
+            values[i] = docValues.get(matches.docs()[i]);
+        }
+        return values;
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Search index has not been built");
+        }
+        return current;
+    }
+
+    /**
+     * Merge the requested page from segments whose hits are each in result order, and highlight
+     * its hits if they come with a plan. Ties between segments are broken by title, compared
+     * with {@code titles}, then by product ID, as within a segment.
+     */
+    private static SearchHits page(List<SegmentHits> hits, Comparator<String> titles, Pageable pageable) {
+        long total = 0;
+        for (SegmentHits segmentHits : hits) {
+            total += segmentHits.keys.length;
+        }
+        if (total == 0) {
+            return SearchHits.EMPTY;
+        }
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), total) : 0;
+        int to = pageable.isPaged() ? (int) Math.min(from + (long) pageable.getPageSize(), total) : (int) total;
+        int skipped = 0;
+        if (hits.size() == 1) {
+            hits.get(0).next = from;
+            skipped = from;
+        }
+        List<Long> ids = new ArrayList<>(to - from);
+        List<Highlight> highlights = new ArrayList<>(to - from);
+        for (int i = skipped; i < to; i++) {
+            SegmentHits best = null;
+            for (SegmentHits candidate : hits) {
+                if (candidate.hasNext() && (best == null || candidate.compareTo(best, titles) < 0)) {
+                    best = candidate;
+                }
+            }
+            if (i >= from) {
+                InvertedIndex index = best.segment.index();
+                int doc = best.doc();
+                ids.add(index.id(doc));
+                if (best.plan != null) {
+                    highlights.add(index.highlight(doc, best.plan.highlightTerms(), FRAGMENT_LENGTH));
+                }
+            }
+            best.next++;
+        }
+        return new SearchHits(ids, highlights, total);
+    }
+
+    private void scheduleMerge() {
+        if (mergeScheduled.compareAndSet(false, true)) {
+            merger.execute(this::mergeSegments);
+        }
+    }
+
+    /**
+     * Run the merges the policy finds until there are none left, publishing each one.
+     */
+    private void mergeSegments() {
+        mergeScheduled.set(false);
+        try {
+            for (Snapshot current = snapshot; current != null; current = snapshot) {
+                List<Segment> merge = findMerge(current.segments());
+                if (merge.isEmpty()) {
+                    return;
+                }
+                long started = System.nanoTime();
+                InvertedIndex.Builder builder = newBuilder();
+                for (Segment segment : merge) {
+                    builder.addAll(segment.index(), segment::isLive);
+                }
+                InvertedIndex merged = builder.build();
+                if (publishMerge(merge, merged)) {
+                    logger.debug("Merged {} search index segments into one of {} products in {} ms", merge.size(),
+                            merged.docCount(), (System.nanoTime() - started) / 1_000_000);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Search index merge failed; keeping the unmerged segments", e);
+        }
+    }
+
+    /**
+     * The segments to merge next: one with too many deleted documents, or the smallest
+     * {@value #MERGE_FACTOR} or more segments whose live document counts have the same number
+     * of digits.
+     */
+    static List<Segment> findMerge(List<Segment> segments) {
+        for (Segment segment : segments) {
+            if (segment.deletedCount() * 100L > (long) MAX_DELETED_PERCENT * segment.index().docCount()) {
+                return List.of(segment);
+            }
+        }
+        Map<Integer, List<Segment>> levels = new TreeMap<>();
+        for (Segment segment : segments) {
+            levels.computeIfAbsent((int) Math.log10(segment.liveCount()), level -> new ArrayList<>()).add(segment);
+        }
+        for (List<Segment> level : levels.values()) {
+            if (level.size() >= MERGE_FACTOR) {
+                return level;
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Swap a merged segment in for its inputs, deleting from it the products deleted from the
+     * inputs while it was built.
+     *
+     * @return false if a rebuild or clear replaced the inputs meanwhile, so the merge is dropped
+     */
+    private boolean publishMerge(List<Segment> inputs, InvertedIndex merged) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return false;
+            }
+            Map<InvertedIndex, Segment> merging = new IdentityHashMap<>();
+            long mergedGeneration = 0;
+            for (Segment input : inputs) {
+                merging.put(input.index(), input);
+                mergedGeneration = Math.max(mergedGeneration, input.generation());
+            }
+            List<Segment> segments = new ArrayList<>(current.segments().size());
+            List<Long> deleted = new ArrayList<>();
+            int position = -1;
+            int found = 0;
+            for (Segment segment : current.segments()) {
+                Segment input = merging.get(segment.index());
+                if (input == null) {
+                    segments.add(segment);
+                    continue;
+                }
+                found++;
+                position = position < 0 ? segments.size() : position;
+                if (segment.deletedCount() != input.deletedCount()) {
+                    for (int doc = 0; doc < segment.index().docCount(); doc++) {
+                        if (input.isLive(doc) && !segment.isLive(doc)) {
+                            deleted.add(segment.index().id(doc));
+                        }
+                    }
+                }
+            }
+            if (found != inputs.size()) {
+                return false;
+            }
+            Segment result = new Segment(merged, null, 0, mergedGeneration).delete(deleted);
+            if (result.liveCount() > 0) {
+                segments.add(position, result);
+            }
+            snapshot = Snapshot.of(segments);
+            return true;
+        }
+    }
+
+    private static void addIfLive(List<Segment> segments, Segment segment) {
+        if (segment.liveCount() > 0) {
+            segments.add(segment);
+        }
+    }
+
+    /**
+     * A sort value as an int that orders like the value. Relevance scores are non-negative
+     * floats, whose bits already do; field values are narrowed to float, which keeps catalog
+     * prices exact to the cent, and have their bits flipped when negative. Missing values
+     * sort last in either direction.
+     */
+    private static int sortableValue(double value, boolean descending) {
+        if (Double.isNaN(value)) {
+            return descending ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        }
+        int bits = Float.floatToIntBits((float) value);
+        return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+    }
+
+    private static Sort.Order sortOrder(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.desc(RELEVANCE));
+        String property = order.getProperty();
+        boolean numeric = IndexField.byName(property).filter(field -> field.kind() == IndexField.Kind.NUMERIC).isPresent();
+        if (!property.equals(RELEVANCE) && !property.equals("title") && !numeric) {
+            throw new IllegalArgumentException("Analyzed search sorts by relevance, title, price, rating, "
+                    + "discountPercentage or stock, not '" + property + "'");
+        }
+        return order;
+    }
+
+    /**
+     * The segments searched together, with the statistics their documents are scored with.
+     */
+    private record Snapshot(List<Segment> segments, IndexStatistics statistics) {
+
+        static Snapshot of(List<Segment> segments) {
+            return new Snapshot(List.copyOf(segments),
+                    IndexStatistics.of(segments.stream().map(Segment::index).toList()));
+        }
+    }
+
+    /**
+     * An index with the documents deleted from it since it was built, as a bit set that is
+     * copied on change, or null if there are none. The generation orders segments by when they
+     * were added, for rebuilds to tell which updates came after they started; a merged segment
+     * takes the latest generation of its inputs.
+     */
+    record Segment(InvertedIndex index, long[] deleted, int deletedCount, long generation) {
+
+        boolean isLive(int doc) {
+            return deleted == null || (deleted[doc >>> 6] & (1L << doc)) == 0;
+        }
+
+        int liveCount() {
+            return index.docCount() - deletedCount;
+        }
+
+        /**
+         * This segment with the documents of the given products deleted.
+         */
+        Segment delete(List<Long> ids) {
+            long[] bits = null;
+            int count = deletedCount;
+            for (long id : ids) {
+                int doc = index.doc(id);
+                if (doc < 0 || !isLive(doc) || (bits != null && (bits[doc >>> 6] & (1L << doc)) != 0)) {
+                    continue;
+                }
+                if (bits == null) {
+                    bits = deleted != null ? deleted.clone() : new long[(index.docCount() + 63) >>> 6];
+                }
+                bits[doc >>> 6] |= 1L << doc;
+                count++;
+            }
+            return bits != null ? new Segment(index, bits, count, generation) : this;
+        }
+
+        /**
+         * The matches of a plan left after dropping deleted documents, compacted in place.
+         */
+        InvertedIndex.Matches live(InvertedIndex.Matches matches) {
+            if (deleted == null) {
+                return matches;
+            }
+            int[] docs = matches.docs();
+            float[] scores = matches.scores();
+            int size = 0;
+            for (int i = 0; i < matches.size(); i++) {
+                if (isLive(docs[i])) {
+                    docs[size] = docs[i];
+                    scores[size++] = scores[i];
+                }
+            }
+            return new InvertedIndex.Matches(docs, scores, size);
+        }
+    }
+
+    /**
+     * The sorted matches of one segment, read in result order while merging a page: keys of
+     * {@link #search}, read from the end for descending orders, or exact title ranks of
+     * {@link #searchSubstring}.
+     */
+    private static final class SegmentHits {
+
+        private final Segment segment;
+        private final QueryPlan plan;
+        private final long[] keys;
+        private final boolean exactTitles;
+        private final boolean byTitle;
+        private final boolean fromEnd;
+        private int next;
+
+        SegmentHits(Segment segment, QueryPlan plan, long[] keys, boolean exactTitles, boolean byTitle,
+                    boolean fromEnd) {
+            this.segment = segment;
+            this.plan = plan;
+            this.keys = keys;
+            this.exactTitles = exactTitles;
+            this.byTitle = byTitle;
+            this.fromEnd = fromEnd;
+        }
+
+        boolean hasNext() {
+            return next < keys.length;
+        }
+
+        private long key() {
+            return keys[fromEnd ? keys.length - 1 - next : next];
+        }
+
+        /**
+         * The document of the next hit.
+         */
+        int doc() {
+            int low = (int) key();
+            int rank = fromEnd && !byTitle ? Integer.MAX_VALUE - low : low;
+            return exactTitles ? segment.index().docAtExactTitleRank(rank) : segment.index().docAtTitleRank(rank);
+        }
+
+        /**
+         * Order of the next hits of two segments: by sort value, then title, then product ID,
+         * in the direction of the sort.
+         */
+        int compareTo(SegmentHits other, Comparator<String> titles) {
+            if (!byTitle) {
+                int byValue = Integer.compare((int) (key() >> 32), (int) (other.key() >> 32));
+                if (byValue != 0) {
+                    return fromEnd ? -byValue : byValue;
+                }
+            }
+            int doc = doc();
+            int otherDoc = other.doc();
+            int order = titles.compare(segment.index().title(doc), other.segment.index().title(otherDoc));
+            if (order == 0) {
+                order = Long.compare(segment.index().id(doc), other.segment.index().id(otherDoc));
+            }
+            return byTitle && fromEnd ? -order : order;
+        }
+    }
+
+    /**
+     * One page of matching product IDs, in result order, their highlights if the search computes
+     * them, and the total number of matches.
+     */
+    public record SearchHits(List<Long> ids, List<Highlight> highlights, long totalHits) {
+
+        static final SearchHits EMPTY = new SearchHits(List.of(), 0);
+
+        public SearchHits(List<Long> ids, long totalHits) {
+            this(ids, List.of(), totalHits);
+        }
+    }
+
+    /**
+     * Counts of matching products per value range, ascending, and the number of matching
+     * products without a value.
+     */
+    public record Histogram(List<Bucket> buckets, long missing) {
+
+        public static final Histogram EMPTY = new Histogram(List.of(), 0);
+
+        /**
+         * Products with a value from {@code from}, inclusive, to {@code to}, exclusive.
+         */
+        public record Bucket(double from, double to, long count) {
+        }
+    }
+}
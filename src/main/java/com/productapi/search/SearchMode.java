@@ -0,0 +1,33 @@
+package com.productapi.search;
+
+import java.util.Locale;
+
+/**
+ * How the text of a product search is matched.
+ */
+public enum SearchMode {
+
+    /**
+     * The query text must occur as a substring of the title or description, case-insensitively.
+     */
+    SUBSTRING,
+
+    /**
+     * Query and products go through the text analysis chain; every query word must match a word
+     * of the title or description after stemming, folding and synonyms. Ranked by relevance.
+     */
+    ANALYZED;
+
+    /**
+     * Parse a mode name case-insensitively.
+     *
+     * @throws IllegalArgumentException for an unknown mode
+     */
+    public static SearchMode from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown search mode '" + value + "', expected substring or analyzed");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.productapi.search.analysis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The text analysis chain shared by indexing and querying: tokenizer, lower-casing, ASCII
+ * folding, stopword removal, light English stemming and, when configured, synonyms.
+ * <p>
+ * Products and queries must go through the same chain, otherwise indexed terms and query terms
+ * no longer meet; both the index builder and the query side therefore take this one instance.
+ * Each thread reuses its own chain and token buffer, so analyzing a text allocates nothing per
+ * token; consumers receive the shared {@link Token} and copy only what they keep.
+ */
+public final class Analyzer {
+
+    private final CharArraySet stopWords;
+    private final boolean stemming;
+    private final SynonymMap synonyms;
+    private final ThreadLocal<Chain> chains;
+
+    public Analyzer(Collection<String> stopWords, boolean stemming, List<? extends List<String>> synonymGroups) {
+        this.stopWords = new CharArraySet(stopWords);
+        this.stemming = stemming;
+        // Synonym entries go through the chain without synonyms so they match analyzed terms
+        Analyzer base = new Analyzer(this.stopWords, stemming, SynonymMap.empty());
+        this.synonyms = SynonymMap.of(synonymGroups.stream()
+                .map(group -> group.stream()
+                        .map(base::terms)
+                        .filter(terms -> terms.size() == 1)
+                        .map(terms -> terms.get(0))
+                        .toList())
+                .toList());
+        this.chains = ThreadLocal.withInitial(this::newChain);
+    }
+
+    private Analyzer(CharArraySet stopWords, boolean stemming, SynonymMap synonyms) {
+        this.stopWords = stopWords;
+        this.stemming = stemming;
+        this.synonyms = synonyms;
+        this.chains = ThreadLocal.withInitial(this::newChain);
+    }
+
+    /**
+     * The default English chain without synonyms.
+     */
+    public static Analyzer english() {
+        return new Analyzer(StopFilter.ENGLISH_STOP_WORDS, true, List.of());
+    }
+
+    /**
+     * Analyze {@code text}, passing every token to {@code consumer} in order.
+     */
+    public void analyze(CharSequence text, TokenConsumer consumer) {
+        Chain chain = chains.get();
+        chain.tokenizer.setInput(text);
+        chain.stream.reset();
+        try {
+            while (chain.stream.incrementToken()) {
+                consumer.accept(chain.stream.token());
+            }
+        } finally {
+            // Do not keep a reference to the last input alive in the thread-local chain
+            chain.tokenizer.setInput("");
+        }
+    }
+
+    /**
+     * Split {@code text} into lower-cased, ASCII-folded words, keeping stopwords and skipping
+     * stemming and synonyms: the words as a user would type them, for spelling correction.
+     */
+    public void analyzeWords(CharSequence text, TokenConsumer consumer) {
+        Chain chain = chains.get();
+        chain.tokenizer.setInput(text);
+        chain.words.reset();
+        try {
+            while (chain.words.incrementToken()) {
+                consumer.accept(chain.words.token());
+            }
+        } finally {
+            chain.tokenizer.setInput("");
+        }
+    }
+
+    /**
+     * The analyzed terms of {@code text} as strings; for queries and tests, not the indexing path.
+     */
+    public List<String> terms(CharSequence text) {
+        List<String> terms = new ArrayList<>();
+        analyze(text, token -> terms.add(token.term()));
+        return terms;
+    }
+
+    public SynonymMap getSynonyms() {
+        return synonyms;
+    }
+
+    public int getStopWordCount() {
+        return stopWords.size();
+    }
+
+    public boolean isStemming() {
+        return stemming;
+    }
+
+    private Chain newChain() {
+        Tokenizer tokenizer = new Tokenizer();
+        TokenStream words = new AsciiFoldingFilter(new LowerCaseFilter(tokenizer));
+        TokenStream stream = new StopFilter(words, stopWords);
+        if (stemming) {
+            stream = new EnglishStemFilter(stream);
+        }
+        if (!synonyms.isEmpty()) {
+            stream = new SynonymFilter(stream, synonyms);
+        }
+        return new Chain(tokenizer, stream, words);
+    }
+
+    /**
+     * The full chain, and its lower-casing and folding prefix for {@link #analyzeWords}; both
+     * read from the same tokenizer.
+     */
+    private record Chain(Tokenizer tokenizer, TokenStream stream, TokenStream words) {
+    }
+}
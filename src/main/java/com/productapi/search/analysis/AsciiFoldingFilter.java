@@ -0,0 +1,90 @@
+package com.productapi.search.analysis;
+
+import java.text.Normalizer;
+
+/**
+ * Folds accented Latin letters to their ASCII base letter ({@code café} to {@code cafe}), and
+ * expands the ligatures and letters that have no decomposition ({@code ß}, {@code æ}, {@code œ},
+ * {@code ø}, {@code ł}, {@code đ}, {@code þ}).
+ * <p>
+ * The mapping covers Latin-1 Supplement and Latin Extended-A/B and is computed once into a
+ * lookup table; tokens that are already ASCII are left untouched without copying.
+ */
+public final class AsciiFoldingFilter extends TokenFilter {
+
+    private static final char FIRST = 'À';
+    private static final char LAST = 'ɏ';
+    private static final String[] FOLDED = buildTable();
+
+    public AsciiFoldingFilter(TokenStream input) {
+        super(input);
+    }
+
+    @Override
+    public boolean incrementToken() {
+        if (!input.incrementToken()) {
+            return false;
+        }
+        char[] buffer = token.buffer();
+        int length = token.length();
+        int i = 0;
+        while (i < length && buffer[i] < FIRST) {
+            i++;
+        }
+        if (i < length) {
+            fold(i);
+        }
+        return true;
+    }
+
+    private void fold(int from) {
+        int length = token.length();
+        int extra = 0;
+        for (int i = from; i < length; i++) {
+            String folded = mapping(token.buffer()[i]);
+            if (folded != null) {
+                extra += folded.length() - 1;
+            }
+        }
+
+        // Fold back to front so expansions never overwrite unread characters
+        char[] buffer = token.resizeBuffer(length + extra);
+        int write = length + extra;
+        for (int read = length - 1; read >= from; read--) {
+            char c = buffer[read];
+            String folded = mapping(c);
+            if (folded == null) {
+                buffer[--write] = c;
+            } else {
+                for (int k = folded.length() - 1; k >= 0; k--) {
+                    buffer[--write] = folded.charAt(k);
+                }
+            }
+        }
+        token.setLength(length + extra);
+    }
+
+    private static String mapping(char c) {
+        return c >= FIRST && c <= LAST ? FOLDED[c - FIRST] : null;
+    }
+
+    private static String[] buildTable() {
+        String[] table = new String[LAST - FIRST + 1];
+        for (char c = FIRST; c <= LAST; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            char base = decomposed.charAt(0);
+            if (base < 0x80 && Character.isLetter(base)) {
+                table[c - FIRST] = String.valueOf(base);
+            }
+        }
+        String[][] special = {
+                {"ß", "ss"}, {"æ", "ae"}, {"Æ", "AE"}, {"œ", "oe"}, {"Œ", "OE"}, {"ø", "o"}, {"Ø", "O"},
+                {"ł", "l"}, {"Ł", "L"}, {"đ", "d"}, {"Đ", "D"}, {"þ", "th"}, {"Þ", "TH"}, {"ð", "d"},
+                {"Ð", "D"}, {"ı", "i"}
+        };
+        for (String[] entry : special) {
+            table[entry[0].charAt(0) - FIRST] = entry[1];
+        }
+        return table;
+    }
+}
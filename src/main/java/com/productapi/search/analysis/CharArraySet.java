@@ -0,0 +1,73 @@
+package com.productapi.search.analysis;
+
+import java.util.Collection;
+
+/**
+ * An immutable set of terms that is queried with a slice of a {@code char[]}, so token filters
+ * can test membership without creating a string per token.
+ */
+public final class CharArraySet {
+
+    private final char[][] entries;
+    private final int mask;
+    private final int size;
+
+    public CharArraySet(Collection<String> terms) {
+        int capacity = Integer.highestOneBit(Math.max(4, terms.size() * 2 - 1)) << 1;
+        this.entries = new char[capacity][];
+        this.mask = capacity - 1;
+        int count = 0;
+        for (String term : terms) {
+            char[] chars = term.toCharArray();
+            int slot = slot(chars, 0, chars.length);
+            if (entries[slot] == null) {
+                entries[slot] = chars;
+                count++;
+            }
+        }
+        this.size = count;
+    }
+
+    public boolean contains(char[] text, int offset, int length) {
+        return entries[slot(text, offset, length)] != null;
+    }
+
+    public boolean contains(Token token) {
+        return contains(token.buffer(), 0, token.length());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The slot holding the term, or the empty slot where it would go.
+     */
+    private int slot(char[] text, int offset, int length) {
+        int slot = hash(text, offset, length) & mask;
+        while (entries[slot] != null && !matches(entries[slot], text, offset, length)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    static int hash(char[] text, int offset, int length) {
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + text[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    static boolean matches(char[] entry, char[] text, int offset, int length) {
+        if (entry.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (entry[i] != text[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,65 @@
+package com.productapi.search.analysis;
+
+/**
+ * A light English stemmer: strips possessives and reduces plurals to the singular
+ * ({@code phones} to {@code phone}, {@code batteries} to {@code battery}, {@code watches} to
+ * {@code watch}, {@code men's} to {@code men}).
+ * <p>
+ * Deliberately conservative, in the spirit of Lucene's minimal English stemmer: it only handles
+ * plurals, so unrelated words are not conflated the way a full Porter stemmer would
+ * ({@code organ}/{@code organization}). Words ending in {@code us} or {@code ss} are left alone.
+ */
+public final class EnglishStemFilter extends TokenFilter {
+
+    public EnglishStemFilter(TokenStream input) {
+        super(input);
+    }
+
+    @Override
+    public boolean incrementToken() {
+        if (!input.incrementToken()) {
+            return false;
+        }
+        if (token.endsWith("'s")) {
+            token.setLength(token.length() - 2);
+        }
+        token.setLength(stem(token.buffer(), token.length()));
+        return true;
+    }
+
+    static int stem(char[] s, int length) {
+        if (length < 3 || s[length - 1] != 's') {
+            return length;
+        }
+        switch (s[length - 2]) {
+            case 'u':
+            case 's':
+                return length;
+            case 'e':
+                if (length > 3 && s[length - 3] == 'i' && s[length - 4] != 'a' && s[length - 4] != 'e') {
+                    s[length - 3] = 'y';
+                    return length - 2;
+                }
+                if (endsWith(s, length, "sses") || endsWith(s, length, "shes")
+                        || endsWith(s, length, "ches") || endsWith(s, length, "xes")) {
+                    return length - 2;
+                }
+                return length - 1;
+            default:
+                return length - 1;
+        }
+    }
+
+    private static boolean endsWith(char[] s, int length, String suffix) {
+        int start = length - suffix.length();
+        if (start < 1) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (s[start + i] != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,23 @@
+package com.productapi.search.analysis;
+
+/**
+ * Lower-cases every token in place.
+ */
+public final class LowerCaseFilter extends TokenFilter {
+
+    public LowerCaseFilter(TokenStream input) {
+        super(input);
+    }
+
+    @Override
+    public boolean incrementToken() {
+        if (!input.incrementToken()) {
+            return false;
+        }
+        char[] buffer = token.buffer();
+        for (int i = 0, length = token.length(); i < length; i++) {
+            buffer[i] = Character.toLowerCase(buffer[i]);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.productapi.search.analysis;
+
+import java.util.List;
+
+/**
+ * Drops stopwords. Removed tokens keep their position, so the remaining tokens keep the gaps
+ * and phrase matching still sees how far apart words were.
+ */
+public final class StopFilter extends TokenFilter {
+
+    /**
+     * The classic English stop list used by most search engines.
+     */
+    public static final List<String> ENGLISH_STOP_WORDS = List.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these", "they",
+            "this", "to", "was", "will", "with");
+
+    private final CharArraySet stopWords;
+
+    public StopFilter(TokenStream input, CharArraySet stopWords) {
+        super(input);
+        this.stopWords = stopWords;
+    }
+
+    @Override
+    public boolean incrementToken() {
+        while (input.incrementToken()) {
+            if (!stopWords.contains(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
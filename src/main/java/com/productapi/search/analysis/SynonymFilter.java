@@ -0,0 +1,52 @@
+package com.productapi.search.analysis;
+
+/**
+ * Injects the synonyms of a token at the token's own position, after the token itself, so
+ * any of them matches where the original word appeared.
+ */
+public final class SynonymFilter extends TokenFilter {
+
+    private final SynonymMap synonyms;
+    private char[][] pending;
+    private int pendingIndex;
+    private int position;
+    private int startOffset;
+    private int endOffset;
+
+    public SynonymFilter(TokenStream input, SynonymMap synonyms) {
+        super(input);
+        this.synonyms = synonyms;
+    }
+
+    @Override
+    public boolean incrementToken() {
+        if (pending != null) {
+            char[] synonym = pending[pendingIndex++];
+            if (pendingIndex == pending.length) {
+                pending = null;
+            }
+            token.setTerm(synonym, 0, synonym.length);
+            token.setPosition(position);
+            token.setOffsets(startOffset, endOffset);
+            return true;
+        }
+        if (!input.incrementToken()) {
+            return false;
+        }
+        char[][] alternatives = synonyms.lookup(token.buffer(), 0, token.length());
+        if (alternatives != null && alternatives.length > 0) {
+            pending = alternatives;
+            pendingIndex = 0;
+            position = token.position();
+            startOffset = token.startOffset();
+            endOffset = token.endOffset();
+        }
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        pending = null;
+    }
+}
@@ -0,0 +1,84 @@
+package com.productapi.search.analysis;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps a term to its synonyms, looked up with a slice of a {@code char[]}. Groups are
+ * symmetric: every term of a group maps to all others.
+ */
+public final class SynonymMap {
+
+    private static final SynonymMap EMPTY = new SynonymMap(Map.of());
+
+    private final char[][] keys;
+    private final char[][][] values;
+    private final int mask;
+    private final int size;
+
+    private SynonymMap(Map<String, Set<String>> synonyms) {
+        int capacity = Integer.highestOneBit(Math.max(4, synonyms.size() * 2 - 1)) << 1;
+        this.keys = new char[capacity][];
+        this.values = new char[capacity][][];
+        this.mask = capacity - 1;
+        this.size = synonyms.size();
+        synonyms.forEach((term, alternatives) -> {
+            char[] key = term.toCharArray();
+            int slot = slot(key, 0, key.length);
+            keys[slot] = key;
+            values[slot] = alternatives.stream().map(String::toCharArray).toArray(char[][]::new);
+        });
+    }
+
+    public static SynonymMap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build a map from groups of equivalent terms. Terms must already be in their analyzed form.
+     */
+    public static SynonymMap of(List<? extends List<String>> groups) {
+        Map<String, Set<String>> synonyms = new LinkedHashMap<>();
+        for (List<String> group : groups) {
+            for (String term : group) {
+                Set<String> alternatives = synonyms.computeIfAbsent(term, t -> new LinkedHashSet<>());
+                for (String other : group) {
+                    if (!other.equals(term)) {
+                        alternatives.add(other);
+                    }
+                }
+            }
+        }
+        synonyms.values().removeIf(Set::isEmpty);
+        return synonyms.isEmpty() ? EMPTY : new SynonymMap(synonyms);
+    }
+
+    /**
+     * The synonyms of a term, or null if it has none.
+     */
+    public char[][] lookup(char[] text, int offset, int length) {
+        return values[slot(text, offset, length)];
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    /**
+     * Number of terms that have synonyms.
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slot(char[] text, int offset, int length) {
+        int slot = CharArraySet.hash(text, offset, length) & mask;
+        while (keys[slot] != null && !CharArraySet.matches(keys[slot], text, offset, length)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,101 @@
+package com.productapi.search.analysis;
+
+import java.util.Arrays;
+
+/**
+ * The current token of a {@link TokenStream}: term characters in a reusable buffer plus its
+ * position and character offsets in the analyzed text.
+ * <p>
+ * One instance is shared by a tokenizer and all filters of a chain and rewritten in place for
+ * every token, so analysis allocates nothing per token once the buffer has grown to the longest
+ * term. Consumers that keep a term must copy it, e.g. with {@link #term()}.
+ */
+public final class Token {
+
+    private char[] buffer = new char[32];
+    private int length;
+    private int position;
+    private int startOffset;
+    private int endOffset;
+
+    public char[] buffer() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void setLength(int length) {
+        this.length = length;
+    }
+
+    /**
+     * Ensure the buffer holds at least {@code capacity} characters, keeping its contents.
+     */
+    public char[] resizeBuffer(int capacity) {
+        if (buffer.length < capacity) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+        }
+        return buffer;
+    }
+
+    public void append(char c) {
+        resizeBuffer(length + 1)[length++] = c;
+    }
+
+    public void setTerm(char[] source, int offset, int count) {
+        System.arraycopy(source, offset, resizeBuffer(count), 0, count);
+        length = count;
+    }
+
+    /**
+     * Position of the token in the token stream. Removed tokens leave gaps; tokens injected at
+     * the same position (synonyms) are alternatives for each other.
+     */
+    public int position() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public int startOffset() {
+        return startOffset;
+    }
+
+    public int endOffset() {
+        return endOffset;
+    }
+
+    public void setOffsets(int startOffset, int endOffset) {
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    public boolean endsWith(String suffix) {
+        int suffixLength = suffix.length();
+        if (suffixLength > length) {
+            return false;
+        }
+        for (int i = 0; i < suffixLength; i++) {
+            if (buffer[length - suffixLength + i] != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The term as a new string.
+     */
+    public String term() {
+        return new String(buffer, 0, length);
+    }
+
+    @Override
+    public String toString() {
+        return term() + "@" + position;
+    }
+}
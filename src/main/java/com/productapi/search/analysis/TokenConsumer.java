@@ -0,0 +1,11 @@
+package com.productapi.search.analysis;
+
+/**
+ * Receives the tokens of an analyzed text. The token is reused for the next one as soon as
+ * the call returns.
+ */
+@FunctionalInterface
+public interface TokenConsumer {
+
+    void accept(Token token);
+}
@@ -0,0 +1,19 @@
+package com.productapi.search.analysis;
+
+/**
+ * A stage of an analysis chain that transforms the tokens of its input stream.
+ */
+public abstract class TokenFilter extends TokenStream {
+
+    protected final TokenStream input;
+
+    protected TokenFilter(TokenStream input) {
+        super(input.token());
+        this.input = input;
+    }
+
+    @Override
+    public void reset() {
+        input.reset();
+    }
+}
@@ -0,0 +1,33 @@
+package com.productapi.search.analysis;
+
+/**
+ * A stream of tokens over one input, advanced with {@link #incrementToken()}.
+ * <p>
+ * Every stage of an analysis chain shares the same {@link Token}; a filter reads the token
+ * produced by its input and rewrites or drops it in place.
+ */
+public abstract class TokenStream {
+
+    protected final Token token;
+
+    protected TokenStream(Token token) {
+        this.token = token;
+    }
+
+    /**
+     * Advance to the next token.
+     *
+     * @return false when the input is exhausted
+     */
+    public abstract boolean incrementToken();
+
+    /**
+     * Clear per-input state before the chain is reused for another input.
+     */
+    public void reset() {
+    }
+
+    public Token token() {
+        return token;
+    }
+}
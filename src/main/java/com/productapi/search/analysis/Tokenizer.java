@@ -0,0 +1,69 @@
+package com.productapi.search.analysis;
+
+/**
+ * Splits text into runs of letters and digits.
+ * <p>
+ * An apostrophe between two letters stays part of the word ({@code men's}, {@code l'oréal}), so
+ * the stemmer can handle possessives. Positions increase by one per token and offsets are char
+ * indexes into the input, end exclusive.
+ */
+public final class Tokenizer extends TokenStream {
+
+    private CharSequence input = "";
+    private int cursor;
+    private int position;
+
+    public Tokenizer() {
+        super(new Token());
+    }
+
+    /**
+     * Set the text to tokenize; takes effect with the next {@link #reset()}.
+     */
+    public void setInput(CharSequence text) {
+        this.input = text != null ? text : "";
+    }
+
+    @Override
+    public void reset() {
+        cursor = 0;
+        position = -1;
+    }
+
+    @Override
+    public boolean incrementToken() {
+        int length = input.length();
+        while (cursor < length && !isTokenChar(input.charAt(cursor))) {
+            cursor++;
+        }
+        if (cursor >= length) {
+            return false;
+        }
+
+        int start = cursor;
+        token.setLength(0);
+        while (cursor < length) {
+            char c = input.charAt(cursor);
+            if (isTokenChar(c)) {
+                token.append(c);
+            } else if (isApostrophe(c) && cursor > start && cursor + 1 < length
+                    && Character.isLetter(input.charAt(cursor + 1))) {
+                token.append('\'');
+            } else {
+                break;
+            }
+            cursor++;
+        }
+        token.setPosition(++position);
+        token.setOffsets(start, cursor);
+        return true;
+    }
+
+    private static boolean isTokenChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '’';
+    }
+}
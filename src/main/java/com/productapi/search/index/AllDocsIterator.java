@@ -0,0 +1,43 @@
+package com.productapi.search.index;
+
+/**
+ * Every document of the index, for queries without any required word, e.g. {@code -refurbished}
+ * or {@code price:<20}.
+ */
+class AllDocsIterator extends DocIterator {
+
+    private final int maxDoc;
+    private int doc = -1;
+
+    AllDocsIterator(int maxDoc) {
+        this.maxDoc = maxDoc;
+    }
+
+    @Override
+    int docID() {
+        return doc;
+    }
+
+    @Override
+    int nextDoc() {
+        return advance(doc + 1);
+    }
+
+    @Override
+    int advance(int target) {
+        if (doc >= target) {
+            return doc;
+        }
+        return doc = target < maxDoc ? target : NO_MORE_DOCS;
+    }
+
+    @Override
+    long cost() {
+        return maxDoc;
+    }
+
+    @Override
+    public String toString() {
+        return "ALL[" + maxDoc + "]";
+    }
+}
@@ -0,0 +1,553 @@
+package com.productapi.search.index;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * The postings of every term of one field, compressed into shared byte arrays.
+ * <p>
+ * A term's documents are cut into chunks of {@value #BLOCK_SIZE}. Each stores the gaps between
+ * consecutive documents, less one, and the term frequencies, less one: a full chunk packs both
+ * with frame of reference, every value in as many bits as its largest one needs, and the last,
+ * partial chunk writes them as variable-length bytes, folding a frequency of 1 into the gap. The
+ * last document and byte offset of every chunk form the skip list that {@link Reader#advance}
+ * binary searches, so intersecting a rare term with a common one only decodes the common term's
+ * chunks that can hold a match. Positions and the char offsets of each occurrence, when kept,
+ * are variable-length deltas in a separate array, found through their chunk's offset and only
+ * decoded when asked for.
+ * <p>
+ * A term found once costs a few bytes and two skip entries instead of a handful of arrays, and
+ * the gaps of a common term often fit in a few bits each.
+ */
+final class CompressedPostings {
+
+    /**
+     * Documents per chunk, and so per skip entry.
+     */
+    static final int BLOCK_SIZE = 128;
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final boolean hasFreqs;
+    private final byte[] docData;
+    private final byte[] positionData;
+    private final int[] docFreqs;
+    private final int[] firstChunks;
+    private final int[] chunkLastDocs;
+    private final int[] chunkDocOffsets;
+    private final int[] chunkPositionOffsets;
+    private final long positionCount;
+
+    private CompressedPostings(boolean hasFreqs, byte[] docData, byte[] positionData, int[] docFreqs,
+                               int[] firstChunks, int[] chunkLastDocs, int[] chunkDocOffsets,
+                               int[] chunkPositionOffsets, long positionCount) {
+        this.hasFreqs = hasFreqs;
+        this.docData = docData;
+        this.positionData = positionData;
+        this.docFreqs = docFreqs;
+        this.firstChunks = firstChunks;
+        this.chunkLastDocs = chunkLastDocs;
+        this.chunkDocOffsets = chunkDocOffsets;
+        this.chunkPositionOffsets = chunkPositionOffsets;
+        this.positionCount = positionCount;
+    }
+
+    /**
+     * A builder for postings with documents only.
+     */
+    static Builder docsOnly() {
+        return new Builder(false, false);
+    }
+
+    /**
+     * A builder for postings with term frequencies, positions and offsets.
+     */
+    static Builder withPositions() {
+        return new Builder(true, true);
+    }
+
+    int termCount() {
+        return docFreqs.length;
+    }
+
+    int docFreq(int term) {
+        return docFreqs[term];
+    }
+
+    /**
+     * Number of occurrences of all terms, i.e. the sum of the term frequencies; 0 without
+     * frequencies.
+     */
+    long positionCount() {
+        return positionCount;
+    }
+
+    /**
+     * The documents of a term, unscored.
+     */
+    Reader iterator(int term, String label) {
+        return new Reader(term, label, null, 0, 0);
+    }
+
+    /**
+     * The documents of a term, scored with BM25.
+     *
+     * @param lengths field length of every document
+     * @param weight field boost times idf
+     */
+    Reader iterator(int term, String label, int[] lengths, float averageLength, float weight) {
+        return new Reader(term, label, lengths, averageLength, weight);
+    }
+
+    /**
+     * Approximate heap taken by the postings, skip lists included.
+     */
+    long ramBytesUsed() {
+        return bytes(docData) + bytes(positionData) + bytes(docFreqs) + bytes(firstChunks) + bytes(chunkLastDocs)
+                + bytes(chunkDocOffsets) + bytes(chunkPositionOffsets);
+    }
+
+    private static long bytes(byte[] array) {
+        return array == null ? 0 : 16 + array.length;
+    }
+
+    private static long bytes(int[] array) {
+        return array == null ? 0 : 16 + 4L * array.length;
+    }
+
+    /**
+     * Bit-pack {@value #BLOCK_SIZE} values, least significant bits first, after a byte holding
+     * the width.
+     */
+    private static void pack(int[] values, ByteArray out) {
+        int or = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            or |= values[i];
+        }
+        int bits = Integer.SIZE - Integer.numberOfLeadingZeros(or);
+        out.writeByte(bits);
+        long buffer = 0;
+        int filled = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            buffer |= (values[i] & 0xFFFFFFFFL) << filled;
+            filled += bits;
+            while (filled >= Byte.SIZE) {
+                out.writeByte((int) buffer);
+                buffer >>>= Byte.SIZE;
+                filled -= Byte.SIZE;
+            }
+        }
+    }
+
+    /**
+     * Read back {@value #BLOCK_SIZE} values written by {@link #pack}, each with one 8-byte
+     * load, which the padding after the last block keeps inside the array.
+     *
+     * @return the offset after them
+     */
+    private static int unpack(byte[] data, int offset, int[] values) {
+        int bits = data[offset++];
+        if (bits == 0) {
+            Arrays.fill(values, 0);
+            return offset;
+        }
+        long mask = (1L << bits) - 1;
+        for (int i = 0, bit = 0; i < BLOCK_SIZE; i++, bit += bits) {
+            long word = (long) LONGS.get(data, offset + (bit >>> 3));
+            values[i] = (int) ((word >>> (bit & 7)) & mask);
+        }
+        return offset + bits * (BLOCK_SIZE / Byte.SIZE);
+    }
+
+    /**
+     * Steps through the postings of one term, decoding a chunk at a time, and through the
+     * positions of the current document on request. Documents are read in ascending order only.
+     */
+    final class Reader extends DocIterator {
+
+        private final String label;
+        private final int docFreq;
+        private final int firstChunk;
+        private final int chunkCount;
+        private final int[] lengths;
+        private final float averageLength;
+        private final float weight;
+        private final int[] docBuffer = new int[BLOCK_SIZE];
+        private final int[] freqBuffer;
+        private int chunk = -1;
+        private int chunkSize;
+        private int index = -1;
+        private int doc = -1;
+        private int docPointer;
+        private int freqPointer = -1;
+
+        // A full chunk of consecutive documents stores no gaps, so its documents are not decoded
+        private int base;
+        private boolean consecutive;
+
+        // The positions at positionPointer belong to the chunk's document positionDoc, of which
+        // positionsRead have been read
+        private int positionPointer;
+        private int positionDoc;
+        private int positionsRead;
+        private int position;
+        private int startOffset;
+        private int endOffset;
+
+        private Reader(int term, String label, int[] lengths, float averageLength, float weight) {
+            this.label = label;
+            this.docFreq = docFreqs[term];
+            this.firstChunk = firstChunks[term];
+            this.chunkCount = (docFreq + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            this.lengths = lengths;
+            this.averageLength = averageLength;
+            this.weight = weight;
+            this.freqBuffer = hasFreqs ? new int[BLOCK_SIZE] : null;
+        }
+
+        @Override
+        int docID() {
+            return doc;
+        }
+
+        @Override
+        int nextDoc() {
+            if (doc == NO_MORE_DOCS) {
+                return doc;
+            }
+            if (++index == chunkSize) {
+                if (chunk + 1 == chunkCount) {
+                    return doc = NO_MORE_DOCS;
+                }
+                load(chunk + 1);
+                index = 0;
+            }
+            return doc = consecutive ? base + 1 + index : docBuffer[index];
+        }
+
+        @Override
+        int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            if (chunk < 0 || chunkLastDocs[firstChunk + chunk] < target) {
+                int from = firstChunk + chunk + 1;
+                int found = Arrays.binarySearch(chunkLastDocs, from, firstChunk + chunkCount, target);
+                int next = (found >= 0 ? found : -found - 1) - firstChunk;
+                if (next == chunkCount) {
+                    return doc = NO_MORE_DOCS;
+                }
+                load(next);
+            }
+            if (consecutive) {
+                index = target - base - 1;
+                return doc = target;
+            }
+            // The chunk's last document is at or after the target, so the search ends inside it
+            int found = Arrays.binarySearch(docBuffer, index + 1, chunkSize, target);
+            index = found >= 0 ? found : -found - 1;
+            return doc = docBuffer[index];
+        }
+
+        @Override
+        long cost() {
+            return docFreq;
+        }
+
+        @Override
+        float score() {
+            if (lengths == null) {
+                return 0;
+            }
+            return PostingsIterator.bm25(weight, freq(), lengths[doc], averageLength);
+        }
+
+        /**
+         * Occurrences of the term in the current document; 1 without frequencies.
+         */
+        int freq() {
+            if (!hasFreqs) {
+                return 1;
+            }
+            if (freqPointer >= 0) {
+                unpack(docData, freqPointer, freqBuffer);
+                for (int i = 0; i < BLOCK_SIZE; i++) {
+                    freqBuffer[i]++;
+                }
+                freqPointer = -1;
+            }
+            return freqBuffer[index];
+        }
+
+        /**
+         * The next position of the term in the current document; call at most {@link #freq()}
+         * times per document. Its char offsets are then {@link #startOffset()} and
+         * {@link #endOffset()}.
+         */
+        int nextPosition() {
+            freq();
+            if (positionDoc < index) {
+                skipPositions(freqBuffer[positionDoc] - positionsRead);
+                while (++positionDoc < index) {
+                    skipPositions(freqBuffer[positionDoc]);
+                }
+                positionsRead = 0;
+            }
+            if (positionsRead++ == 0) {
+                position = 0;
+                startOffset = 0;
+            }
+            position += readPositionVInt();
+            startOffset += readPositionVInt();
+            endOffset = startOffset + readPositionVInt();
+            return position;
+        }
+
+        int startOffset() {
+            return startOffset;
+        }
+
+        int endOffset() {
+            return endOffset;
+        }
+
+        private void load(int next) {
+            chunk = next;
+            index = -1;
+            freqPointer = -1;
+            int absolute = firstChunk + next;
+            int previous = next == 0 ? -1 : chunkLastDocs[absolute - 1];
+            docPointer = chunkDocOffsets[absolute];
+            chunkSize = Math.min(BLOCK_SIZE, docFreq - next * BLOCK_SIZE);
+            base = previous;
+            consecutive = chunkSize == BLOCK_SIZE && docData[docPointer] == 0;
+            if (consecutive) {
+                docPointer++;
+                freqPointer = hasFreqs ? docPointer : -1;
+            } else if (chunkSize == BLOCK_SIZE) {
+                docPointer = unpack(docData, docPointer, docBuffer);
+                for (int i = 0; i < BLOCK_SIZE; i++) {
+                    previous += docBuffer[i] + 1;
+                    docBuffer[i] = previous;
+                }
+                // Frequencies are only unpacked once asked for, which conjunctions skipping
+                // through the chunk may never do
+                freqPointer = hasFreqs ? docPointer : -1;
+            } else if (hasFreqs) {
+                for (int i = 0; i < chunkSize; i++) {
+                    int code = readDocVInt();
+                    previous += (code >>> 1) + 1;
+                    docBuffer[i] = previous;
+                    freqBuffer[i] = (code & 1) != 0 ? 1 : readDocVInt() + 1;
+                }
+            } else {
+                for (int i = 0; i < chunkSize; i++) {
+                    previous += readDocVInt() + 1;
+                    docBuffer[i] = previous;
+                }
+            }
+            if (positionData != null) {
+                positionPointer = chunkPositionOffsets[absolute];
+                positionDoc = 0;
+                positionsRead = 0;
+            }
+        }
+
+        private int readDocVInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = docData[docPointer++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        private int readPositionVInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = positionData[positionPointer++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        /**
+         * Skip the position, start and length of {@code count} occurrences.
+         */
+        private void skipPositions(int count) {
+            for (int values = 3 * count; values > 0; values--) {
+                while (positionData[positionPointer++] < 0) {
+                    // continuation byte
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return label + "[" + docFreq + "]";
+        }
+    }
+
+    /**
+     * Encodes the postings of one term after another, in term ordinal order. Not thread-safe.
+     */
+    static final class Builder {
+
+        private final boolean hasFreqs;
+        private final ByteArray docData = new ByteArray();
+        private final ByteArray positionData;
+        private final int[] block = new int[BLOCK_SIZE];
+        private int[] docFreqs = new int[64];
+        private int[] firstChunks = new int[64];
+        private int termCount;
+        private int[] chunkLastDocs = new int[64];
+        private int[] chunkDocOffsets = new int[64];
+        private int[] chunkPositionOffsets;
+        private int chunkCount;
+        private long positionCount;
+
+        private Builder(boolean hasFreqs, boolean hasPositions) {
+            this.hasFreqs = hasFreqs;
+            this.positionData = hasPositions ? new ByteArray() : null;
+            this.chunkPositionOffsets = hasPositions ? new int[64] : null;
+        }
+
+        /**
+         * Append the postings of the next term.
+         *
+         * @param docs the term's documents, ascending
+         * @param freqs the term frequency in each document; ignored for {@link #docsOnly()}
+         * @param count how many entries of {@code docs} and {@code freqs} to use
+         * @param positions the positions of every occurrence, grouped by document in document
+         *                  order; ignored for {@link #docsOnly()}
+         * @param offsets start and end char offset of each position, interleaved
+         */
+        void add(int[] docs, int[] freqs, int count, int[] positions, int[] offsets) {
+            if (termCount == docFreqs.length) {
+                docFreqs = Arrays.copyOf(docFreqs, termCount * 2);
+                firstChunks = Arrays.copyOf(firstChunks, termCount * 2);
+            }
+            docFreqs[termCount] = count;
+            firstChunks[termCount] = chunkCount;
+            termCount++;
+            if (hasFreqs) {
+                for (int i = 0; i < count; i++) {
+                    positionCount += freqs[i];
+                }
+            }
+
+            int previous = -1;
+            int occurrence = 0;
+            for (int from = 0; from < count; from += BLOCK_SIZE) {
+                int size = Math.min(BLOCK_SIZE, count - from);
+                addChunk(docs[from + size - 1]);
+                if (size == BLOCK_SIZE) {
+                    for (int i = 0; i < BLOCK_SIZE; i++) {
+                        block[i] = docs[from + i] - previous - 1;
+                        previous = docs[from + i];
+                    }
+                    pack(block, docData);
+                    if (hasFreqs) {
+                        for (int i = 0; i < BLOCK_SIZE; i++) {
+                            block[i] = freqs[from + i] - 1;
+                        }
+                        pack(block, docData);
+                    }
+                } else {
+                    for (int i = from; i < from + size; i++) {
+                        int gap = docs[i] - previous - 1;
+                        previous = docs[i];
+                        if (hasFreqs) {
+                            docData.writeVInt(gap << 1 | (freqs[i] == 1 ? 1 : 0));
+                            if (freqs[i] != 1) {
+                                docData.writeVInt(freqs[i] - 1);
+                            }
+                        } else {
+                            docData.writeVInt(gap);
+                        }
+                    }
+                }
+                if (positionData != null) {
+                    for (int i = from; i < from + size; i++) {
+                        int lastPosition = 0;
+                        int lastStart = 0;
+                        for (int end = occurrence + freqs[i]; occurrence < end; occurrence++) {
+                            positionData.writeVInt(positions[occurrence] - lastPosition);
+                            positionData.writeVInt(offsets[2 * occurrence] - lastStart);
+                            positionData.writeVInt(offsets[2 * occurrence + 1] - offsets[2 * occurrence]);
+                            lastPosition = positions[occurrence];
+                            lastStart = offsets[2 * occurrence];
+                        }
+                    }
+                }
+            }
+        }
+
+        private void addChunk(int lastDoc) {
+            if (chunkCount == chunkLastDocs.length) {
+                chunkLastDocs = Arrays.copyOf(chunkLastDocs, chunkCount * 2);
+                chunkDocOffsets = Arrays.copyOf(chunkDocOffsets, chunkCount * 2);
+                if (chunkPositionOffsets != null) {
+                    chunkPositionOffsets = Arrays.copyOf(chunkPositionOffsets, chunkCount * 2);
+                }
+            }
+            chunkLastDocs[chunkCount] = lastDoc;
+            chunkDocOffsets[chunkCount] = docData.size();
+            if (chunkPositionOffsets != null) {
+                chunkPositionOffsets[chunkCount] = positionData.size();
+            }
+            chunkCount++;
+        }
+
+        CompressedPostings build() {
+            return new CompressedPostings(hasFreqs, docData.toArray(Long.BYTES),
+                    positionData != null ? positionData.toArray(0) : null, Arrays.copyOf(docFreqs, termCount),
+                    Arrays.copyOf(firstChunks, termCount), Arrays.copyOf(chunkLastDocs, chunkCount),
+                    Arrays.copyOf(chunkDocOffsets, chunkCount),
+                    chunkPositionOffsets != null ? Arrays.copyOf(chunkPositionOffsets, chunkCount) : null,
+                    positionCount);
+        }
+    }
+
+    /**
+     * A growable byte array.
+     */
+    private static final class ByteArray {
+
+        private byte[] bytes = new byte[1024];
+        private int size;
+
+        void writeByte(int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        /**
+         * Seven bits per byte, least significant first, the high bit set on all but the last;
+         * negative values take five bytes.
+         */
+        void writeVInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toArray(int padding) {
+            return Arrays.copyOf(bytes, size + padding);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.productapi.search.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Documents matching every required iterator and filter and none of the excluded iterators,
+ * scored with the required and optional iterators that match.
+ * <p>
+ * The required iterators are ordered by cost: the cheapest one proposes candidates and each of
+ * the others is asked to advance to the candidate, so the work is bounded by the rarest part of
+ * the query. Filters run only on documents all iterators agree on, and exclusions last.
+ */
+final class ConjunctionIterator extends DocIterator {
+
+    private final DocIterator lead;
+    private final DocIterator[] others;
+    private final DocFilter[] filters;
+    private final DocIterator[] excluded;
+    private final DocIterator[] optional;
+    private int doc = -1;
+
+    private ConjunctionIterator(List<DocIterator> required, List<DocFilter> filters, List<DocIterator> excluded,
+                                List<DocIterator> optional) {
+        List<DocIterator> byCost = new ArrayList<>(required);
+        byCost.sort(Comparator.comparingLong(DocIterator::cost));
+        this.lead = byCost.get(0);
+        this.others = byCost.subList(1, byCost.size()).toArray(DocIterator[]::new);
+        this.filters = filters.toArray(DocFilter[]::new);
+        this.excluded = excluded.stream().filter(iterator -> iterator.cost() > 0).toArray(DocIterator[]::new);
+        this.optional = optional.stream().filter(iterator -> iterator.cost() > 0).toArray(DocIterator[]::new);
+    }
+
+    /**
+     * Combine the parts of a boolean query.
+     *
+     * @param required iterators every match must be on; when empty, every document of
+     *                 {@code maxDoc} is a candidate
+     * @return the conjunction, the single required iterator when there is nothing else to
+     * check, or an empty iterator when a required part matches nothing
+     */
+    static DocIterator of(List<DocIterator> required, List<DocFilter> filters, List<DocIterator> excluded,
+                          List<DocIterator> optional, int maxDoc) {
+        for (DocIterator iterator : required) {
+            if (iterator.cost() == 0) {
+                return DocIterator.empty();
+            }
+        }
+        if (required.size() == 1 && filters.isEmpty() && excluded.isEmpty() && optional.isEmpty()) {
+            return required.get(0);
+        }
+        List<DocIterator> candidates = required.isEmpty() ? List.of(new AllDocsIterator(maxDoc)) : required;
+        return new ConjunctionIterator(candidates, filters, excluded, optional);
+    }
+
+    @Override
+    int docID() {
+        return doc;
+    }
+
+    @Override
+    int nextDoc() {
+        return doc == NO_MORE_DOCS ? doc : advance(doc + 1);
+    }
+
+    @Override
+    int advance(int target) {
+        if (doc >= target) {
+            return doc;
+        }
+        int candidate = lead.advance(target);
+        candidates:
+        while (candidate != NO_MORE_DOCS) {
+            for (DocIterator other : others) {
+                int otherDoc = other.advance(candidate);
+                if (otherDoc > candidate) {
+                    candidate = lead.advance(otherDoc);
+                    continue candidates;
+                }
+            }
+            for (DocFilter filter : filters) {
+                if (!filter.accepts(candidate)) {
+                    candidate = lead.nextDoc();
+                    continue candidates;
+                }
+            }
+            for (DocIterator exclusion : excluded) {
+                if (exclusion.advance(candidate) == candidate) {
+                    candidate = lead.nextDoc();
+                    continue candidates;
+                }
+            }
+            return doc = candidate;
+        }
+        return doc = NO_MORE_DOCS;
+    }
+
+    @Override
+    long cost() {
+        return lead.cost();
+    }
+
+    @Override
+    float score() {
+        float score = lead.score();
+        for (DocIterator other : others) {
+            score += other.score();
+        }
+        for (DocIterator should : optional) {
+            if (should.advance(doc) == doc) {
+                score += should.score();
+            }
+        }
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner text = new StringJoiner(" ", "(", ")");
+        text.add("+" + lead);
+        for (DocIterator other : others) {
+            text.add("+" + other);
+        }
+        for (DocFilter filter : filters) {
+            text.add("#" + filter);
+        }
+        for (DocIterator exclusion : excluded) {
+            text.add("-" + exclusion);
+        }
+        for (DocIterator should : optional) {
+            text.add(should.toString());
+        }
+        return text.toString();
+    }
+}
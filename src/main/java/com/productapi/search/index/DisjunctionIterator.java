@@ -0,0 +1,83 @@
+package com.productapi.search.index;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Documents matching any of several iterators, scored with the sum of those that match.
+ * <p>
+ * The alternatives of one query word (its synonyms, in the title and the description) are
+ * only a handful of iterators, so the smallest current document is found with a scan rather
+ * than a heap.
+ */
+final class DisjunctionIterator extends DocIterator {
+
+    private final DocIterator[] subs;
+    private final long cost;
+    private int doc = -1;
+
+    private DisjunctionIterator(DocIterator[] subs) {
+        this.subs = subs;
+        long total = 0;
+        for (DocIterator sub : subs) {
+            total += sub.cost();
+        }
+        this.cost = total;
+    }
+
+    /**
+     * Combine iterators, leaving out those that match nothing.
+     */
+    static DocIterator of(List<DocIterator> iterators) {
+        DocIterator[] subs = iterators.stream().filter(iterator -> iterator.cost() > 0).toArray(DocIterator[]::new);
+        if (subs.length == 0) {
+            return DocIterator.empty();
+        }
+        return subs.length == 1 ? subs[0] : new DisjunctionIterator(subs);
+    }
+
+    @Override
+    int docID() {
+        return doc;
+    }
+
+    @Override
+    int nextDoc() {
+        return doc == NO_MORE_DOCS ? doc : advance(doc + 1);
+    }
+
+    @Override
+    int advance(int target) {
+        if (doc >= target) {
+            return doc;
+        }
+        int min = NO_MORE_DOCS;
+        for (DocIterator sub : subs) {
+            int subDoc = sub.docID() < target ? sub.advance(target) : sub.docID();
+            min = Math.min(min, subDoc);
+        }
+        return doc = min;
+    }
+
+    @Override
+    long cost() {
+        return cost;
+    }
+
+    @Override
+    float score() {
+        float score = 0;
+        for (DocIterator sub : subs) {
+            if (sub.docID() == doc) {
+                score += sub.score();
+            }
+        }
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.stream(subs).map(Object::toString).collect(Collectors.joining(" | ", "(", ")"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.productapi.search.index;
+
+/**
+ * A per-document check that cannot enumerate its own matches cheaply, such as a numeric range;
+ * evaluated only for the documents the rest of a conjunction already matched.
+ */
+interface DocFilter {
+
+    boolean accepts(int doc);
+
+    static DocFilter not(DocFilter filter) {
+        return new DocFilter() {
+            @Override
+            public boolean accepts(int doc) {
+                return !filter.accepts(doc);
+            }
+
+            @Override
+            public String toString() {
+                return "-" + filter;
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package com.productapi.search.index;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of documents, stored as a sorted array when sparse and as a bit set when
+ * dense, whichever is smaller: a bit set costs one bit per document of the index, an array 32
+ * bits per member.
+ */
+abstract class DocIdSet {
+
+    /**
+     * Create a set from documents in any order.
+     *
+     * @param docs the members; the array is not kept
+     * @param from index of the first member in {@code docs}
+     * @param to index after the last member
+     * @param maxDoc number of documents in the index
+     */
+    static DocIdSet of(int[] docs, int from, int to, int maxDoc) {
+        int count = to - from;
+        if ((long) count * Integer.SIZE > maxDoc) {
+            long[] bits = new long[(maxDoc + 63) >>> 6];
+            for (int i = from; i < to; i++) {
+                bits[docs[i] >>> 6] |= 1L << docs[i];
+            }
+            return new Bits(bits, count, maxDoc);
+        }
+        int[] sorted = Arrays.copyOfRange(docs, from, to);
+        Arrays.sort(sorted);
+        return new Sorted(sorted);
+    }
+
+    abstract int cardinality();
+
+    abstract DocIterator iterator(String label);
+
+    private static final class Sorted extends DocIdSet {
+
+        private final int[] docs;
+
+        Sorted(int[] docs) {
+            this.docs = docs;
+        }
+
+        @Override
+        int cardinality() {
+            return docs.length;
+        }
+
+        @Override
+        DocIterator iterator(String label) {
+            return PostingsIterator.keyword(label, docs);
+        }
+    }
+
+    private static final class Bits extends DocIdSet {
+
+        private final long[] bits;
+        private final int cardinality;
+        private final int maxDoc;
+
+        Bits(long[] bits, int cardinality, int maxDoc) {
+            this.bits = bits;
+            this.cardinality = cardinality;
+            this.maxDoc = maxDoc;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        DocIterator iterator(String label) {
+            return new BitSetIterator(label, bits, cardinality, maxDoc);
+        }
+    }
+
+    /**
+     * Steps through the set bits a word at a time.
+     */
+    private static final class BitSetIterator extends DocIterator {
+
+        private final String label;
+        private final long[] bits;
+        private final int cardinality;
+        private final int maxDoc;
+        private int doc = -1;
+
+        BitSetIterator(String label, long[] bits, int cardinality, int maxDoc) {
+            this.label = label;
+            this.bits = bits;
+            this.cardinality = cardinality;
+            this.maxDoc = maxDoc;
+        }
+
+        @Override
+        int docID() {
+            return doc;
+        }
+
+        @Override
+        int nextDoc() {
+            return doc == NO_MORE_DOCS ? doc : advance(doc + 1);
+        }
+
+        @Override
+        int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            if (target >= maxDoc) {
+                return doc = NO_MORE_DOCS;
+            }
+            int word = target >>> 6;
+            long current = bits[word] >>> target;
+            if (current != 0) {
+                return doc = target + Long.numberOfTrailingZeros(current);
+            }
+            while (++word < bits.length) {
+                if (bits[word] != 0) {
+                    return doc = (word << 6) + Long.numberOfTrailingZeros(bits[word]);
+                }
+            }
+            return doc = NO_MORE_DOCS;
+        }
+
+        @Override
+        long cost() {
+            return cardinality;
+        }
+
+        @Override
+        public String toString() {
+            return label + "[" + cardinality + "]";
+        }
+    }
+}
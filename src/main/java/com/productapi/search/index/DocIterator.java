@@ -0,0 +1,48 @@
+package com.productapi.search.index;
+
+/**
+ * Steps through the documents matching part of a query in ascending order.
+ * <p>
+ * An iterator starts before its first document, at -1, and ends at {@link #NO_MORE_DOCS}.
+ * {@link #advance(int)} lets a conjunction skip the documents its other parts already ruled
+ * out, which is what makes ordering the cheapest part first pay off.
+ */
+abstract class DocIterator {
+
+    static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    /**
+     * The current document, -1 before the first call and {@link #NO_MORE_DOCS} when exhausted.
+     */
+    abstract int docID();
+
+    abstract int nextDoc();
+
+    /**
+     * Move to the first document at or after {@code target}; stays put if the current
+     * document already is.
+     */
+    abstract int advance(int target);
+
+    /**
+     * An upper bound on the number of documents this iterator can match, used to order the
+     * parts of a conjunction.
+     */
+    abstract long cost();
+
+    /**
+     * The score of the current document.
+     */
+    float score() {
+        return 0;
+    }
+
+    static DocIterator empty() {
+        return new AllDocsIterator(0) {
+            @Override
+            public String toString() {
+                return "NONE";
+            }
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.productapi.search.index;
+
+import java.util.List;
+
+/**
+ * Where a document matched its query, as char offsets into the indexed text: the matched words
+ * of the title, and the description fragment that holds the most, and rarest, matched words with
+ * the matches inside it.
+ *
+ * @param title       matched words of the title, ascending and not overlapping
+ * @param snippet     the description fragment; the leading fragment if the description did not
+ *                    match. Its end may lie past the end of the text
+ * @param description matched words of the description within the snippet
+ */
+public record Highlight(List<Span> title, Span snippet, List<Span> description) {
+
+    /**
+     * Chars from {@code start}, inclusive, to {@code end}, exclusive.
+     */
+    public record Span(int start, int end) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.productapi.search.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Computes the {@link Highlight} of one document from the offsets stored with its postings.
+ * <p>
+ * Only the postings of the query's terms are read, so the cost depends on how often those terms
+ * occur in the document, never on the length of its text, and no text is analyzed again. The
+ * snippet is the window of at most {@code fragmentLength} chars whose distinct matched terms
+ * have the highest total weight, the earliest such window on a tie.
+ */
+final class Highlighter {
+
+    private Highlighter() {
+    }
+
+    static Highlight highlight(InvertedIndex index, int doc, List<QueryPlan.HighlightTerm> terms, int fragmentLength) {
+        Spans title = new Spans();
+        Spans description = new Spans();
+        for (int t = 0; t < terms.size(); t++) {
+            QueryPlan.HighlightTerm term = terms.get(t);
+            Spans spans = term.field() == IndexField.TITLE ? title : description;
+            index.text(term.field()).offsets(doc, term.ordinal(), spans, t);
+        }
+        title.sort();
+        description.sort();
+
+        if (description.size == 0) {
+            return new Highlight(title.merged(0, Integer.MAX_VALUE), new Highlight.Span(0, fragmentLength), List.of());
+        }
+        Highlight.Span snippet = bestFragment(description, terms, fragmentLength);
+        return new Highlight(title.merged(0, Integer.MAX_VALUE), snippet,
+                description.merged(snippet.start(), snippet.end()));
+    }
+
+    /**
+     * Slide a window over the matches in offset order, tracking how many matches of each term
+     * it holds, and keep the window with the highest weight of distinct terms.
+     */
+    private static Highlight.Span bestFragment(Spans spans, List<QueryPlan.HighlightTerm> terms, int fragmentLength) {
+        int[] counts = new int[terms.size()];
+        float score = 0;
+        float bestScore = -1;
+        int bestFirst = 0;
+        int bestEnd = 0;
+        int next = 0;
+        for (int first = 0; first < spans.size; first++) {
+            while (next < spans.size && (next == first || spans.ends[next] - spans.starts[first] <= fragmentLength)) {
+                if (counts[spans.terms[next]]++ == 0) {
+                    score += terms.get(spans.terms[next]).weight();
+                }
+                next++;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestFirst = first;
+                bestEnd = 0;
+                for (int i = first; i < next; i++) {
+                    bestEnd = Math.max(bestEnd, spans.ends[i]);
+                }
+            }
+            if (--counts[spans.terms[first]] == 0) {
+                score -= terms.get(spans.terms[first]).weight();
+            }
+        }
+
+        // Center the matches in the fragment
+        int matchStart = spans.starts[bestFirst];
+        int from = Math.max(0, matchStart - (fragmentLength - (bestEnd - matchStart)) / 2);
+        return new Highlight.Span(from, Math.max(from + fragmentLength, bestEnd));
+    }
+
+    /**
+     * Offsets of matched occurrences with the index of the term each belongs to.
+     */
+    static final class Spans {
+
+        private int[] starts = new int[8];
+        private int[] ends = new int[8];
+        private int[] terms = new int[8];
+        private int size;
+
+        void add(int start, int end, int term) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                terms = Arrays.copyOf(terms, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            terms[size++] = term;
+        }
+
+        /**
+         * Order by start offset; occurrences come per term, so several terms interleave.
+         */
+        void sort() {
+            long[] keyed = new long[size];
+            for (int i = 0; i < size; i++) {
+                keyed[i] = ((long) starts[i] << 32) | i;
+            }
+            Arrays.sort(keyed);
+            int[] sortedStarts = new int[size];
+            int[] sortedEnds = new int[size];
+            int[] sortedTerms = new int[size];
+            for (int i = 0; i < size; i++) {
+                int from = (int) keyed[i];
+                sortedStarts[i] = starts[from];
+                sortedEnds[i] = ends[from];
+                sortedTerms[i] = terms[from];
+            }
+            starts = sortedStarts;
+            ends = sortedEnds;
+            terms = sortedTerms;
+        }
+
+        /**
+         * The sorted spans lying within {@code [from, to)}, overlapping ones merged, as synonyms
+         * and stems of one word share its offsets.
+         */
+        List<Highlight.Span> merged(int from, int to) {
+            List<Highlight.Span> merged = new ArrayList<>();
+            int start = -1;
+            int end = -1;
+            for (int i = 0; i < size; i++) {
+                if (starts[i] < from || ends[i] > to) {
+                    continue;
+                }
+                if (start >= 0 && starts[i] <= end) {
+                    end = Math.max(end, ends[i]);
+                } else {
+                    if (start >= 0) {
+                        merged.add(new Highlight.Span(start, end));
+                    }
+                    start = starts[i];
+                    end = ends[i];
+                }
+            }
+            if (start >= 0) {
+                merged.add(new Highlight.Span(start, end));
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.productapi.search.index;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The product fields held by the search index, with the names queries use to address them.
+ * <p>
+ * Text fields are analyzed and scored, weighted by {@link #boost()}; keyword fields match
+ * their whole value case-insensitively; numeric fields answer range predicates.
+ */
+public enum IndexField {
+    TITLE(Kind.TEXT, 2.0f, "title"),
+    DESCRIPTION(Kind.TEXT, 1.0f, "description"),
+    BRAND(Kind.KEYWORD, 0, "brand"),
+    CATEGORY(Kind.KEYWORD, 0, "category"),
+    SKU(Kind.KEYWORD, 0, "sku"),
+    AVAILABILITY_STATUS(Kind.KEYWORD, 0, "availabilityStatus", "availability", "status"),
+    PRICE(Kind.NUMERIC, 0, "price"),
+    RATING(Kind.NUMERIC, 0, "rating"),
+    DISCOUNT_PERCENTAGE(Kind.NUMERIC, 0, "discountPercentage", "discount"),
+    STOCK(Kind.NUMERIC, 0, "stock");
+
+    /**
+     * Fields searched by query words that do not name a field.
+     */
+    public static final List<IndexField> DEFAULT_FIELDS = List.of(TITLE, DESCRIPTION);
+
+    private final Kind kind;
+    private final float boost;
+    private final List<String> names;
+
+    IndexField(Kind kind, float boost, String... names) {
+        this.kind = kind;
+        this.boost = boost;
+        this.names = List.of(names);
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    public float boost() {
+        return boost;
+    }
+
+    /**
+     * Whether a numeric field only holds whole numbers.
+     */
+    public boolean isInteger() {
+        return this == STOCK;
+    }
+
+    /**
+     * The name used in queries, e.g. {@code brand} in {@code brand:apple}.
+     */
+    public String queryName() {
+        return names.get(0);
+    }
+
+    /**
+     * The field with a query name or alias, ignoring case.
+     */
+    public static Optional<IndexField> byName(String name) {
+        return Arrays.stream(values())
+                .filter(field -> field.names.stream().anyMatch(alias -> alias.equalsIgnoreCase(name)))
+                .findFirst();
+    }
+
+    public static List<String> queryNames() {
+        return Arrays.stream(values()).map(IndexField::queryName).toList();
+    }
+
+    /**
+     * Index structure of a field.
+     */
+    public enum Kind {
+        TEXT, KEYWORD, NUMERIC
+    }
+}
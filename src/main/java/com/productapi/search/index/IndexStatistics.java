@@ -0,0 +1,90 @@
+package com.productapi.search.index;
+
+import java.util.List;
+
+/**
+ * The collection statistics BM25 scores with, taken over several indexes searched as one, such
+ * as the segments of a segmented index, so a product scores the same whichever segment holds
+ * it. Document counts, document frequencies and field lengths are summed over the indexes;
+ * documents an index holds but its owner has deleted still count, as they do until the
+ * segment holding them is merged away.
+ */
+public final class IndexStatistics {
+
+    private final List<InvertedIndex> indexes;
+    private final int docCount;
+    private final float[] averageLengths = new float[IndexField.values().length];
+
+    private IndexStatistics(List<InvertedIndex> indexes) {
+        this.indexes = indexes;
+        int count = 0;
+        for (InvertedIndex index : indexes) {
+            count += index.docCount();
+        }
+        this.docCount = count;
+        for (IndexField field : IndexField.values()) {
+            if (field.kind() == IndexField.Kind.TEXT) {
+                long total = 0;
+                for (InvertedIndex index : indexes) {
+                    total += index.text(field).totalLength();
+                }
+                averageLengths[field.ordinal()] = count == 0 ? 0 : Math.max(1f, (float) total / count);
+            }
+        }
+    }
+
+    public static IndexStatistics of(List<InvertedIndex> indexes) {
+        return new IndexStatistics(List.copyOf(indexes));
+    }
+
+    public int docCount() {
+        return docCount;
+    }
+
+    float averageLength(IndexField field) {
+        return averageLengths[field.ordinal()];
+    }
+
+    /**
+     * Number of documents whose text field contains a term, over all the indexes.
+     */
+    int docFreq(IndexField field, char[] term) {
+        int docFreq = 0;
+        for (InvertedIndex index : indexes) {
+            int ordinal = index.text(field).ordinal(term);
+            if (ordinal >= 0) {
+                docFreq += index.docFreq(field, ordinal);
+            }
+        }
+        return docFreq;
+    }
+
+    /**
+     * The inverse document frequency of a term some document contains.
+     */
+    float idf(IndexField field, char[] term) {
+        return idf(docFreq(field, term));
+    }
+
+    private float idf(int docFreq) {
+        return (float) Math.log(1 + (docCount - docFreq + 0.5) / (docFreq + 0.5));
+    }
+
+    /**
+     * Sum over the words of the highest idf among each word's alternatives found in the field.
+     */
+    float idfSum(IndexField field, char[][][] words) {
+        float sum = 0;
+        for (char[][] alternatives : words) {
+            float best = 0;
+            for (char[] term : alternatives) {
+                int docFreq = docFreq(field, term);
+                if (docFreq > 0) {
+                    best = Math.max(best, idf(docFreq));
+                }
+            }
+            sum += best;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,876 @@
+package com.productapi.search.index;
+
+import com.productapi.search.analysis.Analyzer;
+import com.productapi.search.analysis.Token;
+import com.productapi.search.analysis.TokenConsumer;
+import com.productapi.search.query.Query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.IntPredicate;
+
+/**
+ * An immutable in-memory index over the searchable fields of every product.
+ * <p>
+ * Documents are numbered densely from 0 in the order they were added; {@link #id(int)} maps a
+ * document back to the product ID. Each text field keeps a term dictionary and, per term, the
+ * ascending documents containing it with the term frequency and the positions in each. Matches
+ * are scored with BM25, weighted by {@link IndexField#boost()}. Keyword fields keep the
+ * documents of each distinct value, and numeric fields a column of {@link NumericDocValues}
+ * and a {@link NumericRangeIndex} of their documents ordered by value. A {@link TrigramIndex}
+ * over the raw title and description answers substring searches, and a {@link SpellChecker}
+ * over the unstemmed words of the text and keyword fields suggests corrections.
+ * <p>
+ * Positions, and the char offsets of each occurrence, are stored apart from documents and
+ * frequencies and are only read for phrases, proximity scoring and highlighting, so plain term
+ * queries cost the same as without them. All postings are {@link CompressedPostings}, delta
+ * encoded in blocks with skip lists.
+ * <p>
+ * An index is built once with a {@link Builder} and never changed afterwards, so any number of
+ * threads can search it without locking. Several indexes can be searched as one, scoring with
+ * their combined {@link IndexStatistics}, and merged into a new one with
+ * {@link Builder#addAll}, which copies postings without analyzing the products again.
+ */
+public final class InvertedIndex {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    /**
+     * Weight of the proximity bonus relative to the BM25 score of the words involved.
+     */
+    private static final float PROXIMITY_WEIGHT = 0.5f;
+
+    private final Analyzer analyzer;
+    private final long[] ids;
+    private final int[] idOrder;
+    private final String[] titles;
+    private final FieldIndex[] fields;
+    private final KeywordIndex[] keywords;
+    private final NumericDocValues[] docValues;
+    private final NumericRangeIndex[] rangeIndexes;
+    private final TrigramIndex trigrams;
+    private final SpellChecker spellChecker;
+    private final int[] titleOrder;
+    private final int[] titleRank;
+    private final int[] exactTitleOrder;
+    private final int[] exactTitleRank;
+
+    private InvertedIndex(Analyzer analyzer, long[] ids, String[] titles, FieldIndex[] fields, KeywordIndex[] keywords,
+                          NumericDocValues[] docValues, TrigramIndex trigrams, SpellChecker spellChecker,
+                          int[] titleOrder, int[] exactTitleOrder) {
+        this.analyzer = analyzer;
+        this.ids = ids;
+        this.idOrder = idOrder(ids);
+        this.titles = titles;
+        this.fields = fields;
+        this.keywords = keywords;
+        this.docValues = docValues;
+        this.rangeIndexes = new NumericRangeIndex[docValues.length];
+        for (int i = 0; i < docValues.length; i++) {
+            rangeIndexes[i] = docValues[i] != null ? NumericRangeIndex.build(docValues[i]) : null;
+        }
+        this.trigrams = trigrams;
+        this.spellChecker = spellChecker;
+        this.titleOrder = titleOrder;
+        this.titleRank = ranks(titleOrder);
+        this.exactTitleOrder = exactTitleOrder;
+        this.exactTitleRank = ranks(exactTitleOrder);
+    }
+
+    private static int[] idOrder(long[] ids) {
+        Integer[] byId = new Integer[ids.length];
+        for (int doc = 0; doc < ids.length; doc++) {
+            byId[doc] = doc;
+        }
+        Arrays.sort(byId, Comparator.comparingLong(doc -> ids[doc]));
+        int[] order = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            order[i] = byId[i];
+        }
+        return order;
+    }
+
+    private static int[] ranks(int[] order) {
+        int[] ranks = new int[order.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            ranks[order[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    public static Builder builder(Analyzer analyzer) {
+        return new Builder(analyzer);
+    }
+
+    public int docCount() {
+        return ids.length;
+    }
+
+    /**
+     * The product ID of a document.
+     */
+    public long id(int doc) {
+        return ids[doc];
+    }
+
+    /**
+     * The document holding a product, or -1 if the product is not in this index.
+     */
+    public int doc(long id) {
+        int low = 0;
+        int high = idOrder.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long found = ids[idOrder[middle]];
+            if (found < id) {
+                low = middle + 1;
+            } else if (found > id) {
+                high = middle - 1;
+            } else {
+                return idOrder[middle];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The title of a document as it was indexed, or an empty string if it had none.
+     */
+    public String title(int doc) {
+        return titles[doc];
+    }
+
+    /**
+     * Position of a document when all documents are ordered by title, case-insensitively.
+     */
+    public int titleRank(int doc) {
+        return titleRank[doc];
+    }
+
+    /**
+     * The document at a position of the title order.
+     */
+    public int docAtTitleRank(int rank) {
+        return titleOrder[rank];
+    }
+
+    /**
+     * Position of a document when all documents are ordered by title, comparing characters
+     * exactly as the database does, so upper case sorts before lower case.
+     */
+    public int exactTitleRank(int doc) {
+        return exactTitleRank[doc];
+    }
+
+    public int docAtExactTitleRank(int rank) {
+        return exactTitleOrder[rank];
+    }
+
+    /**
+     * The documents whose title or description contains {@code text}, ignoring case, as
+     * {@code LOWER(field) LIKE LOWER('%text%')} would find them, without {@code LIKE} wildcards.
+     *
+     * @return matching documents, ascending
+     */
+    public int[] substringMatches(String text) {
+        return trigrams.matches(text);
+    }
+
+    /**
+     * The query with its misspelled words replaced by the closest, most frequent words of the
+     * catalog; see {@link SpellChecker}.
+     *
+     * @return the corrected query, or empty if every word is known or none has a correction
+     */
+    public Optional<String> suggestQuery(String query) {
+        return spellChecker.suggest(query);
+    }
+
+    /**
+     * Where a document matched a query: title match ranges and the best description fragment of
+     * at most {@code fragmentLength} chars, read from the offsets stored with the postings.
+     *
+     * @param terms the query's {@link QueryPlan#highlightTerms()}
+     */
+    public Highlight highlight(int doc, List<QueryPlan.HighlightTerm> terms, int fragmentLength) {
+        return Highlighter.highlight(this, doc, terms, fragmentLength);
+    }
+
+    /**
+     * The terms of a text field, or the distinct values of a keyword field.
+     */
+    public TermDictionary terms(IndexField field) {
+        return field.kind() == IndexField.Kind.KEYWORD ? keywords[field.ordinal()].values : fields[field.ordinal()].terms;
+    }
+
+    /**
+     * Number of documents whose {@code field} contains the term with the given ordinal.
+     */
+    public int docFreq(IndexField field, int ordinal) {
+        return field.kind() == IndexField.Kind.KEYWORD
+                ? keywords[field.ordinal()].docs.docFreq(ordinal)
+                : fields[field.ordinal()].postings.docFreq(ordinal);
+    }
+
+    /**
+     * Size of the postings of a text field: its terms, documents per term, occurrences and the
+     * approximate heap they take, skip lists included.
+     *
+     * @throws IllegalArgumentException if the field is not a text field
+     */
+    public PostingsStats postingsStats(IndexField field) {
+        if (field.kind() != IndexField.Kind.TEXT) {
+            throw new IllegalArgumentException("Field '" + field.queryName() + "' is not a text field");
+        }
+        CompressedPostings postings = fields[field.ordinal()].postings;
+        long docs = 0;
+        for (int term = 0; term < postings.termCount(); term++) {
+            docs += postings.docFreq(term);
+        }
+        return new PostingsStats(postings.termCount(), docs, postings.positionCount(), postings.ramBytesUsed());
+    }
+
+    /**
+     * Compile a parsed query into a plan for this index. The query text is analyzed with the
+     * analyzer the index was built with.
+     */
+    public QueryPlan plan(Query query) {
+        return plan(query, statistics());
+    }
+
+    /**
+     * Compile a parsed query into a plan for this index, scoring with the statistics of all the
+     * indexes searched along with it.
+     */
+    public QueryPlan plan(Query query, IndexStatistics statistics) {
+        return new QueryPlanner(this, statistics).plan(query);
+    }
+
+    /**
+     * The statistics of this index searched on its own.
+     */
+    public IndexStatistics statistics() {
+        return IndexStatistics.of(List.of(this));
+    }
+
+    /**
+     * Raise the scores of the best matches whose query words appear close together, in query
+     * order, in the title or description.
+     * <p>
+     * Reading positions costs more than scoring, so only the {@code window} best-scoring
+     * matches are re-scored; that is where the ranking of the first pages is decided. Queries
+     * with fewer than two words are left alone.
+     *
+     * @param matches matches of {@link QueryPlan#execute()}, whose scores are updated in place
+     * @param terms the required words of the query, from {@link QueryPlan#proximityTerms()}
+     * @param window how many of the best matches to re-score
+     * @param statistics the statistics the query was planned with
+     */
+    public void boostProximity(Matches matches, List<QueryPlan.ProximityTerm> terms, int window,
+                               IndexStatistics statistics) {
+        if (terms.size() < 2 || matches.size() == 0) {
+            return;
+        }
+        float threshold = Float.NEGATIVE_INFINITY;
+        if (matches.size() > window) {
+            float[] sorted = Arrays.copyOf(matches.scores(), matches.size());
+            Arrays.sort(sorted);
+            threshold = sorted[matches.size() - window];
+        }
+
+        int[] relative = new int[terms.size()];
+        char[][][] alternatives = new char[terms.size()][][];
+        for (int i = 0; i < terms.size(); i++) {
+            relative[i] = terms.get(i).position();
+            alternatives[i] = terms.get(i).alternatives();
+        }
+        for (IndexField field : IndexField.DEFAULT_FIELDS) {
+            FieldIndex index = fields[field.ordinal()];
+            int[][] ordinals = index.ordinals(alternatives);
+            if (ordinals == null) {
+                continue;
+            }
+            float weight = PROXIMITY_WEIGHT * field.boost() * statistics.idfSum(field, alternatives);
+            SpanScratch scratch = new SpanScratch(ordinals.length);
+            for (int i = 0; i < matches.size(); i++) {
+                if (matches.scores()[i] < threshold) {
+                    continue;
+                }
+                int span = index.minSpan(matches.docs()[i], ordinals, relative, scratch);
+                if (span >= 0) {
+                    matches.scores()[i] += weight / (1 + span);
+                }
+            }
+        }
+    }
+
+    Analyzer analyzer() {
+        return analyzer;
+    }
+
+    FieldIndex text(IndexField field) {
+        return fields[field.ordinal()];
+    }
+
+    KeywordIndex keyword(IndexField field) {
+        return keywords[field.ordinal()];
+    }
+
+    /**
+     * The values of a numeric field by document.
+     *
+     * @throws IllegalArgumentException if the field is not numeric
+     */
+    public NumericDocValues docValues(IndexField field) {
+        requireNumeric(field);
+        return docValues[field.ordinal()];
+    }
+
+    NumericRangeIndex rangeIndex(IndexField field) {
+        requireNumeric(field);
+        return rangeIndexes[field.ordinal()];
+    }
+
+    private static void requireNumeric(IndexField field) {
+        if (field.kind() != IndexField.Kind.NUMERIC) {
+            throw new IllegalArgumentException("Field '" + field.queryName() + "' is not numeric");
+        }
+    }
+
+    /**
+     * Documents matched by a query, ascending, with their scores; only the first {@code size}
+     * entries of the arrays are used.
+     */
+    public record Matches(int[] docs, float[] scores, int size) {
+
+        static final Matches EMPTY = new Matches(new int[0], new float[0], 0);
+    }
+
+    /**
+     * See {@link #postingsStats(IndexField)}.
+     *
+     * @param postings total (term, document) pairs
+     * @param positions total occurrences
+     * @param bytes approximate heap of the compressed postings
+     */
+    public record PostingsStats(int terms, long postings, long positions, long bytes) {
+    }
+
+    static final class FieldIndex {
+
+        private final TermDictionary terms;
+        private final CompressedPostings postings;
+        private final int[] lengths;
+        private final long totalLength;
+
+        FieldIndex(TermDictionary terms, CompressedPostings postings, int[] lengths) {
+            this.terms = terms;
+            this.postings = postings;
+            this.lengths = lengths;
+            long total = 0;
+            for (int length : lengths) {
+                total += length;
+            }
+            this.totalLength = total;
+        }
+
+        /**
+         * Sum of the lengths of the field over all documents, in positions.
+         */
+        long totalLength() {
+            return totalLength;
+        }
+
+        /**
+         * The ordinal of a term, or -1 if no document contains it in this field.
+         */
+        int ordinal(char[] term) {
+            return terms.get(term, 0, term.length);
+        }
+
+        /**
+         * The documents containing a term, scored with BM25.
+         *
+         * @param weight the term's boost times its idf
+         */
+        DocIterator postings(String label, int ordinal, float weight, float averageLength) {
+            return postings.iterator(ordinal, label, lengths, averageLength, weight);
+        }
+
+        /**
+         * The ordinals of each word's alternatives present in this field, or null if some word
+         * does not occur in the field at all.
+         */
+        int[][] ordinals(char[][][] words) {
+            int[][] ordinals = new int[words.length][];
+            for (int i = 0; i < words.length; i++) {
+                int[] found = new int[words[i].length];
+                int count = 0;
+                for (char[] term : words[i]) {
+                    int ordinal = terms.get(term, 0, term.length);
+                    if (ordinal >= 0) {
+                        found[count++] = ordinal;
+                    }
+                }
+                if (count == 0) {
+                    return null;
+                }
+                ordinals[i] = Arrays.copyOf(found, count);
+            }
+            return ordinals;
+        }
+
+        /**
+         * Add the start and end offsets of every occurrence of a term in a document, in
+         * position order, to {@code spans}.
+         */
+        void offsets(int doc, int ordinal, Highlighter.Spans spans, int term) {
+            CompressedPostings.Reader reader = postings.iterator(ordinal, null);
+            if (reader.advance(doc) != doc) {
+                return;
+            }
+            for (int i = 0, freq = reader.freq(); i < freq; i++) {
+                reader.nextPosition();
+                spans.add(reader.startOffset(), reader.endOffset(), term);
+            }
+        }
+
+        /**
+         * The smallest number of position moves that brings one occurrence of every word of a
+         * document into its relative position, i.e. the narrowest window over the word positions
+         * shifted back by their relative positions. 0 means the words appear exactly as
+         * arranged. Calls sharing a scratch should come in ascending document order, so the
+         * postings readers it keeps only move forward.
+         *
+         * @return the span, or -1 if some word does not occur in the document
+         */
+        int minSpan(int doc, int[][] ordinals, int[] relative, SpanScratch scratch) {
+            int words = ordinals.length;
+            if (doc < scratch.doc) {
+                scratch.readers = new CompressedPostings.Reader[words][];
+            }
+            scratch.doc = doc;
+            for (int w = 0; w < words; w++) {
+                scratch.sizes[w] = 0;
+                if (scratch.readers[w] == null) {
+                    scratch.readers[w] = new CompressedPostings.Reader[ordinals[w].length];
+                }
+                for (int a = 0; a < ordinals[w].length; a++) {
+                    CompressedPostings.Reader reader = scratch.readers[w][a];
+                    if (reader == null) {
+                        reader = scratch.readers[w][a] = postings.iterator(ordinals[w][a], null);
+                    }
+                    if (reader.advance(doc) == doc) {
+                        for (int i = 0, freq = reader.freq(); i < freq; i++) {
+                            scratch.add(w, reader.nextPosition() - relative[w]);
+                        }
+                    }
+                }
+                if (scratch.sizes[w] == 0) {
+                    return -1;
+                }
+                if (ordinals[w].length > 1) {
+                    Arrays.sort(scratch.lists[w], 0, scratch.sizes[w]);
+                }
+            }
+
+            // Advance the list holding the smallest position until one list is exhausted
+            int[] cursors = scratch.cursors;
+            Arrays.fill(cursors, 0, words, 0);
+            int best = Integer.MAX_VALUE;
+            while (true) {
+                int min = Integer.MAX_VALUE;
+                int max = Integer.MIN_VALUE;
+                int minList = 0;
+                for (int w = 0; w < words; w++) {
+                    int value = scratch.lists[w][cursors[w]];
+                    if (value < min) {
+                        min = value;
+                        minList = w;
+                    }
+                    max = Math.max(max, value);
+                }
+                best = Math.min(best, max - min);
+                if (best == 0 || ++cursors[minList] == scratch.sizes[minList]) {
+                    return best;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reusable state for {@link FieldIndex#minSpan}: the shifted positions of each word, and a
+     * postings reader per alternative of each word, positioned at or after the last document.
+     */
+    static final class SpanScratch {
+
+        private final int[][] lists;
+        private final int[] sizes;
+        private final int[] cursors;
+        private CompressedPostings.Reader[][] readers;
+        private int doc = -1;
+
+        SpanScratch(int words) {
+            this.lists = new int[words][8];
+            this.sizes = new int[words];
+            this.cursors = new int[words];
+            this.readers = new CompressedPostings.Reader[words][];
+        }
+
+        void add(int word, int position) {
+            if (sizes[word] == lists[word].length) {
+                lists[word] = Arrays.copyOf(lists[word], sizes[word] * 2);
+            }
+            lists[word][sizes[word]++] = position;
+        }
+    }
+
+    /**
+     * The documents holding each distinct value of a keyword field, values lower-cased.
+     */
+    static final class KeywordIndex {
+
+        private final TermDictionary values;
+        private final CompressedPostings docs;
+
+        KeywordIndex(TermDictionary values, CompressedPostings docs) {
+            this.values = values;
+            this.docs = docs;
+        }
+
+        /**
+         * The documents whose value equals {@code value}, ignoring case and surrounding space.
+         */
+        DocIterator docs(String label, String value) {
+            int ordinal = values.get(normalize(value));
+            return ordinal >= 0 ? docs.iterator(ordinal, label) : PostingsIterator.keyword(label, new int[0]);
+        }
+
+        static String normalize(String value) {
+            return value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Builds an {@link InvertedIndex} by analyzing products one at a time, or by copying the
+     * documents of existing indexes. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private final Analyzer analyzer;
+        private final FieldBuilder[] fields = new FieldBuilder[IndexField.values().length];
+        private final KeywordBuilder[] keywords = new KeywordBuilder[IndexField.values().length];
+        private final NumericDocValues.Builder[] docValues = new NumericDocValues.Builder[IndexField.values().length];
+        private long[] ids = new long[256];
+        private final List<String> titles = new ArrayList<>();
+        private final TrigramIndex.Builder trigrams = new TrigramIndex.Builder();
+        private final SpellChecker.Builder words;
+        private int docCount;
+
+        private Builder(Analyzer analyzer) {
+            this.analyzer = analyzer;
+            this.words = new SpellChecker.Builder(analyzer);
+            for (IndexField field : IndexField.values()) {
+                switch (field.kind()) {
+                    case TEXT -> fields[field.ordinal()] = new FieldBuilder();
+                    case KEYWORD -> keywords[field.ordinal()] = new KeywordBuilder();
+                    case NUMERIC -> docValues[field.ordinal()] = NumericDocValues.builder(field.isInteger());
+                }
+            }
+        }
+
+        /**
+         * Add a product with only a title and a description.
+         */
+        public Builder add(long id, String title, String description) {
+            return add(ProductDocument.text(id, title, description));
+        }
+
+        public Builder add(ProductDocument product) {
+            if (docCount == ids.length) {
+                ids = Arrays.copyOf(ids, docCount * 2);
+            }
+            int doc = docCount++;
+            ids[doc] = product.id();
+            titles.add(product.title() != null ? product.title() : "");
+            fields[IndexField.TITLE.ordinal()].add(analyzer, doc, product.title());
+            fields[IndexField.DESCRIPTION.ordinal()].add(analyzer, doc, product.description());
+            trigrams.add(doc, product.title(), product.description());
+            words.add(product.title());
+            words.add(product.description());
+            words.add(product.brand());
+            words.add(product.category());
+            for (IndexField field : IndexField.values()) {
+                if (field.kind() == IndexField.Kind.KEYWORD) {
+                    keywords[field.ordinal()].add(doc, product.keyword(field));
+                } else if (field.kind() == IndexField.Kind.NUMERIC) {
+                    docValues[field.ordinal()].add(product.number(field));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Add the documents of another index built with the same analyzer, keeping their
+         * postings, positions and offsets as they are instead of analyzing the products again.
+         * Documents are numbered after those already added, in their order in {@code index}.
+         * The spelling dictionary takes all of the index's word counts, including those of
+         * documents left out.
+         *
+         * @param live which documents of {@code index} to add
+         */
+        public Builder addAll(InvertedIndex index, IntPredicate live) {
+            int[] docMap = new int[index.docCount()];
+            for (int doc = 0; doc < docMap.length; doc++) {
+                if (!live.test(doc)) {
+                    docMap[doc] = -1;
+                    continue;
+                }
+                if (docCount == ids.length) {
+                    ids = Arrays.copyOf(ids, docCount * 2);
+                }
+                int added = docCount++;
+                docMap[doc] = added;
+                ids[added] = index.ids[doc];
+                titles.add(index.titles[doc]);
+                trigrams.add(added, index.trigrams.title(doc), index.trigrams.description(doc));
+                for (IndexField field : IndexField.values()) {
+                    if (field.kind() == IndexField.Kind.NUMERIC) {
+                        docValues[field.ordinal()].add(index.docValues[field.ordinal()].get(doc));
+                    }
+                }
+            }
+            for (IndexField field : IndexField.values()) {
+                switch (field.kind()) {
+                    case TEXT -> fields[field.ordinal()].addAll(index.fields[field.ordinal()], docMap);
+                    case KEYWORD -> keywords[field.ordinal()].addAll(index.keywords[field.ordinal()], docMap);
+                    case NUMERIC -> {
+                    }
+                }
+            }
+            words.addAll(index.spellChecker);
+            return this;
+        }
+
+        public int docCount() {
+            return docCount;
+        }
+
+        public InvertedIndex build() {
+            FieldIndex[] built = new FieldIndex[fields.length];
+            KeywordIndex[] builtKeywords = new KeywordIndex[keywords.length];
+            NumericDocValues[] builtDocValues = new NumericDocValues[docValues.length];
+            for (int i = 0; i < fields.length; i++) {
+                built[i] = fields[i] != null ? fields[i].build(docCount) : null;
+                builtKeywords[i] = keywords[i] != null ? keywords[i].build() : null;
+                builtDocValues[i] = docValues[i] != null ? docValues[i].build() : null;
+            }
+            long[] docIds = Arrays.copyOf(ids, docCount);
+            return new InvertedIndex(analyzer, docIds, titles.toArray(new String[0]), built, builtKeywords, builtDocValues, trigrams.build(),
+                    words.build(), titleOrder(String.CASE_INSENSITIVE_ORDER, docIds), titleOrder(Comparator.naturalOrder(), docIds));
+        }
+
+        private int[] titleOrder(Comparator<String> comparator, long[] docIds) {
+            Integer[] byTitle = new Integer[docCount];
+            for (int doc = 0; doc < docCount; doc++) {
+                byTitle[doc] = doc;
+            }
+            Arrays.sort(byTitle, Comparator.<Integer, String>comparing(titles::get, comparator)
+                    .thenComparingLong(doc -> docIds[doc]));
+            int[] order = new int[docCount];
+            for (int rank = 0; rank < docCount; rank++) {
+                order[rank] = byTitle[rank];
+            }
+            return order;
+        }
+    }
+
+    /**
+     * Accumulates the documents of each value of a keyword field.
+     */
+    private static final class KeywordBuilder {
+
+        private final TermDictionary values = new TermDictionary();
+        private int[][] docs = new int[16][];
+        private int[] counts = new int[16];
+
+        void add(int doc, String value) {
+            if (value == null || value.isBlank()) {
+                return;
+            }
+            char[] normalized = KeywordIndex.normalize(value).toCharArray();
+            add(doc, values.add(normalized, 0, normalized.length));
+        }
+
+        /**
+         * Add the live documents of another index's field, renumbered through {@code docMap}.
+         */
+        void addAll(KeywordIndex index, int[] docMap) {
+            for (int source = 0; source < index.values.size(); source++) {
+                int ordinal = -1;
+                CompressedPostings.Reader reader = index.docs.iterator(source, null);
+                for (int doc = reader.nextDoc(); doc != DocIterator.NO_MORE_DOCS; doc = reader.nextDoc()) {
+                    if (docMap[doc] >= 0) {
+                        if (ordinal < 0) {
+                            char[] value = index.values.term(source).toCharArray();
+                            ordinal = values.add(value, 0, value.length);
+                        }
+                        add(docMap[doc], ordinal);
+                    }
+                }
+            }
+        }
+
+        private void add(int doc, int ordinal) {
+            if (ordinal == docs.length) {
+                docs = Arrays.copyOf(docs, ordinal * 2);
+                counts = Arrays.copyOf(counts, ordinal * 2);
+            }
+            if (docs[ordinal] == null) {
+                docs[ordinal] = new int[4];
+            } else if (counts[ordinal] == docs[ordinal].length) {
+                docs[ordinal] = Arrays.copyOf(docs[ordinal], counts[ordinal] * 2);
+            }
+            docs[ordinal][counts[ordinal]++] = doc;
+        }
+
+        KeywordIndex build() {
+            CompressedPostings.Builder valueDocs = CompressedPostings.docsOnly();
+            for (int ordinal = 0; ordinal < values.size(); ordinal++) {
+                valueDocs.add(docs[ordinal], null, counts[ordinal], null, null);
+                docs[ordinal] = null;
+            }
+            return new KeywordIndex(values, valueDocs.build());
+        }
+    }
+
+    /**
+     * Accumulates the postings of one text field. Receives tokens straight from the analyzer, so a
+     * token costs a dictionary probe and a few array writes.
+     */
+    private static final class FieldBuilder implements TokenConsumer {
+
+        private final TermDictionary terms = new TermDictionary();
+        private int[][] docs = new int[64][];
+        private int[][] freqs = new int[64][];
+        private int[][] positions = new int[64][];
+        private int[][] offsets = new int[64][];
+        private int[] counts = new int[64];
+        private int[] positionCounts = new int[64];
+        private int[] lengths = new int[256];
+        private int currentDoc;
+        private int lastPosition;
+
+        void add(Analyzer analyzer, int doc, String text) {
+            if (doc == lengths.length) {
+                lengths = Arrays.copyOf(lengths, doc * 2);
+            }
+            currentDoc = doc;
+            lastPosition = -1;
+            if (text != null) {
+                analyzer.analyze(text, this);
+            }
+        }
+
+        @Override
+        public void accept(Token token) {
+            add(terms.add(token.buffer(), 0, token.length()), currentDoc, token.position(), token.startOffset(),
+                    token.endOffset());
+
+            // Synonyms share their word's position and do not make the field longer
+            if (token.position() != lastPosition) {
+                lastPosition = token.position();
+                lengths[currentDoc]++;
+            }
+        }
+
+        /**
+         * Add the live documents of another index's field, renumbered through {@code docMap},
+         * with their lengths and the positions and offsets of every occurrence.
+         */
+        void addAll(FieldIndex index, int[] docMap) {
+            for (int doc = 0; doc < docMap.length; doc++) {
+                if (docMap[doc] >= 0) {
+                    if (docMap[doc] >= lengths.length) {
+                        lengths = Arrays.copyOf(lengths, Math.max(docMap[doc] + 1, lengths.length * 2));
+                    }
+                    lengths[docMap[doc]] = index.lengths[doc];
+                }
+            }
+            for (int source = 0; source < index.terms.size(); source++) {
+                int ordinal = -1;
+                CompressedPostings.Reader reader = index.postings.iterator(source, null);
+                for (int doc = reader.nextDoc(); doc != DocIterator.NO_MORE_DOCS; doc = reader.nextDoc()) {
+                    if (docMap[doc] < 0) {
+                        continue;
+                    }
+                    if (ordinal < 0) {
+                        char[] term = index.terms.term(source).toCharArray();
+                        ordinal = terms.add(term, 0, term.length);
+                    }
+                    for (int i = 0, freq = reader.freq(); i < freq; i++) {
+                        add(ordinal, docMap[doc], reader.nextPosition(), reader.startOffset(), reader.endOffset());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Record one occurrence of a term; documents must come in ascending order per term.
+         */
+        private void add(int ordinal, int doc, int position, int startOffset, int endOffset) {
+            if (ordinal == docs.length) {
+                docs = Arrays.copyOf(docs, ordinal * 2);
+                freqs = Arrays.copyOf(freqs, ordinal * 2);
+                positions = Arrays.copyOf(positions, ordinal * 2);
+                offsets = Arrays.copyOf(offsets, ordinal * 2);
+                counts = Arrays.copyOf(counts, ordinal * 2);
+                positionCounts = Arrays.copyOf(positionCounts, ordinal * 2);
+            }
+            if (docs[ordinal] == null) {
+                docs[ordinal] = new int[4];
+                freqs[ordinal] = new int[4];
+                positions[ordinal] = new int[4];
+                offsets[ordinal] = new int[8];
+            }
+            int count = counts[ordinal];
+            if (count > 0 && docs[ordinal][count - 1] == doc) {
+                freqs[ordinal][count - 1]++;
+            } else {
+                if (count == docs[ordinal].length) {
+                    docs[ordinal] = Arrays.copyOf(docs[ordinal], count * 2);
+                    freqs[ordinal] = Arrays.copyOf(freqs[ordinal], count * 2);
+                }
+                docs[ordinal][count] = doc;
+                freqs[ordinal][count] = 1;
+                counts[ordinal] = count + 1;
+            }
+            int positionCount = positionCounts[ordinal];
+            if (positionCount == positions[ordinal].length) {
+                positions[ordinal] = Arrays.copyOf(positions[ordinal], positionCount * 2);
+                offsets[ordinal] = Arrays.copyOf(offsets[ordinal], positionCount * 4);
+            }
+            positions[ordinal][positionCount] = position;
+            offsets[ordinal][2 * positionCount] = startOffset;
+            offsets[ordinal][2 * positionCount + 1] = endOffset;
+            positionCounts[ordinal] = positionCount + 1;
+        }
+
+        FieldIndex build(int docCount) {
+            CompressedPostings.Builder postings = CompressedPostings.withPositions();
+            for (int ordinal = 0; ordinal < terms.size(); ordinal++) {
+                postings.add(docs[ordinal], freqs[ordinal], counts[ordinal], positions[ordinal], offsets[ordinal]);
+                docs[ordinal] = null;
+                freqs[ordinal] = null;
+                positions[ordinal] = null;
+                offsets[ordinal] = null;
+            }
+            return new FieldIndex(terms, postings.build(), Arrays.copyOf(lengths, docCount));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.productapi.search.index;
+
+import java.util.Arrays;
+
+/**
+ * The values of one numeric field as a column: a primitive array indexed by document, so
+ * sorting, range filtering and histograms read memory sequentially instead of loading
+ * entities.
+ * <p>
+ * Decimal fields are held as {@code double}s with NaN for a missing value, whole-number fields
+ * as {@code int}s with a reserved value for missing.
+ */
+public abstract sealed class NumericDocValues permits NumericDocValues.Doubles, NumericDocValues.Ints {
+
+    /**
+     * The value of a document, or NaN if it has none.
+     */
+    public abstract double get(int doc);
+
+    public abstract int size();
+
+    public boolean hasValue(int doc) {
+        return !Double.isNaN(get(doc));
+    }
+
+    static Builder builder(boolean integer) {
+        return new Builder(integer);
+    }
+
+    static final class Doubles extends NumericDocValues {
+
+        private final double[] values;
+
+        private Doubles(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public double get(int doc) {
+            return values[doc];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    static final class Ints extends NumericDocValues {
+
+        static final int MISSING = Integer.MIN_VALUE;
+
+        private final int[] values;
+
+        private Ints(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public double get(int doc) {
+            int value = values[doc];
+            return value != MISSING ? value : Double.NaN;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    /**
+     * Collects the values of one field in document order. Not thread-safe.
+     */
+    static final class Builder {
+
+        private double[] doubles;
+        private int[] ints;
+        private int size;
+
+        private Builder(boolean integer) {
+            if (integer) {
+                ints = new int[256];
+            } else {
+                doubles = new double[256];
+            }
+        }
+
+        /**
+         * Set the value of the next document; NaN for none.
+         */
+        void add(double value) {
+            if (ints != null) {
+                if (size == ints.length) {
+                    ints = Arrays.copyOf(ints, size * 2);
+                }
+                ints[size++] = Double.isNaN(value) ? Ints.MISSING : (int) value;
+            } else {
+                if (size == doubles.length) {
+                    doubles = Arrays.copyOf(doubles, size * 2);
+                }
+                doubles[size++] = value;
+            }
+        }
+
+        NumericDocValues build() {
+            return ints != null ? new Ints(Arrays.copyOf(ints, size)) : new Doubles(Arrays.copyOf(doubles, size));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.productapi.search.index;
+
+import com.productapi.search.query.Query;
+
+import java.util.Arrays;
+
+/**
+ * The documents of a numeric field ordered by value, so a range predicate is answered with
+ * two binary searches and one contiguous slice instead of a check of every document.
+ * <p>
+ * Holds the distinct values in ascending order and, for every document with a value, its
+ * position in that order; documents without a value are left out. The number of documents in
+ * a range is known before any of them is read, which lets the query planner choose between
+ * enumerating a range and checking it against the {@link NumericDocValues} of documents the
+ * rest of the query found.
+ */
+final class NumericRangeIndex {
+
+    private final double[] values;
+    private final int[] docs;
+    private final int maxDoc;
+
+    private NumericRangeIndex(double[] values, int[] docs, int maxDoc) {
+        this.values = values;
+        this.docs = docs;
+        this.maxDoc = maxDoc;
+    }
+
+    static NumericRangeIndex build(NumericDocValues docValues) {
+        int maxDoc = docValues.size();
+        double[] distinct = new double[maxDoc];
+        int count = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (docValues.hasValue(doc)) {
+                distinct[count++] = docValues.get(doc);
+            }
+        }
+        Arrays.sort(distinct, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || distinct[i] != distinct[unique - 1]) {
+                distinct[unique++] = distinct[i];
+            }
+        }
+        distinct = Arrays.copyOf(distinct, unique);
+
+        // Sort (value rank, doc) pairs as longs, so documents come out by value and then by doc
+        long[] keys = new long[count];
+        int k = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (docValues.hasValue(doc)) {
+                keys[k++] = ((long) Arrays.binarySearch(distinct, docValues.get(doc)) << 32) | doc;
+            }
+        }
+        Arrays.sort(keys);
+        double[] sortedValues = new double[count];
+        int[] sortedDocs = new int[count];
+        for (int i = 0; i < count; i++) {
+            sortedValues[i] = distinct[(int) (keys[i] >>> 32)];
+            sortedDocs[i] = (int) keys[i];
+        }
+        return new NumericRangeIndex(sortedValues, sortedDocs, maxDoc);
+    }
+
+    /**
+     * Number of documents with a value in the range.
+     */
+    int count(Query.Range range) {
+        return to(range) - from(range);
+    }
+
+    /**
+     * The documents with a value in the range.
+     */
+    DocIdSet docs(Query.Range range) {
+        return DocIdSet.of(docs, from(range), to(range), maxDoc);
+    }
+
+    private int from(Query.Range range) {
+        return firstAbove(range.lower(), !range.includeLower());
+    }
+
+    private int to(Query.Range range) {
+        return Math.max(from(range), firstAbove(range.upper(), range.includeUpper()));
+    }
+
+    /**
+     * The first position whose value is greater than {@code bound}, or at least {@code bound}
+     * when {@code strict} is false.
+     */
+    private int firstAbove(double bound, boolean strict) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (strict ? values[mid] <= bound : values[mid] < bound) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
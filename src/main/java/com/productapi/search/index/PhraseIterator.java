@@ -0,0 +1,75 @@
+package com.productapi.search.index;
+
+/**
+ * Documents whose field holds the words of a phrase within {@code slop} position moves of
+ * their arrangement in the query.
+ * <p>
+ * Candidates are the documents containing every word, found with a conjunction over the
+ * postings; positions are read only for those candidates.
+ */
+final class PhraseIterator extends DocIterator {
+
+    private final String label;
+    private final InvertedIndex.FieldIndex field;
+    private final int[][] ordinals;
+    private final int[] relative;
+    private final int slop;
+    private final float weight;
+    private final DocIterator approximation;
+    private final InvertedIndex.SpanScratch scratch;
+    private int doc = -1;
+    private int span;
+
+    PhraseIterator(String label, InvertedIndex.FieldIndex field, int[][] ordinals, int[] relative, int slop,
+                   float weight, DocIterator approximation) {
+        this.label = label;
+        this.field = field;
+        this.ordinals = ordinals;
+        this.relative = relative;
+        this.slop = slop;
+        this.weight = weight;
+        this.approximation = approximation;
+        this.scratch = new InvertedIndex.SpanScratch(ordinals.length);
+    }
+
+    @Override
+    int docID() {
+        return doc;
+    }
+
+    @Override
+    int nextDoc() {
+        return doc == NO_MORE_DOCS ? doc : advance(doc + 1);
+    }
+
+    @Override
+    int advance(int target) {
+        if (doc >= target) {
+            return doc;
+        }
+        int candidate = approximation.advance(target);
+        while (candidate != NO_MORE_DOCS) {
+            span = field.minSpan(candidate, ordinals, relative, scratch);
+            if (span >= 0 && span <= slop) {
+                return doc = candidate;
+            }
+            candidate = approximation.nextDoc();
+        }
+        return doc = NO_MORE_DOCS;
+    }
+
+    @Override
+    long cost() {
+        return approximation.cost();
+    }
+
+    @Override
+    float score() {
+        return weight / (1 + span);
+    }
+
+    @Override
+    public String toString() {
+        return label + "[" + approximation.cost() + "]";
+    }
+}
@@ -0,0 +1,95 @@
+package com.productapi.search.index;
+
+import java.util.Arrays;
+
+/**
+ * The documents of one term held in a plain array, scored with BM25 when frequencies are given.
+ * Index postings are {@link CompressedPostings}; this iterates sets computed per query.
+ * <p>
+ * {@link #advance(int)} gallops ahead from the current posting and then binary searches, so a
+ * rare term intersected with a common one touches only a few of the common term's postings.
+ */
+final class PostingsIterator extends DocIterator {
+
+    private final String label;
+    private final int[] docs;
+    private final int[] freqs;
+    private final int[] lengths;
+    private final float averageLength;
+    private final float weight;
+    private int index = -1;
+    private int doc = -1;
+
+    /**
+     * @param freqs term frequencies, or null for an unscored keyword
+     * @param weight field boost times idf
+     */
+    PostingsIterator(String label, int[] docs, int[] freqs, int[] lengths, float averageLength, float weight) {
+        this.label = label;
+        this.docs = docs;
+        this.freqs = freqs;
+        this.lengths = lengths;
+        this.averageLength = averageLength;
+        this.weight = weight;
+    }
+
+    static PostingsIterator keyword(String label, int[] docs) {
+        return new PostingsIterator(label, docs, null, null, 0, 0);
+    }
+
+    @Override
+    int docID() {
+        return doc;
+    }
+
+    @Override
+    int nextDoc() {
+        return doc = ++index < docs.length ? docs[index] : NO_MORE_DOCS;
+    }
+
+    @Override
+    int advance(int target) {
+        if (doc >= target) {
+            return doc;
+        }
+        int low = index + 1;
+        int high = low;
+        int step = 1;
+        while (high < docs.length && docs[high] < target) {
+            low = high + 1;
+            high = low + step;
+            step <<= 1;
+        }
+        int found = Arrays.binarySearch(docs, low, Math.min(high + 1, docs.length), target);
+        index = found >= 0 ? found : -found - 1;
+        return doc = index < docs.length ? docs[index] : NO_MORE_DOCS;
+    }
+
+    @Override
+    long cost() {
+        return docs.length;
+    }
+
+    @Override
+    float score() {
+        if (freqs == null) {
+            return 0;
+        }
+        return bm25(weight, freqs[index], lengths[doc], averageLength);
+    }
+
+    /**
+     * The BM25 score of a document holding a term {@code freq} times in a field of
+     * {@code length} positions.
+     */
+    static float bm25(float weight, int freq, int length, float averageLength) {
+        float tf = freq;
+        float norm = InvertedIndex.K1 * (1 - InvertedIndex.B + InvertedIndex.B * length / averageLength);
+        return weight * tf * (InvertedIndex.K1 + 1) / (tf + norm);
+    }
+
+    @Override
+    public String toString() {
+        return label + "[" + docs.length + "]";
+    }
+}
@@ -0,0 +1,40 @@
+package com.productapi.search.index;
+
+/**
+ * The indexed values of one product. Any value except the ID may be null.
+ */
+public record ProductDocument(long id, String title, String description, String brand, String category,
+                              String sku, String availabilityStatus, Double price, Double rating,
+                              Double discountPercentage, Integer stock) {
+
+    /**
+     * A document with only text fields.
+     */
+    public static ProductDocument text(long id, String title, String description) {
+        return new ProductDocument(id, title, description, null, null, null, null, null, null, null, null);
+    }
+
+    String keyword(IndexField field) {
+        return switch (field) {
+            case BRAND -> brand;
+            case CATEGORY -> category;
+            case SKU -> sku;
+            case AVAILABILITY_STATUS -> availabilityStatus;
+            default -> throw new IllegalArgumentException(field + " is not a keyword field");
+        };
+    }
+
+    /**
+     * A numeric value, or NaN if it is missing.
+     */
+    double number(IndexField field) {
+        Number value = switch (field) {
+            case PRICE -> price;
+            case RATING -> rating;
+            case DISCOUNT_PERCENTAGE -> discountPercentage;
+            case STOCK -> stock;
+            default -> throw new IllegalArgumentException(field + " is not a numeric field");
+        };
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+}
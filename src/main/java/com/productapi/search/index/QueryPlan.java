@@ -0,0 +1,82 @@
+package com.productapi.search.index;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A query compiled against one index: a tree of iterators that finds and scores every match in
+ * a single pass over the postings.
+ * <p>
+ * {@link #toString()} describes the tree with the estimated cost of each part, in the order the
+ * parts are evaluated. A plan is used once, by one thread.
+ */
+public final class QueryPlan {
+
+    private final DocIterator root;
+    private final List<ProximityTerm> proximityTerms;
+    private final List<HighlightTerm> highlightTerms;
+
+    QueryPlan(DocIterator root, List<ProximityTerm> proximityTerms, List<HighlightTerm> highlightTerms) {
+        this.root = root;
+        this.proximityTerms = proximityTerms;
+        this.highlightTerms = highlightTerms;
+    }
+
+    /**
+     * Find all matches.
+     *
+     * @return matching documents in ascending order with their scores
+     */
+    public InvertedIndex.Matches execute() {
+        long cost = root.cost();
+        if (cost == 0) {
+            return InvertedIndex.Matches.EMPTY;
+        }
+        int capacity = (int) Math.min(cost, 1024);
+        int[] docs = new int[capacity];
+        float[] scores = new float[capacity];
+        int size = 0;
+        for (int doc = root.nextDoc(); doc != DocIterator.NO_MORE_DOCS; doc = root.nextDoc()) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            docs[size] = doc;
+            scores[size++] = root.score();
+        }
+        return new InvertedIndex.Matches(docs, scores, size);
+    }
+
+    /**
+     * The required words of the query outside phrases, with their query positions, for
+     * {@link InvertedIndex#boostProximity}.
+     */
+    public List<ProximityTerm> proximityTerms() {
+        return proximityTerms;
+    }
+
+    /**
+     * The terms the query looks up outside negated clauses, for {@link InvertedIndex#highlight}.
+     */
+    public List<HighlightTerm> highlightTerms() {
+        return highlightTerms;
+    }
+
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+
+    /**
+     * One query word: the analyzed word and its synonyms, and its position in the query.
+     */
+    public record ProximityTerm(char[][] alternatives, int position) {
+    }
+
+    /**
+     * One indexed term of a text field to highlight, weighted by its inverse document frequency
+     * so rare words count more when choosing a snippet.
+     */
+    public record HighlightTerm(IndexField field, int ordinal, float weight) {
+    }
+}
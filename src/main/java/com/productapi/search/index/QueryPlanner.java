@@ -0,0 +1,304 @@
+package com.productapi.search.index;
+
+import com.productapi.search.query.Query;
+import com.productapi.search.query.Query.Clause;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles a parsed {@link Query} into a {@link QueryPlan} for one index.
+ * <p>
+ * Words are analyzed with the index's analyzer and looked up in the default text fields or the
+ * field they name; a word that analyzes to nothing, such as a stopword, is left out of its
+ * boolean query instead of matching nothing. Keyword values are looked up whole. Boolean
+ * queries become conjunctions ordered by the number of documents each part can match, so a
+ * selective part like {@code brand:apple} decides how many postings the others read, and a
+ * required part that matches nothing ends planning with an empty plan.
+ * <p>
+ * A numeric range is counted first with the {@link NumericRangeIndex}. When it matches fewer
+ * documents than the cheapest other required part, its documents are enumerated and it leads
+ * the conjunction; otherwise it is checked with doc values on the documents the other parts
+ * found, which is cheaper than materializing a large range.
+ * <p>
+ * Every term a text clause looks up, outside negated clauses, is collected for highlighting.
+ * Terms are weighted with the {@link IndexStatistics} of every index searched along with this
+ * one, so a document scores the same in any of them.
+ */
+final class QueryPlanner {
+
+    /**
+     * A query that constrains nothing, e.g. a stopword.
+     */
+    private static final Node ALL = new Node(null, null);
+
+    private final InvertedIndex index;
+    private final IndexStatistics statistics;
+    private final List<QueryPlan.ProximityTerm> proximityTerms = new ArrayList<>();
+    private final Set<QueryPlan.HighlightTerm> highlightTerms = new LinkedHashSet<>();
+    private int position;
+    private int negations;
+
+    QueryPlanner(InvertedIndex index, IndexStatistics statistics) {
+        this.index = index;
+        this.statistics = statistics;
+    }
+
+    QueryPlan plan(Query query) {
+        Node root = compile(query, true);
+        DocIterator iterator;
+        if (root == ALL) {
+            // Only stopwords: matching the whole catalog would not be a useful answer
+            iterator = DocIterator.empty();
+        } else {
+            iterator = root.iterator() != null ? root.iterator() : iterator(root.filter());
+        }
+        return new QueryPlan(iterator, List.copyOf(proximityTerms), List.copyOf(highlightTerms));
+    }
+
+    /**
+     * @param required whether every match must match this query, i.e. it is reached from the
+     *                 root through required clauses only; such words take part in proximity
+     *                 scoring
+     */
+    private Node compile(Query query, boolean required) {
+        if (query instanceof Query.Text text) {
+            return text(text.field(), text.text(), 0, false, required);
+        }
+        if (query instanceof Query.Phrase phrase) {
+            return text(phrase.field(), phrase.text(), phrase.slop(), true, required);
+        }
+        if (query instanceof Query.Range range) {
+            return range(range);
+        }
+        return bool((Query.Bool) query, required);
+    }
+
+    private Node text(IndexField field, String text, int slop, boolean quoted, boolean required) {
+        if (field != null && field.kind() == IndexField.Kind.KEYWORD) {
+            return new Node(index.keyword(field).docs(field.queryName() + ":" + text, text), null);
+        }
+        if (field != null && field.kind() != IndexField.Kind.TEXT) {
+            throw new IllegalArgumentException("Field '" + field.queryName() + "' takes a number or range");
+        }
+        boolean proximity = required && field == null && !quoted;
+        Analyzed analyzed = analyze(text);
+        if (analyzed.words().isEmpty()) {
+            if (proximity) {
+                position++;
+            }
+            return ALL;
+        }
+        List<IndexField> fields = field != null ? List.of(field) : IndexField.DEFAULT_FIELDS;
+        if (analyzed.words().size() == 1) {
+            char[][] alternatives = analyzed.words().get(0);
+            if (proximity) {
+                proximityTerms.add(new QueryPlan.ProximityTerm(alternatives, position++));
+            }
+            return new Node(term(fields, alternatives), null);
+        }
+        if (proximity) {
+            position += analyzed.positions()[analyzed.positions().length - 1] + 1;
+        }
+        return new Node(phrase(fields, analyzed, slop), null);
+    }
+
+    /**
+     * Documents containing any alternative of a word in any of the fields.
+     */
+    private DocIterator term(List<IndexField> fields, char[][] alternatives) {
+        List<DocIterator> postings = new ArrayList<>();
+        for (IndexField field : fields) {
+            InvertedIndex.FieldIndex fieldIndex = index.text(field);
+            for (char[] term : alternatives) {
+                int ordinal = fieldIndex.ordinal(term);
+                if (ordinal >= 0) {
+                    float idf = statistics.idf(field, term);
+                    highlight(field, ordinal, idf);
+                    postings.add(fieldIndex.postings(field.queryName() + ":" + new String(term), ordinal,
+                            field.boost() * idf, statistics.averageLength(field)));
+                }
+            }
+        }
+        return DisjunctionIterator.of(postings);
+    }
+
+    /**
+     * Documents holding the words within {@code slop} moves of their query arrangement, within
+     * one of the fields.
+     */
+    private DocIterator phrase(List<IndexField> fields, Analyzed analyzed, int slop) {
+        char[][][] words = analyzed.words().toArray(char[][][]::new);
+        int[] relative = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            relative[i] = analyzed.positions()[i] - analyzed.positions()[0];
+        }
+        String text = analyzed.words().stream().map(word -> new String(word[0])).collect(Collectors.joining(" "));
+        List<DocIterator> phrases = new ArrayList<>();
+        for (IndexField field : fields) {
+            InvertedIndex.FieldIndex fieldIndex = index.text(field);
+            int[][] ordinals = fieldIndex.ordinals(words);
+            if (ordinals == null) {
+                continue;
+            }
+            List<DocIterator> required = new ArrayList<>();
+            for (char[][] alternatives : words) {
+                List<DocIterator> postings = new ArrayList<>();
+                for (char[] term : alternatives) {
+                    int ordinal = fieldIndex.ordinal(term);
+                    if (ordinal >= 0) {
+                        highlight(field, ordinal, statistics.idf(field, term));
+                        postings.add(fieldIndex.postings(field.queryName(), ordinal, 0, statistics.averageLength(field)));
+                    }
+                }
+                required.add(DisjunctionIterator.of(postings));
+            }
+            DocIterator approximation = ConjunctionIterator.of(required, List.of(), List.of(), List.of(),
+                    index.docCount());
+            String label = field.queryName() + ":\"" + text + "\"" + (slop > 0 ? "~" + slop : "");
+            phrases.add(new PhraseIterator(label, fieldIndex, ordinals, relative, slop,
+                    field.boost() * statistics.idfSum(field, words), approximation));
+        }
+        return DisjunctionIterator.of(phrases);
+    }
+
+    private void highlight(IndexField field, int ordinal, float idf) {
+        if (negations == 0) {
+            highlightTerms.add(new QueryPlan.HighlightTerm(field, ordinal, idf));
+        }
+    }
+
+    private Node range(Query.Range range) {
+        return new Node(null, new RangeFilter(range, index.docValues(range.field()), index.rangeIndex(range.field())));
+    }
+
+    private Node bool(Query.Bool bool, boolean required) {
+        List<DocIterator> must = new ArrayList<>();
+        List<DocIterator> should = new ArrayList<>();
+        List<DocIterator> mustNot = new ArrayList<>();
+        List<DocFilter> filters = new ArrayList<>();
+        List<RangeFilter> ranges = new ArrayList<>();
+        boolean anyRequired = false;
+        boolean shouldMatchesAll = false;
+        for (Clause clause : bool.clauses()) {
+            boolean negated = clause.occur() == Query.Occur.MUST_NOT;
+            negations += negated ? 1 : 0;
+            Node child = compile(clause.query(), required && clause.occur() == Query.Occur.MUST);
+            negations -= negated ? 1 : 0;
+            if (child == ALL) {
+                shouldMatchesAll |= clause.occur() == Query.Occur.SHOULD;
+                continue;
+            }
+            switch (clause.occur()) {
+                case MUST -> {
+                    anyRequired = true;
+                    if (child.iterator() != null) {
+                        must.add(child.iterator());
+                    } else if (child.filter() instanceof RangeFilter range) {
+                        ranges.add(range);
+                    } else {
+                        filters.add(child.filter());
+                    }
+                }
+                case MUST_NOT -> {
+                    if (child.iterator() != null) {
+                        mustNot.add(child.iterator());
+                    } else {
+                        filters.add(DocFilter.not(child.filter()));
+                    }
+                }
+                case SHOULD -> should.add(child.iterator() != null ? child.iterator() : iterator(child.filter()));
+            }
+        }
+
+        // Without required clauses, at least one of the alternatives must match
+        if (!anyRequired && !should.isEmpty() && !shouldMatchesAll) {
+            must.add(DisjunctionIterator.of(should));
+            should.clear();
+        }
+
+        // Enumerate a range only when it would lead the conjunction
+        ranges.sort(Comparator.comparingInt(RangeFilter::count));
+        long leadCost = must.stream().mapToLong(DocIterator::cost).min().orElse(index.docCount());
+        for (RangeFilter range : ranges) {
+            if (range.count() < leadCost) {
+                must.add(range.iterator());
+                leadCost = range.count();
+            } else {
+                filters.add(range);
+            }
+        }
+        if (must.isEmpty() && mustNot.isEmpty() && should.isEmpty()) {
+            return filters.isEmpty() ? ALL : new Node(null, allOf(filters));
+        }
+        return new Node(ConjunctionIterator.of(must, filters, mustNot, should, index.docCount()), null);
+    }
+
+    private DocIterator iterator(DocFilter filter) {
+        if (filter instanceof RangeFilter range) {
+            return range.iterator();
+        }
+        return ConjunctionIterator.of(List.of(), List.of(filter), List.of(), List.of(), index.docCount());
+    }
+
+    private static DocFilter allOf(List<DocFilter> filters) {
+        if (filters.size() == 1) {
+            return filters.get(0);
+        }
+        DocFilter[] all = filters.toArray(DocFilter[]::new);
+        return new DocFilter() {
+            @Override
+            public boolean accepts(int doc) {
+                for (DocFilter filter : all) {
+                    if (!filter.accepts(doc)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public String toString() {
+                return Arrays.toString(all);
+            }
+        };
+    }
+
+    /**
+     * Analyze text into the alternatives of each position and the positions themselves.
+     */
+    private Analyzed analyze(String text) {
+        List<char[][]> words = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        List<char[]> current = new ArrayList<>(2);
+        index.analyzer().analyze(text, token -> {
+            if (positions.isEmpty() || token.position() != positions.get(positions.size() - 1)) {
+                if (!current.isEmpty()) {
+                    words.add(current.toArray(char[][]::new));
+                    current.clear();
+                }
+                positions.add(token.position());
+            }
+            current.add(Arrays.copyOf(token.buffer(), token.length()));
+        });
+        if (!current.isEmpty()) {
+            words.add(current.toArray(char[][]::new));
+        }
+        return new Analyzed(words, positions.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * A compiled query: either an iterator over its matches or a filter to check documents
+     * with.
+     */
+    private record Node(DocIterator iterator, DocFilter filter) {
+    }
+
+    private record Analyzed(List<char[][]> words, int[] positions) {
+    }
+}
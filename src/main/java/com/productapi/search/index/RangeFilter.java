@@ -0,0 +1,47 @@
+package com.productapi.search.index;
+
+import com.productapi.search.query.Query;
+
+/**
+ * A numeric range, usable both ways: as a {@link DocFilter} reading doc values for documents
+ * other clauses found, or as an iterator over the range's own documents from the
+ * {@link NumericRangeIndex}. The planner picks the iterator when the range is the most
+ * selective part of a conjunction.
+ */
+final class RangeFilter implements DocFilter {
+
+    private final Query.Range range;
+    private final NumericDocValues values;
+    private final NumericRangeIndex rangeIndex;
+    private int count = -1;
+
+    RangeFilter(Query.Range range, NumericDocValues values, NumericRangeIndex rangeIndex) {
+        this.range = range;
+        this.values = values;
+        this.rangeIndex = rangeIndex;
+    }
+
+    @Override
+    public boolean accepts(int doc) {
+        return range.contains(values.get(doc));
+    }
+
+    /**
+     * Number of documents in the range, found without reading them.
+     */
+    int count() {
+        if (count < 0) {
+            count = rangeIndex.count(range);
+        }
+        return count;
+    }
+
+    DocIterator iterator() {
+        return rangeIndex.docs(range).iterator(range.toString());
+    }
+
+    @Override
+    public String toString() {
+        return range.toString();
+    }
+}
@@ -0,0 +1,205 @@
+package com.productapi.search.index;
+
+import com.productapi.search.analysis.Analyzer;
+import com.productapi.search.analysis.Token;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Suggests corrections for misspelled query words from the words of the indexed products.
+ * <p>
+ * The dictionary holds every word of the titles, descriptions, brands and categories,
+ * lower-cased and folded but neither stemmed nor stopword-filtered, with the number of times
+ * it occurs. A query word missing from it is replaced by the dictionary word within the fewest
+ * edits (inserting, deleting or substituting a letter, or swapping two adjacent ones), the most
+ * frequent among equally close words: a noisy channel in which every edit is equally likely and
+ * the catalog's word frequencies are the prior. Words of up to {@value #ONE_EDIT_MAX_LENGTH}
+ * letters allow one edit, longer words two. Candidates must share the first letter, as typos
+ * there are rare and this limits the scan to one slice of the sorted dictionary.
+ */
+final class SpellChecker {
+
+    /**
+     * Shorter query words are left alone; with one edit they match too many words.
+     */
+    static final int MIN_WORD_LENGTH = 3;
+
+    private static final int ONE_EDIT_MAX_LENGTH = 5;
+
+    /**
+     * Upper-case query words with a meaning in the query language.
+     */
+    private static final Set<String> OPERATORS = Set.of("AND", "OR", "NOT", "TO");
+
+    private final Analyzer analyzer;
+    private final String[] words;
+    private final int[] frequencies;
+
+    private SpellChecker(Analyzer analyzer, String[] words, int[] frequencies) {
+        this.analyzer = analyzer;
+        this.words = words;
+        this.frequencies = frequencies;
+    }
+
+    /**
+     * The query with every correctable misspelled word replaced, leaving field names, operators,
+     * numbers and punctuation as they are.
+     *
+     * @return the corrected query, or empty if no word needed or had a correction
+     */
+    Optional<String> suggest(String query) {
+        StringBuilder corrected = new StringBuilder(query.length());
+        int[] copied = {0};
+        boolean[] changed = {false};
+        analyzer.analyzeWords(query, token -> {
+            int start = token.startOffset();
+            int end = token.endOffset();
+            boolean fieldName = end < query.length() && query.charAt(end) == ':';
+            if (fieldName || OPERATORS.contains(query.substring(start, end)) || !isWord(token)) {
+                return;
+            }
+            String correction = correct(token.term());
+            if (correction != null) {
+                corrected.append(query, copied[0], start).append(correction);
+                copied[0] = end;
+                changed[0] = true;
+            }
+        });
+        if (!changed[0]) {
+            return Optional.empty();
+        }
+        return Optional.of(corrected.append(query, copied[0], query.length()).toString());
+    }
+
+    /**
+     * The best correction of an analyzed word, or {@code null} if it is in the dictionary, too
+     * short, or has no dictionary word within reach.
+     */
+    String correct(String word) {
+        if (word.length() < MIN_WORD_LENGTH || Arrays.binarySearch(words, word) >= 0) {
+            return null;
+        }
+        int maxEdits = word.length() <= ONE_EDIT_MAX_LENGTH ? 1 : 2;
+        char first = word.charAt(0);
+        int from = insertionPoint(String.valueOf(first));
+        int to = first == Character.MAX_VALUE ? words.length : insertionPoint(String.valueOf((char) (first + 1)));
+
+        String best = null;
+        int bestDistance = maxEdits + 1;
+        int bestFrequency = 0;
+        for (int i = from; i < to; i++) {
+            int distance = distance(word, words[i], maxEdits);
+            if (distance <= maxEdits
+                    && (distance < bestDistance || (distance == bestDistance && frequencies[i] > bestFrequency))) {
+                best = words[i];
+                bestDistance = distance;
+                bestFrequency = frequencies[i];
+            }
+        }
+        return best;
+    }
+
+    private int insertionPoint(String key) {
+        int index = Arrays.binarySearch(words, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * The optimal string alignment distance between two words, or {@code max + 1} as soon as it
+     * is known to exceed {@code max}.
+     */
+    static int distance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(previous[j], current[j - 1]) + 1, previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, beforePrevious[j - 2] + 1);
+                }
+                current[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[m], max + 1);
+    }
+
+    /**
+     * Whether a token is a word that could be misspelled: letters and apostrophes only.
+     */
+    private static boolean isWord(Token token) {
+        char[] buffer = token.buffer();
+        for (int i = 0, length = token.length(); i < length; i++) {
+            if (!Character.isLetter(buffer[i]) && buffer[i] != '\'') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the words of the products' text as they are added. Not thread-safe.
+     */
+    static final class Builder {
+
+        private final Analyzer analyzer;
+        private final Map<String, int[]> counts = new HashMap<>();
+
+        Builder(Analyzer analyzer) {
+            this.analyzer = analyzer;
+        }
+
+        void add(String text) {
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+            analyzer.analyzeWords(text, token -> {
+                if (isWord(token)) {
+                    counts.computeIfAbsent(token.term(), word -> new int[1])[0]++;
+                }
+            });
+        }
+
+        /**
+         * Add every word of another dictionary with its count.
+         */
+        void addAll(SpellChecker other) {
+            for (int i = 0; i < other.words.length; i++) {
+                counts.computeIfAbsent(other.words[i], word -> new int[1])[0] += other.frequencies[i];
+            }
+        }
+
+        SpellChecker build() {
+            String[] words = counts.keySet().toArray(new String[0]);
+            Arrays.sort(words);
+            int[] frequencies = new int[words.length];
+            for (int i = 0; i < words.length; i++) {
+                frequencies[i] = counts.get(words[i])[0];
+            }
+            return new SpellChecker(analyzer, words, frequencies);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.productapi.search.index;
+
+import java.util.Arrays;
+
+/**
+ * Maps terms to dense ordinals, looked up with a slice of a {@code char[]}.
+ * <p>
+ * While indexing, {@link #add} copies a term's characters only the first time the term is seen,
+ * so analyzing a catalog creates one array per unique term rather than one string per token.
+ * Once the index is built the dictionary is only read, and reads are safe from any thread.
+ */
+public final class TermDictionary {
+
+    private char[][] terms = new char[64][];
+    private int[] slots = new int[128];
+    private int size;
+
+    /**
+     * The ordinal of a term, adding it if it is new.
+     */
+    public int add(char[] text, int offset, int length) {
+        int slot = slot(text, offset, length);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        if (size == terms.length) {
+            terms = Arrays.copyOf(terms, size * 2);
+        }
+        int ordinal = size++;
+        terms[ordinal] = Arrays.copyOfRange(text, offset, offset + length);
+        slots[slot] = ordinal + 1;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return ordinal;
+    }
+
+    /**
+     * The ordinal of a term, or -1 if the dictionary does not contain it.
+     */
+    public int get(char[] text, int offset, int length) {
+        return slots[slot(text, offset, length)] - 1;
+    }
+
+    public int get(String term) {
+        char[] chars = term.toCharArray();
+        return get(chars, 0, chars.length);
+    }
+
+    public String term(int ordinal) {
+        return new String(terms[ordinal]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(char[] text, int offset, int length) {
+        int mask = slots.length - 1;
+        int slot = hash(text, offset, length) & mask;
+        while (slots[slot] != 0 && !matches(terms[slots[slot] - 1], text, offset, length)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            char[] term = terms[ordinal];
+            int slot = hash(term, 0, term.length) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = ordinal + 1;
+        }
+    }
+
+    private static int hash(char[] text, int offset, int length) {
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + text[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(char[] term, char[] text, int offset, int length) {
+        return Arrays.equals(term, 0, term.length, text, offset, offset + length);
+    }
+}
@@ -0,0 +1,195 @@
+package com.productapi.search.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Answers case-insensitive substring queries over the title and description, with the results
+ * of {@code LOWER(field) LIKE LOWER('%text%')}.
+ * <p>
+ * Every run of three characters of the lower-cased fields is a trigram with the documents
+ * containing it. A query of three or more characters can only match documents holding all of
+ * its trigrams, so candidates are the intersection of those postings, rarest first, and each
+ * candidate is then verified against the stored lower-cased text. Shorter queries have no
+ * trigram and verify every document. Postings are {@link CompressedPostings}, so a trigram
+ * found in a large share of the catalog costs a few bits per document rather than an int.
+ */
+final class TrigramIndex {
+
+    private final TrigramTable table;
+    private final CompressedPostings postings;
+    private final String[] titles;
+    private final String[] descriptions;
+
+    private TrigramIndex(TrigramTable table, CompressedPostings postings, String[] titles, String[] descriptions) {
+        this.table = table;
+        this.postings = postings;
+        this.titles = titles;
+        this.descriptions = descriptions;
+    }
+
+    /**
+     * The documents whose title or description contains {@code text}, ignoring case.
+     *
+     * @return matching documents, ascending
+     */
+    int[] matches(String text) {
+        String query = lowerCase(text);
+        int maxDoc = titles.length;
+        DocIterator candidates;
+        if (query.length() < 3) {
+            candidates = new AllDocsIterator(maxDoc);
+        } else {
+            List<DocIterator> required = new ArrayList<>();
+            for (int i = 0; i + 3 <= query.length(); i++) {
+                int ordinal = table.get(key(query, i));
+                if (ordinal < 0) {
+                    return new int[0];
+                }
+                required.add(postings.iterator(ordinal, query.substring(i, i + 3)));
+            }
+            candidates = ConjunctionIterator.of(required, List.of(), List.of(), List.of(), maxDoc);
+        }
+
+        int[] matches = new int[(int) Math.min(candidates.cost(), 1024)];
+        int size = 0;
+        for (int doc = candidates.nextDoc(); doc != DocIterator.NO_MORE_DOCS; doc = candidates.nextDoc()) {
+            if (titles[doc].contains(query) || descriptions[doc].contains(query)) {
+                if (size == matches.length) {
+                    matches = Arrays.copyOf(matches, Math.max(16, size * 2));
+                }
+                matches[size++] = doc;
+            }
+        }
+        return Arrays.copyOf(matches, size);
+    }
+
+    /**
+     * The lower-cased title of a document, as stored for verifying matches.
+     */
+    String title(int doc) {
+        return titles[doc];
+    }
+
+    String description(int doc) {
+        return descriptions[doc];
+    }
+
+    int trigramCount() {
+        return table.size;
+    }
+
+    private static String lowerCase(String text) {
+        return text != null ? text.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static long key(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    /**
+     * Collects the trigrams of each document in document order. Not thread-safe.
+     */
+    static final class Builder {
+
+        private final TrigramTable table = new TrigramTable();
+        private int[][] docs = new int[1024][];
+        private int[] counts = new int[1024];
+        private String[] titles = new String[256];
+        private String[] descriptions = new String[256];
+        private int docCount;
+
+        void add(int doc, String title, String description) {
+            if (doc == titles.length) {
+                titles = Arrays.copyOf(titles, doc * 2);
+                descriptions = Arrays.copyOf(descriptions, doc * 2);
+            }
+            titles[doc] = lowerCase(title);
+            descriptions[doc] = lowerCase(description);
+            addTrigrams(doc, titles[doc]);
+            addTrigrams(doc, descriptions[doc]);
+            docCount = doc + 1;
+        }
+
+        private void addTrigrams(int doc, String text) {
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                int ordinal = table.add(key(text, i));
+                if (ordinal == docs.length) {
+                    docs = Arrays.copyOf(docs, ordinal * 2);
+                    counts = Arrays.copyOf(counts, ordinal * 2);
+                }
+                int count = counts[ordinal];
+                if (docs[ordinal] == null) {
+                    docs[ordinal] = new int[4];
+                } else if (docs[ordinal][count - 1] == doc) {
+                    continue;
+                } else if (count == docs[ordinal].length) {
+                    docs[ordinal] = Arrays.copyOf(docs[ordinal], count * 2);
+                }
+                docs[ordinal][count] = doc;
+                counts[ordinal] = count + 1;
+            }
+        }
+
+        TrigramIndex build() {
+            CompressedPostings.Builder built = CompressedPostings.docsOnly();
+            for (int ordinal = 0; ordinal < table.size; ordinal++) {
+                built.add(docs[ordinal], null, counts[ordinal], null, null);
+                docs[ordinal] = null;
+            }
+            return new TrigramIndex(table, built.build(), Arrays.copyOf(titles, docCount), Arrays.copyOf(descriptions, docCount));
+        }
+    }
+
+    /**
+     * Maps trigrams, packed into longs, to dense ordinals with open addressing.
+     */
+    private static final class TrigramTable {
+
+        private long[] keys = new long[2048];
+        private int[] ordinals = new int[2048];
+        private int size;
+
+        int add(long key) {
+            int slot = slot(key);
+            if (ordinals[slot] != 0) {
+                return ordinals[slot] - 1;
+            }
+            keys[slot] = key;
+            ordinals[slot] = ++size;
+            if (size * 2 > keys.length) {
+                rehash();
+            }
+            return size - 1;
+        }
+
+        int get(long key) {
+            return ordinals[slot(key)] - 1;
+        }
+
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+            while (ordinals[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldOrdinals = ordinals;
+            keys = new long[oldKeys.length * 2];
+            ordinals = new int[oldOrdinals.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldOrdinals[i] != 0) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    ordinals[slot] = oldOrdinals[i];
+                }
+            }
+        }
+    }
+}
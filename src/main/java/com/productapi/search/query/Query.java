@@ -0,0 +1,93 @@
+package com.productapi.search.query;
+
+import com.productapi.search.index.IndexField;
+
+import java.util.List;
+
+/**
+ * A parsed search query, before analysis. Produced by {@link QueryParser} and compiled against
+ * an index into an executable plan.
+ */
+public sealed interface Query permits Query.Text, Query.Phrase, Query.Range, Query.Bool {
+
+    /**
+     * A word, or the value of a keyword field.
+     *
+     * @param field the field searched, or null for the default text fields
+     */
+    record Text(IndexField field, String text) implements Query {
+
+        @Override
+        public String toString() {
+            return (field != null ? field.queryName() + ":" : "") + text;
+        }
+    }
+
+    /**
+     * Quoted words, matched as a phrase in text fields or as the exact value of a keyword field.
+     *
+     * @param field the field searched, or null for the default text fields
+     * @param slop how many position moves the phrase may use
+     */
+    record Phrase(IndexField field, String text, int slop) implements Query {
+
+        @Override
+        public String toString() {
+            return (field != null ? field.queryName() + ":" : "") + "\"" + text + "\"" + (slop > 0 ? "~" + slop : "");
+        }
+    }
+
+    /**
+     * Values of a numeric field between two bounds; an open bound is infinite.
+     */
+    record Range(IndexField field, double lower, boolean includeLower, double upper, boolean includeUpper)
+            implements Query {
+
+        public boolean contains(double value) {
+            return (includeLower ? value >= lower : value > lower) && (includeUpper ? value <= upper : value < upper);
+        }
+
+        @Override
+        public String toString() {
+            return field.queryName() + ":" + (includeLower ? "[" : "{") + bound(lower) + " TO " + bound(upper)
+                    + (includeUpper ? "]" : "}");
+        }
+
+        private static String bound(double value) {
+            return Double.isInfinite(value) ? "*" : value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+        }
+    }
+
+    /**
+     * A combination of clauses: documents must match every {@link Occur#MUST} clause, none of
+     * the {@link Occur#MUST_NOT} clauses, and, when there are no required clauses, at least one
+     * {@link Occur#SHOULD} clause.
+     */
+    record Bool(List<Clause> clauses) implements Query {
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder("(");
+            for (Clause clause : clauses) {
+                if (text.length() > 1) {
+                    text.append(' ');
+                }
+                text.append(clause.occur().prefix).append(clause.query());
+            }
+            return text.append(')').toString();
+        }
+    }
+
+    record Clause(Occur occur, Query query) {
+    }
+
+    enum Occur {
+        MUST("+"), SHOULD(""), MUST_NOT("-");
+
+        private final String prefix;
+
+        Occur(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+}
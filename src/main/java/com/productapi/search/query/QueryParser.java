@@ -0,0 +1,325 @@
+package com.productapi.search.query;
+
+import com.productapi.exception.QueryParseException;
+import com.productapi.search.index.IndexField;
+import com.productapi.search.query.Query.Clause;
+import com.productapi.search.query.Query.Occur;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the search query language.
+ * <pre>
+ * wireless mouse                  both words, in title or description
+ * "wireless mouse"~2              a phrase, optionally with slop
+ * brand:apple  brand:"Calvin Klein"  category:(laptops OR tablets)
+ * price:&lt;500  rating:&gt;=4  rating:4+  price:[10 TO 50]  price:10..50  stock:{0 TO *]
+ * -refurbished  NOT refurbished   +required
+ * phone OR tablet   (phone OR tablet) AND case
+ * </pre>
+ * Words next to each other are combined with AND, which binds tighter than OR. Operators are
+ * recognized in upper case only, so "or" stays an ordinary (stop)word. Field names are those of
+ * {@link IndexField}, ignoring case. Text is kept as typed; analysis happens when the query is
+ * planned against an index.
+ */
+public final class QueryParser {
+
+    /**
+     * Deepest nesting of parentheses accepted, bounding the recursion per query.
+     */
+    private static final int MAX_DEPTH = 16;
+
+    private final String input;
+    private int position;
+    private int depth;
+
+    private QueryParser(String input) {
+        this.input = input;
+    }
+
+    /**
+     * Parse a query.
+     *
+     * @throws QueryParseException if the query is not valid syntax
+     */
+    public static Query parse(String query) {
+        QueryParser parser = new QueryParser(query);
+        Query parsed = parser.parseOr(null);
+        parser.skipWhitespace();
+        if (parser.position < query.length()) {
+            throw parser.error("unexpected '" + query.charAt(parser.position) + "'");
+        }
+        return parsed;
+    }
+
+    private Query parseOr(IndexField field) {
+        List<Query> alternatives = new ArrayList<>();
+        alternatives.add(parseAnd(field));
+        while (consumeOperator("OR")) {
+            alternatives.add(parseAnd(field));
+        }
+        if (alternatives.size() == 1) {
+            return alternatives.get(0);
+        }
+        return new Query.Bool(alternatives.stream().map(query -> new Clause(Occur.SHOULD, query)).toList());
+    }
+
+    private Query parseAnd(IndexField field) {
+        List<Clause> clauses = new ArrayList<>();
+        while (true) {
+            skipWhitespace();
+            if (atEnd() || peek() == ')' || peekOperator("OR")) {
+                break;
+            }
+            if (consumeOperator("AND") && !clauses.isEmpty()) {
+                continue;
+            }
+            clauses.add(parseClause(field));
+        }
+        if (clauses.isEmpty()) {
+            throw error(atEnd() ? "missing search term" : "missing search term before '" + peek() + "'");
+        }
+        if (clauses.size() == 1 && clauses.get(0).occur() == Occur.MUST) {
+            return clauses.get(0).query();
+        }
+        return new Query.Bool(clauses);
+    }
+
+    private Clause parseClause(IndexField field) {
+        if (consumeOperator("NOT")) {
+            return new Clause(Occur.MUST_NOT, parsePrimary(field));
+        }
+        if ((peek() == '-' || peek() == '+') && position + 1 < input.length()
+                && !Character.isWhitespace(input.charAt(position + 1))) {
+            Occur occur = peek() == '-' ? Occur.MUST_NOT : Occur.MUST;
+            position++;
+            return new Clause(occur, parsePrimary(field));
+        }
+        return new Clause(Occur.MUST, parsePrimary(field));
+    }
+
+    private Query parsePrimary(IndexField field) {
+        skipWhitespace();
+        if (atEnd()) {
+            throw error("missing search term");
+        }
+        char c = peek();
+        if (c == '(') {
+            return parseGroup(field);
+        }
+        if (c == '"') {
+            return parsePhrase(field);
+        }
+        int start = position;
+        String word = readWord();
+        int colon = word.indexOf(':');
+        if (colon > 0 && field == null && isFieldName(word.substring(0, colon))) {
+            String name = word.substring(0, colon);
+            IndexField named = IndexField.byName(name).orElseThrow(() -> new QueryParseException(
+                    "Unknown field '" + name + "'; fields are " + String.join(", ", IndexField.queryNames())));
+            position = start + colon + 1;
+            return parseFieldValue(named);
+        }
+        return text(field, word, start);
+    }
+
+    private Query parseFieldValue(IndexField field) {
+        if (atEnd() || Character.isWhitespace(peek())) {
+            throw error("missing value for field '" + field.queryName() + "'");
+        }
+        char c = peek();
+        if (field.kind() == IndexField.Kind.NUMERIC && c != '(') {
+            return parseRange(field);
+        }
+        if (c == '(') {
+            return parseGroup(field);
+        }
+        if (c == '"') {
+            return parsePhrase(field);
+        }
+        int start = position;
+        return text(field, readWord(), start);
+    }
+
+    private Query parseGroup(IndexField field) {
+        int open = position++;
+        if (++depth > MAX_DEPTH) {
+            throw error("parentheses nested deeper than " + MAX_DEPTH);
+        }
+        Query group = parseOr(field);
+        skipWhitespace();
+        if (atEnd() || peek() != ')') {
+            throw QueryParseException.at(input, open, "unclosed '('");
+        }
+        position++;
+        depth--;
+        return group;
+    }
+
+    private Query parsePhrase(IndexField field) {
+        int open = position++;
+        int close = input.indexOf('"', position);
+        if (close < 0) {
+            throw QueryParseException.at(input, open, "unclosed quote");
+        }
+        String text = input.substring(position, close);
+        position = close + 1;
+        int slop = 0;
+        if (!atEnd() && peek() == '~') {
+            position++;
+            int start = position;
+            while (!atEnd() && Character.isDigit(peek())) {
+                position++;
+            }
+            if (position == start || position - start > 2) {
+                throw QueryParseException.at(input, start, "slop must be a number from 0 to 99");
+            }
+            slop = Integer.parseInt(input.substring(start, position));
+        }
+        if (text.isBlank()) {
+            throw QueryParseException.at(input, open, "empty phrase");
+        }
+        if (field != null && field.kind() == IndexField.Kind.NUMERIC) {
+            throw QueryParseException.at(input, open, "'" + field.queryName() + "' takes a number or range");
+        }
+        return new Query.Phrase(field, text, slop);
+    }
+
+    /**
+     * A numeric field's value: {@code <N}, {@code <=N}, {@code >N}, {@code >=N}, {@code N+},
+     * {@code [A TO B]} with {@code [ ]} inclusive and <code>{ }</code> exclusive bounds and
+     * {@code *} for an open bound, {@code A..B}, or a single number.
+     */
+    private Query parseRange(IndexField field) {
+        int start = position;
+        char c = peek();
+        if (c == '[' || c == '{') {
+            int close = indexOfAny(input, position + 1, ']', '}');
+            if (close < 0) {
+                throw QueryParseException.at(input, start, "unclosed range");
+            }
+            String[] bounds = input.substring(position + 1, close).trim().split("\\s+TO\\s+|\\s+to\\s+");
+            if (bounds.length != 2) {
+                throw QueryParseException.at(input, start, "range must be [from TO to]");
+            }
+            position = close + 1;
+            return new Query.Range(field, bound(bounds[0], Double.NEGATIVE_INFINITY, start), c == '[',
+                    bound(bounds[1], Double.POSITIVE_INFINITY, start), input.charAt(close) == ']');
+        }
+
+        String value = readWord();
+        if (value.startsWith("<=")) {
+            return new Query.Range(field, Double.NEGATIVE_INFINITY, false, number(value.substring(2), start), true);
+        }
+        if (value.startsWith(">=")) {
+            return new Query.Range(field, number(value.substring(2), start), true, Double.POSITIVE_INFINITY, false);
+        }
+        if (value.startsWith("<")) {
+            return new Query.Range(field, Double.NEGATIVE_INFINITY, false, number(value.substring(1), start), false);
+        }
+        if (value.startsWith(">")) {
+            return new Query.Range(field, number(value.substring(1), start), false, Double.POSITIVE_INFINITY, false);
+        }
+        if (value.endsWith("+")) {
+            return new Query.Range(field, number(value.substring(0, value.length() - 1), start), true,
+                    Double.POSITIVE_INFINITY, false);
+        }
+        int dots = value.indexOf("..");
+        if (dots >= 0) {
+            return new Query.Range(field, bound(value.substring(0, dots), Double.NEGATIVE_INFINITY, start), true,
+                    bound(value.substring(dots + 2), Double.POSITIVE_INFINITY, start), true);
+        }
+        double exact = number(value, start);
+        return new Query.Range(field, exact, true, exact, true);
+    }
+
+    private Query text(IndexField field, String word, int start) {
+        if (word.isEmpty()) {
+            throw QueryParseException.at(input, start, "missing search term");
+        }
+        return new Query.Text(field, word);
+    }
+
+    /**
+     * Read up to whitespace, a parenthesis or a quote.
+     */
+    private String readWord() {
+        int start = position;
+        while (!atEnd()) {
+            char c = peek();
+            if (Character.isWhitespace(c) || c == '(' || c == ')' || c == '"') {
+                break;
+            }
+            position++;
+        }
+        return input.substring(start, position);
+    }
+
+    private double bound(String value, double open, int start) {
+        return value.isEmpty() || value.equals("*") ? open : number(value, start);
+    }
+
+    private double number(String value, int start) {
+        try {
+            double number = Double.parseDouble(value);
+            if (Double.isNaN(number) || Double.isInfinite(number)) {
+                throw new NumberFormatException();
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw QueryParseException.at(input, start, "'" + value + "' is not a number");
+        }
+    }
+
+    private boolean peekOperator(String operator) {
+        int end = position + operator.length();
+        return input.startsWith(operator, position)
+                && (end == input.length() || Character.isWhitespace(input.charAt(end)) || input.charAt(end) == '(');
+    }
+
+    private boolean consumeOperator(String operator) {
+        skipWhitespace();
+        if (peekOperator(operator)) {
+            position += operator.length();
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isFieldName(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isLetter(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOfAny(String text, int from, char first, char second) {
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == first || text.charAt(i) == second) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void skipWhitespace() {
+        while (!atEnd() && Character.isWhitespace(peek())) {
+            position++;
+        }
+    }
+
+    private boolean atEnd() {
+        return position >= input.length();
+    }
+
+    private char peek() {
+        return input.charAt(position);
+    }
+
+    private QueryParseException error(String problem) {
+        return QueryParseException.at(input, position, problem);
+    }
+}
@@ -3,44 +3,86 @@ package com.productapi.service;
 import com.productapi.dto.external.ExternalProductResponse;
 import com.productapi.entity.Product;
 import com.productapi.exception.DataLoadException;
+import com.productapi.jfr.LoadBatchEvent;
+import com.productapi.metrics.ProductMetrics;
+import com.productapi.metrics.ProductMetrics.LoadStage;
 import com.productapi.repository.ProductRepository;
 import com.productapi.repository.ProductSearchRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for orchestrating data loading from external APIs.
+ * <p>
+ * Loading runs on background threads, so transactions are demarcated explicitly.
+ * Products are mapped in parallel by an {@link IngestionPipeline} and handed in batches to a
+ * single writer; each batch is upserted inside one {@link TransactionTemplate} transaction
+ * and rolls back on its own if it fails.
  */
 @Service
 public class DataLoadService {
 
     private static final Logger logger = LoggerFactory.getLogger(DataLoadService.class);
-    private static final int BATCH_SIZE = 50;
+    private static final int BATCH_QUEUE_CAPACITY = 2;
 
     private final ExternalApiService externalApiService;
     private final ProductRepository productRepository;
     private final ProductSearchRepository productSearchRepository;
     private final ProductMappingService mappingService;
+    private final LoadProgressPublisher progressPublisher;
+    private final ProductMetrics metrics;
+    private final FacetCache facetCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int mappingThreads;
+    private final int queueCapacity;
+    private final int pageSize;
 
     private final AtomicInteger loadingProgress = new AtomicInteger(0);
     private volatile boolean isLoading = false;
     private volatile String loadingStatus = "Not started";
+    private volatile LoadProgressPublisher.LoadPhase loadingPhase = LoadProgressPublisher.LoadPhase.IDLE;
 
     public DataLoadService(ExternalApiService externalApiService,
                           ProductRepository productRepository,
                           ProductSearchRepository productSearchRepository,
-                          ProductMappingService mappingService) {
+                          ProductMappingService mappingService,
+                          LoadProgressPublisher progressPublisher,
+                          ProductMetrics metrics,
+                          FacetCache facetCache,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${data-load.batch-size:50}") int batchSize,
+                          @Value("${data-load.pipeline.mapping-threads:0}") int mappingThreads,
+                          @Value("${data-load.pipeline.queue-capacity:500}") int queueCapacity,
+                          @Value("${external.api.products.page-size:0}") int pageSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("data-load.batch-size must be at least 1, was " + batchSize);
+        }
         this.externalApiService = externalApiService;
         this.productRepository = productRepository;
         this.productSearchRepository = productSearchRepository;
         this.mappingService = mappingService;
+        this.progressPublisher = progressPublisher;
+        this.metrics = metrics;
+        this.facetCache = facetCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.mappingThreads = mappingThreads > 0 ? mappingThreads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = Math.max(queueCapacity, batchSize);
+        this.pageSize = Math.max(pageSize, 0);
     }
 
     /**
@@ -49,7 +91,6 @@ public class DataLoadService {
      *
      * @return CompletableFuture containing the load result
      */
-    @Transactional
     public CompletableFuture<DataLoadResult> loadAllProducts() {
         if (isLoading) {
             return CompletableFuture.completedFuture(
@@ -58,23 +99,36 @@ public class DataLoadService {
 
         isLoading = true;
         loadingProgress.set(0);
-        loadingStatus = "Starting data load...";
+        enterPhase(LoadProgressPublisher.LoadPhase.FETCH, "Fetching products from external API...");
 
         logger.info("Starting to load all products from external API");
 
-        return externalApiService.getAllProducts()
-                .thenCompose(this::processExternalProducts)
-                .thenCompose(result -> rebuildSearchIndex().thenApply(indexResult -> {
-                    if (indexResult) {
-                        logger.info("Search index rebuilt successfully");
-                        return result;
-                    } else {
-                        logger.warn("Search index rebuild failed, but data load was successful");
-                        return new DataLoadResult(true, 
-                                result.getMessage() + " (Warning: Search index rebuild failed)", 
-                                result.getTotalProducts(), result.getNewProducts(), result.getUpdatedProducts());
-                    }
-                }))
+        CompletableFuture<DataLoadResult> processing = pageSize > 0
+                ? metrics.timeLoadStageAsync(LoadStage.FETCH, () -> externalApiService.getProductsPage(0, pageSize))
+                        .thenCompose(this::processPagedProducts)
+                : metrics.timeLoadStageAsync(LoadStage.FETCH, externalApiService::getAllProducts)
+                        .thenCompose(this::processExternalProducts);
+
+        return processing
+                .thenApply(result -> {
+                    refreshFacets();
+                    return result;
+                })
+                .thenCompose(result -> {
+                    enterPhase(LoadProgressPublisher.LoadPhase.INDEX, "Rebuilding search index...");
+                    return rebuildSearchIndex().thenApply(indexResult -> {
+                        if (indexResult) {
+                            logger.info("Search index rebuilt successfully");
+                            return result;
+                        } else {
+                            logger.warn("Search index rebuild failed, but data load was successful");
+                            return new DataLoadResult(true, 
+                                    result.getMessage() + " (Warning: Search index rebuild failed)", 
+                                    result.getTotalProducts(), result.getNewProducts(), result.getUpdatedProducts(),
+                                    result.getFailedProducts());
+                        }
+                    });
+                })
                 .exceptionally(throwable -> {
                     logger.error("Error during data loading", throwable);
                     isLoading = false;
@@ -84,10 +138,14 @@ public class DataLoadService {
                 .whenComplete((result, throwable) -> {
                     isLoading = false;
                     if (result != null && result.isSuccess()) {
-                        loadingStatus = "Completed successfully";
+                        enterPhase(LoadProgressPublisher.LoadPhase.COMPLETED, "Completed successfully");
                         logger.info("Data loading completed: {}", result);
                     } else {
-                        loadingStatus = "Failed";
+                        enterPhase(LoadProgressPublisher.LoadPhase.FAILED,
+                                result != null ? "Failed: " + result.getMessage() : "Failed");
+                    }
+                    if (result != null) {
+                        progressPublisher.loadCompleted(result);
                     }
                 });
     }
@@ -98,7 +156,6 @@ public class DataLoadService {
      * @param externalId the external product ID
      * @return CompletableFuture containing the load result
      */
-    @Transactional
     public CompletableFuture<DataLoadResult> loadProductById(Long externalId) {
         logger.info("Loading product with external ID: {}", externalId);
 
@@ -106,28 +163,18 @@ public class DataLoadService {
                 .thenApply(externalProduct -> {
                     try {
                         Product product = mappingService.mapToEntity(externalProduct);
-                        
-                        // Check if product already exists
-                        boolean isNew = !productRepository.existsByExternalId(externalId);
-                        
-                        if (!isNew) {
-                            // Update existing product
-                            Product existingProduct = productRepository.findByExternalId(externalId)
-                                    .orElseThrow(() -> new DataLoadException("Product not found during update"));
-                            product = mappingService.updateEntity(existingProduct, externalProduct);
-                        }
-                        
-                        productRepository.save(product);
-                        
-                        int newProducts = isNew ? 1 : 0;
-                        int updatedProducts = isNew ? 0 : 1;
-                        
+                        BatchResult batchResult = transactionTemplate.execute(
+                                status -> persistBatch(List.of(product)));
+                        boolean isNew = batchResult.newProducts() > 0;
+                        refreshFacets();
+                        refreshSearchIndex(externalId);
+
                         logger.info("Successfully {} product with external ID: {}", 
                                 isNew ? "created" : "updated", externalId);
                         
                         return new DataLoadResult(true, 
                                 "Product " + (isNew ? "created" : "updated") + " successfully", 
-                                1, newProducts, updatedProducts);
+                                1, batchResult.newProducts(), batchResult.updatedProducts());
                                 
                     } catch (Exception e) {
                         logger.error("Error processing product with external ID: {}", externalId, e);
@@ -145,18 +192,29 @@ public class DataLoadService {
      *
      * @return CompletableFuture containing the clear result
      */
-    @Transactional
     public CompletableFuture<DataLoadResult> clearAllProducts() {
         logger.info("Clearing all products from database");
 
         return CompletableFuture.supplyAsync(() -> {
             try {
-                long count = productRepository.count();
-                productRepository.deleteAll();
-                logger.info("Successfully cleared {} products from database", count);
+                long started = System.nanoTime();
+                int count = transactionTemplate.execute(status -> {
+                    // Children first so the foreign keys on product_id stay satisfied throughout
+                    int reviews = productRepository.deleteAllReviewsInBulk();
+                    int tags = productRepository.deleteAllTagsInBulk();
+                    int images = productRepository.deleteAllImagesInBulk();
+                    int products = productRepository.deleteAllProductsInBulk();
+                    logger.debug("Bulk deleted {} reviews, {} tags, {} images", reviews, tags, images);
+                    return products;
+                });
+                long elapsed = System.nanoTime() - started;
+                metrics.recordLoadStage(LoadStage.CLEAR, elapsed);
+                productSearchRepository.clearIndex();
+                facetCache.clear();
+                logger.info("Successfully cleared {} products from database in {} ms", count, elapsed / 1_000_000);
                 
                 loadingStatus = "Database cleared";
-                return new DataLoadResult(true, "Successfully cleared " + count + " products", (int) count, 0, 0);
+                return new DataLoadResult(true, "Successfully cleared " + count + " products", count, 0, 0);
                 
             } catch (Exception e) {
                 logger.error("Error clearing products from database", e);
@@ -171,7 +229,7 @@ public class DataLoadService {
      * @return loading status information
      */
     public LoadingStatus getLoadingStatus() {
-        return new LoadingStatus(isLoading, loadingStatus, loadingProgress.get());
+        return new LoadingStatus(isLoading, loadingStatus, loadingProgress.get(), loadingPhase);
     }
 
     /**
@@ -193,7 +251,9 @@ public class DataLoadService {
         
         return CompletableFuture.supplyAsync(() -> {
             try {
+                long started = System.nanoTime();
                 productSearchRepository.rebuildIndex();
+                metrics.recordLoadStage(LoadStage.INDEX, System.nanoTime() - started);
                 logger.info("Search index rebuilt successfully");
                 return true;
             } catch (Exception e) {
@@ -205,72 +265,184 @@ public class DataLoadService {
 
     private CompletableFuture<DataLoadResult> processExternalProducts(ExternalProductResponse response) {
         return CompletableFuture.supplyAsync(() -> {
-            try {
-                if (response == null || response.getProducts() == null) {
-                    throw new DataLoadException("No products received from external API");
-                }
+            if (response == null || response.getProducts() == null) {
+                throw new DataLoadException("No products received from external API");
+            }
+            List<ExternalProductResponse.ExternalProduct> externalProducts = response.getProducts();
+            return ingest(externalProducts.iterator(), externalProducts.size());
+        });
+    }
 
-                List<ExternalProductResponse.ExternalProduct> externalProducts = response.getProducts();
-                int totalProducts = externalProducts.size();
-                int newProducts = 0;
-                int updatedProducts = 0;
+    /**
+     * Stream the catalog page by page into the pipeline; the next page is fetched while the
+     * current one is being mapped, so memory stays bounded by two pages regardless of catalog size.
+     */
+    private CompletableFuture<DataLoadResult> processPagedProducts(ExternalProductResponse firstPage) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (firstPage == null || firstPage.getProducts() == null) {
+                throw new DataLoadException("No products received from external API");
+            }
+            PagedProductSource source = new PagedProductSource(firstPage,
+                    skip -> metrics.timeLoadStageAsync(LoadStage.FETCH,
+                            () -> externalApiService.getProductsPage(skip, pageSize)));
+            logger.info("Streaming {} products from external API in pages of {}", source.getTotal(), pageSize);
+            return ingest(source, source.getTotal());
+        });
+    }
 
-                logger.info("Processing {} products from external API", totalProducts);
-                loadingStatus = "Processing products...";
+    private DataLoadResult ingest(Iterator<ExternalProductResponse.ExternalProduct> externalProducts, int totalProducts) {
+        try {
+            LoadTotals totals = new LoadTotals();
 
-                // Process products in batches
-                List<Product> batch = new ArrayList<>();
-                
-                for (int i = 0; i < externalProducts.size(); i++) {
-                    ExternalProductResponse.ExternalProduct externalProduct = externalProducts.get(i);
-                    
-                    try {
-                        Product product = mappingService.mapToEntity(externalProduct);
-                        
-                        // Check if product already exists
-                        boolean isNew = !productRepository.existsByExternalId(externalProduct.getId());
-                        
-                        if (!isNew) {
-                            // Update existing product
-                            Product existingProduct = productRepository.findByExternalId(externalProduct.getId())
-                                    .orElseThrow(() -> new DataLoadException("Product not found during update"));
-                            product = mappingService.updateEntity(existingProduct, externalProduct);
-                            updatedProducts++;
-                        } else {
-                            newProducts++;
-                        }
-                        
-                        batch.add(product);
-                        
-                        // Save batch when it reaches the batch size or at the end
-                        if (batch.size() >= BATCH_SIZE || i == externalProducts.size() - 1) {
-                            productRepository.saveAll(batch);
-                            batch.clear();
-                            
-                            int processed = i + 1;
-                            loadingProgress.set((processed * 100) / totalProducts);
-                            loadingStatus = String.format("Processed %d/%d products", processed, totalProducts);
-                            
-                            logger.debug("Processed {}/{} products", processed, totalProducts);
-                        }
-                        
-                    } catch (Exception e) {
-                        logger.error("Error processing product with external ID: {}", externalProduct.getId(), e);
-                        // Continue processing other products
-                    }
-                }
+            logger.info("Processing {} products from external API: {} mapping threads, batches of {}",
+                    totalProducts, mappingThreads, batchSize);
+            enterPhase(LoadProgressPublisher.LoadPhase.MAP, "Mapping products...");
 
-                String message = String.format("Successfully processed %d products (%d new, %d updated)", 
-                        totalProducts, newProducts, updatedProducts);
-                
-                logger.info(message);
-                return new DataLoadResult(true, message, totalProducts, newProducts, updatedProducts);
-                
-            } catch (Exception e) {
-                logger.error("Error processing external products", e);
-                throw new DataLoadException("Failed to process external products", e);
+            IngestionPipeline<ExternalProductResponse.ExternalProduct, Product> pipeline = new IngestionPipeline<>(
+                    product -> metrics.timeLoadStage(LoadStage.MAP, () -> mappingService.mapToEntity(product)),
+                    (batch, batchNumber) -> writeBatch(batch, batchNumber, totalProducts, totals),
+                    mappingThreads, batchSize, queueCapacity, BATCH_QUEUE_CAPACITY);
+            IngestionPipeline.PipelineStats stats = pipeline.run(externalProducts);
+            int mapFailures = (int) stats.getStage("map").getFailures();
+            totals.failedProducts += mapFailures;
+            metrics.recordLoadedProducts(0, 0, mapFailures);
+            progressPublisher.pipelineCompleted(stats);
+
+            int processedProducts = totals.processedProducts + mapFailures;
+            String message = String.format("Successfully processed %d products (%d new, %d updated, %d failed)", 
+                    processedProducts, totals.newProducts, totals.updatedProducts, totals.failedProducts);
+            
+            logger.info("{} in {} committed batches", message, totals.committedBatches);
+            return new DataLoadResult(true, message, processedProducts, totals.newProducts, totals.updatedProducts,
+                    totals.failedProducts);
+            
+        } catch (Exception e) {
+            logger.error("Error processing external products", e);
+            throw new DataLoadException("Failed to process external products", e);
+        }
+    }
+
+    /**
+     * Persistence stage of the ingestion pipeline. Runs on a single thread, one transaction per batch.
+     */
+    private void writeBatch(List<Product> batch, int batchNumber, int totalProducts, LoadTotals totals) {
+        if (batchNumber == 1) {
+            enterPhase(LoadProgressPublisher.LoadPhase.PERSIST, "Persisting products...");
+        }
+
+        long batchStart = System.nanoTime();
+        LoadBatchEvent event = LoadBatchEvent.begin(batchNumber, batch.size());
+        BatchResult batchResult;
+        boolean committed;
+        try {
+            batchResult = transactionTemplate.execute(status -> persistBatch(batch));
+            totals.committedBatches++;
+            committed = true;
+        } catch (Exception e) {
+            // The batch transaction has been rolled back; continue with the next batch
+            DataLoadException failure = DataLoadException.batchSaveFailed(batch.size(), e);
+            logger.error(failure.getMessage(), e);
+            batchResult = new BatchResult(0, 0, batch.size());
+            committed = false;
+        }
+        event.complete(batchResult.newProducts(), batchResult.updatedProducts(), batchResult.skippedProducts(),
+                committed);
+        totals.newProducts += batchResult.newProducts();
+        totals.updatedProducts += batchResult.updatedProducts();
+        totals.failedProducts += batchResult.skippedProducts();
+        totals.processedProducts += batch.size();
+        long batchNanos = System.nanoTime() - batchStart;
+        metrics.recordLoadStage(LoadStage.PERSIST, batchNanos);
+        metrics.recordLoadedProducts(batchResult.newProducts(), batchResult.updatedProducts(),
+                batchResult.skippedProducts());
+
+        int processed = totals.processedProducts;
+        loadingProgress.set(totalProducts > 0 ? (int) ((processed * 100L) / totalProducts) : 100);
+        loadingStatus = String.format("Processed %d/%d products", processed, totalProducts);
+        progressPublisher.batchCompleted(new LoadProgressPublisher.BatchProgress(
+                batchNumber, batch.size(), processed, totalProducts, batchResult.newProducts(),
+                batchResult.updatedProducts(), batchResult.skippedProducts(), batchNanos));
+
+        logger.debug("Processed {}/{} products", processed, totalProducts);
+    }
+
+    /**
+     * Reload the facet cache from the committed data. A failure keeps the previous facets and
+     * does not fail the load.
+     */
+    private void refreshFacets() {
+        try {
+            facetCache.refresh();
+        } catch (Exception e) {
+            logger.warn("Facet cache refresh failed; serving the previous facets", e);
+        }
+    }
+
+    /**
+     * Index a single product after it changed, without rebuilding the search index. A failure
+     * keeps the previous version searchable and does not fail the load.
+     */
+    private void refreshSearchIndex(Long externalId) {
+        try {
+            long started = System.nanoTime();
+            productSearchRepository.indexProduct(externalId);
+            metrics.recordLoadStage(LoadStage.INDEX, System.nanoTime() - started);
+        } catch (Exception e) {
+            logger.warn("Search index update failed; serving the previous version of the product", e);
+        }
+    }
+
+    private void enterPhase(LoadProgressPublisher.LoadPhase phase, String status) {
+        loadingPhase = phase;
+        loadingStatus = status;
+        progressPublisher.phaseChanged(phase, status);
+    }
+
+    /**
+     * Upsert one batch of mapped products. Must run inside a transaction so that the
+     * existence lookup, the update of managed entities and the save share one connection.
+     */
+    private BatchResult persistBatch(List<Product> batch) {
+        List<Long> externalIds = batch.stream()
+                .map(Product::getExternalId)
+                .collect(Collectors.toList());
+        Map<Long, Product> existingProducts = productRepository.findByExternalIdIn(externalIds).stream()
+                .collect(Collectors.toMap(Product::getExternalId, Function.identity()));
+
+        List<Product> products = new ArrayList<>(batch.size());
+        int newProducts = 0;
+        int updatedProducts = 0;
+
+        for (Product mappedProduct : batch) {
+            Product existingProduct = existingProducts.get(mappedProduct.getExternalId());
+            if (existingProduct != null) {
+                products.add(mappingService.updateEntity(existingProduct, mappedProduct));
+                updatedProducts++;
+            } else {
+                products.add(mappedProduct);
+                newProducts++;
             }
-        });
+        }
+
+        productRepository.saveAll(products);
+        return new BatchResult(newProducts, updatedProducts, 0);
+    }
+
+    /**
+     * Outcome of a single committed batch.
+     */
+    private record BatchResult(int newProducts, int updatedProducts, int skippedProducts) {
+    }
+
+    /**
+     * Running totals of a load, only touched by the single persistence thread.
+     */
+    private static class LoadTotals {
+        private int newProducts;
+        private int updatedProducts;
+        private int failedProducts;
+        private int processedProducts;
+        private int committedBatches;
     }
 
     /**
@@ -282,13 +454,20 @@ public class DataLoadService {
         private final int totalProducts;
         private final int newProducts;
         private final int updatedProducts;
+        private final int failedProducts;
 
         public DataLoadResult(boolean success, String message, int totalProducts, int newProducts, int updatedProducts) {
+            this(success, message, totalProducts, newProducts, updatedProducts, 0);
+        }
+
+        public DataLoadResult(boolean success, String message, int totalProducts, int newProducts,
+                              int updatedProducts, int failedProducts) {
             this.success = success;
             this.message = message;
             this.totalProducts = totalProducts;
             this.newProducts = newProducts;
             this.updatedProducts = updatedProducts;
+            this.failedProducts = failedProducts;
         }
 
         // Getters
@@ -297,11 +476,12 @@ public class DataLoadService {
         public int getTotalProducts() { return totalProducts; }
         public int getNewProducts() { return newProducts; }
         public int getUpdatedProducts() { return updatedProducts; }
+        public int getFailedProducts() { return failedProducts; }
 
         @Override
         public String toString() {
-            return String.format("DataLoadResult{success=%s, message='%s', total=%d, new=%d, updated=%d}",
-                    success, message, totalProducts, newProducts, updatedProducts);
+            return String.format("DataLoadResult{success=%s, message='%s', total=%d, new=%d, updated=%d, failed=%d}",
+                    success, message, totalProducts, newProducts, updatedProducts, failedProducts);
         }
     }
 
@@ -312,16 +492,23 @@ public class DataLoadService {
         private final boolean loading;
         private final String status;
         private final int progress;
+        private final LoadProgressPublisher.LoadPhase phase;
 
         public LoadingStatus(boolean loading, String status, int progress) {
+            this(loading, status, progress, null);
+        }
+
+        public LoadingStatus(boolean loading, String status, int progress, LoadProgressPublisher.LoadPhase phase) {
             this.loading = loading;
             this.status = status;
             this.progress = progress;
+            this.phase = phase;
         }
 
         // Getters
         public boolean isLoading() { return loading; }
         public String getStatus() { return status; }
         public int getProgress() { return progress; }
+        public LoadProgressPublisher.LoadPhase getPhase() { return phase; }
     }
 }
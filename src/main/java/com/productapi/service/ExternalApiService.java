@@ -2,6 +2,7 @@ package com.productapi.service;
 
 import com.productapi.dto.external.ExternalProductResponse;
 import com.productapi.exception.ExternalApiException;
+import com.productapi.jfr.ExternalApiEventFilter;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
@@ -30,6 +31,7 @@ public class ExternalApiService {
     private final String baseUrl;
     private final String allProductsEndpoint;
     private final String productByIdEndpoint;
+    private final String productsPageEndpoint;
     private final Duration connectTimeout;
     private final Duration readTimeout;
 
@@ -38,17 +40,20 @@ public class ExternalApiService {
             @Value("${external.api.products.base-url}") String baseUrl,
             @Value("${external.api.products.endpoints.all-products}") String allProductsEndpoint,
             @Value("${external.api.products.endpoints.product-by-id}") String productByIdEndpoint,
+            @Value("${external.api.products.endpoints.products-page:/products?limit={limit}&skip={skip}}") String productsPageEndpoint,
             @Value("${external.api.products.timeout.connect}") long connectTimeoutMs,
             @Value("${external.api.products.timeout.read}") long readTimeoutMs) {
         
         this.baseUrl = baseUrl;
         this.allProductsEndpoint = allProductsEndpoint;
         this.productByIdEndpoint = productByIdEndpoint;
+        this.productsPageEndpoint = productsPageEndpoint;
         this.connectTimeout = Duration.ofMillis(connectTimeoutMs);
         this.readTimeout = Duration.ofMillis(readTimeoutMs);
         
         this.webClient = webClientBuilder
                 .baseUrl(baseUrl)
+                .filter(new ExternalApiEventFilter())
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)) // 10MB
                 .build();
         
@@ -80,6 +85,37 @@ public class ExternalApiService {
                 .toFuture();
     }
 
+    /**
+     * Fetch one page of products from external API using the upstream {@code limit}/{@code skip} contract.
+     * Applies circuit breaker, retry, and timeout patterns per page.
+     *
+     * @param skip number of products to skip
+     * @param limit maximum number of products in the page
+     * @return CompletableFuture containing the page, with {@code total} set to the catalog size
+     */
+    @CircuitBreaker(name = "external-api", fallbackMethod = "fallbackGetProductsPage")
+    @Retry(name = "external-api")
+    @TimeLimiter(name = "external-api")
+    public CompletableFuture<ExternalProductResponse> getProductsPage(int skip, int limit) {
+        logger.debug("Fetching products page skip={}, limit={} from external API", skip, limit);
+
+        String uri = productsPageEndpoint
+                .replace("{limit}", Integer.toString(limit))
+                .replace("{skip}", Integer.toString(skip));
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(ExternalProductResponse.class)
+                .timeout(readTimeout)
+                .doOnSuccess(response -> logger.debug("Fetched products page skip={} ({} products)",
+                        skip, response != null && response.getProducts() != null ? response.getProducts().size() : 0))
+                .doOnError(error -> logger.error("Error fetching products page skip={} from external API", skip, error))
+                .onErrorMap(WebClientRequestException.class, this::mapRequestException)
+                .onErrorMap(WebClientResponseException.class, this::mapResponseException)
+                .toFuture();
+    }
+
     /**
      * Fetch a specific product by ID from external API.
      * Applies circuit breaker, retry, and timeout patterns.
@@ -135,6 +171,15 @@ public class ExternalApiService {
                 new ExternalApiException("External API is currently unavailable. Please try again later.", ex));
     }
 
+    /**
+     * Fallback method for getProductsPage when circuit breaker is open.
+     */
+    public CompletableFuture<ExternalProductResponse> fallbackGetProductsPage(int skip, int limit, Exception ex) {
+        logger.warn("Circuit breaker fallback triggered for getProductsPage({}, {}): {}", skip, limit, ex.getMessage());
+        return CompletableFuture.failedFuture(
+                new ExternalApiException("External API is currently unavailable. Please try again later.", ex));
+    }
+
     /**
      * Fallback method for getProductById when circuit breaker is open.
      */
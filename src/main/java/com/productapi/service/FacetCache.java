@@ -0,0 +1,171 @@
+package com.productapi.service;
+
+import com.productapi.dto.response.FacetsResponse;
+import com.productapi.metrics.ProductMetrics;
+import com.productapi.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Distinct categories, brands and availability statuses with their product counts.
+ * <p>
+ * Each facet is held as immutable sorted arrays and swapped in as a whole, so reads never touch
+ * the database and never lock. The data only changes when {@link DataLoadService} writes, which
+ * calls {@link #refresh()} after a load commits and {@link #clear()} after the catalog is wiped.
+ * The first read after startup loads the facets lazily.
+ */
+@Component
+public class FacetCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetCache.class);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Facets facets;
+
+    public FacetCache(ProductRepository productRepository,
+                      PlatformTransactionManager transactionManager,
+                      ProductMetrics metrics) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        metrics.registerCache("facets", this, FacetCache::size);
+    }
+
+    public Facet getCategories() {
+        return current().categories();
+    }
+
+    public Facet getBrands() {
+        return current().brands();
+    }
+
+    public Facet getAvailabilityStatuses() {
+        return current().availabilityStatuses();
+    }
+
+    /**
+     * Reload all facets from the database and publish them atomically.
+     */
+    public synchronized void refresh() {
+        long started = System.nanoTime();
+        Facets loaded = readOnlyTransaction.execute(status -> new Facets(
+                Facet.of(productRepository.countProductsByCategory()),
+                Facet.of(productRepository.countProductsByBrand()),
+                Facet.of(productRepository.countProductsByAvailabilityStatus())));
+        facets = loaded;
+        logger.info("Facet cache refreshed: {} categories, {} brands, {} availability statuses in {} ms",
+                loaded.categories().size(), loaded.brands().size(), loaded.availabilityStatuses().size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Publish empty facets, for when every product has been deleted.
+     */
+    public synchronized void clear() {
+        facets = new Facets(Facet.EMPTY, Facet.EMPTY, Facet.EMPTY);
+    }
+
+    private Facets current() {
+        Facets current = facets;
+        if (current == null) {
+            synchronized (this) {
+                if (facets == null) {
+                    refresh();
+                }
+                current = facets;
+            }
+        }
+        return current;
+    }
+
+    private double size() {
+        Facets current = facets;
+        return current == null ? 0
+                : current.categories().size() + current.brands().size() + current.availabilityStatuses().size();
+    }
+
+    private record Facets(Facet categories, Facet brands, Facet availabilityStatuses) {
+    }
+
+    /**
+     * The distinct values of one field in natural order, each with the number of products having it.
+     */
+    public static final class Facet {
+
+        static final Facet EMPTY = new Facet(new String[0], new long[0]);
+
+        private final String[] values;
+        private final long[] counts;
+        private final List<String> valueList;
+
+        private Facet(String[] values, long[] counts) {
+            this.values = values;
+            this.counts = counts;
+            this.valueList = Collections.unmodifiableList(Arrays.asList(values));
+        }
+
+        /**
+         * Build from {@code [value, count]} rows in any order.
+         */
+        static Facet of(List<Object[]> rows) {
+            Object[][] sorted = rows.toArray(new Object[0][]);
+            Arrays.sort(sorted, (left, right) -> ((String) left[0]).compareTo((String) right[0]));
+
+            String[] values = new String[sorted.length];
+            long[] counts = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                values[i] = (String) sorted[i][0];
+                counts[i] = ((Number) sorted[i][1]).longValue();
+            }
+            return new Facet(values, counts);
+        }
+
+        /**
+         * Distinct values in natural order, as a read-only view shared by all callers.
+         */
+        public List<String> getValues() {
+            return valueList;
+        }
+
+        /**
+         * Number of products having {@code value}, or 0 if no product has it.
+         */
+        public long getCount(String value) {
+            int index = Arrays.binarySearch(values, value);
+            return index >= 0 ? counts[index] : 0;
+        }
+
+        public String getValue(int index) {
+            return values[index];
+        }
+
+        public long getCount(int index) {
+            return counts[index];
+        }
+
+        public int size() {
+            return values.length;
+        }
+
+        /**
+         * Values with their counts, as response DTOs.
+         */
+        public List<FacetsResponse.FacetValue> toFacetValues() {
+            List<FacetsResponse.FacetValue> facetValues = new ArrayList<>(values.length);
+            for (int i = 0; i < values.length; i++) {
+                facetValues.add(new FacetsResponse.FacetValue(values[i], counts[i]));
+            }
+            return facetValues;
+        }
+    }
+}
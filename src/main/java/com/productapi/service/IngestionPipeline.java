@@ -0,0 +1,318 @@
+package com.productapi.service;
+
+import com.productapi.exception.DataLoadException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Three-stage ingestion pipeline: parallel mapping workers, a batching stage and a
+ * single-writer persistence stage, connected by bounded queues.
+ * <p>
+ * Mapping is CPU-bound and runs on {@code mappingThreads} workers pulling from a shared source.
+ * The batching stage groups mapped items into batches of {@code batchSize}; the persistence stage
+ * runs on the calling thread and hands each batch to the {@link BatchWriter}. Full queues block the
+ * upstream stage, so a slow writer throttles mapping instead of buffering the whole catalog in memory.
+ *
+ * @param <I> the source item type
+ * @param <O> the mapped item type
+ */
+public class IngestionPipeline<I, O> {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    private static final Object END_OF_ITEMS = new Object();
+    private static final List<Object> END_OF_BATCHES = Collections.emptyList();
+
+    private final Function<? super I, ? extends O> mapper;
+    private final BatchWriter<O> writer;
+    private final int mappingThreads;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int batchQueueCapacity;
+
+    public IngestionPipeline(Function<? super I, ? extends O> mapper, BatchWriter<O> writer,
+                             int mappingThreads, int batchSize, int queueCapacity, int batchQueueCapacity) {
+        if (mappingThreads < 1 || batchSize < 1 || queueCapacity < 1 || batchQueueCapacity < 1) {
+            throw new IllegalArgumentException("Pipeline thread count, batch size and queue capacities must be positive");
+        }
+        this.mapper = mapper;
+        this.writer = writer;
+        this.mappingThreads = mappingThreads;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.batchQueueCapacity = batchQueueCapacity;
+    }
+
+    /**
+     * Run all items of the source through the pipeline. Blocks until the last batch is written.
+     *
+     * @param source the items to ingest; consumed concurrently by the mapping workers
+     * @return per-stage statistics
+     * @throws DataLoadException if a stage fails unexpectedly
+     */
+    public PipelineStats run(Iterator<? extends I> source) {
+        BlockingQueue<Object> mappedItems = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<List<?>> batches = new ArrayBlockingQueue<>(batchQueueCapacity);
+        StageStats mapStage = new StageStats("map", mappingThreads);
+        StageStats batchStage = new StageStats("batch", 1);
+        StageStats persistStage = new StageStats("persist", 1);
+        AtomicInteger activeMappers = new AtomicInteger(mappingThreads);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(mappingThreads + 1, new StageThreadFactory());
+        long started = System.nanoTime();
+        try {
+            for (int i = 0; i < mappingThreads; i++) {
+                executor.execute(() -> mapItems(source, mappedItems, mapStage, activeMappers, failure));
+            }
+            executor.execute(() -> batchItems(mappedItems, batches, batchStage, failure));
+            persistBatches(batches, persistStage, failure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (failure.get() != null) {
+            throw new DataLoadException("Ingestion pipeline failed", failure.get());
+        }
+
+        PipelineStats stats = new PipelineStats(System.nanoTime() - started, List.of(mapStage, batchStage, persistStage));
+        logger.info("Ingestion pipeline finished: {}", stats);
+        return stats;
+    }
+
+    private void mapItems(Iterator<? extends I> source, BlockingQueue<Object> mappedItems, StageStats stage,
+                          AtomicInteger activeMappers, AtomicReference<Throwable> failure) {
+        try {
+            while (failure.get() == null) {
+                I item;
+                synchronized (source) {
+                    if (!source.hasNext()) {
+                        break;
+                    }
+                    item = source.next();
+                }
+
+                long start = System.nanoTime();
+                O mapped;
+                try {
+                    mapped = mapper.apply(item);
+                } catch (RuntimeException e) {
+                    logger.error("Error mapping item {}", item, e);
+                    stage.recordFailure();
+                    continue;
+                }
+                if (mapped == null) {
+                    stage.recordFailure();
+                    continue;
+                }
+                stage.recordWork(1, System.nanoTime() - start);
+
+                long blockedStart = System.nanoTime();
+                mappedItems.put(mapped);
+                stage.recordBlocked(System.nanoTime() - blockedStart);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            if (activeMappers.decrementAndGet() == 0) {
+                offerUntilInterrupted(mappedItems, END_OF_ITEMS);
+            }
+        }
+    }
+
+    private void batchItems(BlockingQueue<Object> mappedItems, BlockingQueue<List<?>> batches, StageStats stage,
+                            AtomicReference<Throwable> failure) {
+        try {
+            List<Object> batch = new ArrayList<>(batchSize);
+            while (true) {
+                long waitStart = System.nanoTime();
+                Object item = mappedItems.take();
+                long start = System.nanoTime();
+                stage.recordBlocked(start - waitStart);
+
+                if (item == END_OF_ITEMS) {
+                    if (!batch.isEmpty()) {
+                        batches.put(batch);
+                        stage.recordWork(batch.size(), System.nanoTime() - start);
+                    }
+                    break;
+                }
+
+                batch.add(item);
+                if (batch.size() >= batchSize) {
+                    List<Object> full = batch;
+                    batch = new ArrayList<>(batchSize);
+                    long handOff = System.nanoTime();
+                    batches.put(full);
+                    stage.recordBlocked(System.nanoTime() - handOff);
+                    stage.recordWork(full.size(), handOff - start);
+                } else {
+                    stage.recordWork(0, System.nanoTime() - start);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            offerUntilInterrupted(batches, END_OF_BATCHES);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void persistBatches(BlockingQueue<List<?>> batches, StageStats stage,
+                                AtomicReference<Throwable> failure) throws InterruptedException {
+        int batchNumber = 0;
+        while (true) {
+            long waitStart = System.nanoTime();
+            List<?> batch = batches.take();
+            long start = System.nanoTime();
+            stage.recordBlocked(start - waitStart);
+
+            if (batch == END_OF_BATCHES || failure.get() != null) {
+                return;
+            }
+            writer.write((List<O>) batch, ++batchNumber);
+            stage.recordWork(batch.size(), System.nanoTime() - start);
+        }
+    }
+
+    private static <T> void offerUntilInterrupted(BlockingQueue<T> queue, T marker) {
+        try {
+            queue.put(marker);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Persistence stage callback. Invoked sequentially on a single thread.
+     *
+     * @param <O> the mapped item type
+     */
+    @FunctionalInterface
+    public interface BatchWriter<O> {
+
+        /**
+         * Write one batch. Implementations handle their own transaction and error policy;
+         * an exception thrown from here aborts the whole pipeline.
+         *
+         * @param batch the batch of mapped items
+         * @param batchNumber 1-based sequence number of the batch
+         */
+        void write(List<O> batch, int batchNumber);
+    }
+
+    /**
+     * Work and wait statistics for one pipeline stage.
+     */
+    public static class StageStats {
+        private final String name;
+        private final int threads;
+        private final LongAdder items = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder blockedNanos = new LongAdder();
+
+        StageStats(String name, int threads) {
+            this.name = name;
+            this.threads = threads;
+        }
+
+        void recordWork(long count, long nanos) {
+            items.add(count);
+            busyNanos.add(nanos);
+        }
+
+        void recordFailure() {
+            failures.increment();
+        }
+
+        void recordBlocked(long nanos) {
+            blockedNanos.add(nanos);
+        }
+
+        // Getters
+        public String getName() { return name; }
+        public int getThreads() { return threads; }
+        public long getItems() { return items.sum(); }
+        public long getFailures() { return failures.sum(); }
+        public long getBusyMs() { return busyNanos.sum() / 1_000_000; }
+        public long getBlockedMs() { return blockedNanos.sum() / 1_000_000; }
+
+        /**
+         * Items per second one thread of this stage can sustain, based on busy time only.
+         */
+        public double getItemsPerBusySecond() {
+            long busy = busyNanos.sum();
+            return busy > 0 ? items.sum() * 1_000_000_000.0 * threads / busy : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{items=%d, failures=%d, threads=%d, busy=%dms, blocked=%dms, %.0f items/s}",
+                    name, getItems(), getFailures(), threads, getBusyMs(), getBlockedMs(), getItemsPerBusySecond());
+        }
+    }
+
+    /**
+     * Statistics for a complete pipeline run.
+     */
+    public static class PipelineStats {
+        private final long elapsedMs;
+        private final List<StageStats> stages;
+
+        PipelineStats(long elapsedNanos, List<StageStats> stages) {
+            this.elapsedMs = elapsedNanos / 1_000_000;
+            this.stages = stages;
+        }
+
+        // Getters
+        public long getElapsedMs() { return elapsedMs; }
+        public List<StageStats> getStages() { return stages; }
+
+        public StageStats getStage(String name) {
+            return stages.stream()
+                    .filter(stage -> stage.getName().equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown pipeline stage: " + name));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PipelineStats{elapsed=%dms, stages=%s}", elapsedMs, stages);
+        }
+    }
+
+    private static class StageThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ingest-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
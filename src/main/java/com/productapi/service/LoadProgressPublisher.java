@@ -0,0 +1,199 @@
+package com.productapi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes data load progress to Server-Sent Event subscribers.
+ * <p>
+ * Events are broadcast from a dedicated thread so that a slow or stalled client can never
+ * hold up the load itself. Subscribers receive a {@code status} snapshot on connect,
+ * followed by {@code phase}, {@code batch} and finally {@code complete} events.
+ */
+@Component
+public class LoadProgressPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadProgressPublisher.class);
+
+    public static final String STATUS_EVENT = "status";
+    public static final String PHASE_EVENT = "phase";
+    public static final String BATCH_EVENT = "batch";
+    public static final String STAGES_EVENT = "stages";
+    public static final String COMPLETE_EVENT = "complete";
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final ExecutorService broadcaster = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "load-progress-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long emitterTimeoutMs;
+
+    public LoadProgressPublisher(@Value("${data-load.events.timeout:600000}") long emitterTimeoutMs) {
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    /**
+     * Register a new subscriber and send it the current status snapshot.
+     *
+     * @param currentStatus the loading status at subscription time
+     * @return the emitter to hand back to Spring MVC
+     */
+    public SseEmitter subscribe(DataLoadService.LoadingStatus currentStatus) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> {
+            emitters.remove(emitter);
+            emitter.complete();
+        });
+        emitter.onError(error -> emitters.remove(emitter));
+        emitters.add(emitter);
+
+        broadcaster.execute(() -> send(emitter, STATUS_EVENT, currentStatus));
+        logger.debug("Load progress subscriber registered, {} active", emitters.size());
+        return emitter;
+    }
+
+    /**
+     * Announce that the load entered a new phase.
+     */
+    public void phaseChanged(LoadPhase phase, String status) {
+        broadcast(PHASE_EVENT, new PhaseChange(phase, status));
+    }
+
+    /**
+     * Announce that a batch has been committed (or rolled back).
+     */
+    public void batchCompleted(BatchProgress progress) {
+        broadcast(BATCH_EVENT, progress);
+    }
+
+    /**
+     * Announce per-stage throughput once the ingestion pipeline has drained.
+     */
+    public void pipelineCompleted(IngestionPipeline.PipelineStats stats) {
+        broadcast(STAGES_EVENT, stats);
+    }
+
+    /**
+     * Publish the final result and close every open stream.
+     */
+    public void loadCompleted(DataLoadService.DataLoadResult result) {
+        broadcaster.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                if (send(emitter, COMPLETE_EVENT, result)) {
+                    emitter.complete();
+                }
+            }
+        });
+    }
+
+    /**
+     * Number of currently connected subscribers.
+     */
+    public int getSubscriberCount() {
+        return emitters.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        emitters.forEach(SseEmitter::complete);
+        broadcaster.shutdownNow();
+    }
+
+    private void broadcast(String eventName, Object payload) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        broadcaster.execute(() -> emitters.forEach(emitter -> send(emitter, eventName, payload)));
+    }
+
+    private boolean send(SseEmitter emitter, String eventName, Object payload) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(payload, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping load progress subscriber: {}", e.getMessage());
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * Phases of a full data load.
+     */
+    public enum LoadPhase {
+        IDLE, FETCH, MAP, PERSIST, INDEX, COMPLETED, FAILED
+    }
+
+    /**
+     * Phase change event payload.
+     */
+    public static class PhaseChange {
+        private final LoadPhase phase;
+        private final String status;
+
+        public PhaseChange(LoadPhase phase, String status) {
+            this.phase = phase;
+            this.status = status;
+        }
+
+        // Getters
+        public LoadPhase getPhase() { return phase; }
+        public String getStatus() { return status; }
+    }
+
+    /**
+     * Per-batch progress event payload.
+     */
+    public static class BatchProgress {
+        private final int batchNumber;
+        private final int batchSize;
+        private final int processedProducts;
+        private final int totalProducts;
+        private final int progress;
+        private final int newProducts;
+        private final int updatedProducts;
+        private final int failedProducts;
+        private final long durationMs;
+        private final double productsPerSecond;
+
+        public BatchProgress(int batchNumber, int batchSize, int processedProducts, int totalProducts,
+                             int newProducts, int updatedProducts, int failedProducts, long durationNanos) {
+            this.batchNumber = batchNumber;
+            this.batchSize = batchSize;
+            this.processedProducts = processedProducts;
+            this.totalProducts = totalProducts;
+            this.progress = totalProducts > 0 ? (processedProducts * 100) / totalProducts : 100;
+            this.newProducts = newProducts;
+            this.updatedProducts = updatedProducts;
+            this.failedProducts = failedProducts;
+            this.durationMs = durationNanos / 1_000_000;
+            this.productsPerSecond = durationNanos > 0 ? batchSize * 1_000_000_000.0 / durationNanos : 0.0;
+        }
+
+        // Getters
+        public int getBatchNumber() { return batchNumber; }
+        public int getBatchSize() { return batchSize; }
+        public int getProcessedProducts() { return processedProducts; }
+        public int getTotalProducts() { return totalProducts; }
+        public int getProgress() { return progress; }
+        public int getNewProducts() { return newProducts; }
+        public int getUpdatedProducts() { return updatedProducts; }
+        public int getFailedProducts() { return failedProducts; }
+        public long getDurationMs() { return durationMs; }
+        public double getProductsPerSecond() { return productsPerSecond; }
+    }
+}
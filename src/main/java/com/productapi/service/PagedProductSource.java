@@ -0,0 +1,88 @@
+package com.productapi.service;
+
+import com.productapi.dto.external.ExternalProductResponse;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
+/**
+ * Iterates over an upstream catalog page by page, keeping at most the current page and one
+ * prefetched page in memory.
+ * <p>
+ * The next page is requested as soon as the current one is taken, so fetching overlaps with
+ * mapping. Not thread-safe; the {@link IngestionPipeline} serializes access to its source.
+ * A failed page fetch surfaces as an unchecked exception from {@link #hasNext()} or {@link #next()}.
+ */
+class PagedProductSource implements Iterator<ExternalProductResponse.ExternalProduct> {
+
+    private final IntFunction<CompletableFuture<ExternalProductResponse>> pageFetcher;
+    private final int total;
+
+    private Iterator<ExternalProductResponse.ExternalProduct> current;
+    private CompletableFuture<ExternalProductResponse> prefetched;
+    private int nextSkip;
+
+    /**
+     * @param firstPage the already fetched first page; its {@code total} bounds the iteration
+     * @param pageFetcher fetches the page starting at the given skip offset
+     */
+    PagedProductSource(ExternalProductResponse firstPage,
+                       IntFunction<CompletableFuture<ExternalProductResponse>> pageFetcher) {
+        this.pageFetcher = pageFetcher;
+        this.total = firstPage.getTotal() != null ? firstPage.getTotal() : 0;
+
+        List<ExternalProductResponse.ExternalProduct> products = productsOf(firstPage);
+        this.current = products.iterator();
+        this.nextSkip = products.isEmpty() ? total : products.size();
+        prefetch();
+    }
+
+    /**
+     * Total number of products announced by the upstream API.
+     */
+    int getTotal() {
+        return total;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (prefetched == null) {
+                return false;
+            }
+            List<ExternalProductResponse.ExternalProduct> products = productsOf(prefetched.join());
+            prefetched = null;
+            if (products.isEmpty()) {
+                // Upstream returned fewer products than announced; stop rather than spin
+                nextSkip = total;
+                return false;
+            }
+            current = products.iterator();
+            nextSkip += products.size();
+            prefetch();
+        }
+        return true;
+    }
+
+    @Override
+    public ExternalProductResponse.ExternalProduct next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    private void prefetch() {
+        if (nextSkip < total) {
+            prefetched = pageFetcher.apply(nextSkip);
+        }
+    }
+
+    private List<ExternalProductResponse.ExternalProduct> productsOf(ExternalProductResponse page) {
+        return page != null && page.getProducts() != null ? page.getProducts() : Collections.emptyList();
+    }
+}
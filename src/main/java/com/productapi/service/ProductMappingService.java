@@ -3,6 +3,7 @@ package com.productapi.service;
 import com.productapi.dto.external.ExternalProductResponse;
 import com.productapi.dto.response.*;
 import com.productapi.entity.*;
+import com.productapi.search.index.Highlight;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -176,6 +177,77 @@ public class ProductMappingService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Map the highlight of a search hit to its response, cutting the snippet out of the
+     * product's description. The snippet is shifted back when it runs past the end of the text
+     * and trimmed to whole words, and offsets beyond the current text are dropped, in case the
+     * product changed after it was indexed.
+     *
+     * @param product the product the highlight was computed for
+     * @param highlight offsets into the indexed title and description
+     * @return the highlight response, or null without a highlight
+     */
+    public HighlightResponse mapToHighlight(Product product, Highlight highlight) {
+        if (product == null || highlight == null) {
+            return null;
+        }
+
+        String title = product.getTitle() != null ? product.getTitle() : "";
+        List<HighlightResponse.Range> titleRanges = highlight.title().stream()
+                .filter(span -> span.end() <= title.length())
+                .map(span -> new HighlightResponse.Range(span.start(), span.end()))
+                .collect(Collectors.toList());
+
+        String description = product.getDescription();
+        if (description == null) {
+            return new HighlightResponse(titleRanges, null, 0, List.of());
+        }
+        int length = description.length();
+        int to = Math.min(highlight.snippet().end(), length);
+        int from = Math.max(0, Math.min(highlight.snippet().start(), to - (highlight.snippet().end() - highlight.snippet().start())));
+        List<Highlight.Span> matches = highlight.description().stream()
+                .filter(span -> span.end() <= length)
+                .toList();
+
+        // Do not cut words in half, but never drop a match
+        int firstMatch = matches.isEmpty() ? to : matches.get(0).start();
+        int lastMatch = matches.isEmpty() ? from : matches.get(matches.size() - 1).end();
+        if (from > 0 && !Character.isWhitespace(description.charAt(from - 1))) {
+            int space = indexOfWhitespace(description, from, firstMatch);
+            from = space >= 0 ? space + 1 : from;
+        }
+        if (to < length && !Character.isWhitespace(description.charAt(to))) {
+            int space = lastIndexOfWhitespace(description, lastMatch, to);
+            to = space >= 0 ? space : to;
+        }
+
+        int offset = from;
+        int end = to;
+        List<HighlightResponse.Range> snippetMatches = matches.stream()
+                .filter(span -> span.start() >= offset && span.end() <= end)
+                .map(span -> new HighlightResponse.Range(span.start() - offset, span.end() - offset))
+                .collect(Collectors.toList());
+        return new HighlightResponse(titleRanges, description.substring(from, to), from, snippetMatches);
+    }
+
+    private static int indexOfWhitespace(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOfWhitespace(String text, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Update existing product entity with data from external product.
      *
@@ -248,4 +320,67 @@ public class ProductMappingService {
 
         return existingProduct;
     }
+
+    /**
+     * Update existing product entity with the state of a freshly mapped, not yet persisted entity.
+     * Lets ingestion map products on worker threads and only transfer the result onto the managed
+     * entity inside the write transaction. Reviews are moved from the mapped entity to the existing one.
+     *
+     * @param existingProduct the existing (managed) product entity
+     * @param mappedProduct the product entity produced by {@link #mapToEntity}
+     * @return the updated product entity
+     */
+    public Product updateEntity(Product existingProduct, Product mappedProduct) {
+        if (existingProduct == null || mappedProduct == null) {
+            return existingProduct;
+        }
+
+        // Update basic fields (SKU and external ID identify the product and are kept)
+        existingProduct.setTitle(mappedProduct.getTitle());
+        existingProduct.setDescription(mappedProduct.getDescription());
+        existingProduct.setCategory(mappedProduct.getCategory());
+        existingProduct.setPrice(mappedProduct.getPrice());
+        existingProduct.setDiscountPercentage(mappedProduct.getDiscountPercentage());
+        existingProduct.setRating(mappedProduct.getRating());
+        existingProduct.setStock(mappedProduct.getStock());
+        existingProduct.setTags(mappedProduct.getTags());
+        existingProduct.setBrand(mappedProduct.getBrand());
+        existingProduct.setWeight(mappedProduct.getWeight());
+        existingProduct.setWarrantyInformation(mappedProduct.getWarrantyInformation());
+        existingProduct.setShippingInformation(mappedProduct.getShippingInformation());
+        existingProduct.setAvailabilityStatus(mappedProduct.getAvailabilityStatus());
+        existingProduct.setReturnPolicy(mappedProduct.getReturnPolicy());
+        existingProduct.setMinimumOrderQuantity(mappedProduct.getMinimumOrderQuantity());
+        existingProduct.setImages(mappedProduct.getImages());
+        existingProduct.setThumbnail(mappedProduct.getThumbnail());
+
+        // Update dimensions and meta in place so the embedded values stay attached
+        if (mappedProduct.getDimensions() != null) {
+            if (existingProduct.getDimensions() == null) {
+                existingProduct.setDimensions(new Dimensions());
+            }
+            existingProduct.getDimensions().setWidth(mappedProduct.getDimensions().getWidth());
+            existingProduct.getDimensions().setHeight(mappedProduct.getDimensions().getHeight());
+            existingProduct.getDimensions().setDepth(mappedProduct.getDimensions().getDepth());
+        }
+
+        if (mappedProduct.getMeta() != null) {
+            if (existingProduct.getMeta() == null) {
+                existingProduct.setMeta(new Meta());
+            }
+            existingProduct.getMeta().setCreatedAt(mappedProduct.getMeta().getCreatedAt());
+            existingProduct.getMeta().setUpdatedAt(mappedProduct.getMeta().getUpdatedAt());
+            existingProduct.getMeta().setBarcode(mappedProduct.getMeta().getBarcode());
+            existingProduct.getMeta().setQrCode(mappedProduct.getMeta().getQrCode());
+        }
+
+        // Replace reviews, re-parenting the mapped ones
+        existingProduct.getReviews().clear();
+        for (Review review : mappedProduct.getReviews()) {
+            review.setProduct(existingProduct);
+            existingProduct.getReviews().add(review);
+        }
+
+        return existingProduct;
+    }
 }
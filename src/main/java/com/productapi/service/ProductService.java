@@ -1,24 +1,55 @@
 package com.productapi.service;
 
+import com.productapi.dto.response.FacetsResponse;
+import com.productapi.dto.response.HistogramResponse;
 import com.productapi.dto.response.PagedResponse;
+import com.productapi.dto.response.ProductLookupResult;
 import com.productapi.dto.response.ProductResponse;
 import com.productapi.entity.Product;
 import com.productapi.exception.ProductNotFoundException;
+import com.productapi.jfr.SearchEvent;
+import com.productapi.metrics.ProductMetrics;
+import com.productapi.metrics.ProductMetrics.SearchPhase;
+import com.productapi.metrics.ProductMetrics.SearchType;
+import com.productapi.repository.HighlightedPage;
 import com.productapi.repository.ProductRepository;
 import com.productapi.repository.ProductSearchRepository;
+import com.productapi.search.ProductSearchIndex;
+import com.productapi.search.ProductSearchIndex.Histogram;
+import com.productapi.search.index.IndexField;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Service for product-related business operations.
+ * <p>
+ * Searches, listings and suggestions are coalesced: identical requests arriving while one is
+ * already running wait for its result instead of querying again. They run outside the class-level
+ * transaction so waiting callers do not each hold a pooled connection; only the executing caller
+ * opens a read-only transaction.
  */
 @Service
 @Transactional(readOnly = true)
@@ -26,16 +57,41 @@ public class ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
 
+    /**
+     * Upper bound on keys per batch lookup, keeping the IN lists and response size bounded.
+     */
+    public static final int MAX_BATCH_KEYS = 100;
+
     private final ProductRepository productRepository;
     private final ProductSearchRepository productSearchRepository;
     private final ProductMappingService mappingService;
+    private final ProductMetrics metrics;
+    private final FacetCache facetCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean coalescingEnabled;
+    private final SingleFlight<SearchKey, PagedResponse<ProductResponse>> searchFlight = new SingleFlight<>();
+    private final SingleFlight<SearchKey, List<String>> suggestionFlight = new SingleFlight<>();
 
     public ProductService(ProductRepository productRepository,
                          ProductSearchRepository productSearchRepository,
-                         ProductMappingService mappingService) {
+                         ProductMappingService mappingService,
+                         ProductMetrics metrics,
+                         FacetCache facetCache,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${search.coalescing.enabled:true}") boolean coalescingEnabled) {
         this.productRepository = productRepository;
         this.productSearchRepository = productSearchRepository;
         this.mappingService = mappingService;
+        this.metrics = metrics;
+        this.facetCache = facetCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.coalescingEnabled = coalescingEnabled;
+
+        metrics.registerCoalescing("search", searchFlight, SingleFlight::getExecutions,
+                SingleFlight::getCoalesced, SingleFlight::getCoalescingRatio);
+        metrics.registerCoalescing("suggestions", suggestionFlight, SingleFlight::getExecutions,
+                SingleFlight::getCoalesced, SingleFlight::getCoalescingRatio);
     }
 
     /**
@@ -86,6 +142,63 @@ public class ProductService {
         return mappingService.mapToResponse(product);
     }
 
+    /**
+     * Look up many products at once by internal ID, SKU and/or external ID.
+     * <p>
+     * Each key kind is resolved with a single {@code IN} query; reviews, tags and images are
+     * then fetched in batches rather than per product. Results contain one entry per requested
+     * key (duplicates included): ids first, then SKUs, then external IDs, each in request order.
+     *
+     * @param ids internal product IDs (may be null)
+     * @param skus product SKUs (may be null)
+     * @param externalIds external product IDs (may be null)
+     * @return one lookup result per requested key
+     * @throws IllegalArgumentException if no keys or more than {@link #MAX_BATCH_KEYS} keys are given
+     */
+    public List<ProductLookupResult> findByKeys(List<Long> ids, List<String> skus, List<Long> externalIds) {
+        List<Long> idKeys = ids != null ? ids : List.of();
+        List<String> skuKeys = skus != null ? skus : List.of();
+        List<Long> externalIdKeys = externalIds != null ? externalIds : List.of();
+
+        int keyCount = idKeys.size() + skuKeys.size() + externalIdKeys.size();
+        if (keyCount == 0) {
+            throw new IllegalArgumentException("At least one id, sku or externalId is required");
+        }
+        if (keyCount > MAX_BATCH_KEYS) {
+            throw new IllegalArgumentException("Batch lookup supports at most " + MAX_BATCH_KEYS
+                    + " keys, got " + keyCount);
+        }
+        logger.debug("Batch lookup of {} ids, {} skus, {} external ids",
+                idKeys.size(), skuKeys.size(), externalIdKeys.size());
+
+        Map<Long, Product> byId = idKeys.isEmpty() ? Map.of()
+                : index(productRepository.findAllById(distinct(idKeys)), Product::getId);
+        Map<String, Product> bySku = skuKeys.isEmpty() ? Map.of()
+                : index(productRepository.findBySkuIn(distinct(skuKeys)), Product::getSku);
+        Map<Long, Product> byExternalId = externalIdKeys.isEmpty() ? Map.of()
+                : index(productRepository.findByExternalIdIn(distinct(externalIdKeys)), Product::getExternalId);
+
+        // Map each distinct product once, even if several keys resolve to it
+        Map<Product, ProductResponse> responses = new IdentityHashMap<>();
+        Function<Product, ProductResponse> toResponse = product -> product == null ? null
+                : responses.computeIfAbsent(product, mappingService::mapToResponse);
+
+        List<ProductLookupResult> results = new ArrayList<>(keyCount);
+        for (Long id : idKeys) {
+            results.add(new ProductLookupResult(ProductLookupResult.KeyType.ID, String.valueOf(id),
+                    toResponse.apply(byId.get(id))));
+        }
+        for (String sku : skuKeys) {
+            results.add(new ProductLookupResult(ProductLookupResult.KeyType.SKU, sku,
+                    toResponse.apply(bySku.get(sku))));
+        }
+        for (Long externalId : externalIdKeys) {
+            results.add(new ProductLookupResult(ProductLookupResult.KeyType.EXTERNAL_ID, String.valueOf(externalId),
+                    toResponse.apply(byExternalId.get(externalId))));
+        }
+        return results;
+    }
+
     /**
      * Search products using free text search on title and description.
      *
@@ -93,24 +206,44 @@ public class ProductService {
      * @param pageable pagination information
      * @return paginated search results
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PagedResponse<ProductResponse> searchProducts(String searchText, Pageable pageable) {
         logger.debug("Searching products with text: '{}', page: {}, size: {}", 
                 searchText, pageable.getPageNumber(), pageable.getPageSize());
 
         if (!StringUtils.hasText(searchText)) {
-            return findAllProducts(pageable);
+            return findAllProducts(withoutRelevance(pageable));
         }
 
-        Page<Product> productPage = productSearchRepository.searchProducts(searchText.trim(), pageable);
-        List<ProductResponse> productResponses = mappingService.mapToResponseList(productPage.getContent());
+        return coalesce(searchFlight, SearchKey.of(SearchType.TEXT, searchText, null, pageable), () -> {
+            SearchEvent event = SearchEvent.begin(SearchType.TEXT.name(), searchText, pageable);
+            Page<Product> productPage = productSearchRepository.searchProducts(searchText.trim(), pageable);
+            return toPagedResponse(SearchType.TEXT, productPage, event);
+        });
+    }
 
-        return new PagedResponse<>(
-                productResponses,
-                productPage.getNumber(),
-                productPage.getSize(),
-                productPage.getTotalElements(),
-                productPage.getTotalPages()
-        );
+    /**
+     * Search products by analyzed text: query words are matched against title and description
+     * words after stemming, accent folding and synonyms, and results are ranked by relevance.
+     *
+     * @param searchText the text to search for
+     * @param pageable pagination information; sorted by relevance or title
+     * @return paginated search results
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PagedResponse<ProductResponse> searchProductsAnalyzed(String searchText, Pageable pageable) {
+        logger.debug("Analyzed search for text: '{}', page: {}, size: {}",
+                searchText, pageable.getPageNumber(), pageable.getPageSize());
+
+        if (!StringUtils.hasText(searchText)) {
+            return findAllProducts(withoutRelevance(pageable));
+        }
+
+        return coalesce(searchFlight, SearchKey.of(SearchType.ANALYZED, searchText, null, pageable), () -> {
+            SearchEvent event = SearchEvent.begin(SearchType.ANALYZED.name(), searchText, pageable);
+            Page<Product> productPage = productSearchRepository.searchProductsAnalyzed(searchText.trim(), pageable);
+            return toPagedResponse(SearchType.ANALYZED, productPage, event);
+        });
     }
 
     /**
@@ -120,24 +253,20 @@ public class ProductService {
      * @param pageable pagination information
      * @return paginated search results with fuzzy matching
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PagedResponse<ProductResponse> searchProductsFuzzy(String searchText, Pageable pageable) {
         logger.debug("Fuzzy searching products with text: '{}', page: {}, size: {}", 
                 searchText, pageable.getPageNumber(), pageable.getPageSize());
 
         if (!StringUtils.hasText(searchText)) {
-            return findAllProducts(pageable);
+            return findAllProducts(withoutRelevance(pageable));
         }
 
-        Page<Product> productPage = productSearchRepository.searchProductsFuzzy(searchText.trim(), pageable);
-        List<ProductResponse> productResponses = mappingService.mapToResponseList(productPage.getContent());
-
-        return new PagedResponse<>(
-                productResponses,
-                productPage.getNumber(),
-                productPage.getSize(),
-                productPage.getTotalElements(),
-                productPage.getTotalPages()
-        );
+        return coalesce(searchFlight, SearchKey.of(SearchType.FUZZY, searchText, null, pageable), () -> {
+            SearchEvent event = SearchEvent.begin(SearchType.FUZZY.name(), searchText, pageable);
+            Page<Product> productPage = productSearchRepository.searchProductsFuzzy(searchText.trim(), pageable);
+            return toPagedResponse(SearchType.FUZZY, productPage, event);
+        });
     }
 
     /**
@@ -148,6 +277,7 @@ public class ProductService {
      * @param pageable pagination information
      * @return paginated search results within the category
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PagedResponse<ProductResponse> searchProductsByCategory(String searchText, String category, Pageable pageable) {
         logger.debug("Searching products in category '{}' with text: '{}', page: {}, size: {}", 
                 category, searchText, pageable.getPageNumber(), pageable.getPageSize());
@@ -156,16 +286,12 @@ public class ProductService {
             return findProductsByCategory(category, pageable);
         }
 
-        Page<Product> productPage = productSearchRepository.searchProductsByCategory(searchText.trim(), category, pageable);
-        List<ProductResponse> productResponses = mappingService.mapToResponseList(productPage.getContent());
-
-        return new PagedResponse<>(
-                productResponses,
-                productPage.getNumber(),
-                productPage.getSize(),
-                productPage.getTotalElements(),
-                productPage.getTotalPages()
-        );
+        return coalesce(searchFlight, SearchKey.of(SearchType.CATEGORY_TEXT, searchText, category, pageable), () -> {
+            SearchEvent event = SearchEvent.begin(SearchType.CATEGORY_TEXT.name(), searchText, pageable)
+                    .withCategory(category);
+            Page<Product> productPage = productSearchRepository.searchProductsByCategory(searchText.trim(), category, pageable);
+            return toPagedResponse(SearchType.CATEGORY_TEXT, productPage, event);
+        });
     }
 
     /**
@@ -176,6 +302,7 @@ public class ProductService {
      * @param pageable pagination information
      * @return paginated search results from the brand
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PagedResponse<ProductResponse> searchProductsByBrand(String searchText, String brand, Pageable pageable) {
         logger.debug("Searching products from brand '{}' with text: '{}', page: {}, size: {}", 
                 brand, searchText, pageable.getPageNumber(), pageable.getPageSize());
@@ -184,16 +311,12 @@ public class ProductService {
             return findProductsByBrand(brand, pageable);
         }
 
-        Page<Product> productPage = productSearchRepository.searchProductsByBrand(searchText.trim(), brand, pageable);
-        List<ProductResponse> productResponses = mappingService.mapToResponseList(productPage.getContent());
-
-        return new PagedResponse<>(
-                productResponses,
-                productPage.getNumber(),
-                productPage.getSize(),
-                productPage.getTotalElements(),
-                productPage.getTotalPages()
-        );
+        return coalesce(searchFlight, SearchKey.of(SearchType.BRAND_TEXT, searchText, brand, pageable), () -> {
+            SearchEvent event = SearchEvent.begin(SearchType.BRAND_TEXT.name(), searchText, pageable)
+                    .withBrand(brand);
+            Page<Product> productPage = productSearchRepository.searchProductsByBrand(searchText.trim(), brand, pageable);
+            return toPagedResponse(SearchType.BRAND_TEXT, productPage, event);
+        });
     }
 
     /**
@@ -202,20 +325,17 @@ public class ProductService {
      * @param pageable pagination information
      * @return paginated list of all products
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PagedResponse<ProductResponse> findAllProducts(Pageable pageable) {
         logger.debug("Finding all products, page: {}, size: {}", 
                 pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Product> productPage = productRepository.findAll(pageable);
-        List<ProductResponse> productResponses = mappingService.mapToResponseList(productPage.getContent());
-
-        return new PagedResponse<>(
-                productResponses,
-                productPage.getNumber(),
-                productPage.getSize(),
-                productPage.getTotalElements(),
-                productPage.getTotalPages()
-        );
+        return coalesce(searchFlight, SearchKey.of(SearchType.ALL, null, null, pageable), () -> {
+            SearchEvent event = SearchEvent.begin(SearchType.ALL.name(), null, pageable);
+            Page<Product> productPage = metrics.timeSearch(SearchType.ALL, SearchPhase.PAGE,
+                    () -> productRepository.findAll(pageable));
+            return toPagedResponse(SearchType.ALL, productPage, event);
+        });
     }
 
     /**
@@ -225,20 +345,18 @@ public class ProductService {
      * @param pageable pagination information
      * @return paginated list of products in the category
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PagedResponse<ProductResponse> findProductsByCategory(String category, Pageable pageable) {
         logger.debug("Finding products by category: '{}', page: {}, size: {}", 
                 category, pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Product> productPage = productRepository.findByCategory(category, pageable);
-        List<ProductResponse> productResponses = mappingService.mapToResponseList(productPage.getContent());
-
-        return new PagedResponse<>(
-                productResponses,
-                productPage.getNumber(),
-                productPage.getSize(),
-                productPage.getTotalElements(),
-                productPage.getTotalPages()
-        );
+        return coalesce(searchFlight, SearchKey.of(SearchType.CATEGORY, null, category, pageable), () -> {
+            SearchEvent event = SearchEvent.begin(SearchType.CATEGORY.name(), null, pageable)
+                    .withCategory(category);
+            Page<Product> productPage = metrics.timeSearch(SearchType.CATEGORY, SearchPhase.PAGE,
+                    () -> productRepository.findByCategory(category, pageable));
+            return toPagedResponse(SearchType.CATEGORY, productPage, event);
+        });
     }
 
     /**
@@ -248,20 +366,18 @@ public class ProductService {
      * @param pageable pagination information
      * @return paginated list of products from the brand
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PagedResponse<ProductResponse> findProductsByBrand(String brand, Pageable pageable) {
         logger.debug("Finding products by brand: '{}', page: {}, size: {}", 
                 brand, pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Product> productPage = productRepository.findByBrand(brand, pageable);
-        List<ProductResponse> productResponses = mappingService.mapToResponseList(productPage.getContent());
-
-        return new PagedResponse<>(
-                productResponses,
-                productPage.getNumber(),
-                productPage.getSize(),
-                productPage.getTotalElements(),
-                productPage.getTotalPages()
-        );
+        return coalesce(searchFlight, SearchKey.of(SearchType.BRAND, null, brand, pageable), () -> {
+            SearchEvent event = SearchEvent.begin(SearchType.BRAND.name(), null, pageable)
+                    .withBrand(brand);
+            Page<Product> productPage = metrics.timeSearch(SearchType.BRAND, SearchPhase.PAGE,
+                    () -> productRepository.findByBrand(brand, pageable));
+            return toPagedResponse(SearchType.BRAND, productPage, event);
+        });
     }
 
     /**
@@ -271,20 +387,18 @@ public class ProductService {
      * @param pageable pagination information
      * @return paginated list of products with the availability status
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PagedResponse<ProductResponse> findProductsByAvailabilityStatus(String availabilityStatus, Pageable pageable) {
         logger.debug("Finding products by availability status: '{}', page: {}, size: {}", 
                 availabilityStatus, pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Product> productPage = productRepository.findByAvailabilityStatus(availabilityStatus, pageable);
-        List<ProductResponse> productResponses = mappingService.mapToResponseList(productPage.getContent());
-
-        return new PagedResponse<>(
-                productResponses,
-                productPage.getNumber(),
-                productPage.getSize(),
-                productPage.getTotalElements(),
-                productPage.getTotalPages()
-        );
+        return coalesce(searchFlight, SearchKey.of(SearchType.AVAILABILITY, null, availabilityStatus, pageable), () -> {
+            SearchEvent event = SearchEvent.begin(SearchType.AVAILABILITY.name(), null, pageable)
+                    .withAvailabilityStatus(availabilityStatus);
+            Page<Product> productPage = metrics.timeSearch(SearchType.AVAILABILITY, SearchPhase.PAGE,
+                    () -> productRepository.findByAvailabilityStatus(availabilityStatus, pageable));
+            return toPagedResponse(SearchType.AVAILABILITY, productPage, event);
+        });
     }
 
     /**
@@ -294,6 +408,7 @@ public class ProductService {
      * @param maxSuggestions maximum number of suggestions to return
      * @return list of suggested search terms
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<String> getSearchSuggestions(String partialText, int maxSuggestions) {
         logger.debug("Getting search suggestions for: '{}', max: {}", partialText, maxSuggestions);
 
@@ -301,37 +416,104 @@ public class ProductService {
             return List.of();
         }
 
-        return productSearchRepository.getSearchSuggestions(partialText.trim(), maxSuggestions);
+        return coalesce(suggestionFlight, SearchKey.of(SearchType.SUGGESTIONS, partialText, null, maxSuggestions), () -> {
+            SearchEvent event = SearchEvent.begin(SearchType.SUGGESTIONS.name(), partialText, null);
+            List<String> suggestions = productSearchRepository.getSearchSuggestions(partialText.trim(), maxSuggestions);
+            event.queryCompleted();
+            metrics.recordResults(SearchType.SUGGESTIONS, suggestions.size());
+            event.complete(suggestions.size());
+            return suggestions;
+        });
+    }
+
+    /**
+     * Suggest a spelling correction for a search text, from the words of the products in the
+     * search index. Empty until the index has been built.
+     *
+     * @param searchText the search text as the user typed it
+     * @return the corrected search text, or empty if no word needed or had a correction
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<String> suggestSearchQuery(String searchText) {
+        if (!StringUtils.hasText(searchText)) {
+            return Optional.empty();
+        }
+        Optional<String> suggestion = productSearchRepository.suggestQuery(searchText.trim());
+        logger.debug("Spelling suggestion for '{}': {}", searchText, suggestion.orElse("none"));
+        return suggestion;
+    }
+
+    /**
+     * Count the products matching an analyzed query in ranges of a numeric field, from the
+     * in-memory search index.
+     *
+     * @param searchText the query, or blank for all products
+     * @param field price, rating, discountPercentage or stock
+     * @param interval the width of each range
+     * @return the ranges with their product counts
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public HistogramResponse getSearchHistogram(String searchText, String field, double interval) {
+        logger.debug("Getting {} histogram for text: '{}', interval: {}", field, searchText, interval);
+
+        IndexField indexField = IndexField.byName(field)
+                .filter(candidate -> candidate.kind() == IndexField.Kind.NUMERIC)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Histograms are available for price, rating, discountPercentage and stock, not '" + field + "'"));
+        Histogram histogram = productSearchRepository.histogram(
+                searchText != null ? searchText.trim() : null, indexField, interval);
+        List<HistogramResponse.Bucket> buckets = histogram.buckets().stream()
+                .map(bucket -> new HistogramResponse.Bucket(bucket.from(), bucket.to(), bucket.count()))
+                .toList();
+        return new HistogramResponse(indexField.queryName(), interval, buckets, histogram.missing());
+    }
+
+    /**
+     * Get the distinct categories, brands and availability statuses with product counts,
+     * served from the {@link FacetCache}.
+     *
+     * @return facet values with counts
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FacetsResponse getFacets() {
+        logger.debug("Getting facets");
+        return new FacetsResponse(
+                facetCache.getCategories().toFacetValues(),
+                facetCache.getBrands().toFacetValues(),
+                facetCache.getAvailabilityStatuses().toFacetValues());
     }
 
     /**
-     * Get all distinct categories.
+     * Get all distinct categories, from the {@link FacetCache}.
      *
      * @return list of distinct categories
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<String> getDistinctCategories() {
         logger.debug("Getting distinct categories");
-        return productRepository.findDistinctCategories();
+        return facetCache.getCategories().getValues();
     }
 
     /**
-     * Get all distinct brands.
+     * Get all distinct brands, from the {@link FacetCache}.
      *
      * @return list of distinct brands
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<String> getDistinctBrands() {
         logger.debug("Getting distinct brands");
-        return productRepository.findDistinctBrands();
+        return facetCache.getBrands().getValues();
     }
 
     /**
-     * Get all distinct availability statuses.
+     * Get all distinct availability statuses, from the {@link FacetCache}.
      *
      * @return list of distinct availability statuses
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<String> getDistinctAvailabilityStatuses() {
         logger.debug("Getting distinct availability statuses");
-        return productRepository.findDistinctAvailabilityStatuses();
+        return facetCache.getAvailabilityStatuses().getValues();
     }
 
     /**
@@ -362,4 +544,99 @@ public class ProductService {
     public boolean existsBySku(String sku) {
         return productRepository.existsBySku(sku);
     }
+
+    /**
+     * Map a page of products to the response DTO, recording mapping time and hit count
+     * in the metrics and the search's Flight Recorder event.
+     */
+    private PagedResponse<ProductResponse> toPagedResponse(SearchType type, Page<Product> productPage,
+                                                           SearchEvent event) {
+        event.queryCompleted();
+        List<ProductResponse> productResponses = metrics.timeSearch(type, SearchPhase.MAPPING,
+                () -> mapToResponses(productPage));
+        metrics.recordResults(type, productPage.getTotalElements());
+        event.complete(productPage.getTotalElements());
+
+        return new PagedResponse<>(
+                productResponses,
+                productPage.getNumber(),
+                productPage.getSize(),
+                productPage.getTotalElements(),
+                productPage.getTotalPages()
+        );
+    }
+
+    /**
+     * Map a page of products, with the highlight of each product when the search computed them.
+     */
+    private List<ProductResponse> mapToResponses(Page<Product> productPage) {
+        List<ProductResponse> responses = mappingService.mapToResponseList(productPage.getContent());
+        if (productPage instanceof HighlightedPage highlighted) {
+            for (int i = 0; i < responses.size(); i++) {
+                Product product = productPage.getContent().get(i);
+                responses.get(i).setHighlight(
+                        mappingService.mapToHighlight(product, highlighted.getHighlight(product.getId())));
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Run a search in a read-only transaction, sharing the execution with identical searches
+     * already in flight when coalescing is enabled.
+     */
+    private <V> V coalesce(SingleFlight<SearchKey, V> flight, SearchKey key, Supplier<V> search) {
+        Supplier<V> inTransaction = () -> readOnlyTransaction.execute(status -> search.get());
+        return coalescingEnabled ? flight.execute(key, inTransaction) : inTransaction.get();
+    }
+
+    /**
+     * Identity of a search for coalescing. Text is trimmed and lower-cased, since matching is
+     * case-insensitive, except for analyzed searches: there upper-case {@code OR}, {@code AND}
+     * and {@code NOT} are operators while their lower-case forms are stopwords. Category, brand
+     * and availability filters are matched exactly.
+     */
+    private record SearchKey(SearchType type, String text, String filter, int page, int size, Sort sort) {
+
+        static SearchKey of(SearchType type, String text, String filter, Pageable pageable) {
+            return pageable.isPaged()
+                    ? new SearchKey(type, normalize(type, text), filter, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort())
+                    : new SearchKey(type, normalize(type, text), filter, -1, -1, pageable.getSort());
+        }
+
+        static SearchKey of(SearchType type, String text, String filter, int limit) {
+            return new SearchKey(type, normalize(type, text), filter, 0, limit, Sort.unsorted());
+        }
+
+        private static String normalize(SearchType type, String text) {
+            if (text == null) {
+                return null;
+            }
+            return type == SearchType.ANALYZED ? text.trim() : text.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * The pageable without a relevance sort, which only the search index understands.
+     */
+    private static Pageable withoutRelevance(Pageable pageable) {
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .filter(order -> !order.getProperty().equals(ProductSearchIndex.RELEVANCE))
+                .toList());
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort) : pageable;
+    }
+
+    private static <K> List<K> distinct(Collection<K> keys) {
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        distinct.remove(null);
+        return distinct;
+    }
+
+    private static <K> Map<K, Product> index(List<Product> products, Function<Product, K> key) {
+        Map<K, Product> index = new HashMap<>(products.size() * 2);
+        for (Product product : products) {
+            index.put(key.apply(product), product);
+        }
+        return index;
+    }
 }
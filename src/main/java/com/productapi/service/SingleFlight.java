@@ -0,0 +1,96 @@
+package com.productapi.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent executions of the same work.
+ * <p>
+ * The first caller for a key runs the work on its own thread; callers arriving with an equal key
+ * while it is in flight block and receive the same result (or exception) instead of running it
+ * again. Nothing is cached: once the leader finishes, the next caller starts a fresh execution.
+ * Results are shared between threads, so callers must treat them as read-only.
+ *
+ * @param <K> the key type; must implement {@code equals} and {@code hashCode}
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Run {@code work} for {@code key}, or join an identical execution already in flight.
+     *
+     * @throws RuntimeException whatever the shared execution threw
+     */
+    public V execute(K key, Supplier<V> work) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V result = work.get();
+            leader.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    private V await(CompletableFuture<V> execution) {
+        try {
+            return execution.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Executions actually run, one per leader.
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * Calls that joined an execution already in flight instead of running their own.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Share of all calls that were served by another caller's execution.
+     */
+    public double getCoalescingRatio() {
+        long joined = coalesced.sum();
+        long total = executions.sum() + joined;
+        return total == 0 ? 0.0 : (double) joined / total;
+    }
+
+    /**
+     * Number of keys currently in flight.
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
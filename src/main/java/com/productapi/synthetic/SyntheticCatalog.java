@@ -0,0 +1,323 @@
+package com.productapi.synthetic;
+
+import com.productapi.dto.external.ExternalDimensions;
+import com.productapi.dto.external.ExternalMeta;
+import com.productapi.dto.external.ExternalProductResponse;
+import com.productapi.dto.external.ExternalReview;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic, seeded generator of a product catalog shaped like the external products API.
+ * <p>
+ * Product {@code id} is a pure function of {@code (seed, id)}: any product or page can be produced
+ * on demand, in any order, without materializing the rest of the catalog. Categories follow a
+ * Zipf-like popularity curve, brands and product nouns belong to their category, and review and
+ * image counts vary per product, so search, facet and load behavior resemble a real catalog.
+ */
+public class SyntheticCatalog {
+
+    public static final long DEFAULT_SEED = 42L;
+
+    private static final CategoryProfile[] CATEGORIES = {
+            new CategoryProfile("beauty", "BEA",
+                    new String[]{"Essence", "Glamour Beauty", "Velvet Touch", "Chic Cosmetics", "Nail Couture"},
+                    new String[]{"Mascara", "Lipstick", "Eyeshadow Palette", "Powder Canister", "Nail Polish", "Foundation"},
+                    new String[]{"long-lasting", "smudge-proof", "vegan", "cruelty-free", "hydrating"},
+                    1.0, 60.0),
+            new CategoryProfile("smartphones", "SMA",
+                    new String[]{"Apple", "Samsung", "Oppo", "Realme", "Vivo"},
+                    new String[]{"Phone", "Smartphone", "Phone Pro", "Phone Lite", "Foldable Phone"},
+                    new String[]{"5G", "dual-SIM", "OLED", "fast-charging", "triple-camera"},
+                    99.0, 1_499.0),
+            new CategoryProfile("groceries", "GRO",
+                    new String[]{"Green Valley", "Harvest Farms", "Daily Pantry", "Orchard Fresh"},
+                    new String[]{"Apple Juice", "Olive Oil", "Honey Jar", "Green Tea", "Rice Pack", "Coffee Beans"},
+                    new String[]{"organic", "fresh", "gluten-free", "fair-trade", "family-size"},
+                    0.99, 40.0),
+            new CategoryProfile("furniture", "FUR",
+                    new String[]{"Annibale Colombo", "Furniture Co.", "Knoll", "Bath Trends"},
+                    new String[]{"Sofa", "Bed", "Armchair", "Dining Table", "Bookshelf", "Office Chair"},
+                    new String[]{"solid-wood", "upholstered", "modular", "ergonomic", "reclaimed"},
+                    79.0, 4_999.0),
+            new CategoryProfile("laptops", "LAP",
+                    new String[]{"Apple", "Asus", "Lenovo", "Dell", "Huawei"},
+                    new String[]{"Laptop", "Notebook", "Ultrabook", "Gaming Laptop", "Chromebook"},
+                    new String[]{"backlit", "touchscreen", "lightweight", "16GB", "thunderbolt"},
+                    299.0, 3_499.0),
+            new CategoryProfile("fragrances", "FRA",
+                    new String[]{"Calvin Klein", "Chanel", "Dior", "Dolce & Gabbana", "Gucci"},
+                    new String[]{"Eau de Parfum", "Eau de Toilette", "Body Mist", "Perfume Oil"},
+                    new String[]{"floral", "woody", "citrus", "musky", "oriental"},
+                    19.0, 349.0),
+            new CategoryProfile("kitchen-accessories", "KIT",
+                    new String[]{"Chef's Choice", "Home Basics", "Kitchen Pro", "Cookwell"},
+                    new String[]{"Knife Set", "Cutting Board", "Blender", "Frying Pan", "Mixing Bowl", "Spatula"},
+                    new String[]{"stainless", "non-stick", "dishwasher-safe", "heat-resistant", "bamboo"},
+                    4.99, 299.0),
+            new CategoryProfile("mens-shoes", "MEN",
+                    new String[]{"Nike", "Puma", "Off White", "Amazon"},
+                    new String[]{"Sneakers", "Running Shoes", "Loafers", "Boots", "Sandals"},
+                    new String[]{"breathable", "leather", "cushioned", "waterproof", "slip-on"},
+                    29.0, 399.0),
+            new CategoryProfile("womens-bags", "WOM",
+                    new String[]{"Prada", "Heshe", "Fashion Trends", "Gucci"},
+                    new String[]{"Handbag", "Tote Bag", "Crossbody Bag", "Clutch", "Backpack"},
+                    new String[]{"leather", "quilted", "vintage", "oversized", "convertible"},
+                    24.0, 2_499.0),
+            new CategoryProfile("sports-accessories", "SPO",
+                    new String[]{"Wilson", "Adidas", "Spalding", "Yonex"},
+                    new String[]{"Football", "Tennis Racket", "Basketball", "Yoga Mat", "Dumbbell Set"},
+                    new String[]{"professional", "lightweight", "anti-slip", "durable", "regulation-size"},
+                    9.99, 349.0),
+            new CategoryProfile("sunglasses", "SUN",
+                    new String[]{"Ray-Ban", "Oakley", "Sunnies", "Polar Vision"},
+                    new String[]{"Aviators", "Wayfarers", "Round Sunglasses", "Sport Sunglasses"},
+                    new String[]{"polarized", "UV400", "mirrored", "lightweight", "scratch-resistant"},
+                    14.0, 299.0),
+            new CategoryProfile("home-decoration", "HOM",
+                    new String[]{"Decor Studio", "Nordic Living", "Casa Bella"},
+                    new String[]{"Table Lamp", "Wall Clock", "Vase", "Photo Frame", "Scented Candle", "Mirror"},
+                    new String[]{"handcrafted", "minimalist", "ceramic", "rustic", "decorative"},
+                    7.99, 199.0)
+    };
+
+    private static final String[] QUALIFIERS = {
+            "Classic", "Premium", "Essential", "Ultra", "Modern", "Deluxe", "Signature", "Everyday", "Pro", "Compact"
+    };
+    private static final String[] SENTENCES = {
+            "It is %s and designed for everyday use.",
+            "The %s finish holds up to daily wear.",
+            "A %s choice that customers come back to.",
+            "Made with care, it stays %s season after season.",
+            "Perfect as a gift, this %s pick suits any occasion.",
+            "Backed by %s craftsmanship and attention to detail."
+    };
+    private static final String[] FIRST_NAMES = {
+            "Emma", "Liam", "Olivia", "Noah", "Ava", "Lucas", "Mia", "Ethan", "Zoe", "Nora", "Leo", "Aria"
+    };
+    private static final String[] LAST_NAMES = {
+            "Miller", "Garcia", "Nguyen", "Smith", "Khan", "Rossi", "Kim", "Novak", "Silva", "Brown"
+    };
+    private static final String[] POSITIVE_COMMENTS = {
+            "Great product!", "Would buy again!", "Very satisfied!", "Highly recommended!", "Excellent quality!"
+    };
+    private static final String[] NEGATIVE_COMMENTS = {
+            "Not as described!", "Disappointing product!", "Very unhappy with my purchase!", "Would not recommend!"
+    };
+    private static final String[] SHIPPING = {
+            "Ships overnight", "Ships in 1-2 business days", "Ships in 3-5 business days", "Ships in 1 week", "Ships in 2 weeks"
+    };
+    private static final String[] WARRANTY = {
+            "No warranty", "1 month warranty", "6 months warranty", "1 year warranty", "2 year warranty", "Lifetime warranty"
+    };
+    private static final String[] RETURN_POLICY = {
+            "No return policy", "7 days return policy", "30 days return policy", "60 days return policy", "90 days return policy"
+    };
+    private static final LocalDateTime CATALOG_START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final long seed;
+    private final int size;
+    private final double[] categoryCumulativeWeights;
+
+    public SyntheticCatalog(long seed, int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Catalog size must not be negative, was " + size);
+        }
+        this.seed = seed;
+        this.size = size;
+        this.categoryCumulativeWeights = zipfCumulativeWeights(CATEGORIES.length);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Return one page in the shape of the external {@code /products} response.
+     * Follows the upstream contract: {@code limit == 0} means "everything from {@code skip} on".
+     *
+     * @param skip number of products to skip
+     * @param limit maximum number of products to return, 0 for no limit
+     * @return the page, with {@code total} set to the catalog size
+     */
+    public ExternalProductResponse page(int skip, int limit) {
+        int from = Math.min(Math.max(skip, 0), size);
+        int to = limit <= 0 ? size : (int) Math.min((long) from + limit, size);
+
+        List<ExternalProductResponse.ExternalProduct> products = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            products.add(product(index + 1L));
+        }
+
+        ExternalProductResponse response = new ExternalProductResponse();
+        response.setProducts(products);
+        response.setTotal(size);
+        response.setSkip(from);
+        response.setLimit(to - from);
+        return response;
+    }
+
+    /**
+     * Whether a product with the given id exists in this catalog (ids run from 1 to size).
+     */
+    public boolean contains(long id) {
+        return id >= 1 && id <= size;
+    }
+
+    /**
+     * Generate the product with the given id. The result depends only on the seed and the id.
+     */
+    public ExternalProductResponse.ExternalProduct product(long id) {
+        SplittableRandom random = new SplittableRandom(mix(seed, id));
+
+        CategoryProfile category = CATEGORIES[pickCategory(random.nextDouble())];
+        String brand = pick(random, category.brands);
+        String noun = pick(random, category.nouns);
+        String trait = pick(random, category.traits);
+        String title = brand + " " + pick(random, QUALIFIERS) + " " + noun;
+
+        ExternalProductResponse.ExternalProduct product = new ExternalProductResponse.ExternalProduct();
+        product.setId(id);
+        product.setTitle(title);
+        product.setDescription(description(random, title, category, trait));
+        product.setCategory(category.name);
+        product.setBrand(brand);
+        product.setSku(String.format(Locale.ROOT, "%s-%s-%07d", category.skuPrefix, skuPart(brand), id));
+
+        // Log-uniform prices inside the category range: many cheap items, a long expensive tail
+        double logPrice = random.nextDouble(Math.log(category.minPrice), Math.log(category.maxPrice));
+        product.setPrice(decimal(Math.exp(logPrice)));
+        product.setDiscountPercentage(decimal(random.nextInt(4) == 0 ? 0.0 : random.nextDouble(1.0, 25.0)));
+        product.setStock(random.nextInt(10) == 0 ? 0 : random.nextInt(1, 150));
+        product.setAvailabilityStatus(product.getStock() == 0 ? "Out of Stock"
+                : product.getStock() < 10 ? "Low Stock" : "In Stock");
+        product.setTags(List.of(category.name, trait));
+        product.setWeight(random.nextInt(1, 10));
+        product.setWarrantyInformation(pick(random, WARRANTY));
+        product.setShippingInformation(pick(random, SHIPPING));
+        product.setReturnPolicy(pick(random, RETURN_POLICY));
+        product.setMinimumOrderQuantity(random.nextInt(3) == 0 ? random.nextInt(2, 50) : 1);
+
+        ExternalDimensions dimensions = new ExternalDimensions();
+        dimensions.setWidth(decimal(random.nextDouble(2.0, 60.0)));
+        dimensions.setHeight(decimal(random.nextDouble(2.0, 60.0)));
+        dimensions.setDepth(decimal(random.nextDouble(2.0, 60.0)));
+        product.setDimensions(dimensions);
+
+        LocalDateTime created = CATALOG_START.plusMinutes(random.nextLong(0, 60L * 24 * 365));
+        ExternalMeta meta = new ExternalMeta();
+        meta.setCreatedAt(created);
+        meta.setUpdatedAt(created.plusDays(random.nextInt(0, 90)));
+        meta.setBarcode(String.format(Locale.ROOT, "%013d", random.nextLong(1_000_000_000_000L, 9_999_999_999_999L)));
+        meta.setQrCode("https://cdn.example.com/qr/" + id + ".png");
+        product.setMeta(meta);
+
+        List<ExternalReview> reviews = reviews(random, created);
+        product.setReviews(reviews);
+        product.setRating(decimal(reviews.isEmpty() ? random.nextDouble(2.5, 4.5)
+                : reviews.stream().mapToInt(ExternalReview::getRating).average().orElse(0.0)));
+
+        int imageCount = 1 + (int) Math.min(5, -Math.log(1 - random.nextDouble()) * 1.5);
+        List<String> images = new ArrayList<>(imageCount);
+        for (int i = 1; i <= imageCount; i++) {
+            images.add("https://cdn.example.com/products/" + category.name + "/" + id + "/" + i + ".webp");
+        }
+        product.setImages(images);
+        product.setThumbnail("https://cdn.example.com/products/" + category.name + "/" + id + "/thumbnail.webp");
+        return product;
+    }
+
+    private String description(SplittableRandom random, String title, CategoryProfile category, String trait) {
+        StringBuilder description = new StringBuilder(160)
+                .append("The ").append(title).append(" is a ").append(trait).append(' ')
+                .append(category.name.replace('-', ' ')).append(" favorite.");
+        int sentences = random.nextInt(1, 4);
+        for (int i = 0; i < sentences; i++) {
+            description.append(' ').append(String.format(Locale.ROOT, pick(random, SENTENCES), pick(random, category.traits)));
+        }
+        return description.toString();
+    }
+
+    private List<ExternalReview> reviews(SplittableRandom random, LocalDateTime created) {
+        // Geometric distribution: most products have a handful of reviews, a few have many
+        int count = 0;
+        while (count < 20 && random.nextDouble() < 0.7) {
+            count++;
+        }
+
+        List<ExternalReview> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean positive = random.nextInt(5) != 0;
+            String firstName = pick(random, FIRST_NAMES);
+            String lastName = pick(random, LAST_NAMES);
+
+            ExternalReview review = new ExternalReview();
+            review.setRating(positive ? random.nextInt(4, 6) : random.nextInt(1, 3));
+            review.setComment(pick(random, positive ? POSITIVE_COMMENTS : NEGATIVE_COMMENTS));
+            review.setDate(created.plusDays(random.nextInt(1, 365)));
+            review.setReviewerName(firstName + " " + lastName);
+            review.setReviewerEmail((firstName + "." + lastName).toLowerCase(Locale.ROOT) + "@example.com");
+            reviews.add(review);
+        }
+        return reviews;
+    }
+
+    private int pickCategory(double uniform) {
+        for (int i = 0; i < categoryCumulativeWeights.length - 1; i++) {
+            if (uniform < categoryCumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return categoryCumulativeWeights.length - 1;
+    }
+
+    private static double[] zipfCumulativeWeights(int count) {
+        double[] cumulative = new double[count];
+        double total = 0.0;
+        for (int rank = 1; rank <= count; rank++) {
+            total += 1.0 / rank;
+        }
+        double running = 0.0;
+        for (int rank = 1; rank <= count; rank++) {
+            running += (1.0 / rank) / total;
+            cumulative[rank - 1] = running;
+        }
+        return cumulative;
+    }
+
+    private static long mix(long seed, long id) {
+        // SplitMix64 finalizer, so neighboring ids get unrelated streams
+        long z = seed * 0x9E3779B97F4A7C15L + id;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String skuPart(String brand) {
+        String letters = brand.replaceAll("[^A-Za-z]", "").toUpperCase(Locale.ROOT);
+        return letters.length() >= 3 ? letters.substring(0, 3) : (letters + "XXX").substring(0, 3);
+    }
+
+    private static BigDecimal decimal(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record CategoryProfile(String name, String skuPrefix, String[] brands, String[] nouns, String[] traits,
+                                   double minPrice, double maxPrice) {
+    }
+}
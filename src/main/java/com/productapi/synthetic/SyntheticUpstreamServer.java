@@ -0,0 +1,222 @@
+package com.productapi.synthetic;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the external products API, serving a {@link SyntheticCatalog}.
+ * <p>
+ * Implements the subset of the upstream contract the loader uses:
+ * <ul>
+ *   <li>{@code GET /products?limit=&skip=} - a page ({@code limit=0} returns everything from {@code skip})</li>
+ *   <li>{@code GET /products/{id}} - a single product, or 404</li>
+ * </ul>
+ * Pages are generated on the fly and streamed, so even a full dump of a million-product catalog
+ * never needs to fit in memory. Run standalone with
+ * {@code java -cp app.jar -Dloader.main=com.productapi.synthetic.SyntheticUpstreamServer org.springframework.boot.loader.launch.PropertiesLauncher [port] [size] [seed]},
+ * or start it inside the application with the {@code synthetic} profile.
+ */
+public class SyntheticUpstreamServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticUpstreamServer.class);
+
+    private static final String PRODUCTS_PATH = "/products";
+    private static final int DEFAULT_LIMIT = 30;
+
+    private final SyntheticCatalog catalog;
+    private final int requestedPort;
+    private final int threads;
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .build();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public SyntheticUpstreamServer(SyntheticCatalog catalog, int port, int threads) {
+        this.catalog = catalog;
+        this.requestedPort = port;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Bind and start serving. A port of 0 binds an ephemeral port, see {@link #getPort()}.
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "synthetic-upstream-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress("localhost", requestedPort), 0);
+        server.createContext(PRODUCTS_PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Synthetic upstream serving {} products (seed {}) at {}",
+                catalog.getSize(), catalog.getSeed(), getBaseUrl());
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        logger.info("Synthetic upstream stopped");
+    }
+
+    public int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("Synthetic upstream is not running");
+        }
+        return server.getAddress().getPort();
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + getPort();
+    }
+
+    public SyntheticCatalog getCatalog() {
+        return catalog;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Method not allowed");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals(PRODUCTS_PATH) || path.equals(PRODUCTS_PATH + "/")) {
+                sendPage(exchange, exchange.getRequestURI());
+            } else {
+                sendProduct(exchange, path.substring(PRODUCTS_PATH.length() + 1));
+            }
+        } catch (IOException e) {
+            // Client went away mid-stream; nothing left to answer
+            logger.debug("Synthetic upstream request aborted: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Synthetic upstream request failed", e);
+        }
+    }
+
+    private void sendPage(HttpExchange exchange, URI uri) throws IOException {
+        Map<String, String> query = parseQuery(uri.getRawQuery());
+        int skip;
+        int limit;
+        try {
+            skip = Math.max(0, Integer.parseInt(query.getOrDefault("skip", "0")));
+            limit = Math.max(0, Integer.parseInt(query.getOrDefault("limit", String.valueOf(DEFAULT_LIMIT))));
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Invalid limit or skip");
+            return;
+        }
+
+        int from = Math.min(skip, catalog.getSize());
+        int to = limit == 0 ? catalog.getSize() : (int) Math.min((long) from + limit, catalog.getSize());
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = exchange.getResponseBody();
+             JsonGenerator json = objectMapper.getFactory().createGenerator(body)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("products");
+            for (int index = from; index < to; index++) {
+                objectMapper.writeValue(json, catalog.product(index + 1L));
+            }
+            json.writeEndArray();
+            json.writeNumberField("total", catalog.getSize());
+            json.writeNumberField("skip", from);
+            json.writeNumberField("limit", to - from);
+            json.writeEndObject();
+        }
+    }
+
+    private void sendProduct(HttpExchange exchange, String rawId) throws IOException {
+        long id;
+        try {
+            id = Long.parseLong(rawId);
+        } catch (NumberFormatException e) {
+            sendError(exchange, 404, "Product with id '" + rawId + "' not found");
+            return;
+        }
+        if (!catalog.contains(id)) {
+            sendError(exchange, 404, "Product with id '" + id + "' not found");
+            return;
+        }
+        sendJson(exchange, 200, objectMapper.writeValueAsBytes(catalog.product(id)));
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, objectMapper.writeValueAsBytes(Map.of("message", message)));
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(
+                        URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Standalone entry point: {@code [port] [size] [seed]}, defaulting to 9090, 1,000,000 and 42.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9090;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : SyntheticCatalog.DEFAULT_SEED;
+
+        SyntheticUpstreamServer server = new SyntheticUpstreamServer(
+                new SyntheticCatalog(seed, size), port, Runtime.getRuntime().availableProcessors());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "synthetic-upstream-shutdown"));
+        server.start();
+    }
+}
@@ -1,6 +1,7 @@
 package com.productapi.controller;
 
 import com.productapi.service.DataLoadService;
+import com.productapi.service.LoadProgressPublisher;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,9 @@ class DataLoadControllerTest {
     @MockBean
     private DataLoadService dataLoadService;
 
+    @MockBean
+    private LoadProgressPublisher progressPublisher;
+
     @Autowired
     private ObjectMapper objectMapper;
 
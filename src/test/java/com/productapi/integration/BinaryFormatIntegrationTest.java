@@ -0,0 +1,121 @@
+package com.productapi.integration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.productapi.dto.response.ApiResponse;
+import com.productapi.dto.response.PagedResponse;
+import com.productapi.dto.response.ProductResponse;
+import com.productapi.entity.Product;
+import com.productapi.repository.ProductRepository;
+import com.productapi.service.ProductMappingService;
+import com.productapi.synthetic.SyntheticCatalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Content negotiation of the binary response formats against the JSON default.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BinaryFormatIntegrationTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final TypeReference<ApiResponse<PagedResponse<ProductResponse>>> SEARCH_RESPONSE =
+            new TypeReference<>() {};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMappingService mappingService;
+
+    @Autowired
+    private ObjectMapper jsonMapper;
+
+    @BeforeEach
+    void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, 5);
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            products.add(mappingService.mapToEntity(catalog.product(id)));
+        }
+        productRepository.saveAll(products);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void listProducts_ShouldDefaultToJson() throws Exception {
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void listProducts_ShouldEncodeCbor_WhenAccepted() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/products").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // Then
+        CBORMapper cborMapper = CBORMapper.builder().addModule(new JavaTimeModule()).build();
+        assertSameAsJson(cborMapper.readValue(result.getResponse().getContentAsByteArray(), SEARCH_RESPONSE));
+    }
+
+    @Test
+    void listProducts_ShouldEncodeSmile_WhenAccepted() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/products").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn();
+
+        // Then
+        SmileMapper smileMapper = SmileMapper.builder().addModule(new JavaTimeModule()).build();
+        assertSameAsJson(smileMapper.readValue(result.getResponse().getContentAsByteArray(), SEARCH_RESPONSE));
+    }
+
+    @Test
+    void errorResponse_ShouldUseNegotiatedFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}", Long.MAX_VALUE).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR));
+    }
+
+    private void assertSameAsJson(ApiResponse<PagedResponse<ProductResponse>> decoded) throws Exception {
+        String json = mockMvc.perform(get("/api/v1/products").accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+        ApiResponse<PagedResponse<ProductResponse>> expected = jsonMapper.readValue(json, SEARCH_RESPONSE);
+
+        assertThat(decoded.getData().getTotalElements()).isEqualTo(5);
+        assertThat(decoded.getData().getContent())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected.getData().getContent());
+    }
+}
@@ -0,0 +1,123 @@
+package com.productapi.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compression over a real connection: MockMvc bypasses the container, which is where JSON
+ * responses get compressed. The JDK client never decompresses, so the raw encoding is visible.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ResponseCompressionIntegrationTest {
+
+    private static final String ASSET = "/static/js/app.js";
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void largeJsonResponse_ShouldBeGzipped_WhenClientAcceptsGzip() throws Exception {
+        // When
+        HttpResponse<byte[]> response = get("/api-docs", "gzip, deflate");
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(response.headers().allValues("Vary"))
+                .anySatisfy(vary -> assertThat(vary).containsIgnoringCase("accept-encoding"));
+        assertThat(new String(gunzip(response.body()))).startsWith("{\"openapi\"");
+    }
+
+    @Test
+    void smallJsonResponse_ShouldNotBeCompressed() throws Exception {
+        // When
+        HttpResponse<byte[]> response = get("/api/v1/data/status", "gzip");
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    @Test
+    void eventStream_ShouldStillBeFlushedPerEvent() throws Exception {
+        // Given
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/data/load/events"))
+                .header("Accept-Encoding", "gzip")
+                .build();
+
+        // When
+        HttpResponse<InputStream> response = client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        try (BufferedReader events = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+            assertThat(events.readLine()).isEqualTo("event:status");
+        }
+    }
+
+    @Test
+    void staticAsset_ShouldBeServedFromPrecompressedVariant_WhenClientAcceptsGzip() throws Exception {
+        // Given
+        byte[] precompressed = new ClassPathResource("static" + ASSET + ".gz").getContentAsByteArray();
+
+        // When
+        HttpResponse<byte[]> response = get(ASSET, "gzip");
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).contains("javascript"));
+        assertThat(response.headers().firstValue("Vary")).hasValue("Accept-Encoding");
+        assertThat(response.body()).isEqualTo(precompressed);
+    }
+
+    @Test
+    void staticAsset_ShouldBeServedAsIsWithVary_WhenClientDoesNotAcceptEncodings() throws Exception {
+        // Given
+        byte[] original = new ClassPathResource("static" + ASSET).getContentAsByteArray();
+
+        // When
+        HttpResponse<byte[]> response = get(ASSET, null);
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(response.headers().firstValue("Vary")).hasValue("Accept-Encoding");
+        assertThat(response.body()).isEqualTo(original);
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
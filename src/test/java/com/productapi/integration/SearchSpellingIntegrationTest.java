@@ -0,0 +1,106 @@
+package com.productapi.integration;
+
+import com.productapi.dto.external.ExternalProductResponse.ExternalProduct;
+import com.productapi.repository.ProductRepository;
+import com.productapi.repository.ProductSearchRepository;
+import com.productapi.search.ProductSearchIndex;
+import com.productapi.service.ProductMappingService;
+import com.productapi.service.ProductService;
+import com.productapi.synthetic.SyntheticCatalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Spelling suggestions of the search endpoint: a correction is offered only when the query
+ * matches nothing and the correction matches something, and replaces the results on request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SearchSpellingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMappingService mappingService;
+
+    @Autowired
+    private ProductSearchRepository productSearchRepository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, 2);
+        ExternalProduct charger = catalog.product(1);
+        charger.setTitle("Wireless Charger");
+        charger.setDescription("Fast charging pad for phones");
+        ExternalProduct table = catalog.product(2);
+        table.setTitle("Round Table");
+        table.setDescription("Solid oak dining furniture");
+        productRepository.save(mappingService.mapToEntity(charger));
+        productRepository.save(mappingService.mapToEntity(table));
+        productSearchRepository.rebuildIndex();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        searchIndex.clear();
+    }
+
+    @Test
+    void search_ShouldSuggestCorrectionThatFindsProducts() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/search").param("q", "wireles chargr").param("mode", "analyzed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(0))
+                .andExpect(jsonPath("$.data.content").isEmpty())
+                .andExpect(jsonPath("$.data.suggestedQuery").value("wireless charger"))
+                .andExpect(jsonPath("$.data.autoCorrected").value(false));
+    }
+
+    @Test
+    void search_ShouldReturnCorrectedResultsWhenAutocorrecting() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/search").param("q", "wireles chargr").param("mode", "analyzed")
+                        .param("autocorrect", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(1))
+                .andExpect(jsonPath("$.data.content[0].title").value("Wireless Charger"))
+                .andExpect(jsonPath("$.data.suggestedQuery").value("wireless charger"))
+                .andExpect(jsonPath("$.data.autoCorrected").value(true));
+    }
+
+    @Test
+    void search_ShouldNotSuggestCorrectionThatFindsNothing() throws Exception {
+        // Given: both words have a correction, but no product has both
+        assertThat(productService.suggestSearchQuery("wireles tabel")).contains("wireless table");
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/search").param("q", "wireles tabel").param("mode", "analyzed")
+                        .param("autocorrect", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(0))
+                .andExpect(jsonPath("$.data.suggestedQuery").value(nullValue()))
+                .andExpect(jsonPath("$.data.autoCorrected").value(false));
+    }
+}
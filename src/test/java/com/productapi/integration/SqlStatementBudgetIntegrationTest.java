@@ -0,0 +1,134 @@
+package com.productapi.integration;
+
+import com.productapi.entity.Product;
+import com.productapi.metrics.SqlStatementBudget;
+import com.productapi.metrics.SqlStatementHeaderAdvice;
+import com.productapi.repository.ProductRepository;
+import com.productapi.service.ProductMappingService;
+import com.productapi.service.ProductService;
+import com.productapi.synthetic.SyntheticCatalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets per endpoint. Products come with tags, reviews and images, so a missing
+ * batch fetch shows up as one extra statement per product on the page.
+ */
+@SpringBootTest(properties = "sql-monitoring.response-header=true")
+@AutoConfigureMockMvc
+class SqlStatementBudgetIntegrationTest {
+
+    private static final int CATALOG_SIZE = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMappingService mappingService;
+
+    @Autowired
+    private ProductService productService;
+
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, CATALOG_SIZE);
+        List<Product> mapped = new ArrayList<>();
+        for (long id = 1; id <= CATALOG_SIZE; id++) {
+            mapped.add(mappingService.mapToEntity(catalog.product(id)));
+        }
+        products = productRepository.saveAll(mapped);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void search_ShouldStayWithinStatementBudget() throws Exception {
+        // When & Then: page query, count query and one batch fetch of reviews
+        mockMvc.perform(get("/api/v1/products/search").param("q", "a").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatementHeaderAdvice.TIME_HEADER))
+                .andExpect(SqlStatementBudget.atMost(3));
+    }
+
+    @Test
+    void categoryListing_ShouldStayWithinStatementBudget() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/category/{category}", products.get(0).getCategory()))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(3));
+    }
+
+    @Test
+    void productDetail_ShouldStayWithinStatementBudget() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/{id}", products.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(2));
+    }
+
+    @Test
+    void batchLookup_ShouldNotIssueStatementsPerProduct() throws Exception {
+        // Given
+        String ids = products.stream().limit(20).map(product -> String.valueOf(product.getId()))
+                .reduce((left, right) -> left + "," + right).orElseThrow();
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/batch").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(2));
+    }
+
+    @Test
+    void batchLookup_ShouldReturnResultsInRequestOrderWithNotFoundMarkers() throws Exception {
+        // Given
+        Product first = products.get(0);
+        Product second = products.get(1);
+        long missing = products.stream().mapToLong(Product::getId).max().orElseThrow() + 1;
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/batch")
+                        .param("ids", second.getId() + "," + missing + "," + first.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(3))
+                .andExpect(jsonPath("$.data[0].key").value(String.valueOf(second.getId())))
+                .andExpect(jsonPath("$.data[0].found").value(true))
+                .andExpect(jsonPath("$.data[0].product.title").value(second.getTitle()))
+                .andExpect(jsonPath("$.data[1].key").value(String.valueOf(missing)))
+                .andExpect(jsonPath("$.data[1].found").value(false))
+                .andExpect(jsonPath("$.data[2].product.title").value(first.getTitle()))
+                .andExpect(SqlStatementBudget.atMost(2));
+    }
+
+    @Test
+    void serviceSearch_ShouldStayWithinStatementBudget() {
+        // When
+        long hits = SqlStatementBudget.atMost(3,
+                () -> productService.searchProducts("a", PageRequest.of(0, 20)).getTotalElements());
+
+        // Then
+        assertThat(hits).isPositive();
+    }
+}
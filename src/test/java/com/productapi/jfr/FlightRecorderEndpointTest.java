@@ -0,0 +1,133 @@
+package com.productapi.jfr;
+
+import com.productapi.synthetic.SyntheticCatalog;
+import com.productapi.synthetic.SyntheticUpstreamServer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecorderEndpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FlightRecorderEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new FlightRecorderEndpoint(Duration.ofMinutes(1), Duration.ofMinutes(2), DataSize.ofMegabytes(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.stop();
+    }
+
+    @Test
+    void start_ShouldCapDurationAtConfiguredMaximum() throws Exception {
+        // When
+        Map<String, Object> status = endpoint.start(3600L);
+
+        // Then
+        assertThat(status.get("name")).isEqualTo(FlightRecorderEndpoint.RECORDING_NAME);
+        assertThat(status.get("duration")).isEqualTo(Duration.ofMinutes(2));
+        assertThat(status.get("maxSizeBytes")).isEqualTo(DataSize.ofMegabytes(20).toBytes());
+    }
+
+    @Test
+    void dump_ShouldContainSearchAndLoadBatchEvents() throws Exception {
+        // Given
+        endpoint.start(null);
+        SearchEvent search = SearchEvent.begin("CATEGORY", "mascara", PageRequest.of(2, 20)).withCategory("beauty");
+        search.queryCompleted();
+        search.complete(42);
+        LoadBatchEvent batch = LoadBatchEvent.begin(7, 50);
+        batch.complete(30, 19, 1, true);
+
+        // When
+        List<RecordedEvent> events = dumpedEvents();
+
+        // Then
+        RecordedEvent searchEvent = single(events, "com.productapi.Search");
+        assertThat(searchEvent.getString("searchType")).isEqualTo("CATEGORY");
+        assertThat(searchEvent.getInt("queryHash")).isEqualTo("mascara".hashCode());
+        assertThat(searchEvent.getString("category")).isEqualTo("beauty");
+        assertThat(searchEvent.getInt("page")).isEqualTo(2);
+        assertThat(searchEvent.getLong("hits")).isEqualTo(42);
+
+        RecordedEvent batchEvent = single(events, "com.productapi.LoadBatch");
+        assertThat(batchEvent.getInt("batchNumber")).isEqualTo(7);
+        assertThat(batchEvent.getInt("newProducts")).isEqualTo(30);
+        assertThat(batchEvent.getInt("failedProducts")).isEqualTo(1);
+        assertThat(batchEvent.getBoolean("committed")).isTrue();
+    }
+
+    @Test
+    void dump_ShouldContainExternalApiCallWithResponseBytes() throws Exception {
+        // Given
+        SyntheticUpstreamServer upstream = new SyntheticUpstreamServer(new SyntheticCatalog(42, 10), 0, 1);
+        upstream.start();
+        endpoint.start(null);
+        try {
+            WebClient client = WebClient.builder()
+                    .baseUrl(upstream.getBaseUrl())
+                    .filter(new ExternalApiEventFilter())
+                    .build();
+            String body = client.get().uri("/products?limit=5").retrieve().bodyToMono(String.class).block();
+
+            // When
+            List<RecordedEvent> events = dumpedEvents();
+
+            // Then
+            RecordedEvent call = single(events, "com.productapi.ExternalApiCall");
+            assertThat(call.getString("method")).isEqualTo("GET");
+            assertThat(call.getString("endpoint")).endsWith("/products?limit=5");
+            assertThat(call.getInt("status")).isEqualTo(200);
+            assertThat(call.getString("outcome")).isEqualTo("completed");
+            assertThat(call.getLong("responseBytes")).isEqualTo(body.getBytes().length);
+        } finally {
+            upstream.stop();
+        }
+    }
+
+    @Test
+    void dump_ShouldReturnNotFound_WhenNoRecordingIsRunning() throws Exception {
+        // When
+        WebEndpointResponse<Resource> response = endpoint.dump("dump");
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    private List<RecordedEvent> dumpedEvents() throws Exception {
+        WebEndpointResponse<Resource> response = endpoint.dump("dump");
+        assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        Path file = tempDir.resolve("recording.jfr");
+        Files.write(file, response.getBody().getContentAsByteArray());
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertThat(matching).as("%s events", name).hasSize(1);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,102 @@
+package com.productapi.metrics;
+
+import com.productapi.metrics.ProductMetrics.LoadStage;
+import com.productapi.metrics.ProductMetrics.SearchPhase;
+import com.productapi.metrics.ProductMetrics.SearchType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ProductMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ProductMetrics(registry);
+    }
+
+    @Test
+    void constructor_ShouldRegisterEverySearchSeriesUpFront() {
+        // Then
+        assertThat(registry.find(ProductMetrics.SEARCH_TIMER).timers())
+                .hasSize(SearchType.values().length * SearchPhase.values().length);
+        assertThat(registry.find(ProductMetrics.SEARCH_RESULTS).summaries()).hasSize(SearchType.values().length);
+        assertThat(registry.find(ProductMetrics.LOAD_STAGE_TIMER).timers()).hasSize(LoadStage.values().length);
+    }
+
+    @Test
+    void timeSearch_ShouldRecordPhaseAndResults() {
+        // When
+        List<String> page = metrics.timeSearch(SearchType.TEXT, SearchPhase.PAGE, () -> List.of("a", "b"));
+        metrics.recordResults(SearchType.TEXT, 0);
+        metrics.recordResults(SearchType.TEXT, 42);
+
+        // Then
+        assertThat(page).containsExactly("a", "b");
+        assertThat(registry.get(ProductMetrics.SEARCH_TIMER).tags("type", "text", "phase", "page").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get(ProductMetrics.SEARCH_TIMER).tags("type", "text", "phase", "count").timer().count())
+                .isZero();
+        assertThat(registry.get(ProductMetrics.SEARCH_RESULTS).tags("type", "text").summary().totalAmount())
+                .isEqualTo(42.0);
+        assertThat(registry.get(ProductMetrics.SEARCH_EMPTY).tags("type", "text").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void timeLoadStageAsync_ShouldRecordWhenFutureCompletes() {
+        // Given
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        // When
+        CompletableFuture<String> timed = metrics.timeLoadStageAsync(LoadStage.FETCH, () -> upstream);
+        long countBeforeCompletion = registry.get(ProductMetrics.LOAD_STAGE_TIMER).tags("stage", "fetch").timer().count();
+        upstream.complete("done");
+
+        // Then
+        assertThat(countBeforeCompletion).isZero();
+        assertThat(timed.join()).isEqualTo("done");
+        assertThat(registry.get(ProductMetrics.LOAD_STAGE_TIMER).tags("stage", "fetch").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void indexAndLoadCounters_ShouldReflectRecordedValues() {
+        // When
+        metrics.indexRebuilt(1234);
+        metrics.recordLoadedProducts(3, 2, 1);
+        metrics.recordLoadStage(LoadStage.PERSIST, TimeUnit.MILLISECONDS.toNanos(5));
+
+        // Then
+        assertThat(registry.get(ProductMetrics.INDEX_DOCUMENTS).gauge().value()).isEqualTo(1234.0);
+        assertThat(registry.get(ProductMetrics.LOAD_PRODUCTS).tags("outcome", "new").counter().count()).isEqualTo(3.0);
+        assertThat(registry.get(ProductMetrics.LOAD_PRODUCTS).tags("outcome", "failed").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get(ProductMetrics.LOAD_STAGE_TIMER).tags("stage", "persist").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(5.0);
+    }
+
+    @Test
+    void recordRequestSql_ShouldAccumulateIntoOneSeriesPerRoute() {
+        // When
+        metrics.recordRequestSql("GET", "/api/v1/products/{id}", 2, TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.recordRequestSql("GET", "/api/v1/products/{id}", 1, TimeUnit.MILLISECONDS.toNanos(4));
+        metrics.recordRequestSql("POST", "/api/v1/products", 5, TimeUnit.MILLISECONDS.toNanos(1));
+
+        // Then
+        assertThat(registry.get(ProductMetrics.REQUEST_SQL_STATEMENTS).tags("method", "GET", "uri", "/api/v1/products/{id}")
+                .summaries()).hasSize(1);
+        assertThat(registry.get(ProductMetrics.REQUEST_SQL_STATEMENTS).tags("method", "GET", "uri", "/api/v1/products/{id}")
+                .summary().totalAmount()).isEqualTo(3.0);
+        assertThat(registry.get(ProductMetrics.REQUEST_SQL_TIME).tags("method", "GET", "uri", "/api/v1/products/{id}")
+                .timer().count()).isEqualTo(2);
+        assertThat(registry.get(ProductMetrics.REQUEST_SQL_TIME).tags("method", "POST", "uri", "/api/v1/products")
+                .timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(1.0);
+    }
+}
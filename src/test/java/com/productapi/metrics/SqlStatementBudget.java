@@ -0,0 +1,55 @@
+package com.productapi.metrics;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test helper asserting how many SQL statements an endpoint or a block of code may issue,
+ * so N+1 regressions fail the build instead of showing up in production.
+ * <p>
+ * The MockMvc matcher reads the {@value SqlStatementHeaderAdvice#STATEMENTS_HEADER} response
+ * header, which requires {@code sql-monitoring.response-header=true} and filters enabled
+ * ({@code @AutoConfigureMockMvc}).
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    /**
+     * Expect the request to have issued at most {@code maxStatements} SQL statements.
+     */
+    public static ResultMatcher atMost(int maxStatements) {
+        return result -> {
+            String header = result.getResponse().getHeader(SqlStatementHeaderAdvice.STATEMENTS_HEADER);
+            assertThat(header)
+                    .as("%s header on %s", SqlStatementHeaderAdvice.STATEMENTS_HEADER,
+                            result.getRequest().getRequestURI())
+                    .isNotNull();
+            assertThat(Integer.parseInt(header))
+                    .as("SQL statements issued by %s %s", result.getRequest().getMethod(),
+                            result.getRequest().getRequestURI())
+                    .isLessThanOrEqualTo(maxStatements);
+        };
+    }
+
+    /**
+     * Run {@code work} on the current thread and assert it issued at most {@code maxStatements} SQL statements.
+     */
+    public static <T> T atMost(int maxStatements, Supplier<T> work) {
+        SqlStatementStats stats = SqlStatementStats.start();
+        T result;
+        try {
+            result = work.get();
+        } finally {
+            SqlStatementStats.stop();
+        }
+        assertThat(stats.getStatementCount())
+                .as("SQL statements issued; captured: %s", stats.getStatements())
+                .isLessThanOrEqualTo(maxStatements);
+        return result;
+    }
+}
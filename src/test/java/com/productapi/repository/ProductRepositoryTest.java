@@ -1,6 +1,7 @@
 package com.productapi.repository;
 
 import com.productapi.entity.Product;
+import com.productapi.entity.Review;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +17,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -269,6 +271,44 @@ class ProductRepositoryTest {
         assertThat(statuses).containsExactlyInAnyOrder("In Stock", "Low Stock");
     }
 
+    @Test
+    void countProductsByCategory_ShouldReturnCountPerCategory() {
+        // Given
+        productRepository.save(createProduct(3L, "Test Product 3", "beauty", "Brand A", "SKU-003", "In Stock"));
+
+        // When
+        List<Object[]> rows = productRepository.countProductsByCategory();
+
+        // Then
+        assertThat(rows).extracting(row -> row[0], row -> ((Number) row[1]).longValue())
+                .containsExactly(tuple("beauty", 2L), tuple("fragrances", 1L));
+    }
+
+    @Test
+    void deleteAllInBulk_ShouldRemoveProductsAndChildRows() {
+        // Given
+        Product withChildren = createProduct(3L, "Test Product 3", "beauty", "Brand A", "SKU-003", "In Stock");
+        withChildren.setTags(List.of("tag-a", "tag-b"));
+        withChildren.setImages(List.of("https://example.com/1.png"));
+        Review review = new Review(5, "Great", "Jane", "jane@example.com");
+        review.setProduct(withChildren);
+        withChildren.setReviews(new java.util.ArrayList<>(List.of(review)));
+        entityManager.persistAndFlush(withChildren);
+
+        // When
+        int reviews = productRepository.deleteAllReviewsInBulk();
+        int tags = productRepository.deleteAllTagsInBulk();
+        int images = productRepository.deleteAllImagesInBulk();
+        int products = productRepository.deleteAllProductsInBulk();
+
+        // Then
+        assertThat(reviews).isEqualTo(1);
+        assertThat(tags).isEqualTo(2);
+        assertThat(images).isEqualTo(1);
+        assertThat(products).isEqualTo(3);
+        assertThat(productRepository.count()).isZero();
+    }
+
     private Product createProduct(Long externalId, String title, String category, 
                                  String brand, String sku, String availabilityStatus) {
         Product product = new Product();
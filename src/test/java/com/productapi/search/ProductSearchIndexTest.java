@@ -0,0 +1,534 @@
+package com.productapi.search;
+
+import com.productapi.exception.QueryParseException;
+import com.productapi.search.ProductSearchIndex.Histogram;
+import com.productapi.search.ProductSearchIndex.SearchHits;
+import com.productapi.search.analysis.Analyzer;
+import com.productapi.search.analysis.StopFilter;
+import com.productapi.search.index.Highlight;
+import com.productapi.search.index.Highlight.Span;
+import com.productapi.search.index.IndexField;
+import com.productapi.search.index.InvertedIndex;
+import com.productapi.search.index.ProductDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ProductSearchIndex(new Analyzer(StopFilter.ENGLISH_STOP_WORDS, true,
+                List.of(List.of("tv", "television"))));
+        searchIndex.replace(searchIndex.newBuilder()
+                .add(1L, "iPhone 9", "An apple mobile which is nothing like apple")
+                .add(2L, "Wireless Phone Charger", "Charges phones without cables")
+                .add(3L, "Café Table", "A small round table for the café")
+                .add(4L, "Samsung Television", "Smart TV with a 55 inch screen")
+                .add(5L, "Phone Case", null)
+                .build());
+    }
+
+    @Test
+    void search_ShouldMatchStemmedAndAccentFoldedWords() {
+        // When
+        SearchHits phones = searchIndex.search("phones", relevance());
+        SearchHits cafe = searchIndex.search("CAFE", relevance());
+
+        // Then
+        assertThat(phones.ids()).containsExactlyInAnyOrder(2L, 5L);
+        assertThat(cafe.ids()).containsExactly(3L);
+    }
+
+    @Test
+    void search_ShouldRequireEveryQueryWordInTitleOrDescription() {
+        // When
+        SearchHits hits = searchIndex.search("wireless cables", relevance());
+
+        // Then
+        assertThat(hits.ids()).containsExactly(2L);
+        assertThat(searchIndex.search("wireless table", relevance()).totalHits()).isZero();
+    }
+
+    @Test
+    void search_ShouldMatchSynonyms() {
+        // When
+        SearchHits hits = searchIndex.search("tv", relevance());
+
+        // Then
+        assertThat(hits.ids()).containsExactly(4L);
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesAboveDescriptionMatches() {
+        // Given
+        searchIndex.replace(searchIndex.newBuilder()
+                .add(10L, "Tempered Glass", "Protects the screen")
+                .add(11L, "Screen Protector", "Tempered glass")
+                .build());
+
+        // When
+        SearchHits hits = searchIndex.search("screen", relevance());
+
+        // Then
+        assertThat(hits.ids()).containsExactly(11L, 10L);
+    }
+
+    @Test
+    void search_ShouldMatchQuotedPhrasesOnlyWhenAdjacentAndInOrder() {
+        // Given
+        searchIndex.replace(searchIndex.newBuilder()
+                .add(20L, "Wireless Mouse", "Ergonomic")
+                .add(21L, "Mouse Pad", "Works with any wireless keyboard")
+                .add(22L, "Gaming Mouse", "Wireless, with a long battery life")
+                .build());
+
+        // When
+        SearchHits phrase = searchIndex.search("\"wireless mouse\"", relevance());
+        SearchHits words = searchIndex.search("wireless mouse", relevance());
+
+        // Then
+        assertThat(phrase.ids()).containsExactly(20L);
+        assertThat(words.ids()).containsExactlyInAnyOrder(20L, 21L, 22L);
+    }
+
+    @Test
+    void search_ShouldAllowPositionMovesWithSlop() {
+        // Given
+        searchIndex.replace(searchIndex.newBuilder()
+                .add(30L, "Leather Wallet", "A slim wallet made from soft brown leather")
+                .add(31L, "Brown Leather Wallet", null)
+                .build());
+
+        // When
+        SearchHits exact = searchIndex.search("\"brown wallet\"", relevance());
+        SearchHits sloppy = searchIndex.search("\"brown wallet\"~1", relevance());
+        SearchHits swapped = searchIndex.search("\"wallet leather\"~2", relevance());
+
+        // Then
+        assertThat(exact.totalHits()).isZero();
+        assertThat(sloppy.ids()).containsExactly(31L);
+        assertThat(swapped.ids()).containsExactlyInAnyOrder(30L, 31L);
+    }
+
+    @Test
+    void search_ShouldKeepStopwordGapsInPhrases() {
+        // When
+        SearchHits hits = searchIndex.search("\"table for the cafe\"", relevance());
+
+        // Then
+        assertThat(hits.ids()).containsExactly(3L);
+    }
+
+    @Test
+    void search_ShouldRankAdjacentWordsFirst() {
+        // Given
+        searchIndex.replace(searchIndex.newBuilder()
+                .add(40L, "Desk Lamp", "Phone stand with a charger, cable and lamp")
+                .add(41L, "Desk Stand", "Stand for phone charger with cable and lamp")
+                .build());
+
+        // When
+        SearchHits hits = searchIndex.search("phone charger", relevance());
+        SearchHits byTitle = searchIndex.search("phone charger", PageRequest.of(0, 10, Sort.by("title")));
+
+        // Then
+        assertThat(hits.ids()).containsExactly(41L, 40L);
+        assertThat(byTitle.ids()).containsExactly(40L, 41L);
+    }
+
+    @Test
+    void search_ShouldSortByTitleAndPage() {
+        // When
+        SearchHits firstPage = searchIndex.search("phone", PageRequest.of(0, 1, Sort.by("title")));
+        SearchHits secondPage = searchIndex.search("phone", PageRequest.of(1, 1, Sort.by("title")));
+        SearchHits descending = searchIndex.search("phone", PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "title")));
+
+        // Then
+        assertThat(firstPage.ids()).containsExactly(5L);
+        assertThat(firstPage.totalHits()).isEqualTo(2);
+        assertThat(secondPage.ids()).containsExactly(2L);
+        assertThat(descending.ids()).containsExactly(2L, 5L);
+    }
+
+    @Test
+    void search_ShouldCombineFieldsNegationAndRanges() {
+        // Given
+        useCatalog();
+
+        // When
+        SearchHits hits = searchIndex.search("brand:apple category:smartphones -refurbished price:<500", relevance());
+
+        // Then
+        assertThat(hits.ids()).containsExactly(21L);
+    }
+
+    @Test
+    void search_ShouldMatchKeywordValuesWholeIgnoringCase() {
+        // Given
+        useCatalog();
+
+        // Then
+        assertThat(searchIndex.search("brand:APPLE", relevance()).totalHits()).isEqualTo(4);
+        assertThat(searchIndex.search("brand:\"Smart Home Co\"", relevance()).ids()).containsExactly(24L);
+        assertThat(searchIndex.search("brand:smart", relevance()).totalHits()).isZero();
+    }
+
+    @Test
+    void search_ShouldMatchAlternativesAndGroups() {
+        // Given
+        useCatalog();
+
+        // When
+        SearchHits either = searchIndex.search("speaker OR tablet", title());
+        SearchHits grouped = searchIndex.search("(speaker OR tablet) rating:4+", title());
+        SearchHits fieldGroup = searchIndex.search("category:(tablets OR speakers) price:<100", title());
+
+        // Then
+        assertThat(either.ids()).containsExactly(24L, 23L);
+        assertThat(grouped.ids()).containsExactly(23L);
+        assertThat(fieldGroup.ids()).containsExactly(24L);
+    }
+
+    @Test
+    void search_ShouldMatchEveryDocumentExceptExcludedOnesForNegativeQueries() {
+        // Given
+        useCatalog();
+
+        // When
+        SearchHits hits = searchIndex.search("-brand:apple", title());
+
+        // Then
+        assertThat(hits.ids()).containsExactly(24L);
+    }
+
+    @Test
+    void search_ShouldScopeWordsToOneTextField() {
+        // Given
+        useCatalog();
+
+        // Then
+        assertThat(searchIndex.search("refurbished", title()).totalHits()).isEqualTo(2);
+        assertThat(searchIndex.search("title:refurbished", title()).ids()).containsExactly(20L);
+    }
+
+    @Test
+    void search_ShouldRejectInvalidQueries() {
+        assertThatThrownBy(() -> searchIndex.search("color:red", relevance()))
+                .isInstanceOf(QueryParseException.class)
+                .hasMessageContaining("color");
+        assertThatThrownBy(() -> searchIndex.search("price:cheap", relevance()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void search_ShouldSortByNumericFieldsWithMissingValuesLast() {
+        // Given
+        searchIndex.replace(searchIndex.newBuilder()
+                .add(product(30L, "Speaker B", "", "Acme", "speakers", 59.0, 4.0, 1))
+                .add(product(31L, "Speaker A", "", "Acme", "speakers", 59.0, 4.5, 2))
+                .add(product(32L, "Speaker C", "", "Acme", "speakers", 19.5, 3.0, 3))
+                .add(new ProductDocument(33L, "Speaker D", "", "Acme", "speakers", null, null, null, null, null, null))
+                .build());
+
+        // When
+        SearchHits ascending = searchIndex.search("speaker", PageRequest.of(0, 10, Sort.by("price")));
+        SearchHits descending = searchIndex.search("speaker", PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price")));
+        SearchHits byStock = searchIndex.search("speaker", PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "stock")));
+
+        // Then
+        assertThat(ascending.ids()).containsExactly(32L, 31L, 30L, 33L);
+        assertThat(descending.ids()).containsExactly(31L, 30L, 32L, 33L);
+        assertThat(byStock.ids()).containsExactly(32L, 31L);
+    }
+
+    @Test
+    void histogram_ShouldCountMatchesPerRangeFromDocValues() {
+        // Given
+        useCatalog();
+
+        // When
+        Histogram apple = searchIndex.histogram("brand:apple", IndexField.PRICE, 250);
+        Histogram all = searchIndex.histogram("", IndexField.RATING, 1);
+
+        // Then
+        assertThat(apple.buckets()).containsExactly(
+                new Histogram.Bucket(250, 500, 3),
+                new Histogram.Bucket(500, 750, 0),
+                new Histogram.Bucket(750, 1000, 1));
+        assertThat(apple.missing()).isZero();
+        assertThat(all.buckets()).extracting(Histogram.Bucket::count).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void histogram_ShouldRejectIntervalsGivingTooManyBuckets() {
+        // Given
+        useCatalog();
+
+        // Then
+        assertThatThrownBy(() -> searchIndex.histogram("", IndexField.PRICE, 0.01))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("buckets");
+        assertThatThrownBy(() -> searchIndex.histogram("", IndexField.BRAND, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void searchSubstring_ShouldMatchInsideWordsIgnoringCase() {
+        // When
+        SearchHits inWord = searchIndex.searchSubstring("HARGE", title());
+        SearchHits acrossWords = searchIndex.searchSubstring("ss phone ch", title());
+        SearchHits accented = searchIndex.searchSubstring("fé t", title());
+
+        // Then
+        assertThat(inWord.ids()).containsExactly(2L);
+        assertThat(acrossWords.ids()).containsExactly(2L);
+        assertThat(accented.ids()).containsExactly(3L);
+        assertThat(searchIndex.searchSubstring("phone chargers", title()).totalHits()).isZero();
+    }
+
+    @Test
+    void searchSubstring_ShouldScanForTextShorterThanATrigram() {
+        // When
+        SearchHits twoChars = searchIndex.searchSubstring("Ph", title());
+        SearchHits empty = searchIndex.searchSubstring("", title());
+
+        // Then
+        assertThat(twoChars.ids()).containsExactly(5L, 2L, 1L);
+        assertThat(empty.totalHits()).isEqualTo(5);
+    }
+
+    @Test
+    void searchSubstring_ShouldOrderByCaseSensitiveTitleAndPage() {
+        // When
+        SearchHits firstPage = searchIndex.searchSubstring("e", PageRequest.of(0, 2));
+        SearchHits secondPage = searchIndex.searchSubstring("e", PageRequest.of(1, 2));
+
+        // Then
+        assertThat(firstPage.ids()).containsExactly(3L, 5L);
+        assertThat(firstPage.totalHits()).isEqualTo(5);
+        assertThat(secondPage.ids()).containsExactly(4L, 2L);
+    }
+
+    @Test
+    void search_ShouldHighlightTitleWordsAndTheBestDescriptionSnippet() {
+        // Given
+        String description = "Charges phones. " + "Filler text. ".repeat(30) + "A wireless charger for every phone.";
+        searchIndex.replace(searchIndex.newBuilder()
+                .add(1L, "Wireless Phone Charger", description)
+                .build());
+        int wireless = description.indexOf("wireless");
+        int phone = description.lastIndexOf("phone");
+
+        // When
+        SearchHits hits = searchIndex.search("wireless phones", relevance());
+
+        // Then
+        Highlight highlight = hits.highlights().get(0);
+        assertThat(highlight.title()).containsExactly(new Span(0, 8), new Span(9, 14));
+        assertThat(highlight.description()).containsExactly(new Span(wireless, wireless + 8), new Span(phone, phone + 5));
+        assertThat(highlight.snippet().start()).isLessThanOrEqualTo(wireless);
+        assertThat(highlight.snippet().end()).isGreaterThanOrEqualTo(phone + 5);
+        assertThat(highlight.snippet().end() - highlight.snippet().start())
+                .isEqualTo(ProductSearchIndex.FRAGMENT_LENGTH);
+    }
+
+    @Test
+    void search_ShouldNotHighlightExcludedWords() {
+        // When
+        SearchHits hits = searchIndex.search("apple -charger", relevance());
+
+        // Then
+        Highlight highlight = hits.highlights().get(0);
+        assertThat(highlight.title()).isEmpty();
+        assertThat(highlight.description()).containsExactly(new Span(3, 8), new Span(38, 43));
+        assertThat(searchIndex.searchSubstring("apple", title()).highlights()).isEmpty();
+    }
+
+    @Test
+    void suggestQuery_ShouldCorrectMisspelledWordsWithinReach() {
+        // When
+        Optional<String> insertions = searchIndex.suggestQuery("wireles chargr");
+        Optional<String> swapped = searchIndex.suggestQuery("round tabel");
+        Optional<String> accented = searchIndex.suggestQuery("CAFF");
+
+        // Then
+        assertThat(insertions).contains("wireless charger");
+        assertThat(swapped).contains("round table");
+        assertThat(accented).contains("cafe");
+        assertThat(searchIndex.suggestQuery("phone case")).isEmpty();
+        assertThat(searchIndex.suggestQuery("xylophone")).isEmpty();
+        assertThat(searchIndex.suggestQuery("phx")).isEmpty();
+    }
+
+    @Test
+    void suggestQuery_ShouldPreferTheMoreFrequentOfEquallyCloseWords() {
+        // Given
+        searchIndex.replace(searchIndex.newBuilder()
+                .add(1L, "Desk Lamp", "A lamp with a lamp shade")
+                .add(2L, "Toy Lamb", null)
+                .build());
+
+        // When
+        Optional<String> suggestion = searchIndex.suggestQuery("lamx");
+
+        // Then
+        assertThat(suggestion).contains("lamp");
+    }
+
+    @Test
+    void suggestQuery_ShouldKeepFieldNamesOperatorsAndNumbers() {
+        // When
+        Optional<String> suggestion = searchIndex.suggestQuery("title:wireles OR \"samsng tv\" -cabels price:<50");
+
+        // Then
+        assertThat(suggestion).contains("title:wireless OR \"samsung tv\" -cables price:<50");
+    }
+
+    @Test
+    void search_ShouldMatchNothingForStopwordsOnly() {
+        // When
+        SearchHits hits = searchIndex.search("the with a", relevance());
+
+        // Then
+        assertThat(hits.totalHits()).isZero();
+        assertThat(hits.ids()).isEmpty();
+    }
+
+    @Test
+    void search_ShouldRejectSortFieldsTheIndexDoesNotHave() {
+        assertThatThrownBy(() -> searchIndex.search("phone", PageRequest.of(0, 10, Sort.by("brand"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("brand");
+    }
+
+    @Test
+    void search_ShouldFailUntilAnIndexIsBuilt() {
+        // Given
+        searchIndex.clear();
+
+        // Then
+        assertThat(searchIndex.isReady()).isFalse();
+        assertThatThrownBy(() -> searchIndex.search("phone", relevance()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void update_ShouldMakeAChangedProductSearchableInPlaceOfItsOldVersion() {
+        // Given
+        useCatalog();
+
+        // When
+        searchIndex.update(product(23L, "iPad Air", "A light tablet", "Apple", "tablets", 599.0, 4.7, 8));
+        searchIndex.update(product(25L, "Wireless Speaker", "A speaker for the garden", "Smart Home Co", "speakers",
+                129.0, 4.2, 12));
+
+        // Then
+        assertThat(searchIndex.search("mini", relevance()).totalHits()).isZero();
+        assertThat(searchIndex.search("air", relevance()).ids()).containsExactly(23L);
+        assertThat(searchIndex.search("brand:apple", relevance()).totalHits()).isEqualTo(4);
+        assertThat(searchIndex.search("speaker", PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price"))).ids())
+                .containsExactly(25L, 24L);
+        assertThat(searchIndex.search("tablet OR speaker", title()).ids()).containsExactly(24L, 23L, 25L);
+        assertThat(searchIndex.searchSubstring("IPAD", title()).ids()).containsExactly(23L);
+        assertThat(searchIndex.histogram("category:tablets", IndexField.PRICE, 100).buckets())
+                .extracting(Histogram.Bucket::from).containsExactly(500.0);
+        assertThat(searchIndex.getDocumentCount()).isEqualTo(6);
+    }
+
+    @Test
+    void update_ShouldMergeSegmentsAndRankAsOneRebuiltIndex() throws Exception {
+        // Given the catalog updated with a segment per new product, and the same products rebuilt
+        useCatalog();
+        ProductSearchIndex rebuilt = new ProductSearchIndex(searchIndex.getAnalyzer());
+        InvertedIndex.Builder builder = rebuilt.newBuilder()
+                .add(product(20L, "iPhone X Refurbished", "Like new", "Apple", "smartphones", 399.0, 4.1, 5))
+                .add(product(21L, "iPhone 13", "The latest model", "Apple", "smartphones", 449.0, 4.8, 10))
+                .add(product(22L, "iPhone 15 Pro", "Refurbished units sold separately", "Apple", "smartphones",
+                        999.0, 4.9, 3))
+                .add(product(23L, "iPad Mini", "A small tablet", "Apple", "tablets", 499.0, 4.5, 0))
+                .add(product(24L, "Bluetooth Speaker", "A portable speaker", "Smart Home Co", "speakers", 59.0,
+                        3.9, 0));
+        for (int i = 0; i < ProductSearchIndex.MERGE_FACTOR; i++) {
+            ProductDocument added = product(30L + i, (i % 2 == 0 ? "iPhone Case " : "Speaker Stand ") + i,
+                    "Fits the iPhone and the speaker " + "well ".repeat(i), i % 3 == 0 ? "Apple" : "Acme",
+                    "accessories", 10.0 + i, 3.0 + i / 10.0, i);
+            searchIndex.update(added);
+            builder.add(added);
+        }
+        rebuilt.replace(builder.build());
+        List<String> queries = List.of("iphone", "speaker", "\"iphone case\"", "brand:apple -refurbished", "fits iphone");
+
+        // When
+        searchIndex.awaitMerges();
+
+        // Then
+        // Merges run while the updates come in: either all 11 segments were merged at once, or
+        // the base and 9 updates were, leaving the last update in a tier of its own
+        assertThat(searchIndex.segmentCount()).isBetween(1, 2);
+        assertThat(searchIndex.getDocumentCount()).isEqualTo(5 + ProductSearchIndex.MERGE_FACTOR);
+        for (String query : queries) {
+            for (PageRequest page : List.of(relevance(), title(), PageRequest.of(1, 3, Sort.by("price")))) {
+                assertThat(searchIndex.search(query, page)).as(query + " " + page).isEqualTo(rebuilt.search(query, page));
+            }
+        }
+        assertThat(searchIndex.searchSubstring("case", title())).isEqualTo(rebuilt.searchSubstring("case", title()));
+    }
+
+    @Test
+    void replace_ShouldKeepProductsUpdatedWhileTheRebuildRan() {
+        // Given a rebuild that read product 23 before it changed
+        useCatalog();
+        long since = searchIndex.generation();
+        InvertedIndex stale = searchIndex.newBuilder()
+                .add(product(23L, "iPad Mini", "A small tablet", "Apple", "tablets", 499.0, 4.5, 0))
+                .add(product(24L, "Bluetooth Speaker", "A portable speaker", "Smart Home Co", "speakers", 59.0,
+                        3.9, 0))
+                .build();
+        searchIndex.update(product(23L, "iPad Air", "A light tablet", "Apple", "tablets", 599.0, 4.7, 8));
+
+        // When
+        searchIndex.replace(stale, since);
+
+        // Then
+        assertThat(searchIndex.search("ipad", relevance()).ids()).containsExactly(23L);
+        assertThat(searchIndex.search("mini", relevance()).totalHits()).isZero();
+        assertThat(searchIndex.search("iphone", relevance()).totalHits()).isZero();
+        assertThat(searchIndex.getDocumentCount()).isEqualTo(2);
+    }
+
+    private void useCatalog() {
+        searchIndex.replace(searchIndex.newBuilder()
+                .add(product(20L, "iPhone X Refurbished", "Like new", "Apple", "smartphones", 399.0, 4.1, 5))
+                .add(product(21L, "iPhone 13", "The latest model", "Apple", "smartphones", 449.0, 4.8, 10))
+                .add(product(22L, "iPhone 15 Pro", "Refurbished units sold separately", "Apple", "smartphones",
+                        999.0, 4.9, 3))
+                .add(product(23L, "iPad Mini", "A small tablet", "Apple", "tablets", 499.0, 4.5, 0))
+                .add(product(24L, "Bluetooth Speaker", "A portable speaker", "Smart Home Co", "speakers", 59.0,
+                        3.9, 0))
+                .build());
+    }
+
+    private static ProductDocument product(long id, String title, String description, String brand, String category,
+                                           double price, double rating, int stock) {
+        return new ProductDocument(id, title, description, brand, category, "SKU-" + id, "In Stock", price, rating,
+                null, stock);
+    }
+
+    private static PageRequest title() {
+        return PageRequest.of(0, 10, Sort.by("title"));
+    }
+
+    private static PageRequest relevance() {
+        return PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, ProductSearchIndex.RELEVANCE));
+    }
+}
@@ -0,0 +1,104 @@
+package com.productapi.search.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalyzerTest {
+
+    private final Analyzer analyzer = new Analyzer(StopFilter.ENGLISH_STOP_WORDS, true,
+            List.of(List.of("tv", "television"), List.of("sofa", "couches")));
+
+    @Test
+    void terms_ShouldLowerCaseFoldAccentsAndStemPlurals() {
+        // When
+        List<String> terms = analyzer.terms("Wireless PHONES, Café Crème & Batteries");
+
+        // Then
+        assertThat(terms).containsExactly("wireless", "phone", "cafe", "creme", "battery");
+    }
+
+    @Test
+    void terms_ShouldExpandLigaturesAndStripPossessives() {
+        // When
+        List<String> terms = analyzer.terms("Straße Œuvre men's L’Oréal");
+
+        // Then
+        assertThat(terms).containsExactly("strasse", "oeuvre", "men", "l'oreal");
+    }
+
+    @Test
+    void terms_ShouldStemPluralSuffixesButLeaveUsAndSsAlone() {
+        // When
+        List<String> terms = analyzer.terms("cactus glass shoes toys watches dresses boxes");
+
+        // Then
+        assertThat(terms).containsExactly("cactus", "glass", "shoe", "toy", "watch", "dress", "box");
+    }
+
+    @Test
+    void analyze_ShouldDropStopwordsButKeepPositionGaps() {
+        // Given
+        List<String> tokens = new ArrayList<>();
+
+        // When
+        analyzer.analyze("the case for the phone", token -> tokens.add(token.toString()));
+
+        // Then
+        assertThat(tokens).containsExactly("case@1", "phone@4");
+    }
+
+    @Test
+    void analyze_ShouldEmitSynonymsAtTheSamePositionAndOffsets() {
+        // Given
+        List<String> tokens = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+
+        // When
+        analyzer.analyze("smart TVs", token -> {
+            tokens.add(token.toString());
+            offsets.add(token.startOffset());
+        });
+
+        // Then
+        assertThat(tokens).containsExactly("smart@0", "tv@1", "television@1");
+        assertThat(offsets).containsExactly(0, 6, 6);
+    }
+
+    @Test
+    void synonyms_ShouldBeAnalyzedLikeTheTextTheyMatch() {
+        // When
+        List<String> terms = analyzer.terms("Couch");
+
+        // Then
+        assertThat(terms).containsExactly("couch", "sofa");
+    }
+
+    @Test
+    void analyze_ShouldReuseOneTokenInstanceForAllTokens() {
+        // Given
+        List<Token> tokens = new ArrayList<>();
+
+        // When
+        analyzer.analyze("red blue green", tokens::add);
+
+        // Then
+        assertThat(tokens).hasSize(3);
+        assertThat(tokens).allMatch(token -> token == tokens.get(0));
+    }
+
+    @Test
+    void terms_ShouldKeepStopwordsAndPluralsWhenDisabled() {
+        // Given
+        Analyzer plain = new Analyzer(List.of(), false, List.of());
+
+        // When
+        List<String> terms = plain.terms("The Phones");
+
+        // Then
+        assertThat(terms).containsExactly("the", "phones");
+    }
+}
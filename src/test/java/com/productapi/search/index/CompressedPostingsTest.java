@@ -0,0 +1,119 @@
+package com.productapi.search.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedPostingsTest {
+
+    @Test
+    void iterator_ShouldDecodePackedBlocksAndTheVariableByteTail() {
+        // Given 2 full blocks and a tail, with gaps from 1 to a million and one frequency above 1 per 7 docs
+        Random random = new Random(42);
+        int count = 2 * CompressedPostings.BLOCK_SIZE + 37;
+        int[] docs = new int[count];
+        int[] freqs = new int[count];
+        for (int i = 0, doc = -1; i < count; i++) {
+            doc += 1 + (i % 50 == 0 ? random.nextInt(1_000_000) : random.nextInt(3));
+            docs[i] = doc;
+            freqs[i] = i % 7 == 0 ? 1 + random.nextInt(300) : 1;
+        }
+        CompressedPostings.Builder builder = CompressedPostings.docsOnly();
+        builder.add(new int[]{5}, null, 1, null, null);
+        builder.add(docs, null, count, null, null);
+        CompressedPostings docsOnly = builder.build();
+        CompressedPostings withFreqs = withPositions(docs, freqs);
+
+        // When
+        List<Integer> decoded = new ArrayList<>();
+        CompressedPostings.Reader reader = withFreqs.iterator(0, "term");
+        for (int doc = reader.nextDoc(); doc != DocIterator.NO_MORE_DOCS; doc = reader.nextDoc()) {
+            assertThat(reader.freq()).isEqualTo(freqs[decoded.size()]);
+            decoded.add(doc);
+        }
+
+        // Then
+        assertThat(decoded).hasSize(count).containsExactly(boxed(docs));
+        assertThat(withFreqs.positionCount()).isEqualTo(Arrays.stream(freqs).sum());
+        assertThat(docsOnly.positionCount()).isZero();
+        assertThat(docsOnly.termCount()).isEqualTo(2);
+        assertThat(docsOnly.docFreq(1)).isEqualTo(count);
+        assertThat(docsOnly.ramBytesUsed()).isLessThan(count * 4L);
+        assertThat(docsOnly.iterator(0, "first").nextDoc()).isEqualTo(5);
+        CompressedPostings.Reader skipping = docsOnly.iterator(1, "term");
+        assertThat(skipping.advance(docs[10])).isEqualTo(docs[10]);
+        assertThat(skipping.advance(docs[200] - 1)).isIn(docs[199], docs[200]);
+        assertThat(skipping.advance(docs[count - 1])).isEqualTo(docs[count - 1]);
+        assertThat(skipping.nextDoc()).isEqualTo(DocIterator.NO_MORE_DOCS);
+        assertThat(docsOnly.iterator(1, "term").advance(docs[count - 1] + 1)).isEqualTo(DocIterator.NO_MORE_DOCS);
+    }
+
+    @Test
+    void nextPosition_ShouldReadPositionsAndOffsetsOfDocumentsReachedBySkipping() {
+        // Given document i holds the term (i % 3) + 1 times, at positions 10i, 10i + 2, ...
+        int count = CompressedPostings.BLOCK_SIZE + 20;
+        int[] docs = new int[count];
+        int[] freqs = new int[count];
+        for (int i = 0; i < count; i++) {
+            docs[i] = 2 * i;
+            freqs[i] = i % 3 + 1;
+        }
+        CompressedPostings postings = withPositions(docs, freqs);
+        CompressedPostings.Reader reader = postings.iterator(0, "term");
+
+        // When
+        reader.advance(2 * 5);
+        List<String> fifth = occurrences(reader);
+        reader.advance(2 * 7);
+        reader.nextPosition();
+        reader.advance(2 * 140);
+        List<String> inTail = occurrences(reader);
+
+        // Then
+        assertThat(fifth).containsExactly("50@500-505", "52@520-525", "54@540-545");
+        assertThat(inTail).containsExactly("1400@14000-14005", "1402@14020-14025", "1404@14040-14045");
+    }
+
+    /**
+     * Postings of one term whose k-th occurrence in document i is at position 10i + 2k, with
+     * offsets ten times the position.
+     */
+    private static CompressedPostings withPositions(int[] docs, int[] freqs) {
+        List<Integer> positions = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i < docs.length; i++) {
+            for (int k = 0; k < freqs[i]; k++) {
+                int position = 10 * i + 2 * k;
+                positions.add(position);
+                offsets.add(10 * position);
+                offsets.add(10 * position + 5);
+            }
+        }
+        CompressedPostings.Builder builder = CompressedPostings.withPositions();
+        builder.add(docs, freqs, docs.length, positions.stream().mapToInt(Integer::intValue).toArray(),
+                offsets.stream().mapToInt(Integer::intValue).toArray());
+        return builder.build();
+    }
+
+    private static List<String> occurrences(CompressedPostings.Reader reader) {
+        List<String> occurrences = new ArrayList<>();
+        for (int i = 0; i < reader.freq(); i++) {
+            int position = reader.nextPosition();
+            occurrences.add(position + "@" + reader.startOffset() + "-" + reader.endOffset());
+        }
+        return occurrences;
+    }
+
+    private static Integer[] boxed(int[] values) {
+        Integer[] boxed = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return boxed;
+    }
+}
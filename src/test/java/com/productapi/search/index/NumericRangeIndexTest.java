@@ -0,0 +1,93 @@
+package com.productapi.search.index;
+
+import com.productapi.search.analysis.Analyzer;
+import com.productapi.search.query.Query;
+import com.productapi.search.query.QueryParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NumericRangeIndexTest {
+
+    @Test
+    void docs_ShouldReturnDocumentsInRangeAscending() {
+        // Given
+        NumericRangeIndex index = NumericRangeIndex.build(values(40.0, 10.0, Double.NaN, 25.0, 10.0, 99.5));
+
+        // When
+        List<Integer> inclusive = collect(index.docs(range(10, true, 40, true)).iterator("price"));
+        List<Integer> exclusive = collect(index.docs(range(10, false, 40, false)).iterator("price"));
+
+        // Then
+        assertThat(inclusive).containsExactly(0, 1, 3, 4);
+        assertThat(exclusive).containsExactly(3);
+        assertThat(index.count(range(Double.NEGATIVE_INFINITY, false, Double.POSITIVE_INFINITY, false))).isEqualTo(5);
+        assertThat(index.count(range(50, true, 20, true))).isZero();
+    }
+
+    @Test
+    void docs_ShouldIterateDenseAndSparseSetsAlike() {
+        // Given
+        double[] prices = new double[10_000];
+        for (int doc = 0; doc < prices.length; doc++) {
+            prices[doc] = doc % 100;
+        }
+        NumericRangeIndex index = NumericRangeIndex.build(values(prices));
+
+        // When
+        DocIterator dense = index.docs(range(0, true, 50, false)).iterator("price");
+        DocIterator sparse = index.docs(range(99, true, 99, true)).iterator("price");
+
+        // Then
+        assertThat(dense.cost()).isEqualTo(5_000);
+        assertThat(dense.advance(151)).isEqualTo(200);
+        assertThat(dense.nextDoc()).isEqualTo(201);
+        assertThat(collect(sparse)).hasSize(100).startsWith(99, 199, 299);
+    }
+
+    @Test
+    void plan_ShouldLeadWithARangeOnlyWhenItIsTheMostSelectivePart() {
+        // Given
+        InvertedIndex.Builder builder = InvertedIndex.builder(Analyzer.english());
+        for (long id = 0; id < 1_000; id++) {
+            builder.add(new ProductDocument(id, "Speaker " + id, id % 10 == 0 ? "waterproof" : "", "Acme", "audio",
+                    null, null, (double) id, id % 5 + 1.0, null, null));
+        }
+        InvertedIndex index = builder.build();
+
+        // When
+        QueryPlan cheap = index.plan(QueryParser.parse("speaker price:<20"));
+        QueryPlan wide = index.plan(QueryParser.parse("waterproof price:<900"));
+        QueryPlan rangesOnly = index.plan(QueryParser.parse("price:<20 rating:4+"));
+
+        // Then
+        assertThat(cheap).hasToString("(+price:{* TO 20}[20] +title:speaker[1000])");
+        assertThat(wide).hasToString("(+description:waterproof[100] #price:{* TO 900})");
+        assertThat(cheap.execute().size()).isEqualTo(20);
+        assertThat(wide.execute().size()).isEqualTo(90);
+        assertThat(rangesOnly.execute().size()).isEqualTo(8);
+    }
+
+    private static NumericDocValues values(double... values) {
+        NumericDocValues.Builder builder = NumericDocValues.builder(false);
+        for (double value : values) {
+            builder.add(value);
+        }
+        return builder.build();
+    }
+
+    private static Query.Range range(double lower, boolean includeLower, double upper, boolean includeUpper) {
+        return new Query.Range(IndexField.PRICE, lower, includeLower, upper, includeUpper);
+    }
+
+    private static List<Integer> collect(DocIterator iterator) {
+        List<Integer> docs = new ArrayList<>();
+        for (int doc = iterator.nextDoc(); doc != DocIterator.NO_MORE_DOCS; doc = iterator.nextDoc()) {
+            docs.add(doc);
+        }
+        return docs;
+    }
+}
@@ -0,0 +1,120 @@
+package com.productapi.search.query;
+
+import com.productapi.exception.QueryParseException;
+import com.productapi.search.index.IndexField;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryParserTest {
+
+    @Test
+    void parse_ShouldRequireEveryWordByDefault() {
+        // When
+        Query query = QueryParser.parse("wireless  mouse");
+
+        // Then
+        assertThat(query).hasToString("(+wireless +mouse)");
+    }
+
+    @Test
+    void parse_ShouldReturnASingleWordAsIs() {
+        // When
+        Query query = QueryParser.parse("mouse");
+
+        // Then
+        assertThat(query).isEqualTo(new Query.Text(null, "mouse"));
+    }
+
+    @Test
+    void parse_ShouldScopeValuesToFields() {
+        // When
+        Query query = QueryParser.parse("brand:apple category:smartphones -refurbished price:<500");
+
+        // Then
+        assertThat(query).hasToString("(+brand:apple +category:smartphones -refurbished +price:{* TO 500})");
+    }
+
+    @Test
+    void parse_ShouldBindAndTighterThanOr() {
+        // When
+        Query query = QueryParser.parse("red shoes OR blue AND boots");
+
+        // Then
+        assertThat(query).hasToString("((+red +shoes) (+blue +boots))");
+    }
+
+    @Test
+    void parse_ShouldParseGroupsAndNegation() {
+        // When
+        Query query = QueryParser.parse("(phone OR tablet) NOT case +charger");
+
+        // Then
+        assertThat(query).hasToString("(+(phone tablet) -case +charger)");
+    }
+
+    @Test
+    void parse_ShouldApplyAFieldToAGroup() {
+        // When
+        Query query = QueryParser.parse("category:(laptops OR tablets)");
+
+        // Then
+        assertThat(query).hasToString("(category:laptops category:tablets)");
+    }
+
+    @Test
+    void parse_ShouldParsePhrasesWithSlop() {
+        // When
+        Query query = QueryParser.parse("\"wireless mouse\"~2 brand:\"Calvin Klein\"");
+
+        // Then
+        assertThat(query).isEqualTo(new Query.Bool(List.of(
+                new Query.Clause(Query.Occur.MUST, new Query.Phrase(null, "wireless mouse", 2)),
+                new Query.Clause(Query.Occur.MUST, new Query.Phrase(IndexField.BRAND, "Calvin Klein", 0)))));
+    }
+
+    @Test
+    void parse_ShouldParseEveryRangeSyntax() {
+        assertThat(QueryParser.parse("price:<=20")).hasToString("price:{* TO 20]");
+        assertThat(QueryParser.parse("rating:>4.5")).hasToString("rating:{4.5 TO *}");
+        assertThat(QueryParser.parse("rating:4+")).hasToString("rating:[4 TO *}");
+        assertThat(QueryParser.parse("price:[10 TO 50}")).hasToString("price:[10 TO 50}");
+        assertThat(QueryParser.parse("price:10..50")).hasToString("price:[10 TO 50]");
+        assertThat(QueryParser.parse("stock:{0 TO *]")).hasToString("stock:{0 TO *]");
+        assertThat(QueryParser.parse("discount:15")).hasToString("discountPercentage:[15 TO 15]");
+    }
+
+    @Test
+    void parse_ShouldTreatLowerCaseOperatorsAndNonFieldColonsAsWords() {
+        // When
+        Query query = QueryParser.parse("black or white 16:9");
+
+        // Then
+        assertThat(query).hasToString("(+black +or +white +16:9)");
+    }
+
+    @Test
+    void parse_ShouldRejectInvalidQueries() {
+        assertThatThrownBy(() -> QueryParser.parse("colour:red"))
+                .isInstanceOf(QueryParseException.class)
+                .hasMessageContaining("Unknown field 'colour'");
+        assertThatThrownBy(() -> QueryParser.parse("price:cheap"))
+                .isInstanceOf(QueryParseException.class)
+                .hasMessageContaining("not a number");
+        assertThatThrownBy(() -> QueryParser.parse("(phone OR tablet"))
+                .isInstanceOf(QueryParseException.class)
+                .hasMessageContaining("unclosed '('");
+        assertThatThrownBy(() -> QueryParser.parse("\"wireless mouse"))
+                .isInstanceOf(QueryParseException.class)
+                .hasMessageContaining("unclosed quote");
+        assertThatThrownBy(() -> QueryParser.parse("phone OR"))
+                .isInstanceOf(QueryParseException.class)
+                .hasMessageContaining("missing search term");
+        assertThatThrownBy(() -> QueryParser.parse("(".repeat(20) + "phone" + ")".repeat(20)))
+                .isInstanceOf(QueryParseException.class)
+                .hasMessageContaining("nested deeper");
+    }
+}
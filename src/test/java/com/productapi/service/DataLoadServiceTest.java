@@ -0,0 +1,255 @@
+package com.productapi.service;
+
+import com.productapi.dto.external.ExternalProductResponse;
+import com.productapi.entity.Product;
+import com.productapi.metrics.ProductMetrics;
+import com.productapi.repository.ProductRepository;
+import com.productapi.repository.ProductSearchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DataLoadServiceTest {
+
+    @Mock
+    private ExternalApiService externalApiService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductSearchRepository productSearchRepository;
+
+    @Mock
+    private ProductMappingService mappingService;
+
+    @Mock
+    private LoadProgressPublisher progressPublisher;
+
+    @Mock
+    private FacetCache facetCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private DataLoadService dataLoadService;
+
+    @BeforeEach
+    void setUp() {
+        dataLoadService = new DataLoadService(externalApiService, productRepository, productSearchRepository,
+                mappingService, progressPublisher, new ProductMetrics(new SimpleMeterRegistry()), facetCache, transactionManager,
+                2, 2, 4, 0);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+    }
+
+    @Test
+    void loadAllProducts_ShouldCommitOneTransactionPerBatch() {
+        // Given
+        when(externalApiService.getAllProducts())
+                .thenReturn(CompletableFuture.completedFuture(createExternalProductResponse(5)));
+        when(productRepository.findByExternalIdIn(anyList())).thenReturn(List.of());
+        when(mappingService.mapToEntity(any())).thenAnswer(invocation -> mapped(invocation.getArgument(0)));
+
+        // When
+        DataLoadService.DataLoadResult result = dataLoadService.loadAllProducts().join();
+
+        // Then
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getNewProducts()).isEqualTo(5);
+        assertThat(result.getFailedProducts()).isZero();
+        verify(transactionManager, times(3)).commit(transactionStatus);
+        verify(productRepository, times(3)).findByExternalIdIn(anyList());
+        verify(productRepository, times(3)).saveAll(anyList());
+        verify(productRepository, never()).existsByExternalId(any());
+        verify(facetCache).refresh();
+    }
+
+    @Test
+    void loadAllProducts_ShouldRollBackOnlyTheFailingBatch() {
+        // Given
+        when(externalApiService.getAllProducts())
+                .thenReturn(CompletableFuture.completedFuture(createExternalProductResponse(4)));
+        when(productRepository.findByExternalIdIn(anyList())).thenReturn(List.of());
+        when(mappingService.mapToEntity(any())).thenAnswer(invocation -> mapped(invocation.getArgument(0)));
+        when(productRepository.saveAll(anyList()))
+                .thenThrow(new IllegalStateException("constraint violation"))
+                .thenReturn(List.of());
+
+        // When
+        DataLoadService.DataLoadResult result = dataLoadService.loadAllProducts().join();
+
+        // Then
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getNewProducts()).isEqualTo(2);
+        assertThat(result.getFailedProducts()).isEqualTo(2);
+        verify(transactionManager).rollback(transactionStatus);
+        verify(transactionManager).commit(transactionStatus);
+    }
+
+    @Test
+    void loadAllProducts_ShouldPublishPhasesBatchesAndResult() {
+        // Given
+        when(externalApiService.getAllProducts())
+                .thenReturn(CompletableFuture.completedFuture(createExternalProductResponse(3)));
+        when(productRepository.findByExternalIdIn(anyList())).thenReturn(List.of());
+        when(mappingService.mapToEntity(any())).thenAnswer(invocation -> mapped(invocation.getArgument(0)));
+
+        // When
+        DataLoadService.DataLoadResult result = dataLoadService.loadAllProducts().join();
+
+        // Then
+        ArgumentCaptor<LoadProgressPublisher.BatchProgress> batches =
+                ArgumentCaptor.forClass(LoadProgressPublisher.BatchProgress.class);
+        verify(progressPublisher, times(2)).batchCompleted(batches.capture());
+        assertThat(batches.getAllValues().get(1).getProcessedProducts()).isEqualTo(3);
+        assertThat(batches.getAllValues().get(1).getProgress()).isEqualTo(100);
+
+        verify(progressPublisher).phaseChanged(eq(LoadProgressPublisher.LoadPhase.FETCH), any());
+        verify(progressPublisher).phaseChanged(eq(LoadProgressPublisher.LoadPhase.MAP), any());
+        verify(progressPublisher).phaseChanged(eq(LoadProgressPublisher.LoadPhase.PERSIST), any());
+        verify(progressPublisher).phaseChanged(eq(LoadProgressPublisher.LoadPhase.INDEX), any());
+        verify(progressPublisher).phaseChanged(eq(LoadProgressPublisher.LoadPhase.COMPLETED), any());
+        verify(progressPublisher).pipelineCompleted(any());
+        verify(progressPublisher).loadCompleted(result);
+        assertThat(dataLoadService.getLoadingStatus().getPhase()).isEqualTo(LoadProgressPublisher.LoadPhase.COMPLETED);
+    }
+
+    @Test
+    void loadAllProducts_ShouldUpdateExistingProducts() {
+        // Given
+        Product existing = new Product();
+        existing.setExternalId(1L);
+        when(externalApiService.getAllProducts())
+                .thenReturn(CompletableFuture.completedFuture(createExternalProductResponse(2)));
+        when(productRepository.findByExternalIdIn(anyList())).thenReturn(List.of(existing));
+        when(mappingService.updateEntity(eq(existing), any(Product.class))).thenReturn(existing);
+        when(mappingService.mapToEntity(any())).thenAnswer(invocation -> mapped(invocation.getArgument(0)));
+
+        // When
+        DataLoadService.DataLoadResult result = dataLoadService.loadAllProducts().join();
+
+        // Then
+        assertThat(result.getNewProducts()).isEqualTo(1);
+        assertThat(result.getUpdatedProducts()).isEqualTo(1);
+        verify(transactionManager, times(1)).commit(transactionStatus);
+    }
+
+    @Test
+    void loadAllProducts_ShouldCountProductsThatFailToMap() {
+        // Given
+        when(externalApiService.getAllProducts())
+                .thenReturn(CompletableFuture.completedFuture(createExternalProductResponse(3)));
+        when(productRepository.findByExternalIdIn(anyList())).thenReturn(List.of());
+        when(mappingService.mapToEntity(any())).thenAnswer(invocation -> {
+            ExternalProductResponse.ExternalProduct external = invocation.getArgument(0);
+            if (external.getId() == 2L) {
+                throw new IllegalArgumentException("bad product");
+            }
+            return mapped(external);
+        });
+
+        // When
+        DataLoadService.DataLoadResult result = dataLoadService.loadAllProducts().join();
+
+        // Then
+        assertThat(result.getNewProducts()).isEqualTo(2);
+        assertThat(result.getFailedProducts()).isEqualTo(1);
+    }
+
+    @Test
+    void loadAllProducts_ShouldStreamPagesWhenPageSizeIsSet() {
+        // Given
+        DataLoadService pagedService = new DataLoadService(externalApiService, productRepository,
+                productSearchRepository, mappingService, progressPublisher, new ProductMetrics(new SimpleMeterRegistry()),
+                facetCache, transactionManager, 2, 2, 4, 2);
+        ExternalProductResponse catalog = createExternalProductResponse(5);
+        when(externalApiService.getProductsPage(anyInt(), eq(2))).thenAnswer(invocation -> {
+            int skip = invocation.getArgument(0);
+            List<ExternalProductResponse.ExternalProduct> products = catalog.getProducts();
+            ExternalProductResponse page = new ExternalProductResponse();
+            page.setProducts(products.subList(Math.min(skip, 5), Math.min(skip + 2, 5)));
+            page.setTotal(5);
+            return CompletableFuture.completedFuture(page);
+        });
+        when(productRepository.findByExternalIdIn(anyList())).thenReturn(List.of());
+        when(mappingService.mapToEntity(any())).thenAnswer(invocation -> mapped(invocation.getArgument(0)));
+
+        // When
+        DataLoadService.DataLoadResult result = pagedService.loadAllProducts().join();
+
+        // Then
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getTotalProducts()).isEqualTo(5);
+        assertThat(result.getNewProducts()).isEqualTo(5);
+        verify(externalApiService).getProductsPage(0, 2);
+        verify(externalApiService).getProductsPage(2, 2);
+        verify(externalApiService).getProductsPage(4, 2);
+        verify(externalApiService, never()).getAllProducts();
+    }
+
+    @Test
+    void clearAllProducts_ShouldBulkDeleteChildrenBeforeProductsInOneTransaction() {
+        // Given
+        when(productRepository.deleteAllProductsInBulk()).thenReturn(3);
+
+        // When
+        DataLoadService.DataLoadResult result = dataLoadService.clearAllProducts().join();
+
+        // Then
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getTotalProducts()).isEqualTo(3);
+        InOrder inOrder = inOrder(productRepository, transactionManager);
+        inOrder.verify(productRepository).deleteAllReviewsInBulk();
+        inOrder.verify(productRepository).deleteAllTagsInBulk();
+        inOrder.verify(productRepository).deleteAllImagesInBulk();
+        inOrder.verify(productRepository).deleteAllProductsInBulk();
+        inOrder.verify(transactionManager).commit(transactionStatus);
+        verify(productRepository, never()).deleteAll();
+        verify(facetCache).clear();
+        verify(facetCache, never()).refresh();
+        verify(productSearchRepository).clearIndex();
+    }
+
+    private Product mapped(ExternalProductResponse.ExternalProduct external) {
+        Product product = new Product();
+        product.setExternalId(external.getId());
+        product.setTitle(external.getTitle());
+        return product;
+    }
+
+    private ExternalProductResponse createExternalProductResponse(int count) {
+        List<ExternalProductResponse.ExternalProduct> products = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            ExternalProductResponse.ExternalProduct product = new ExternalProductResponse.ExternalProduct();
+            product.setId(id);
+            product.setTitle("Product " + id);
+            products.add(product);
+        }
+
+        ExternalProductResponse response = new ExternalProductResponse();
+        response.setProducts(products);
+        response.setTotal(count);
+        return response;
+    }
+}
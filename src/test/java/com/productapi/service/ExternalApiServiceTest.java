@@ -47,6 +47,7 @@ class ExternalApiServiceTest {
                 "https://dummyjson.com",
                 "/products?limit=0",
                 "/products/{id}",
+                "/products?limit={limit}&skip={skip}",
                 5000L,
                 10000L
         );
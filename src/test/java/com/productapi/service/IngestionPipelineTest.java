@@ -0,0 +1,121 @@
+package com.productapi.service;
+
+import com.productapi.exception.DataLoadException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IngestionPipelineTest {
+
+    @Test
+    void run_ShouldWriteEveryMappedItemExactlyOnceInBoundedBatches() {
+        // Given
+        List<Integer> source = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        IngestionPipeline<Integer, String> pipeline = new IngestionPipeline<>(
+                item -> "item-" + item,
+                (batch, batchNumber) -> {
+                    batchSizes.add(batch.size());
+                    written.addAll(batch);
+                },
+                4, 64, 128, 2);
+
+        // When
+        IngestionPipeline.PipelineStats stats = pipeline.run(source.iterator());
+
+        // Then
+        assertThat(written).hasSize(1000).doesNotHaveDuplicates();
+        assertThat(batchSizes).allMatch(size -> size <= 64);
+        assertThat(batchSizes).hasSize(16);
+        assertThat(stats.getStage("map").getItems()).isEqualTo(1000);
+        assertThat(stats.getStage("map").getThreads()).isEqualTo(4);
+        assertThat(stats.getStage("persist").getItems()).isEqualTo(1000);
+    }
+
+    @Test
+    void run_ShouldSkipAndCountItemsThatFailToMap() {
+        // Given
+        List<Integer> source = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        AtomicInteger written = new AtomicInteger();
+        IngestionPipeline<Integer, Integer> pipeline = new IngestionPipeline<>(
+                item -> {
+                    if (item % 10 == 0) {
+                        throw new IllegalArgumentException("unmappable " + item);
+                    }
+                    return item;
+                },
+                (batch, batchNumber) -> written.addAndGet(batch.size()),
+                2, 10, 20, 1);
+
+        // When
+        IngestionPipeline.PipelineStats stats = pipeline.run(source.iterator());
+
+        // Then
+        assertThat(written.get()).isEqualTo(90);
+        assertThat(stats.getStage("map").getFailures()).isEqualTo(10);
+    }
+
+    @Test
+    void run_ShouldApplyBackpressureWhenWriterIsSlow() {
+        // Given
+        int queueCapacity = 8;
+        int batchSize = 4;
+        int batchQueueCapacity = 1;
+        int mappingThreads = 2;
+        AtomicInteger mapped = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        IngestionPipeline<Integer, Integer> pipeline = new IngestionPipeline<>(
+                item -> {
+                    int inFlight = mapped.incrementAndGet() - written.get();
+                    maxInFlight.accumulateAndGet(inFlight, Math::max);
+                    return item;
+                },
+                (batch, batchNumber) -> {
+                    sleep(2);
+                    written.addAndGet(batch.size());
+                },
+                mappingThreads, batchSize, queueCapacity, batchQueueCapacity);
+
+        // When
+        pipeline.run(IntStream.range(0, 200).boxed().iterator());
+
+        // Then - mapped queue, batcher's open batch, batch queue, the batch being written and one item per mapper
+        int bound = queueCapacity + batchSize * (batchQueueCapacity + 2) + mappingThreads;
+        assertThat(written.get()).isEqualTo(200);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(bound);
+    }
+
+    @Test
+    void run_ShouldFailWhenWriterThrows() {
+        // Given
+        IngestionPipeline<Integer, Integer> pipeline = new IngestionPipeline<>(
+                item -> item,
+                (batch, batchNumber) -> {
+                    throw new IllegalStateException("database unavailable");
+                },
+                2, 5, 10, 1);
+
+        // When & Then
+        assertThatThrownBy(() -> pipeline.run(IntStream.range(0, 100).boxed().iterator()))
+                .isInstanceOf(DataLoadException.class)
+                .hasRootCauseMessage("database unavailable");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.productapi.service;
+
+import com.productapi.controller.DataLoadController;
+import com.productapi.service.LoadProgressPublisher.BatchProgress;
+import com.productapi.service.LoadProgressPublisher.LoadPhase;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Subscribers are opened through the events endpoint of a standalone {@link DataLoadController},
+ * so events are written to a real async response, without starting an application context.
+ */
+@ExtendWith(MockitoExtension.class)
+class LoadProgressPublisherTest {
+
+    private static final long WAIT_MS = 5_000;
+
+    @Mock
+    private DataLoadService dataLoadService;
+
+    private LoadProgressPublisher publisher;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new LoadProgressPublisher(60_000);
+        mockMvc = MockMvcBuilders.standaloneSetup(new DataLoadController(dataLoadService, publisher)).build();
+        when(dataLoadService.getLoadingStatus())
+                .thenReturn(new DataLoadService.LoadingStatus(true, "Fetching products", 0, LoadPhase.FETCH));
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Test
+    void subscribe_ShouldSendCurrentStatusFirst() throws Exception {
+        // When
+        MvcResult subscriber = subscribe();
+
+        // Then
+        awaitEvents(subscriber, LoadProgressPublisher.STATUS_EVENT);
+        assertThat(subscriber.getResponse().getContentAsString())
+                .startsWith("event:" + LoadProgressPublisher.STATUS_EVENT)
+                .contains("\"status\":\"Fetching products\"");
+        assertThat(publisher.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void events_ShouldReachEverySubscriberAndLoadCompletedShouldCloseStreams() throws Exception {
+        // Given
+        MvcResult first = subscribe();
+        MvcResult second = subscribe();
+
+        // When
+        publisher.phaseChanged(LoadPhase.PERSIST, "Saving products");
+        publisher.batchCompleted(new BatchProgress(1, 50, 50, 100, 40, 10, 0, 1_000_000));
+        publisher.loadCompleted(new DataLoadService.DataLoadResult(true, "Loaded", 100, 80, 20));
+
+        // Then
+        for (MvcResult subscriber : new MvcResult[]{first, second}) {
+            awaitEvents(subscriber, LoadProgressPublisher.STATUS_EVENT, LoadProgressPublisher.PHASE_EVENT,
+                    LoadProgressPublisher.BATCH_EVENT, LoadProgressPublisher.COMPLETE_EVENT);
+            assertThat(subscriber.getResponse().getContentAsString())
+                    .contains("\"phase\":\"PERSIST\"")
+                    .contains("\"batchNumber\":1")
+                    .contains("\"newProducts\":80");
+
+            // The emitter completing ends the async request; the container then completes it
+            subscriber.getAsyncResult(WAIT_MS);
+            mockMvc.perform(asyncDispatch(subscriber));
+        }
+        assertThat(publisher.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void send_ShouldDropSubscriberThatCannotBeSentTo() throws Exception {
+        // Given
+        subscribe();
+        SseEmitter closed = publisher.subscribe(dataLoadService.getLoadingStatus());
+        closed.complete();
+
+        // When
+        publisher.phaseChanged(LoadPhase.MAP, "Mapping products");
+
+        // Then
+        await(() -> publisher.getSubscriberCount() == 1);
+    }
+
+    @Test
+    void subscriber_ShouldBeDroppedWhenItsRequestTimesOut() throws Exception {
+        // Given
+        MvcResult subscriber = subscribe();
+        MockAsyncContext asyncContext = (MockAsyncContext) subscriber.getRequest().getAsyncContext();
+
+        // When
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        // Then
+        assertThat(publisher.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void subscriber_ShouldBeDroppedWhenItsRequestCompletes() throws Exception {
+        // Given
+        MvcResult subscriber = subscribe();
+        MockAsyncContext asyncContext = (MockAsyncContext) subscriber.getRequest().getAsyncContext();
+
+        // When
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onComplete(new AsyncEvent(asyncContext));
+        }
+
+        // Then
+        assertThat(publisher.getSubscriberCount()).isZero();
+    }
+
+    private MvcResult subscribe() throws Exception {
+        return mockMvc.perform(get("/api/v1/data/load/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    /**
+     * Wait until the subscriber has received the named events, in order.
+     */
+    private static void awaitEvents(MvcResult subscriber, String... events) throws InterruptedException {
+        await(() -> {
+            try {
+                String content = subscriber.getResponse().getContentAsString();
+                int from = 0;
+                for (String event : events) {
+                    from = content.indexOf("event:" + event + "\n", from);
+                    if (from < 0) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("waited for load progress events").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
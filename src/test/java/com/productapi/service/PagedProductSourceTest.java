@@ -0,0 +1,69 @@
+package com.productapi.service;
+
+import com.productapi.dto.external.ExternalProductResponse;
+import com.productapi.synthetic.SyntheticCatalog;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PagedProductSourceTest {
+
+    @Test
+    void iterator_ShouldWalkAllPagesInOrderPrefetchingOneAhead() {
+        // Given
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, 25);
+        List<Integer> requestedSkips = new ArrayList<>();
+        PagedProductSource source = new PagedProductSource(catalog.page(0, 10), skip -> {
+            requestedSkips.add(skip);
+            return CompletableFuture.completedFuture(catalog.page(skip, 10));
+        });
+
+        // When
+        List<Long> ids = new ArrayList<>();
+        source.forEachRemaining(product -> ids.add(product.getId()));
+
+        // Then
+        assertThat(source.getTotal()).isEqualTo(25);
+        assertThat(ids).hasSize(25).startsWith(1L, 2L).endsWith(24L, 25L);
+        assertThat(requestedSkips).containsExactly(10, 20);
+    }
+
+    @Test
+    void iterator_ShouldStopWhenUpstreamReturnsFewerProductsThanAnnounced() {
+        // Given
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, 10);
+        ExternalProductResponse firstPage = catalog.page(0, 5);
+        firstPage.setTotal(100);
+        PagedProductSource source = new PagedProductSource(firstPage,
+                skip -> CompletableFuture.completedFuture(catalog.page(skip, 5)));
+
+        // When
+        List<Long> ids = new ArrayList<>();
+        source.forEachRemaining(product -> ids.add(product.getId()));
+
+        // Then
+        assertThat(ids).hasSize(10);
+    }
+
+    @Test
+    void iterator_ShouldPropagatePageFetchFailures() {
+        // Given
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, 10);
+        PagedProductSource source = new PagedProductSource(catalog.page(0, 5),
+                skip -> CompletableFuture.failedFuture(new IllegalStateException("upstream down")));
+
+        // When & Then
+        for (int i = 0; i < 5; i++) {
+            source.next();
+        }
+        assertThatThrownBy(source::hasNext)
+                .isInstanceOf(CompletionException.class)
+                .hasRootCauseMessage("upstream down");
+    }
+}
@@ -4,8 +4,11 @@ import com.productapi.dto.external.ExternalDimensions;
 import com.productapi.dto.external.ExternalMeta;
 import com.productapi.dto.external.ExternalProductResponse;
 import com.productapi.dto.external.ExternalReview;
+import com.productapi.dto.response.HighlightResponse;
 import com.productapi.dto.response.ProductResponse;
 import com.productapi.entity.Product;
+import com.productapi.search.index.Highlight;
+import com.productapi.search.index.Highlight.Span;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -14,6 +17,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 class ProductMappingServiceTest {
 
@@ -121,6 +125,45 @@ class ProductMappingServiceTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void mapToHighlight_ShouldCutTheSnippetAtWordsAndOffsetItsMatches() {
+        // Given
+        Product product = createProduct();
+        product.setDescription("The quick brown fox jumps over the lazy dog");
+        Highlight highlight = new Highlight(List.of(new Span(5, 12)), new Span(6, 26), List.of(new Span(10, 15)));
+
+        // When
+        HighlightResponse result = mappingService.mapToHighlight(product, highlight);
+
+        // Then
+        assertThat(result.getTitle()).extracting(HighlightResponse.Range::getStart, HighlightResponse.Range::getEnd)
+                .containsExactly(tuple(5, 12));
+        assertThat(result.getSnippet()).isEqualTo("brown fox jumps");
+        assertThat(result.getSnippetOffset()).isEqualTo(10);
+        assertThat(result.getSnippetMatches())
+                .extracting(HighlightResponse.Range::getStart, HighlightResponse.Range::getEnd)
+                .containsExactly(tuple(0, 5));
+    }
+
+    @Test
+    void mapToHighlight_ShouldKeepTheSnippetInsideTextThatChangedSinceIndexing() {
+        // Given
+        Product product = createProduct();
+        product.setDescription("Short text");
+        Highlight highlight = new Highlight(List.of(new Span(0, 40)), new Span(4, 24),
+                List.of(new Span(6, 10), new Span(30, 35)));
+
+        // When
+        HighlightResponse result = mappingService.mapToHighlight(product, highlight);
+
+        // Then
+        assertThat(result.getTitle()).isEmpty();
+        assertThat(result.getSnippet()).isEqualTo("Short text");
+        assertThat(result.getSnippetMatches())
+                .extracting(HighlightResponse.Range::getStart, HighlightResponse.Range::getEnd)
+                .containsExactly(tuple(6, 10));
+    }
+
     @Test
     void updateEntity_ShouldUpdateExistingEntity() {
         // Given
@@ -1,11 +1,22 @@
 package com.productapi.service;
 
+import com.productapi.dto.response.FacetsResponse;
+import com.productapi.dto.response.HighlightResponse;
+import com.productapi.dto.response.HistogramResponse;
 import com.productapi.dto.response.PagedResponse;
+import com.productapi.dto.response.ProductLookupResult;
 import com.productapi.dto.response.ProductResponse;
 import com.productapi.entity.Product;
 import com.productapi.exception.ProductNotFoundException;
+import com.productapi.metrics.ProductMetrics;
+import com.productapi.repository.HighlightedPage;
 import com.productapi.repository.ProductRepository;
 import com.productapi.repository.ProductSearchRepository;
+import com.productapi.search.ProductSearchIndex;
+import com.productapi.search.ProductSearchIndex.Histogram;
+import com.productapi.search.index.Highlight;
+import com.productapi.search.index.IndexField;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,15 +26,29 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,11 +63,18 @@ class ProductServiceTest {
     @Mock
     private ProductMappingService mappingService;
 
+    @Mock
+    private FacetCache facetCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private ProductService productService;
 
     @BeforeEach
     void setUp() {
-        productService = new ProductService(productRepository, productSearchRepository, mappingService);
+        productService = new ProductService(productRepository, productSearchRepository, mappingService,
+                new ProductMetrics(new SimpleMeterRegistry()), facetCache, transactionManager, true);
     }
 
     @Test
@@ -155,6 +187,137 @@ class ProductServiceTest {
         assertThat(result.getContent()).hasSize(1);
     }
 
+    @Test
+    void searchProductsAnalyzed_ShouldReturnRankedResults() {
+        // Given
+        String searchText = "Phones";
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, ProductSearchIndex.RELEVANCE));
+        List<Product> products = List.of(createProduct());
+        Page<Product> productPage = new PageImpl<>(products, pageable, 1);
+
+        when(productSearchRepository.searchProductsAnalyzed(searchText, pageable)).thenReturn(productPage);
+        when(mappingService.mapToResponseList(products)).thenReturn(List.of(createProductResponse()));
+
+        // When
+        PagedResponse<ProductResponse> result = productService.searchProductsAnalyzed(searchText, pageable);
+
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        verify(productSearchRepository, never()).searchProducts(anyString(), any());
+    }
+
+    @Test
+    void searchProductsAnalyzed_ShouldAttachHighlights() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, ProductSearchIndex.RELEVANCE));
+        Product product = createProduct();
+        Highlight highlight = new Highlight(List.of(new Highlight.Span(0, 4)), new Highlight.Span(0, 160), List.of());
+        HighlightResponse highlightResponse = new HighlightResponse(List.of(), "Test Description", 0, List.of());
+
+        when(productSearchRepository.searchProductsAnalyzed("test", pageable))
+                .thenReturn(new HighlightedPage(List.of(product), pageable, 1, Map.of(1L, highlight)));
+        when(mappingService.mapToResponseList(List.of(product))).thenReturn(List.of(createProductResponse()));
+        when(mappingService.mapToHighlight(product, highlight)).thenReturn(highlightResponse);
+
+        // When
+        PagedResponse<ProductResponse> result = productService.searchProductsAnalyzed("test", pageable);
+
+        // Then
+        assertThat(result.getContent()).singleElement()
+                .satisfies(response -> assertThat(response.getHighlight()).isSameAs(highlightResponse));
+    }
+
+    @Test
+    void searchProductsAnalyzed_ShouldNotCoalesceQueriesDifferingInOperatorCase() throws Exception {
+        // Given each search waits until both have reached the repository
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, ProductSearchIndex.RELEVANCE));
+        CountDownLatch bothSearching = new CountDownLatch(2);
+        when(productSearchRepository.searchProductsAnalyzed(anyString(), any())).thenAnswer(invocation -> {
+            bothSearching.countDown();
+            bothSearching.await(5, TimeUnit.SECONDS);
+            return Page.empty(pageable);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        try {
+            Future<PagedResponse<ProductResponse>> operator =
+                    executor.submit(() -> productService.searchProductsAnalyzed("phone OR case", pageable));
+            Future<PagedResponse<ProductResponse>> stopword =
+                    executor.submit(() -> productService.searchProductsAnalyzed("phone or case", pageable));
+            operator.get(10, TimeUnit.SECONDS);
+            stopword.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(bothSearching.getCount()).isZero();
+        verify(productSearchRepository).searchProductsAnalyzed("phone OR case", pageable);
+        verify(productSearchRepository).searchProductsAnalyzed("phone or case", pageable);
+    }
+
+    @Test
+    void searchProductsAnalyzed_ShouldListAllProductsWithoutRelevanceSort_WhenSearchTextIsEmpty() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, ProductSearchIndex.RELEVANCE));
+        Pageable unsorted = PageRequest.of(0, 10);
+        List<Product> products = List.of(createProduct());
+
+        when(productRepository.findAll(unsorted)).thenReturn(new PageImpl<>(products, unsorted, 1));
+        when(mappingService.mapToResponseList(products)).thenReturn(List.of(createProductResponse()));
+
+        // When
+        PagedResponse<ProductResponse> result = productService.searchProductsAnalyzed(" ", pageable);
+
+        // Then
+        assertThat(result.getContent()).hasSize(1);
+        verifyNoInteractions(productSearchRepository);
+    }
+
+    @Test
+    void getSearchHistogram_ShouldMapIndexBuckets() {
+        // Given
+        when(productSearchRepository.histogram("laptop", IndexField.PRICE, 500))
+                .thenReturn(new Histogram(List.of(new Histogram.Bucket(500, 1000, 3)), 1));
+
+        // When
+        HistogramResponse result = productService.getSearchHistogram(" laptop ", "Price", 500);
+
+        // Then
+        assertThat(result.getField()).isEqualTo("price");
+        assertThat(result.getBuckets()).singleElement()
+                .satisfies(bucket -> assertThat(bucket.getCount()).isEqualTo(3));
+        assertThat(result.getMissing()).isEqualTo(1);
+    }
+
+    @Test
+    void getSearchHistogram_ShouldRejectNonNumericFields() {
+        assertThatThrownBy(() -> productService.getSearchHistogram("laptop", "brand", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("brand");
+        verifyNoInteractions(productSearchRepository);
+    }
+
+    @Test
+    void suggestSearchQuery_ShouldAskTheRepositoryWithTrimmedText() {
+        // Given
+        when(productSearchRepository.suggestQuery("wireles mouse")).thenReturn(Optional.of("wireless mouse"));
+
+        // When
+        Optional<String> suggestion = productService.suggestSearchQuery(" wireles mouse ");
+
+        // Then
+        assertThat(suggestion).contains("wireless mouse");
+    }
+
+    @Test
+    void suggestSearchQuery_ShouldSuggestNothingForBlankText() {
+        assertThat(productService.suggestSearchQuery("  ")).isEmpty();
+        verifyNoInteractions(productSearchRepository);
+    }
+
     @Test
     void searchProductsFuzzy_ShouldReturnPagedResults() {
         // Given
@@ -247,17 +410,39 @@ class ProductServiceTest {
     }
 
     @Test
-    void getDistinctCategories_ShouldReturnCategories() {
+    void getDistinctCategories_ShouldServeCategoriesFromFacetCache() {
         // Given
-        List<String> expectedCategories = List.of("beauty", "fragrances", "furniture");
-        when(productRepository.findDistinctCategories()).thenReturn(expectedCategories);
+        when(facetCache.getCategories()).thenReturn(FacetCache.Facet.of(List.of(
+                new Object[]{"furniture", 2L}, new Object[]{"beauty", 5L}, new Object[]{"fragrances", 1L})));
 
         // When
         List<String> result = productService.getDistinctCategories();
 
         // Then
-        assertThat(result).hasSize(3);
         assertThat(result).containsExactly("beauty", "fragrances", "furniture");
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getFacets_ShouldReturnValuesWithCounts() {
+        // Given
+        when(facetCache.getCategories()).thenReturn(FacetCache.Facet.of(List.of(
+                new Object[]{"beauty", 5L}, new Object[]{"furniture", 2L})));
+        when(facetCache.getBrands()).thenReturn(FacetCache.Facet.of(List.<Object[]>of(
+                new Object[]{"Essence", 3L})));
+        when(facetCache.getAvailabilityStatuses()).thenReturn(FacetCache.Facet.of(List.of()));
+
+        // When
+        FacetsResponse result = productService.getFacets();
+
+        // Then
+        assertThat(result.getCategories())
+                .extracting(FacetsResponse.FacetValue::getValue, FacetsResponse.FacetValue::getCount)
+                .containsExactly(tuple("beauty", 5L), tuple("furniture", 2L));
+        assertThat(result.getBrands()).singleElement()
+                .satisfies(brand -> assertThat(brand.getCount()).isEqualTo(3L));
+        assertThat(result.getAvailabilityStatuses()).isEmpty();
+        verifyNoInteractions(productRepository);
     }
 
     @Test
@@ -299,6 +484,49 @@ class ProductServiceTest {
         assertThat(result).isEqualTo(expectedCount);
     }
 
+    @Test
+    void findByKeys_ShouldReturnResultsInRequestOrderWithNotFoundMarkers() {
+        // Given
+        Product product = createProduct();
+        ProductResponse expectedResponse = createProductResponse();
+
+        when(productRepository.findAllById(List.of(999L, 1L))).thenReturn(List.of(product));
+        when(productRepository.findBySkuIn(List.of("TEST-001"))).thenReturn(List.of(product));
+        when(mappingService.mapToResponse(product)).thenReturn(expectedResponse);
+
+        // When
+        List<ProductLookupResult> results = productService.findByKeys(
+                List.of(999L, 1L, 1L), List.of("TEST-001"), null);
+
+        // Then
+        assertThat(results).hasSize(4);
+        assertThat(results).extracting(ProductLookupResult::getKey).containsExactly("999", "1", "1", "TEST-001");
+        assertThat(results).extracting(ProductLookupResult::isFound).containsExactly(false, true, true, true);
+        assertThat(results.get(0).getProduct()).isNull();
+        assertThat(results.get(3).getKeyType()).isEqualTo(ProductLookupResult.KeyType.SKU);
+        verify(mappingService, times(1)).mapToResponse(product);
+        verify(productRepository, never()).findByExternalIdIn(anyList());
+    }
+
+    @Test
+    void findByKeys_ShouldRejectTooManyKeys() {
+        // Given
+        List<Long> ids = java.util.stream.LongStream.rangeClosed(1, ProductService.MAX_BATCH_KEYS + 1)
+                .boxed().toList();
+
+        // When & Then
+        assertThatThrownBy(() -> productService.findByKeys(ids, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at most " + ProductService.MAX_BATCH_KEYS);
+    }
+
+    @Test
+    void findByKeys_ShouldRejectEmptyRequest() {
+        // When & Then
+        assertThatThrownBy(() -> productService.findByKeys(List.of(), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     private Product createProduct() {
         Product product = new Product();
         product.setId(1L);
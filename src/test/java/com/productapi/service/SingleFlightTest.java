@@ -0,0 +1,147 @@
+package com.productapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_ShouldRunIdenticalConcurrentWorkOnceAndShareTheResult() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> flight.execute("mascara", () -> {
+                runs.incrementAndGet();
+                await(release);
+                return "page";
+            })));
+        }
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("page");
+        }
+        assertThat(runs).hasValue(1);
+        assertThat(flight.getExecutions()).isEqualTo(1);
+        assertThat(flight.getCoalesced()).isEqualTo(CALLERS - 1);
+        assertThat(flight.getCoalescingRatio()).isEqualTo((double) (CALLERS - 1) / CALLERS);
+        assertThat(flight.getInFlight()).isZero();
+    }
+
+    @Test
+    void execute_ShouldPropagateTheLeadersExceptionToEveryCaller() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        Future<String> leader = executor.submit(() -> flight.execute("mascara", () -> {
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        awaitInFlight();
+        Future<String> follower = executor.submit(() -> flight.execute("mascara", () -> "unused"));
+        awaitCoalesced(1);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : List.of(leader, follower)) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("database down");
+        }
+        assertThat(flight.getInFlight()).isZero();
+    }
+
+    @Test
+    void execute_ShouldNotCoalesceDistinctKeys() throws Exception {
+        // Given
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        // When
+        Future<String> first = executor.submit(() -> flight.execute("mascara", () -> {
+            bothStarted.countDown();
+            await(bothStarted);
+            return "mascara page";
+        }));
+        Future<String> second = executor.submit(() -> flight.execute("leather", () -> {
+            bothStarted.countDown();
+            await(bothStarted);
+            return "leather page";
+        }));
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("mascara page");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("leather page");
+        assertThat(flight.getExecutions()).isEqualTo(2);
+        assertThat(flight.getCoalesced()).isZero();
+    }
+
+    @Test
+    void execute_ShouldRunAgainOnceThePreviousExecutionCompleted() {
+        // Given
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        String first = flight.execute("mascara", () -> "page " + runs.incrementAndGet());
+        String second = flight.execute("mascara", () -> "page " + runs.incrementAndGet());
+
+        // Then
+        assertThat(first).isEqualTo("page 1");
+        assertThat(second).isEqualTo("page 2");
+        assertThat(flight.getCoalescingRatio()).isZero();
+        assertThat(flight.getInFlight()).isZero();
+    }
+
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getCoalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(flight.getCoalesced()).isEqualTo(expected);
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getInFlight() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(flight.getInFlight()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
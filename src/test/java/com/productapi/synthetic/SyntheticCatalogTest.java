@@ -0,0 +1,84 @@
+package com.productapi.synthetic;
+
+import com.productapi.dto.external.ExternalProductResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticCatalogTest {
+
+    @Test
+    void product_ShouldBeDeterministicForSeedAndId() {
+        // Given
+        SyntheticCatalog catalog = new SyntheticCatalog(7L, 1_000);
+        SyntheticCatalog sameSeed = new SyntheticCatalog(7L, 50);
+        SyntheticCatalog otherSeed = new SyntheticCatalog(8L, 1_000);
+
+        // When
+        ExternalProductResponse.ExternalProduct product = catalog.product(42);
+
+        // Then
+        assertThat(sameSeed.product(42)).usingRecursiveComparison().isEqualTo(product);
+        assertThat(otherSeed.product(42).getTitle() + otherSeed.product(42).getPrice())
+                .isNotEqualTo(product.getTitle() + product.getPrice());
+    }
+
+    @Test
+    void product_ShouldLookLikeAnUpstreamProduct() {
+        // Given
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, 100);
+
+        // When
+        ExternalProductResponse.ExternalProduct product = catalog.product(1);
+
+        // Then
+        assertThat(product.getId()).isEqualTo(1L);
+        assertThat(product.getTitle()).isNotBlank();
+        assertThat(product.getDescription()).contains(product.getTitle());
+        assertThat(product.getSku()).hasSizeLessThanOrEqualTo(50).endsWith("0000001");
+        assertThat(product.getPrice()).isPositive();
+        assertThat(product.getImages()).isNotEmpty();
+        assertThat(product.getMeta().getCreatedAt()).isNotNull();
+        assertThat(product.getTags()).contains(product.getCategory());
+    }
+
+    @Test
+    void page_ShouldFollowLimitAndSkipContract() {
+        // Given
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, 25);
+
+        // When
+        ExternalProductResponse middle = catalog.page(10, 10);
+        ExternalProductResponse tail = catalog.page(20, 10);
+        ExternalProductResponse all = catalog.page(0, 0);
+        ExternalProductResponse beyond = catalog.page(100, 10);
+
+        // Then
+        assertThat(middle.getProducts()).extracting(ExternalProductResponse.ExternalProduct::getId)
+                .containsExactly(11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L);
+        assertThat(tail.getProducts()).hasSize(5);
+        assertThat(all.getProducts()).hasSize(25);
+        assertThat(all.getTotal()).isEqualTo(25);
+        assertThat(beyond.getProducts()).isEmpty();
+    }
+
+    @Test
+    void catalog_ShouldSkewCategoriesTowardsPopularOnes() {
+        // Given
+        SyntheticCatalog catalog = new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, 5_000);
+
+        // When
+        Map<String, Long> perCategory = catalog.page(0, 0).getProducts().stream()
+                .collect(Collectors.groupingBy(ExternalProductResponse.ExternalProduct::getCategory, Collectors.counting()));
+
+        // Then
+        assertThat(perCategory.get("beauty")).isGreaterThan(perCategory.get("home-decoration") * 3);
+        assertThat(catalog.page(0, 0).getProducts().stream()
+                .collect(Collectors.toMap(ExternalProductResponse.ExternalProduct::getSku, Function.identity())))
+                .hasSize(5_000);
+    }
+}
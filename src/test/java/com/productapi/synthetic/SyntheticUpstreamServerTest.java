@@ -0,0 +1,76 @@
+package com.productapi.synthetic;
+
+import com.productapi.dto.external.ExternalProductResponse;
+import com.productapi.exception.ExternalApiException;
+import com.productapi.service.ExternalApiService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyntheticUpstreamServerTest {
+
+    private SyntheticUpstreamServer server;
+    private ExternalApiService externalApiService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new SyntheticUpstreamServer(new SyntheticCatalog(SyntheticCatalog.DEFAULT_SEED, 120), 0, 2);
+        server.start();
+        externalApiService = new ExternalApiService(
+                WebClient.builder(),
+                server.getBaseUrl(),
+                "/products?limit=0",
+                "/products/{id}",
+                "/products?limit={limit}&skip={skip}",
+                5000L,
+                10000L
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void getProductsPage_ShouldServeRequestedSlice() {
+        // When
+        ExternalProductResponse page = externalApiService.getProductsPage(100, 50).join();
+
+        // Then
+        assertThat(page.getTotal()).isEqualTo(120);
+        assertThat(page.getSkip()).isEqualTo(100);
+        assertThat(page.getProducts()).hasSize(20);
+        assertThat(page.getProducts().get(0).getId()).isEqualTo(101L);
+        assertThat(page.getProducts().get(0))
+                .usingRecursiveComparison()
+                .isEqualTo(server.getCatalog().product(101));
+    }
+
+    @Test
+    void getAllProducts_ShouldServeWholeCatalogForLimitZero() {
+        // When
+        ExternalProductResponse all = externalApiService.getAllProducts().join();
+
+        // Then
+        assertThat(all.getProducts()).hasSize(120);
+    }
+
+    @Test
+    void getProductById_ShouldServeSingleProductOrNotFound() {
+        // When
+        ExternalProductResponse.ExternalProduct product = externalApiService.getProductById(7L).join();
+
+        // Then
+        assertThat(product.getTitle()).isEqualTo(server.getCatalog().product(7).getTitle());
+        assertThatThrownBy(() -> externalApiService.getProductById(500L).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ExternalApiException.class);
+    }
+}
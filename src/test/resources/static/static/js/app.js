@@ -0,0 +1,61 @@
+// Fixture for ResponseCompressionIntegrationTest: a plain asset with a pre-compressed sibling
+export const product0 = { id: 0, title: 'Synthetic product 0', category: 'beauty' };
+export const product1 = { id: 1, title: 'Synthetic product 1', category: 'beauty' };
+export const product2 = { id: 2, title: 'Synthetic product 2', category: 'beauty' };
+export const product3 = { id: 3, title: 'Synthetic product 3', category: 'beauty' };
+export const product4 = { id: 4, title: 'Synthetic product 4', category: 'beauty' };
+export const product5 = { id: 5, title: 'Synthetic product 5', category: 'beauty' };
+export const product6 = { id: 6, title: 'Synthetic product 6', category: 'beauty' };
+export const product7 = { id: 7, title: 'Synthetic product 7', category: 'beauty' };
+export const product8 = { id: 8, title: 'Synthetic product 8', category: 'beauty' };
+export const product9 = { id: 9, title: 'Synthetic product 9', category: 'beauty' };
+export const product10 = { id: 10, title: 'Synthetic product 10', category: 'beauty' };
+export const product11 = { id: 11, title: 'Synthetic product 11', category: 'beauty' };
+export const product12 = { id: 12, title: 'Synthetic product 12', category: 'beauty' };
+export const product13 = { id: 13, title: 'Synthetic product 13', category: 'beauty' };
+export const product14 = { id: 14, title: 'Synthetic product 14', category: 'beauty' };
+export const product15 = { id: 15, title: 'Synthetic product 15', category: 'beauty' };
+export const product16 = { id: 16, title: 'Synthetic product 16', category: 'beauty' };
+export const product17 = { id: 17, title: 'Synthetic product 17', category: 'beauty' };
+export const product18 = { id: 18, title: 'Synthetic product 18', category: 'beauty' };
+export const product19 = { id: 19, title: 'Synthetic product 19', category: 'beauty' };
+export const product20 = { id: 20, title: 'Synthetic product 20', category: 'beauty' };
+export const product21 = { id: 21, title: 'Synthetic product 21', category: 'beauty' };
+export const product22 = { id: 22, title: 'Synthetic product 22', category: 'beauty' };
+export const product23 = { id: 23, title: 'Synthetic product 23', category: 'beauty' };
+export const product24 = { id: 24, title: 'Synthetic product 24', category: 'beauty' };
+export const product25 = { id: 25, title: 'Synthetic product 25', category: 'beauty' };
+export const product26 = { id: 26, title: 'Synthetic product 26', category: 'beauty' };
+export const product27 = { id: 27, title: 'Synthetic product 27', category: 'beauty' };
+export const product28 = { id: 28, title: 'Synthetic product 28', category: 'beauty' };
+export const product29 = { id: 29, title: 'Synthetic product 29', category: 'beauty' };
+export const product30 = { id: 30, title: 'Synthetic product 30', category: 'beauty' };
+export const product31 = { id: 31, title: 'Synthetic product 31', category: 'beauty' };
+export const product32 = { id: 32, title: 'Synthetic product 32', category: 'beauty' };
+export const product33 = { id: 33, title: 'Synthetic product 33', category: 'beauty' };
+export const product34 = { id: 34, title: 'Synthetic product 34', category: 'beauty' };
+export const product35 = { id: 35, title: 'Synthetic product 35', category: 'beauty' };
+export const product36 = { id: 36, title: 'Synthetic product 36', category: 'beauty' };
+export const product37 = { id: 37, title: 'Synthetic product 37', category: 'beauty' };
+export const product38 = { id: 38, title: 'Synthetic product 38', category: 'beauty' };
+export const product39 = { id: 39, title: 'Synthetic product 39', category: 'beauty' };
+export const product40 = { id: 40, title: 'Synthetic product 40', category: 'beauty' };
+export const product41 = { id: 41, title: 'Synthetic product 41', category: 'beauty' };
+export const product42 = { id: 42, title: 'Synthetic product 42', category: 'beauty' };
+export const product43 = { id: 43, title: 'Synthetic product 43', category: 'beauty' };
+export const product44 = { id: 44, title: 'Synthetic product 44', category: 'beauty' };
+export const product45 = { id: 45, title: 'Synthetic product 45', category: 'beauty' };
+export const product46 = { id: 46, title: 'Synthetic product 46', category: 'beauty' };
+export const product47 = { id: 47, title: 'Synthetic product 47', category: 'beauty' };
+export const product48 = { id: 48, title: 'Synthetic product 48', category: 'beauty' };
+export const product49 = { id: 49, title: 'Synthetic product 49', category: 'beauty' };
+export const product50 = { id: 50, title: 'Synthetic product 50', category: 'beauty' };
+export const product51 = { id: 51, title: 'Synthetic product 51', category: 'beauty' };
+export const product52 = { id: 52, title: 'Synthetic product 52', category: 'beauty' };
+export const product53 = { id: 53, title: 'Synthetic product 53', category: 'beauty' };
+export const product54 = { id: 54, title: 'Synthetic product 54', category: 'beauty' };
+export const product55 = { id: 55, title: 'Synthetic product 55', category: 'beauty' };
+export const product56 = { id: 56, title: 'Synthetic product 56', category: 'beauty' };
+export const product57 = { id: 57, title: 'Synthetic product 57', category: 'beauty' };
+export const product58 = { id: 58, title: 'Synthetic product 58', category: 'beauty' };
+export const product59 = { id: 59, title: 'Synthetic product 59', category: 'beauty' };